@@ -3,9 +3,27 @@ package com.revconnect;
 import com.revconnect.presentation.ConsoleUI;
 import com.revconnect.config.DatabaseConfig;
 import com.revconnect.config.Log4jConfig;
+import com.revconnect.events.PostEvents;
+import com.revconnect.feed.CategoryFeedCache;
+import com.revconnect.feed.FeedSnapshotCache;
+import com.revconnect.feed.HashtagFeedCache;
+import com.revconnect.feed.ItemSimilarityJob;
+import com.revconnect.feed.PersonalizedFeedEngine;
+import com.revconnect.feed.PostBodyStore;
+import com.revconnect.feed.PostCache;
+import com.revconnect.feed.PostMetadataStore;
+import com.revconnect.feed.TrendingHashtagEngine;
+import com.revconnect.feed.TrendingPostEngine;
+import com.revconnect.search.PostSearchIndex;
+import com.revconnect.search.SearchEngines;
+import com.revconnect.search.UserPrefixIndex;
+import com.revconnect.services.NotificationRetentionService;
+import com.revconnect.utils.BackgroundTasks;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
+import java.util.concurrent.TimeUnit;
+
 public class Main {
     private static final Logger logger = LogManager.getLogger(Main.class);
 
@@ -14,6 +32,7 @@ public class Main {
             // Initialize configurations
             Log4jConfig.init();
             DatabaseConfig.initializeDatabase();
+            startBackgroundServices();
 
             logger.info("Starting RevConnect Application...");
             System.out.println("╔══════════════════════════════════════╗");
@@ -30,4 +49,65 @@ public class Main {
             System.err.println("Application failed to start. Please check logs for details.");
         }
     }
+
+    // Maintenance jobs that run alongside the console session
+    private static void startBackgroundServices() {
+        new NotificationRetentionService().start();
+
+        PostEvents.register(PostCache.getInstance());
+        BackgroundTasks.scheduleAtFixedRate("post-body-store-stats", PostBodyStore.getInstance()::logStats,
+                PostBodyStore.STATS_MINUTES, PostBodyStore.STATS_MINUTES, TimeUnit.MINUTES);
+        PostEvents.register(HashtagFeedCache.getInstance());
+
+        TrendingHashtagEngine trendingHashtags = TrendingHashtagEngine.getInstance();
+        PostEvents.register(trendingHashtags);
+        BackgroundTasks.submit("trending-hashtags-load", trendingHashtags::loadFromDatabase);
+        BackgroundTasks.scheduleAtFixedRate("trending-hashtags-refresh", trendingHashtags::refresh,
+                TrendingHashtagEngine.REFRESH_SECONDS, TrendingHashtagEngine.REFRESH_SECONDS, TimeUnit.SECONDS);
+
+        TrendingPostEngine trendingPosts = TrendingPostEngine.getInstance();
+        PostEvents.register(trendingPosts);
+
+        // Trending scores are seeded from the metadata store once it has loaded
+        PostMetadataStore postMetadata = PostMetadataStore.getInstance();
+        PostEvents.register(postMetadata);
+        BackgroundTasks.submit("post-metadata-load", () -> {
+            postMetadata.loadFromDatabase();
+            if (postMetadata.isReady()) {
+                trendingPosts.loadFrom(postMetadata);
+            }
+        });
+        BackgroundTasks.scheduleAtFixedRate("post-metadata-trim", postMetadata::trim,
+                PostMetadataStore.TRIM_MINUTES, PostMetadataStore.TRIM_MINUTES, TimeUnit.MINUTES);
+        BackgroundTasks.scheduleAtFixedRate("trending-posts-maintenance", trendingPosts::maintain,
+                TrendingPostEngine.MAINTENANCE_MINUTES, TrendingPostEngine.MAINTENANCE_MINUTES, TimeUnit.MINUTES);
+
+        FeedSnapshotCache feedSnapshots = FeedSnapshotCache.getInstance();
+        PostEvents.register(feedSnapshots);
+        BackgroundTasks.scheduleAtFixedRate("feed-snapshot-refresh", feedSnapshots::refresh,
+                FeedSnapshotCache.REFRESH_SECONDS, FeedSnapshotCache.REFRESH_SECONDS, TimeUnit.SECONDS);
+
+        CategoryFeedCache categoryFeeds = CategoryFeedCache.getInstance();
+        PostEvents.register(categoryFeeds);
+        BackgroundTasks.scheduleAtFixedRate("category-likes-flush", categoryFeeds::flush,
+                CategoryFeedCache.FLUSH_SECONDS, CategoryFeedCache.FLUSH_SECONDS, TimeUnit.SECONDS);
+        BackgroundTasks.scheduleAtFixedRate("category-feeds-refresh", categoryFeeds::refresh,
+                CategoryFeedCache.REFRESH_SECONDS, CategoryFeedCache.REFRESH_SECONDS, TimeUnit.SECONDS);
+        // Write out like counts still buffered when the console exits
+        Runtime.getRuntime().addShutdownHook(new Thread(categoryFeeds::flush, "category-likes-flush"));
+
+        BackgroundTasks.scheduleAtFixedRate("personalized-feed-stats", PersonalizedFeedEngine.getInstance()::logStats,
+                PersonalizedFeedEngine.STATS_MINUTES, PersonalizedFeedEngine.STATS_MINUTES, TimeUnit.MINUTES);
+
+        // Runs for minutes on large likes tables, so it gets its own thread
+        BackgroundTasks.scheduleOnOwnThread("item-similarity", new ItemSimilarityJob()::run,
+                10, TimeUnit.HOURS.toMinutes(ItemSimilarityJob.RUN_INTERVAL_HOURS), TimeUnit.MINUTES);
+
+        if (SearchEngines.usesInMemoryIndexes()) {
+            PostSearchIndex searchIndex = PostSearchIndex.getInstance();
+            PostEvents.register(searchIndex);
+            BackgroundTasks.submit("post-search-rebuild", searchIndex::rebuildFromDatabase);
+            BackgroundTasks.submit("user-index-rebuild", UserPrefixIndex.getInstance()::rebuildFromDatabase);
+        }
+    }
 }
\ No newline at end of file
@@ -11,7 +11,7 @@ import org.apache.logging.log4j.Logger;
 
 public class DatabaseConfig {
     private static final Logger logger = LogManager.getLogger(DatabaseConfig.class);
-    private static Connection connection;
+    private static final ThreadLocal<Connection> connections = new ThreadLocal<>();
     private static Properties properties = new Properties();
 
     static {
@@ -34,7 +34,14 @@ public class DatabaseConfig {
         }
     }
 
+    // Setting from database.properties; a -D system property of the same name takes precedence
+    public static String getProperty(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    // Connections are thread-confined so background tasks never share one with the console thread
     public static Connection getConnection() throws SQLException {
+        Connection connection = connections.get();
         if (connection == null || connection.isClosed()) {
             try {
                 Class.forName("com.mysql.cj.jdbc.Driver");
@@ -43,6 +50,7 @@ public class DatabaseConfig {
                         properties.getProperty("db.username"),
                         properties.getProperty("db.password")
                 );
+                connections.set(connection);
                 logger.info("Database connection established");
             } catch (ClassNotFoundException e) {
                 logger.error("MySQL Driver not found: " + e.getMessage());
@@ -53,6 +61,7 @@ public class DatabaseConfig {
     }
 
     public static void closeConnection() {
+        Connection connection = connections.get();
         if (connection != null) {
             try {
                 connection.close();
@@ -60,6 +69,7 @@ public class DatabaseConfig {
             } catch (SQLException e) {
                 logger.error("Error closing connection: " + e.getMessage());
             }
+            connections.remove();
         }
     }
 
@@ -160,13 +170,54 @@ public class DatabaseConfig {
                         "user_id INT NOT NULL, " +
                         "sender_id INT, " +
                         "type ENUM('CONNECTION_REQUEST', 'CONNECTION_ACCEPTED', 'NEW_POST', 'NEW_COMMENT', 'NEW_LIKE', 'NEW_FOLLOW', 'MENTION') NOT NULL, " +
-                        "content TEXT NOT NULL, " +
+                        "template_id TINYINT UNSIGNED NOT NULL DEFAULT 0, " +
+                        "params VARCHAR(255), " +
+                        "content TEXT, " +
                         "reference_id INT, " +
                         "reference_type VARCHAR(50), " +
                         "is_read BOOLEAN DEFAULT FALSE, " +
                         "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "INDEX idx_notifications_user_created (user_id, created_at), " +
+                        "INDEX idx_notifications_type_created (type, created_at), " +
                         "FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE, " +
                         "FOREIGN KEY (sender_id) REFERENCES users(user_id) ON DELETE SET NULL" +
+                        ")",
+
+                // Mentions table (comment_id is NULL for mentions in the post itself)
+                "CREATE TABLE IF NOT EXISTS mentions (" +
+                        "mention_id INT PRIMARY KEY AUTO_INCREMENT, " +
+                        "mentioned_user_id INT NOT NULL, " +
+                        "author_id INT NOT NULL, " +
+                        "post_id INT NOT NULL, " +
+                        "comment_id INT, " +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "INDEX idx_mentions_user_created (mentioned_user_id, created_at), " +
+                        "FOREIGN KEY (mentioned_user_id) REFERENCES users(user_id) ON DELETE CASCADE, " +
+                        "FOREIGN KEY (author_id) REFERENCES users(user_id) ON DELETE CASCADE, " +
+                        "FOREIGN KEY (post_id) REFERENCES posts(post_id) ON DELETE CASCADE, " +
+                        "FOREIGN KEY (comment_id) REFERENCES comments(comment_id) ON DELETE CASCADE" +
+                        ")",
+
+                // Post similarities: nearest neighbours per post from the item similarity job.
+                // No foreign keys, because the job replaces the whole table by renaming a fresh copy in.
+                "CREATE TABLE IF NOT EXISTS post_similarities (" +
+                        "post_id INT NOT NULL, " +
+                        "neighbor_rank TINYINT UNSIGNED NOT NULL, " +
+                        "similar_post_id INT NOT NULL, " +
+                        "score FLOAT NOT NULL, " +
+                        "PRIMARY KEY (post_id, neighbor_rank)" +
+                        ")",
+
+                // Saved posts: clustered by (user_id, saved_at, post_id) so a user's bookmarks are
+                // one contiguous range read newest first; the unique key serves saved-state checks
+                "CREATE TABLE IF NOT EXISTS saved_posts (" +
+                        "user_id INT NOT NULL, " +
+                        "saved_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                        "post_id INT NOT NULL, " +
+                        "PRIMARY KEY (user_id, saved_at, post_id), " +
+                        "UNIQUE KEY uk_saved_posts_user_post (user_id, post_id), " +
+                        "FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE, " +
+                        "FOREIGN KEY (post_id) REFERENCES posts(post_id) ON DELETE CASCADE" +
                         ")"
         };
 
@@ -178,6 +229,8 @@ public class DatabaseConfig {
             }
             logger.info("Database tables created/verified successfully");
 
+            DatabaseMigrations.run(conn);
+
         } catch (SQLException e) {
             logger.error("Error initializing database: " + e.getMessage());
             throw new RuntimeException("Failed to initialize database", e);
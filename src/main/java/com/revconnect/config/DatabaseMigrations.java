@@ -0,0 +1,338 @@
+package com.revconnect.config;
+
+import com.revconnect.dao.CategoryDAO;
+import com.revconnect.models.NotificationTemplate;
+import com.revconnect.utils.ContentParser;
+import com.revconnect.utils.NotificationFormatter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Upgrades tables created by older versions of initializeDatabase()
+public class DatabaseMigrations {
+    private static final Logger logger = LogManager.getLogger(DatabaseMigrations.class);
+
+    private static final int NOTIFICATION_CHUNK_SIZE = 5000;
+    private static final int POST_CHUNK_SIZE = 1000;
+    // One-off data migrations recorded in schema_migrations once they have completed
+    private static final String NOTIFICATION_TEMPLATES = "notification_templates";
+    private static final String POST_HASHTAGS = "post_hashtags";
+    private static final String POST_CATEGORIES = "post_categories";
+
+    public static void run(Connection conn) throws SQLException {
+        createSchemaMigrations(conn);
+        migrateNotificationTemplates(conn);
+        addNotificationRetentionIndexes(conn);
+        addFullTextIndexes(conn);
+        createPostHashtags(conn);
+        createPostCategories(conn);
+        addRecommendationIndexes(conn);
+        addCommentThreadIndexes(conn);
+    }
+
+    // Names of the one-off data migrations that have completed, so they are not retried on
+    // every startup
+    private static void createSchemaMigrations(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                    "name VARCHAR(100) PRIMARY KEY, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+    }
+
+    // Post hashtags: created here rather than in initializeDatabase() so that existing posts
+    // are parsed once. The backfill is only recorded as done after its last chunk, so a run
+    // that fails part way is repeated (INSERT IGNORE skips the rows already written).
+    private static void createPostHashtags(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS post_hashtags (" +
+                    "hashtag VARCHAR(" + ContentParser.MAX_HASHTAG_LENGTH + ") NOT NULL, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "post_id INT NOT NULL, " +
+                    "PRIMARY KEY (hashtag, created_at, post_id), " +
+                    "INDEX idx_post_hashtags_post (post_id), " +
+                    "INDEX idx_post_hashtags_created (created_at), " +
+                    "FOREIGN KEY (post_id) REFERENCES posts(post_id) ON DELETE CASCADE" +
+                    ")");
+        }
+        addIndexIfMissing(conn, "post_hashtags", "idx_post_hashtags_created", "(created_at)");
+        if (isApplied(conn, POST_HASHTAGS)) {
+            return;
+        }
+
+        String selectSql = "SELECT post_id, content FROM posts " +
+                "WHERE post_id > ? AND visibility = 'PUBLIC' AND content LIKE '%#%' ORDER BY post_id LIMIT ?";
+        String insertSql = "INSERT IGNORE INTO post_hashtags (hashtag, created_at, post_id) " +
+                "SELECT ?, created_at, post_id FROM posts WHERE post_id = ?";
+
+        int indexed = 0;
+        int afterId = 0;
+        int rows;
+        try (PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            do {
+                select.setInt(1, afterId);
+                select.setInt(2, POST_CHUNK_SIZE);
+                rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        afterId = rs.getInt("post_id");
+                        List<String> hashtags = ContentParser.extractHashtags(rs.getString("content"));
+                        for (String hashtag : hashtags) {
+                            insert.setString(1, hashtag);
+                            insert.setInt(2, afterId);
+                            insert.addBatch();
+                            indexed++;
+                        }
+                    }
+                }
+                insert.executeBatch();
+            } while (rows == POST_CHUNK_SIZE);
+        }
+        markApplied(conn, POST_HASHTAGS);
+        logger.info("Filled post_hashtags with " + indexed + " hashtags from existing posts");
+    }
+
+    // Categories and the post_categories projection behind category feeds, filled from the
+    // existing users and public posts; recorded as done only once both backfills complete
+    private static void createPostCategories(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS categories (" +
+                    "category_id INT PRIMARY KEY AUTO_INCREMENT, " +
+                    "name VARCHAR(50) NOT NULL UNIQUE" +
+                    ")");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS post_categories (" +
+                    "category_id INT NOT NULL, " +
+                    "like_count INT NOT NULL DEFAULT 0, " +
+                    "post_id INT NOT NULL PRIMARY KEY, " +
+                    "INDEX idx_post_categories_rank (category_id, like_count, post_id), " +
+                    "FOREIGN KEY (category_id) REFERENCES categories(category_id) ON DELETE CASCADE, " +
+                    "FOREIGN KEY (post_id) REFERENCES posts(post_id) ON DELETE CASCADE" +
+                    ")");
+        }
+        if (isApplied(conn, POST_CATEGORIES)) {
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            int categories = stmt.executeUpdate("INSERT IGNORE INTO categories (name) " +
+                    "SELECT DISTINCT " + CategoryDAO.AUTHOR_CATEGORY_SQL + " FROM users u " +
+                    "WHERE " + CategoryDAO.AUTHOR_CATEGORY_SQL + " <> ''");
+            logger.info("Added " + categories + " categories from existing users");
+        }
+
+        long[] range = getIdRange(conn, "SELECT MIN(post_id), MAX(post_id) FROM posts");
+        if (range == null) {
+            markApplied(conn, POST_CATEGORIES);
+            return;
+        }
+
+        String insertSql = "INSERT IGNORE INTO post_categories (category_id, like_count, post_id) " +
+                "SELECT c.category_id, p.like_count, p.post_id FROM posts p " +
+                "JOIN users u ON u.user_id = p.user_id " +
+                "JOIN categories c ON c.name = " + CategoryDAO.AUTHOR_CATEGORY_SQL + " " +
+                "WHERE p.post_id >= ? AND p.post_id < ? AND p.visibility = 'PUBLIC'";
+        int indexed = 0;
+        try (PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            for (long start = range[0]; start <= range[1]; start += POST_CHUNK_SIZE) {
+                insert.setLong(1, start);
+                insert.setLong(2, start + POST_CHUNK_SIZE);
+                indexed += insert.executeUpdate();
+            }
+        }
+        markApplied(conn, POST_CATEGORIES);
+        logger.info("Filled post_categories with " + indexed + " posts");
+    }
+
+    // Likes/posts: per-user recency indexes behind the recommendation signals
+    private static void addRecommendationIndexes(Connection conn) throws SQLException {
+        addIndexIfMissing(conn, "likes", "idx_likes_user_created", "(user_id, created_at)");
+        addIndexIfMissing(conn, "posts", "idx_posts_user_created", "(user_id, created_at)");
+    }
+
+    // Comments: keyset order for top-level comments of a post and for the replies of a comment
+    private static void addCommentThreadIndexes(Connection conn) throws SQLException {
+        addIndexIfMissing(conn, "comments", "idx_comments_post_thread", "(post_id, parent_comment_id, created_at)");
+        addIndexIfMissing(conn, "comments", "idx_comments_parent_created", "(parent_comment_id, created_at)");
+    }
+
+    // Posts/users: FULLTEXT indexes, built only when that search backend is selected
+    private static void addFullTextIndexes(Connection conn) throws SQLException {
+        if (!"fulltext".equalsIgnoreCase(DatabaseConfig.getProperty("search.engine", "memory"))) {
+            return;
+        }
+        addIndexIfMissing(conn, "posts", "ft_posts_content", "FULLTEXT", "(content)");
+        addIndexIfMissing(conn, "users", "ft_users_names", "FULLTEXT",
+                "(username, first_name, last_name, business_name)");
+    }
+
+    // Notifications: indexes for time-bounded reads and the retention purge
+    private static void addNotificationRetentionIndexes(Connection conn) throws SQLException {
+        addIndexIfMissing(conn, "notifications", "idx_notifications_user_created", "(user_id, created_at)");
+        addIndexIfMissing(conn, "notifications", "idx_notifications_type_created", "(type, created_at)");
+    }
+
+    // Notifications: rendered content -> template id + params. Rows still RAW afterwards match no
+    // template and never will, so the conversion scan runs once and is then recorded as done.
+    private static void migrateNotificationTemplates(Connection conn) throws SQLException {
+        addColumnIfMissing(conn, "notifications", "template_id",
+                "TINYINT UNSIGNED NOT NULL DEFAULT 0 AFTER type");
+        addColumnIfMissing(conn, "notifications", "params",
+                "VARCHAR(" + NotificationFormatter.MAX_PARAMS_LENGTH + ") AFTER template_id");
+
+        if (!isColumnNullable(conn, "notifications", "content")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE notifications MODIFY content TEXT NULL");
+            }
+        }
+
+        if (isApplied(conn, NOTIFICATION_TEMPLATES)) {
+            return;
+        }
+
+        long[] range = getIdRange(conn,
+                "SELECT MIN(notification_id), MAX(notification_id) FROM notifications " +
+                        "WHERE template_id = 0 AND content IS NOT NULL");
+        int converted = 0;
+        if (range != null) {
+            for (long start = range[0]; start <= range[1]; start += NOTIFICATION_CHUNK_SIZE) {
+                long end = start + NOTIFICATION_CHUNK_SIZE;
+                for (NotificationTemplate template : NotificationTemplate.values()) {
+                    if (template != NotificationTemplate.RAW) {
+                        converted += convertNotificationChunk(conn, template, start, end);
+                    }
+                }
+            }
+        }
+        markApplied(conn, NOTIFICATION_TEMPLATES);
+        logger.info("Converted " + converted + " notifications to templates");
+    }
+
+    // Convert legacy rows in [start, end) whose content matches the template's text
+    private static int convertNotificationChunk(Connection conn, NotificationTemplate template,
+                                                long start, long end) throws SQLException {
+        NotificationFormatter formatter = NotificationFormatter.forTemplate(template);
+        String prefix = formatter.getLiteralPrefix();
+        String sql;
+
+        if (formatter.getParameterCount() == 0) {
+            sql = "UPDATE notifications SET template_id = ?, content = NULL " +
+                    "WHERE notification_id >= ? AND notification_id < ? " +
+                    "AND template_id = 0 AND type = ? AND content = ?";
+        } else if (formatter.isPrefixPattern()) {
+            sql = "UPDATE notifications SET template_id = ?, " +
+                    "params = SUBSTRING(content, " + (prefix.length() + 1) + "), content = NULL " +
+                    "WHERE notification_id >= ? AND notification_id < ? " +
+                    "AND template_id = 0 AND type = ? AND content LIKE ? " +
+                    "AND CHAR_LENGTH(content) <= " + (prefix.length() + NotificationFormatter.MAX_PARAMS_LENGTH);
+        } else {
+            // Multi-parameter templates have no legacy rows to convert
+            return 0;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, template.getId());
+            pstmt.setLong(2, start);
+            pstmt.setLong(3, end);
+            pstmt.setString(4, template.getType().name());
+            pstmt.setString(5, formatter.getParameterCount() == 0 ? prefix : escapeLike(prefix) + "%");
+            return pstmt.executeUpdate();
+        }
+    }
+
+    // Helper method to add a column on tables created before it existed
+    static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        if (columnExists(conn, table, column)) {
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            logger.info("Added column " + table + "." + column);
+        }
+    }
+
+    // Helper method to add an index on tables created before it existed
+    static void addIndexIfMissing(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        addIndexIfMissing(conn, table, index, "", columns);
+    }
+
+    // Same, for a specific index kind such as FULLTEXT
+    static void addIndexIfMissing(Connection conn, String table, String index, String kind, String columns)
+            throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE " + (kind.isEmpty() ? "" : kind + " ") + "INDEX " + index +
+                    " ON " + table + " " + columns);
+            logger.info("Added index " + table + "." + index);
+        }
+    }
+
+    private static boolean isApplied(Connection conn, String migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM schema_migrations WHERE name = ?")) {
+            pstmt.setString(1, migration);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void markApplied(Connection conn, String migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT IGNORE INTO schema_migrations (name) VALUES (?)")) {
+            pstmt.setString(1, migration);
+            pstmt.executeUpdate();
+        }
+    }
+
+    static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+
+    private static boolean isColumnNullable(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next() && rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
+        }
+    }
+
+    // Returns {min, max} of the query, or null if there are no rows
+    private static long[] getIdRange(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                long min = rs.getLong(1);
+                if (!rs.wasNull()) {
+                    return new long[]{min, rs.getLong(2)};
+                }
+            }
+            return null;
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
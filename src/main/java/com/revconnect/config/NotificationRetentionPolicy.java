@@ -0,0 +1,44 @@
+package com.revconnect.config;
+
+import com.revconnect.models.Notification.NotificationType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// How long notifications are kept before the background purge removes them
+public class NotificationRetentionPolicy {
+    // Unread notifications are kept at least this long regardless of type
+    public static final int UNREAD_RETENTION_DAYS = 180;
+
+    private static final Map<NotificationType, Integer> READ_RETENTION_DAYS = new EnumMap<>(NotificationType.class);
+
+    static {
+        READ_RETENTION_DAYS.put(NotificationType.CONNECTION_REQUEST, 90);
+        READ_RETENTION_DAYS.put(NotificationType.CONNECTION_ACCEPTED, 30);
+        READ_RETENTION_DAYS.put(NotificationType.NEW_POST, 14);
+        READ_RETENTION_DAYS.put(NotificationType.NEW_COMMENT, 30);
+        READ_RETENTION_DAYS.put(NotificationType.NEW_LIKE, 14);
+        READ_RETENTION_DAYS.put(NotificationType.NEW_FOLLOW, 30);
+        READ_RETENTION_DAYS.put(NotificationType.MENTION, 60);
+    }
+
+    // Days a read notification of this type is kept
+    public static int getReadRetentionDays(NotificationType type) {
+        Integer days = READ_RETENTION_DAYS.get(type);
+        return days != null ? days : UNREAD_RETENTION_DAYS;
+    }
+
+    // Days an unread notification of this type is kept
+    public static int getUnreadRetentionDays(NotificationType type) {
+        return Math.max(getReadRetentionDays(type), UNREAD_RETENTION_DAYS);
+    }
+
+    // Nothing older than this is ever shown, so reads can skip older rows
+    public static int getMaxRetentionDays() {
+        int max = UNREAD_RETENTION_DAYS;
+        for (int days : READ_RETENTION_DAYS.values()) {
+            max = Math.max(max, days);
+        }
+        return max;
+    }
+}
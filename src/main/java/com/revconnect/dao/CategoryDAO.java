@@ -0,0 +1,106 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.models.Category;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class CategoryDAO {
+    // Category of the author u: creator category or business type, depending on account type
+    public static final String AUTHOR_CATEGORY_SQL =
+            "TRIM(CASE u.user_type WHEN 'CREATOR' THEN u.creator_category " +
+                    "WHEN 'BUSINESS' THEN u.business_type END)";
+
+    // Get all categories
+    public List<Category> getAllCategories() throws SQLException {
+        List<Category> categories = new ArrayList<>();
+        String sql = "SELECT category_id, name FROM categories ORDER BY name";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                categories.add(new Category(rs.getInt("category_id"), rs.getString("name")));
+            }
+        }
+        return categories;
+    }
+
+    // Copy the posts' like counts to the category projection. The count is copied rather than
+    // adjusted, so a row listed or re-listed with the current count since is not counted twice.
+    public void syncLikeCounts(Collection<Integer> postIds) throws SQLException {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE post_categories pc JOIN posts p ON p.post_id = pc.post_id " +
+                "SET pc.like_count = p.like_count WHERE pc.post_id = ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (Integer postId : postIds) {
+                pstmt.setInt(1, postId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // List a post under its author's category, or drop it if it is not public.
+    // An existing row is kept as is, so like counts already flushed to it are not lost.
+    static void indexPost(java.sql.Connection conn, int postId, boolean isPublic) throws SQLException {
+        if (!isPublic) {
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM post_categories WHERE post_id = ?")) {
+                delete.setInt(1, postId);
+                delete.executeUpdate();
+            }
+            return;
+        }
+
+        String categorySql = "INSERT IGNORE INTO categories (name) " +
+                "SELECT " + AUTHOR_CATEGORY_SQL + " FROM posts p JOIN users u ON u.user_id = p.user_id " +
+                "WHERE p.post_id = ? AND " + AUTHOR_CATEGORY_SQL + " <> ''";
+        String projectionSql = "INSERT IGNORE INTO post_categories (category_id, like_count, post_id) " +
+                "SELECT c.category_id, p.like_count, p.post_id FROM posts p " +
+                "JOIN users u ON u.user_id = p.user_id " +
+                "JOIN categories c ON c.name = " + AUTHOR_CATEGORY_SQL + " " +
+                "WHERE p.post_id = ?";
+
+        try (PreparedStatement category = conn.prepareStatement(categorySql);
+             PreparedStatement projection = conn.prepareStatement(projectionSql)) {
+            category.setInt(1, postId);
+            category.executeUpdate();
+            projection.setInt(1, postId);
+            projection.executeUpdate();
+        }
+    }
+
+    // Re-list all of a user's public posts after their category may have changed
+    static void reindexUserPosts(java.sql.Connection conn, int userId) throws SQLException {
+        String deleteSql = "DELETE pc FROM post_categories pc JOIN posts p ON p.post_id = pc.post_id " +
+                "WHERE p.user_id = ?";
+        String categorySql = "INSERT IGNORE INTO categories (name) " +
+                "SELECT " + AUTHOR_CATEGORY_SQL + " FROM users u " +
+                "WHERE u.user_id = ? AND " + AUTHOR_CATEGORY_SQL + " <> ''";
+        String projectionSql = "INSERT INTO post_categories (category_id, like_count, post_id) " +
+                "SELECT c.category_id, p.like_count, p.post_id FROM posts p " +
+                "JOIN users u ON u.user_id = p.user_id " +
+                "JOIN categories c ON c.name = " + AUTHOR_CATEGORY_SQL + " " +
+                "WHERE p.user_id = ? AND p.visibility = 'PUBLIC'";
+
+        try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+             PreparedStatement category = conn.prepareStatement(categorySql);
+             PreparedStatement projection = conn.prepareStatement(projectionSql)) {
+            delete.setInt(1, userId);
+            delete.executeUpdate();
+            category.setInt(1, userId);
+            category.executeUpdate();
+            projection.setInt(1, userId);
+            projection.executeUpdate();
+        }
+    }
+}
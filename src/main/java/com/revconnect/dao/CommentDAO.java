@@ -1,13 +1,42 @@
 package com.revconnect.dao;
 
 import com.revconnect.models.Comment;
+import com.revconnect.models.CommentThread;
+import com.revconnect.models.PageCursor;
 import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.LongIntHashMap;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CommentDAO {
+    // Number of direct replies of the comment c, for CommentThread
+    private static final String REPLY_COUNT =
+            "(SELECT COUNT(*) FROM comments n WHERE n.parent_comment_id = c.comment_id) AS reply_count";
+
+    // Maps comments rows by column position
+    private static final RowMapper<Comment> COMMENTS = new RowMapper<>(columns -> {
+        int commentId = columns.require("comment_id");
+        int postId = columns.require("post_id");
+        int userId = columns.require("user_id");
+        int content = columns.require("content");
+        int parentCommentId = columns.require("parent_comment_id");
+        int likeCount = columns.require("like_count");
+        int createdAt = columns.require("created_at");
+
+        return rs -> {
+            Comment comment = new Comment();
+            comment.setCommentId(rs.getInt(commentId));
+            comment.setPostId(rs.getInt(postId));
+            comment.setUserId(rs.getInt(userId));
+            comment.setContent(rs.getString(content));
+            comment.setParentCommentId(RowMapper.getNullableInt(rs, parentCommentId));
+            comment.setLikeCount(rs.getInt(likeCount));
+            comment.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            return comment;
+        };
+    });
 
     // Create comment
     public int createComment(Comment comment) throws SQLException {
@@ -53,9 +82,10 @@ public class CommentDAO {
 
             pstmt.setInt(1, commentId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Comment> row = COMMENTS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToComment(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -77,9 +107,10 @@ public class CommentDAO {
 
             pstmt.setInt(1, postId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Comment> row = COMMENTS.forResultSet(rs);
 
             while (rs.next()) {
-                comments.add(mapResultSetToComment(rs));
+                comments.add(row.map(rs));
             }
         }
         return comments;
@@ -95,9 +126,98 @@ public class CommentDAO {
 
             pstmt.setInt(1, parentCommentId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Comment> row = COMMENTS.forResultSet(rs);
 
             while (rs.next()) {
-                replies.add(mapResultSetToComment(rs));
+                replies.add(row.map(rs));
+            }
+        }
+        return replies;
+    }
+
+    // Get one page of a discussion: the comments directly under parentCommentId (null for the
+    // post's top-level comments), oldest first after the cursor (null for the first page), each
+    // with up to repliesPerLevel replies at every level down to maxDepth levels. The tree is read
+    // one level per query on one connection, each level limited per parent, so cut replies and
+    // the branches under them are never read.
+    public List<CommentThread> getCommentThreads(int postId, Integer parentCommentId, PageCursor after,
+                                                 int limit, int maxDepth, int repliesPerLevel)
+            throws SQLException {
+        String sql = "SELECT c.*, " + REPLY_COUNT + " FROM comments c " +
+                "WHERE c.post_id = ? AND " +
+                (parentCommentId != null ? "c.parent_comment_id = ? " : "c.parent_comment_id IS NULL ") +
+                (after != null ? "AND (c.created_at > ? OR (c.created_at = ? AND c.comment_id > ?)) " : "") +
+                "ORDER BY c.created_at ASC, c.comment_id ASC LIMIT ?";
+
+        List<CommentThread> page = new ArrayList<>();
+        try (java.sql.Connection conn = DatabaseConfig.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                pstmt.setInt(index++, postId);
+                if (parentCommentId != null) {
+                    pstmt.setInt(index++, parentCommentId);
+                }
+                if (after != null) {
+                    Timestamp createdAt = Timestamp.valueOf(after.getCreatedAt());
+                    pstmt.setTimestamp(index++, createdAt);
+                    pstmt.setTimestamp(index++, createdAt);
+                    pstmt.setInt(index++, after.getId());
+                }
+                pstmt.setInt(index, limit);
+
+                ResultSet rs = pstmt.executeQuery();
+                RowMapper.Row<Comment> row = COMMENTS.forResultSet(rs);
+                int replyCount = rs.findColumn("reply_count");
+                while (rs.next()) {
+                    page.add(new CommentThread(row.map(rs), rs.getInt(replyCount)));
+                }
+            }
+
+            List<CommentThread> level = page;
+            for (int depth = 1; depth <= maxDepth && repliesPerLevel > 0 && !level.isEmpty(); depth++) {
+                level = loadReplies(conn, level, repliesPerLevel);
+            }
+        }
+        return page;
+    }
+
+    // Helper method to load the oldest repliesPerParent replies of each comment in parents and
+    // link them under their parents; returns the replies, the next level down. The LATERAL
+    // subquery stops after repliesPerParent rows of the (parent_comment_id, created_at) index.
+    private List<CommentThread> loadReplies(java.sql.Connection conn, List<CommentThread> parents,
+                                            int repliesPerParent) throws SQLException {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < parents.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT c.*, " + REPLY_COUNT + " FROM comments p " +
+                "CROSS JOIN LATERAL (SELECT * FROM comments r WHERE r.parent_comment_id = p.comment_id " +
+                "ORDER BY r.created_at ASC, r.comment_id ASC LIMIT ?) c " +
+                "WHERE p.comment_id IN (" + placeholders + ") " +
+                "ORDER BY c.created_at ASC, c.comment_id ASC";
+
+        // Comment ID -> index in parents
+        LongIntHashMap indexById = new LongIntHashMap(parents.size());
+        for (int i = 0; i < parents.size(); i++) {
+            indexById.put(parents.get(i).getComment().getCommentId(), i);
+        }
+
+        List<CommentThread> replies = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            pstmt.setInt(index++, repliesPerParent);
+            for (CommentThread parent : parents) {
+                pstmt.setInt(index++, parent.getComment().getCommentId());
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Comment> row = COMMENTS.forResultSet(rs);
+            int replyCount = rs.findColumn("reply_count");
+            while (rs.next()) {
+                CommentThread reply = new CommentThread(row.map(rs), rs.getInt(replyCount));
+                int parent = indexById.get(reply.getComment().getParentCommentId(), -1);
+                parents.get(parent).getReplies().add(reply);
+                replies.add(reply);
             }
         }
         return replies;
@@ -115,9 +235,10 @@ public class CommentDAO {
             pstmt.setInt(2, limit);
             pstmt.setInt(3, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Comment> row = COMMENTS.forResultSet(rs);
 
             while (rs.next()) {
-                comments.add(mapResultSetToComment(rs));
+                comments.add(row.map(rs));
             }
         }
         return comments;
@@ -182,24 +303,4 @@ public class CommentDAO {
             return 0;
         }
     }
-
-    // Helper method to map ResultSet to Comment
-    private Comment mapResultSetToComment(ResultSet rs) throws SQLException {
-        Comment comment = new Comment();
-
-        comment.setCommentId(rs.getInt("comment_id"));
-        comment.setPostId(rs.getInt("post_id"));
-        comment.setUserId(rs.getInt("user_id"));
-        comment.setContent(rs.getString("content"));
-
-        int parentCommentId = rs.getInt("parent_comment_id");
-        if (!rs.wasNull()) {
-            comment.setParentCommentId(parentCommentId);
-        }
-
-        comment.setLikeCount(rs.getInt("like_count"));
-        comment.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-
-        return comment;
-    }
 }
\ No newline at end of file
@@ -2,12 +2,33 @@ package com.revconnect.dao;
 
 import com.revconnect.models.Connection;
 import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.IntList;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ConnectionDAO {
+    // Maps connections rows by column position
+    private static final RowMapper<Connection> CONNECTIONS = new RowMapper<>(columns -> {
+        int connectionId = columns.require("connection_id");
+        int userId1 = columns.require("user_id1");
+        int userId2 = columns.require("user_id2");
+        int status = columns.require("status");
+        int createdAt = columns.require("created_at");
+        int updatedAt = columns.require("updated_at");
+
+        return rs -> {
+            Connection connection = new Connection();
+            connection.setConnectionId(rs.getInt(connectionId));
+            connection.setUserId1(rs.getInt(userId1));
+            connection.setUserId2(rs.getInt(userId2));
+            connection.setStatus(Connection.ConnectionStatus.valueOf(rs.getString(status)));
+            connection.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            connection.setUpdatedAt(RowMapper.getDateTime(rs, updatedAt));
+            return connection;
+        };
+    });
 
     // Send connection request
     public int sendConnectionRequest(int userId1, int userId2) throws SQLException {
@@ -109,9 +130,10 @@ public class ConnectionDAO {
 
             pstmt.setInt(1, connectionId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Connection> row = CONNECTIONS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToConnection(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -130,9 +152,10 @@ public class ConnectionDAO {
             pstmt.setInt(1, smallerId);
             pstmt.setInt(2, largerId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Connection> row = CONNECTIONS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToConnection(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -150,9 +173,10 @@ public class ConnectionDAO {
             pstmt.setInt(1, userId);
             pstmt.setInt(2, userId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Connection> row = CONNECTIONS.forResultSet(rs);
 
             while (rs.next()) {
-                connections.add(mapResultSetToConnection(rs));
+                connections.add(row.map(rs));
             }
         }
         return connections;
@@ -170,14 +194,37 @@ public class ConnectionDAO {
             pstmt.setInt(1, userId);
             pstmt.setInt(2, userId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Connection> row = CONNECTIONS.forResultSet(rs);
 
             while (rs.next()) {
-                connections.add(mapResultSetToConnection(rs));
+                connections.add(row.map(rs));
             }
         }
         return connections;
     }
 
+    // Get the IDs of a user's accepted connections, ascending
+    public IntList getConnectedUserIds(int userId) throws SQLException {
+        IntList userIds = new IntList();
+        String sql = "SELECT DISTINCT CASE WHEN user_id1 = ? THEN user_id2 ELSE user_id1 END AS other_id " +
+                "FROM connections WHERE status = 'ACCEPTED' AND (user_id1 = ? OR user_id2 = ?) " +
+                "ORDER BY other_id";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                userIds.add(rs.getInt(1));
+            }
+        }
+        return userIds;
+    }
+
     // Get connection count for user
     public int getConnectionCount(int userId) throws SQLException {
         String sql = "SELECT COUNT(*) as count FROM connections WHERE status = 'ACCEPTED' AND " +
@@ -204,8 +251,8 @@ public class ConnectionDAO {
     }
 
     // Get suggested connections (users not yet connected)
-    public List<Integer> getSuggestedConnections(int userId, int limit) throws SQLException {
-        List<Integer> suggestions = new ArrayList<>();
+    public IntList getSuggestedConnections(int userId, int limit) throws SQLException {
+        IntList suggestions = new IntList(limit);
 
         // Find users who are connected to user's connections but not yet connected to the user
         String sql = "SELECT DISTINCT u.user_id FROM users u " +
@@ -230,23 +277,9 @@ public class ConnectionDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                suggestions.add(rs.getInt("user_id"));
+                suggestions.add(rs.getInt(1));
             }
         }
         return suggestions;
     }
-
-    // Helper method to map ResultSet to Connection
-    private Connection mapResultSetToConnection(ResultSet rs) throws SQLException {
-        Connection connection = new Connection();
-
-        connection.setConnectionId(rs.getInt("connection_id"));
-        connection.setUserId1(rs.getInt("user_id1"));
-        connection.setUserId2(rs.getInt("user_id2"));
-        connection.setStatus(Connection.ConnectionStatus.valueOf(rs.getString("status")));
-        connection.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        connection.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-        return connection;
-    }
 }
\ No newline at end of file
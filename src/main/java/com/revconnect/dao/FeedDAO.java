@@ -1,77 +1,73 @@
 package com.revconnect.dao;
 
-import com.revconnect.models.Post;
+import com.revconnect.models.PageCursor;
+import com.revconnect.models.PostCard;
+import com.revconnect.models.SavedPost;
 import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.IntList;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
+// Feed and list queries. They read post cards: the card columns only, with the content cut to a
+// preview and the author joined in, so a page is one query. Full posts are read by PostDAO.
 public class FeedDAO {
-
-    // Get personalized feed for user
-    public List<Post> getPersonalizedFeed(int userId, int limit, int offset) throws SQLException {
-        List<Post> feed = new ArrayList<>();
-
-        // Complex query to get personalized feed:
-        // 1. Posts from connections
-        // 2. Posts from followed users
-        // 3. Trending posts from users in same industry/category
-        // 4. Popular posts (with high engagement)
-        String sql = "(SELECT p.*, 10 as priority FROM posts p " +
-                "INNER JOIN connections c ON (p.user_id = c.user_id1 OR p.user_id = c.user_id2) " +
+    private static final String CARDS = "SELECT " + PostDAO.POST_CARD_COLUMNS + " ";
+    private static final String AUTHOR = "INNER JOIN users u ON u.user_id = p.user_id ";
+
+    // Posts by the user's accepted connections, newest first. This and the next three methods are
+    // the sources PersonalizedFeedEngine merges into the personalized feed.
+    public List<PostCard> getConnectionPosts(int userId, int limit, int timeoutSeconds) throws SQLException {
+        String sql = CARDS + "FROM connections c " +
+                "INNER JOIN posts p ON p.user_id = CASE WHEN c.user_id1 = ? THEN c.user_id2 ELSE c.user_id1 END " +
+                AUTHOR +
                 "WHERE c.status = 'ACCEPTED' AND (c.user_id1 = ? OR c.user_id2 = ?) " +
-                "AND p.visibility IN ('PUBLIC', 'CONNECTIONS')) " +
-
-                "UNION " +
+                "AND p.visibility IN ('PUBLIC', 'CONNECTIONS') " +
+                "ORDER BY p.created_at DESC, p.post_id DESC " +
+                "LIMIT ?";
+        return getCards(sql, timeoutSeconds, userId, userId, userId, limit);
+    }
 
-                "(SELECT p.*, 8 as priority FROM posts p " +
-                "INNER JOIN follows f ON p.user_id = f.followed_id " +
+    // Posts by users the user follows, newest first
+    public List<PostCard> getFollowedPosts(int userId, int limit, int timeoutSeconds) throws SQLException {
+        String sql = CARDS + "FROM follows f " +
+                "INNER JOIN posts p ON p.user_id = f.followed_id " +
+                AUTHOR +
                 "WHERE f.follower_id = ? " +
-                "AND p.visibility IN ('PUBLIC', 'CONNECTIONS')) " +
-
-                "UNION " +
-
-                "(SELECT p.*, 6 as priority FROM posts p " +
-                "WHERE p.user_id = ? " +  // User's own posts
-                "AND p.visibility IN ('PUBLIC', 'CONNECTIONS', 'PRIVATE')) " +
+                "AND p.visibility IN ('PUBLIC', 'CONNECTIONS') " +
+                "ORDER BY p.created_at DESC, p.post_id DESC " +
+                "LIMIT ?";
+        return getCards(sql, timeoutSeconds, userId, limit);
+    }
 
-                "UNION " +
+    // The user's own posts, private ones included, newest first
+    public List<PostCard> getOwnPosts(int userId, int limit, int timeoutSeconds) throws SQLException {
+        String sql = CARDS + "FROM posts p " + AUTHOR +
+                "WHERE p.user_id = ? " +
+                "ORDER BY p.created_at DESC, p.post_id DESC " +
+                "LIMIT ?";
+        return getCards(sql, timeoutSeconds, userId, limit);
+    }
 
-                "(SELECT p.*, 4 as priority FROM posts p " +
+    // Public posts from the last 3 days with enough engagement, newest first
+    public List<PostCard> getPopularPosts(int limit, int timeoutSeconds) throws SQLException {
+        String sql = CARDS + "FROM posts p " + AUTHOR +
                 "WHERE p.visibility = 'PUBLIC' " +
-                "AND p.like_count + p.comment_count * 2 >= 10 " +  // Popular posts
-                "AND p.created_at >= DATE_SUB(NOW(), INTERVAL 3 DAY)) " +
-
-                "ORDER BY priority DESC, created_at DESC " +
-                "LIMIT ? OFFSET ?";
-
-        try (java.sql.Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, userId);
-            pstmt.setInt(3, userId);
-            pstmt.setInt(4, userId);
-            pstmt.setInt(5, limit);
-            pstmt.setInt(6, offset);
-
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                feed.add(mapResultSetToPost(rs));
-            }
-        }
-
-        System.out.println("Retrieved personalized feed for user " + userId + " with " + feed.size() + " posts");
-        return feed;
+                "AND p.like_count + p.comment_count * 2 >= 10 " +
+                "AND p.created_at >= DATE_SUB(NOW(), INTERVAL 3 DAY) " +
+                "ORDER BY p.created_at DESC, p.post_id DESC " +
+                "LIMIT ?";
+        return getCards(sql, timeoutSeconds, limit);
     }
 
     // Get feed for guest/non-logged in users
-    public List<Post> getPublicFeed(int limit, int offset) throws SQLException {
-        List<Post> feed = new ArrayList<>();
-        String sql = "SELECT * FROM posts WHERE visibility = 'PUBLIC' " +
-                "ORDER BY created_at DESC LIMIT ? OFFSET ?";
+    public List<PostCard> getPublicFeed(int limit, int offset) throws SQLException {
+        List<PostCard> feed = new ArrayList<>();
+        String sql = CARDS + "FROM posts p " + AUTHOR +
+                "WHERE p.visibility = 'PUBLIC' " +
+                "ORDER BY p.created_at DESC LIMIT ? OFFSET ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -79,53 +75,73 @@ public class FeedDAO {
             pstmt.setInt(1, limit);
             pstmt.setInt(2, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
 
             while (rs.next()) {
-                feed.add(mapResultSetToPost(rs));
+                feed.add(row.map(rs));
             }
         }
         return feed;
     }
 
-    // Get feed by category/interest
-    public List<Post> getFeedByCategory(String category, int limit, int offset) throws SQLException {
-        List<Post> feed = new ArrayList<>();
+    // Get public posts in any of the categories, most liked first
+    public List<PostCard> getCategoryFeed(List<Integer> categoryIds, int limit, int offset) throws SQLException {
+        return getCategoryFeed(categoryIds, limit, offset, null);
+    }
 
-        // This assumes posts have tags or we can infer category from user's profile
-        String sql = "SELECT p.* FROM posts p " +
-                "INNER JOIN users u ON p.user_id = u.user_id " +
-                "WHERE p.visibility = 'PUBLIC' " +
-                "AND (u.user_type = 'CREATOR' AND u.creator_category LIKE ? " +
-                "     OR u.user_type = 'BUSINESS' AND u.business_type LIKE ?) " +
-                "ORDER BY p.like_count DESC, p.created_at DESC " +
+    // As above; when rankLikes is given, each post's like count in post_categories, which the
+    // feed is ordered by and which can trail the count on the post, is added to it in order
+    public List<PostCard> getCategoryFeed(List<Integer> categoryIds, int limit, int offset, IntList rankLikes)
+            throws SQLException {
+        List<PostCard> feed = new ArrayList<>();
+        if (categoryIds.isEmpty()) {
+            return feed;
+        }
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < categoryIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        // Ordered on the (category_id, like_count, post_id) index, newer posts first among ties
+        String sql = "SELECT " + PostDAO.POST_CARD_COLUMNS + ", pc.like_count AS rank_likes FROM post_categories pc " +
+                "INNER JOIN posts p ON p.post_id = pc.post_id " +
+                AUTHOR +
+                "WHERE pc.category_id IN (" + placeholders + ") " +
+                "ORDER BY pc.like_count DESC, pc.post_id DESC " +
                 "LIMIT ? OFFSET ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            String categoryPattern = "%" + category + "%";
-            pstmt.setString(1, categoryPattern);
-            pstmt.setString(2, categoryPattern);
-            pstmt.setInt(3, limit);
-            pstmt.setInt(4, offset);
+            int index = 1;
+            for (Integer categoryId : categoryIds) {
+                pstmt.setInt(index++, categoryId);
+            }
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, offset);
 
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
+            int likes = rs.findColumn("rank_likes");
 
             while (rs.next()) {
-                feed.add(mapResultSetToPost(rs));
+                feed.add(row.map(rs));
+                if (rankLikes != null) {
+                    rankLikes.add(rs.getInt(likes));
+                }
             }
         }
         return feed;
     }
 
     // Get trending feed (most engaged posts in last 24 hours)
-    public List<Post> getTrendingFeed(int limit, int offset) throws SQLException {
-        List<Post> feed = new ArrayList<>();
-        String sql = "SELECT * FROM posts " +
-                "WHERE visibility = 'PUBLIC' " +
-                "AND created_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR) " +
-                "ORDER BY (like_count * 1 + comment_count * 2 + share_count * 3) DESC, " +
-                "created_at DESC " +
+    public List<PostCard> getTrendingFeed(int limit, int offset) throws SQLException {
+        List<PostCard> feed = new ArrayList<>();
+        String sql = CARDS + "FROM posts p " + AUTHOR +
+                "WHERE p.visibility = 'PUBLIC' " +
+                "AND p.created_at >= DATE_SUB(NOW(), INTERVAL 24 HOUR) " +
+                "ORDER BY (p.like_count * 1 + p.comment_count * 2 + p.share_count * 3) DESC, " +
+                "p.created_at DESC " +
                 "LIMIT ? OFFSET ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
@@ -134,21 +150,23 @@ public class FeedDAO {
             pstmt.setInt(1, limit);
             pstmt.setInt(2, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
 
             while (rs.next()) {
-                feed.add(mapResultSetToPost(rs));
+                feed.add(row.map(rs));
             }
         }
         return feed;
     }
 
     // Get feed from specific user's network
-    public List<Post> getNetworkFeed(int userId, int limit, int offset) throws SQLException {
-        List<Post> feed = new ArrayList<>();
+    public List<PostCard> getNetworkFeed(int userId, int limit, int offset) throws SQLException {
+        List<PostCard> feed = new ArrayList<>();
 
         // Posts from user's direct connections only
-        String sql = "SELECT p.* FROM posts p " +
+        String sql = CARDS + "FROM posts p " +
                 "INNER JOIN connections c ON (p.user_id = c.user_id1 OR p.user_id = c.user_id2) " +
+                AUTHOR +
                 "WHERE c.status = 'ACCEPTED' " +
                 "AND (c.user_id1 = ? OR c.user_id2 = ?) " +
                 "AND p.user_id != ? " +  // Exclude user's own posts
@@ -166,22 +184,23 @@ public class FeedDAO {
             pstmt.setInt(5, offset);
 
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
 
             while (rs.next()) {
-                feed.add(mapResultSetToPost(rs));
+                feed.add(row.map(rs));
             }
         }
         return feed;
     }
 
     // Get feed with media (images/videos)
-    public List<Post> getMediaFeed(int limit, int offset) throws SQLException {
-        List<Post> feed = new ArrayList<>();
-        String sql = "SELECT * FROM posts " +
-                "WHERE visibility = 'PUBLIC' " +
-                "AND media_url IS NOT NULL " +
-                "AND post_type IN ('IMAGE', 'VIDEO') " +
-                "ORDER BY created_at DESC " +
+    public List<PostCard> getMediaFeed(int limit, int offset) throws SQLException {
+        List<PostCard> feed = new ArrayList<>();
+        String sql = CARDS + "FROM posts p " + AUTHOR +
+                "WHERE p.visibility = 'PUBLIC' " +
+                "AND p.media_url IS NOT NULL " +
+                "AND p.post_type IN ('IMAGE', 'VIDEO') " +
+                "ORDER BY p.created_at DESC " +
                 "LIMIT ? OFFSET ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
@@ -190,72 +209,145 @@ public class FeedDAO {
             pstmt.setInt(1, limit);
             pstmt.setInt(2, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
 
             while (rs.next()) {
-                feed.add(mapResultSetToPost(rs));
+                feed.add(row.map(rs));
             }
         }
         return feed;
     }
 
-    // Get saved/bookmarked posts for user
-    public List<Post> getSavedPosts(int userId, int limit, int offset) throws SQLException {
-        List<Post> savedPosts = new ArrayList<>();
+    // Get posts with a hashtag, newest first, starting after the cursor (null for the first page).
+    // Walks the (hashtag, created_at, post_id) primary key, so deep pages cost the same as the first.
+    public List<PostCard> getHashtagFeed(String hashtag, PageCursor after, int limit) throws SQLException {
+        List<PostCard> feed = new ArrayList<>();
+        String sql = CARDS + "FROM post_hashtags h " +
+                "INNER JOIN posts p ON p.post_id = h.post_id " +
+                AUTHOR +
+                "WHERE h.hashtag = ? " +
+                (after != null ? "AND (h.created_at < ? OR (h.created_at = ? AND h.post_id < ?)) " : "") +
+                "ORDER BY h.created_at DESC, h.post_id DESC " +
+                "LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            pstmt.setString(index++, hashtag);
+            if (after != null) {
+                Timestamp createdAt = Timestamp.valueOf(after.getCreatedAt());
+                pstmt.setTimestamp(index++, createdAt);
+                pstmt.setTimestamp(index++, createdAt);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
+
+            while (rs.next()) {
+                feed.add(row.map(rs));
+            }
+        }
+        return feed;
+    }
+
+    // Get the user's saved posts, most recently saved first, starting after the cursor (null for
+    // the first page). Walks the (user_id, saved_at, post_id) primary key of saved_posts. Posts
+    // their authors have since made private are left out.
+    public List<SavedPost> getSavedPosts(int userId, PageCursor after, int limit) throws SQLException {
+        List<SavedPost> savedPosts = new ArrayList<>();
+        String sql = "SELECT " + PostDAO.POST_CARD_COLUMNS + ", s.saved_at FROM saved_posts s " +
+                "INNER JOIN posts p ON p.post_id = s.post_id " +
+                AUTHOR +
+                "WHERE s.user_id = ? AND (p.visibility <> 'PRIVATE' OR p.user_id = s.user_id) " +
+                (after != null ? "AND (s.saved_at < ? OR (s.saved_at = ? AND s.post_id < ?)) " : "") +
+                "ORDER BY s.saved_at DESC, s.post_id DESC " +
+                "LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            pstmt.setInt(index++, userId);
+            if (after != null) {
+                Timestamp savedAt = Timestamp.valueOf(after.getCreatedAt());
+                pstmt.setTimestamp(index++, savedAt);
+                pstmt.setTimestamp(index++, savedAt);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, limit);
 
-        // Note: This requires a bookmarks/saved_posts table
-        // For now, we'll return an empty list
-        System.out.println("getSavedPosts called for user " + userId + " - feature not implemented yet");
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
+            int savedAt = rs.findColumn("saved_at");
 
+            while (rs.next()) {
+                savedPosts.add(new SavedPost(userId, row.map(rs), RowMapper.getDateTime(rs, savedAt)));
+            }
+        }
         return savedPosts;
     }
 
-    // Get recommended posts based on user's interaction history
-    public List<Post> getRecommendedPosts(int userId, int limit) throws SQLException {
-        List<Post> recommendations = new ArrayList<>();
+    // Get recent public posts by any of the authors, newest first (recommendation candidates)
+    public List<PostCard> getRecentPostsByAuthors(Collection<Integer> authorIds, Timestamp since, int limit)
+            throws SQLException {
+        List<PostCard> posts = new ArrayList<>();
+        if (authorIds.isEmpty()) {
+            return posts;
+        }
 
-        // Simple recommendation: posts from categories user has interacted with
-        String sql = "SELECT DISTINCT p.* FROM posts p " +
-                "WHERE p.visibility = 'PUBLIC' " +
-                "AND p.post_id NOT IN ( " +
-                "    SELECT post_id FROM likes WHERE user_id = ? " +
-                "    UNION " +
-                "    SELECT post_id FROM comments WHERE user_id = ? " +
-                ") " +
-                "ORDER BY RAND() " +  // Simple random for now
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < authorIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = CARDS + "FROM posts p " + AUTHOR +
+                "WHERE p.user_id IN (" + placeholders + ") " +
+                "AND p.visibility = 'PUBLIC' " +
+                "AND p.created_at >= ? " +
+                "ORDER BY p.created_at DESC " +
                 "LIMIT ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, userId);
-            pstmt.setInt(3, limit);
+            int index = 1;
+            for (Integer authorId : authorIds) {
+                pstmt.setInt(index++, authorId);
+            }
+            pstmt.setTimestamp(index++, since);
+            pstmt.setInt(index, limit);
 
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
 
             while (rs.next()) {
-                recommendations.add(mapResultSetToPost(rs));
+                posts.add(row.map(rs));
             }
         }
-        return recommendations;
+        return posts;
     }
 
-    // Helper method to map ResultSet to Post
-    private Post mapResultSetToPost(ResultSet rs) throws SQLException {
-        Post post = new Post();
-
-        post.setPostId(rs.getInt("post_id"));
-        post.setUserId(rs.getInt("user_id"));
-        post.setContent(rs.getString("content"));
-        post.setMediaUrl(rs.getString("media_url"));
-        post.setPostType(Post.PostType.valueOf(rs.getString("post_type")));
-        post.setLikeCount(rs.getInt("like_count"));
-        post.setCommentCount(rs.getInt("comment_count"));
-        post.setShareCount(rs.getInt("share_count"));
-        post.setVisibility(Post.Visibility.valueOf(rs.getString("visibility")));
-        post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-        return post;
+    // Run a query with int parameters and map the post card rows. The driver cancels the statement
+    // on the server after timeoutSeconds (0 for no limit).
+    private List<PostCard> getCards(String sql, int timeoutSeconds, int... params) throws SQLException {
+        List<PostCard> posts = new ArrayList<>();
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setQueryTimeout(timeoutSeconds);
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setInt(i + 1, params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = PostDAO.POST_CARDS.forResultSet(rs);
+
+            while (rs.next()) {
+                posts.add(row.map(rs));
+            }
+        }
+        return posts;
     }
 }
\ No newline at end of file
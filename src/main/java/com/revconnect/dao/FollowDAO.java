@@ -2,12 +2,29 @@ package com.revconnect.dao;
 
 import com.revconnect.models.Follow;
 import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.IntList;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class FollowDAO {
+    // Maps follows rows by column position
+    private static final RowMapper<Follow> FOLLOWS = new RowMapper<>(columns -> {
+        int followId = columns.require("follow_id");
+        int followerId = columns.require("follower_id");
+        int followedId = columns.require("followed_id");
+        int createdAt = columns.require("created_at");
+
+        return rs -> {
+            Follow follow = new Follow();
+            follow.setFollowId(rs.getInt(followId));
+            follow.setFollowerId(rs.getInt(followerId));
+            follow.setFollowedId(rs.getInt(followedId));
+            follow.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            return follow;
+        };
+    });
 
     // Follow user
     public boolean followUser(int followerId, int followedId) throws SQLException {
@@ -69,9 +86,10 @@ public class FollowDAO {
 
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Follow> row = FOLLOWS.forResultSet(rs);
 
             while (rs.next()) {
-                followers.add(mapResultSetToFollow(rs));
+                followers.add(row.map(rs));
             }
         }
         return followers;
@@ -87,18 +105,19 @@ public class FollowDAO {
 
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Follow> row = FOLLOWS.forResultSet(rs);
 
             while (rs.next()) {
-                following.add(mapResultSetToFollow(rs));
+                following.add(row.map(rs));
             }
         }
         return following;
     }
 
-    // Get follower IDs for a user
-    public List<Integer> getFollowerIds(int userId) throws SQLException {
-        List<Integer> followerIds = new ArrayList<>();
-        String sql = "SELECT follower_id FROM follows WHERE followed_id = ?";
+    // Get follower IDs for a user, ascending
+    public IntList getFollowerIds(int userId) throws SQLException {
+        IntList followerIds = new IntList();
+        String sql = "SELECT follower_id FROM follows WHERE followed_id = ? ORDER BY follower_id";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -107,16 +126,16 @@ public class FollowDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                followerIds.add(rs.getInt("follower_id"));
+                followerIds.add(rs.getInt(1));
             }
         }
         return followerIds;
     }
 
-    // Get following IDs for a user
-    public List<Integer> getFollowingIds(int userId) throws SQLException {
-        List<Integer> followingIds = new ArrayList<>();
-        String sql = "SELECT followed_id FROM follows WHERE follower_id = ?";
+    // Get following IDs for a user, ascending
+    public IntList getFollowingIds(int userId) throws SQLException {
+        IntList followingIds = new IntList();
+        String sql = "SELECT followed_id FROM follows WHERE follower_id = ? ORDER BY followed_id";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -125,7 +144,7 @@ public class FollowDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                followingIds.add(rs.getInt("followed_id"));
+                followingIds.add(rs.getInt(1));
             }
         }
         return followingIds;
@@ -165,12 +184,13 @@ public class FollowDAO {
         }
     }
 
-    // Get mutual followers
-    public List<Integer> getMutualFollowers(int userId1, int userId2) throws SQLException {
-        List<Integer> mutuals = new ArrayList<>();
+    // Get mutual followers, ascending
+    public IntList getMutualFollowers(int userId1, int userId2) throws SQLException {
+        IntList mutuals = new IntList();
         String sql = "SELECT f1.follower_id FROM follows f1 " +
                 "INNER JOIN follows f2 ON f1.follower_id = f2.follower_id " +
-                "WHERE f1.followed_id = ? AND f2.followed_id = ?";
+                "WHERE f1.followed_id = ? AND f2.followed_id = ? " +
+                "ORDER BY f1.follower_id";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -180,15 +200,15 @@ public class FollowDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                mutuals.add(rs.getInt("follower_id"));
+                mutuals.add(rs.getInt(1));
             }
         }
         return mutuals;
     }
 
     // Get suggested users to follow
-    public List<Integer> getSuggestedUsersToFollow(int userId, int limit) throws SQLException {
-        List<Integer> suggestions = new ArrayList<>();
+    public IntList getSuggestedUsersToFollow(int userId, int limit) throws SQLException {
+        IntList suggestions = new IntList(limit);
 
         // Find users followed by people you follow but you don't follow yet
         String sql = "SELECT DISTINCT f2.followed_id FROM follows f1 " +
@@ -212,21 +232,9 @@ public class FollowDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                suggestions.add(rs.getInt("followed_id"));
+                suggestions.add(rs.getInt(1));
             }
         }
         return suggestions;
     }
-
-    // Helper method to map ResultSet to Follow
-    private Follow mapResultSetToFollow(ResultSet rs) throws SQLException {
-        Follow follow = new Follow();
-
-        follow.setFollowId(rs.getInt("follow_id"));
-        follow.setFollowerId(rs.getInt("follower_id"));
-        follow.setFollowedId(rs.getInt("followed_id"));
-        follow.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-
-        return follow;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.models.HashtagActivity;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HashtagDAO {
+
+    // Get hashtag use counts per period since a time, oldest period first
+    public List<HashtagActivity> getHashtagActivitySince(Timestamp since, int periodSeconds) throws SQLException {
+        List<HashtagActivity> activity = new ArrayList<>();
+        // Periods are numbered in epoch seconds so no time zone conversion happens in SQL
+        String sql = "SELECT hashtag, FLOOR(UNIX_TIMESTAMP(created_at) / ?) AS period, COUNT(*) AS uses " +
+                "FROM post_hashtags " +
+                "WHERE created_at >= ? " +
+                "GROUP BY hashtag, period " +
+                "ORDER BY period";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, periodSeconds);
+            pstmt.setTimestamp(2, since);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Instant periodStart = Instant.ofEpochSecond(rs.getLong("period") * periodSeconds);
+                activity.add(new HashtagActivity(rs.getString("hashtag"),
+                        LocalDateTime.ofInstant(periodStart, ZoneId.systemDefault()), rs.getInt("uses")));
+            }
+        }
+        return activity;
+    }
+}
@@ -8,6 +8,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class LikeDAO {
+    // Maps likes rows by column position
+    private static final RowMapper<Like> LIKES = new RowMapper<>(columns -> {
+        int likeId = columns.require("like_id");
+        int userId = columns.require("user_id");
+        int postId = columns.require("post_id");
+        int commentId = columns.require("comment_id");
+        int createdAt = columns.require("created_at");
+
+        return rs -> {
+            Like like = new Like();
+            like.setLikeId(rs.getInt(likeId));
+            like.setUserId(rs.getInt(userId));
+            like.setPostId(RowMapper.getNullableInt(rs, postId));
+            like.setCommentId(RowMapper.getNullableInt(rs, commentId));
+            like.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            return like;
+        };
+    });
 
     // Add like to post
     public boolean addPostLike(int userId, int postId) throws SQLException {
@@ -119,9 +137,10 @@ public class LikeDAO {
 
             pstmt.setInt(1, postId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Like> row = LIKES.forResultSet(rs);
 
             while (rs.next()) {
-                likes.add(mapResultSetToLike(rs));
+                likes.add(row.map(rs));
             }
         }
         return likes;
@@ -137,9 +156,10 @@ public class LikeDAO {
 
             pstmt.setInt(1, commentId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Like> row = LIKES.forResultSet(rs);
 
             while (rs.next()) {
-                likes.add(mapResultSetToLike(rs));
+                likes.add(row.map(rs));
             }
         }
         return likes;
@@ -157,9 +177,10 @@ public class LikeDAO {
             pstmt.setInt(2, limit);
             pstmt.setInt(3, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Like> row = LIKES.forResultSet(rs);
 
             while (rs.next()) {
-                likes.add(mapResultSetToLike(rs));
+                likes.add(row.map(rs));
             }
         }
         return likes;
@@ -198,26 +219,4 @@ public class LikeDAO {
             return 0;
         }
     }
-
-    // Helper method to map ResultSet to Like
-    private Like mapResultSetToLike(ResultSet rs) throws SQLException {
-        Like like = new Like();
-
-        like.setLikeId(rs.getInt("like_id"));
-        like.setUserId(rs.getInt("user_id"));
-
-        int postId = rs.getInt("post_id");
-        if (!rs.wasNull()) {
-            like.setPostId(postId);
-        }
-
-        int commentId = rs.getInt("comment_id");
-        if (!rs.wasNull()) {
-            like.setCommentId(commentId);
-        }
-
-        like.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-
-        return like;
-    }
 }
\ No newline at end of file
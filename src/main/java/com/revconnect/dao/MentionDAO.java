@@ -0,0 +1,35 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+
+import java.sql.*;
+import java.util.Collection;
+
+public class MentionDAO {
+
+    // Record mentions of several users in one post or comment (commentId null for the post itself)
+    public void createMentions(int authorId, int postId, Integer commentId, Collection<Integer> mentionedUserIds)
+            throws SQLException {
+        if (mentionedUserIds.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO mentions (mentioned_user_id, author_id, post_id, comment_id) VALUES (?, ?, ?, ?)";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int mentionedUserId : mentionedUserIds) {
+                pstmt.setInt(1, mentionedUserId);
+                pstmt.setInt(2, authorId);
+                pstmt.setInt(3, postId);
+                if (commentId != null) {
+                    pstmt.setInt(4, commentId);
+                } else {
+                    pstmt.setNull(4, Types.INTEGER);
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
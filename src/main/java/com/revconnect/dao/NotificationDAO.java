@@ -1,41 +1,56 @@
 package com.revconnect.dao;
 
 import com.revconnect.models.Notification;
+import com.revconnect.models.NotificationTemplate;
 import com.revconnect.config.DatabaseConfig;
+import com.revconnect.config.NotificationRetentionPolicy;
+import com.revconnect.utils.NotificationFormatter;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class NotificationDAO {
+    // Maps notifications rows by column position
+    private static final RowMapper<Notification> NOTIFICATIONS = new RowMapper<>(columns -> {
+        int notificationId = columns.require("notification_id");
+        int userId = columns.require("user_id");
+        int senderId = columns.require("sender_id");
+        int type = columns.require("type");
+        int templateId = columns.require("template_id");
+        int params = columns.require("params");
+        int content = columns.require("content");
+        int referenceId = columns.require("reference_id");
+        int referenceType = columns.require("reference_type");
+        int isRead = columns.require("is_read");
+        int createdAt = columns.require("created_at");
+
+        return rs -> {
+            Notification notification = new Notification();
+            notification.setNotificationId(rs.getInt(notificationId));
+            notification.setUserId(rs.getInt(userId));
+            notification.setSenderId(RowMapper.getNullableInt(rs, senderId));
+            notification.setType(Notification.NotificationType.valueOf(rs.getString(type)));
+            notification.setTemplate(NotificationTemplate.fromId(rs.getInt(templateId)));
+            notification.setParams(NotificationFormatter.decodeParams(rs.getString(params)));
+            notification.setContent(rs.getString(content));
+            notification.setReferenceId(RowMapper.getNullableInt(rs, referenceId));
+            notification.setReferenceType(rs.getString(referenceType));
+            notification.setRead(rs.getBoolean(isRead));
+            notification.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            return notification;
+        };
+    });
 
     // Create notification
     public int createNotification(Notification notification) throws SQLException {
-        String sql = "INSERT INTO notifications (user_id, sender_id, type, content, " +
-                "reference_id, reference_type, is_read) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO notifications (user_id, sender_id, type, template_id, params, content, " +
+                "reference_id, reference_type, is_read) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setInt(1, notification.getUserId());
-
-            if (notification.getSenderId() != null) {
-                pstmt.setInt(2, notification.getSenderId());
-            } else {
-                pstmt.setNull(2, Types.INTEGER);
-            }
-
-            pstmt.setString(3, notification.getType().name());
-            pstmt.setString(4, notification.getContent());
-
-            if (notification.getReferenceId() != null) {
-                pstmt.setInt(5, notification.getReferenceId());
-            } else {
-                pstmt.setNull(5, Types.INTEGER);
-            }
-
-            pstmt.setString(6, notification.getReferenceType());
-            pstmt.setBoolean(7, notification.isRead());
+            bindNotification(pstmt, notification);
 
             int affectedRows = pstmt.executeUpdate();
 
@@ -55,6 +70,33 @@ public class NotificationDAO {
         }
     }
 
+    // Create several notifications with one batched INSERT; returns their IDs in order
+    public int[] createNotifications(List<Notification> notifications) throws SQLException {
+        int[] notificationIds = new int[notifications.size()];
+        if (notifications.isEmpty()) {
+            return notificationIds;
+        }
+        String sql = "INSERT INTO notifications (user_id, sender_id, type, template_id, params, content, " +
+                "reference_id, reference_type, is_read) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (Notification notification : notifications) {
+                bindNotification(pstmt, notification);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                for (int i = 0; i < notificationIds.length && generatedKeys.next(); i++) {
+                    notificationIds[i] = generatedKeys.getInt(1);
+                }
+            }
+        }
+        return notificationIds;
+    }
+
     // Get notification by ID
     public Notification getNotificationById(int notificationId) throws SQLException {
         String sql = "SELECT * FROM notifications WHERE notification_id = ?";
@@ -64,9 +106,10 @@ public class NotificationDAO {
 
             pstmt.setInt(1, notificationId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Notification> row = NOTIFICATIONS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToNotification(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -75,19 +118,21 @@ public class NotificationDAO {
     // Get notifications for user
     public List<Notification> getNotificationsForUser(int userId, int limit, int offset) throws SQLException {
         List<Notification> notifications = new ArrayList<>();
-        String sql = "SELECT * FROM notifications WHERE user_id = ? " +
+        String sql = "SELECT * FROM notifications WHERE user_id = ? AND created_at >= ? " +
                 "ORDER BY created_at DESC, is_read ASC LIMIT ? OFFSET ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
-            pstmt.setInt(2, limit);
-            pstmt.setInt(3, offset);
+            pstmt.setTimestamp(2, getRetentionHorizon());
+            pstmt.setInt(3, limit);
+            pstmt.setInt(4, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Notification> row = NOTIFICATIONS.forResultSet(rs);
 
             while (rs.next()) {
-                notifications.add(mapResultSetToNotification(rs));
+                notifications.add(row.map(rs));
             }
         }
         return notifications;
@@ -96,17 +141,19 @@ public class NotificationDAO {
     // Get unread notifications for user
     public List<Notification> getUnreadNotificationsForUser(int userId) throws SQLException {
         List<Notification> notifications = new ArrayList<>();
-        String sql = "SELECT * FROM notifications WHERE user_id = ? AND is_read = FALSE " +
+        String sql = "SELECT * FROM notifications WHERE user_id = ? AND created_at >= ? AND is_read = FALSE " +
                 "ORDER BY created_at DESC";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
+            pstmt.setTimestamp(2, getRetentionHorizon());
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Notification> row = NOTIFICATIONS.forResultSet(rs);
 
             while (rs.next()) {
-                notifications.add(mapResultSetToNotification(rs));
+                notifications.add(row.map(rs));
             }
         }
         return notifications;
@@ -170,12 +217,13 @@ public class NotificationDAO {
 
     // Get notification count for user
     public int getNotificationCount(int userId) throws SQLException {
-        String sql = "SELECT COUNT(*) as count FROM notifications WHERE user_id = ?";
+        String sql = "SELECT COUNT(*) as count FROM notifications WHERE user_id = ? AND created_at >= ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
+            pstmt.setTimestamp(2, getRetentionHorizon());
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
@@ -187,12 +235,14 @@ public class NotificationDAO {
 
     // Get unread notification count for user
     public int getUnreadNotificationCount(int userId) throws SQLException {
-        String sql = "SELECT COUNT(*) as count FROM notifications WHERE user_id = ? AND is_read = FALSE";
+        String sql = "SELECT COUNT(*) as count FROM notifications WHERE user_id = ? AND created_at >= ? " +
+                "AND is_read = FALSE";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, userId);
+            pstmt.setTimestamp(2, getRetentionHorizon());
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
@@ -202,58 +252,60 @@ public class NotificationDAO {
         }
     }
 
-    // Create connection request notification
-    public int createConnectionRequestNotification(int receiverId, int senderId, int connectionId) throws SQLException {
-        Notification notification = new Notification(
-                receiverId,
-                Notification.NotificationType.CONNECTION_REQUEST,
-                "You have a new connection request"
-        );
-        notification.setSenderId(senderId);
-        notification.setReferenceId(connectionId);
-        notification.setReferenceType("CONNECTION");
-
-        return createNotification(notification);
-    }
+    // Delete up to chunkSize expired notifications of a type; returns the number deleted
+    public int purgeExpiredNotifications(Notification.NotificationType type, boolean readOnly,
+                                         Timestamp cutoff, int chunkSize) throws SQLException {
+        String sql = "DELETE FROM notifications WHERE type = ? AND created_at < ? " +
+                (readOnly ? "AND is_read = TRUE " : "") +
+                "LIMIT ?";
 
-    // Create connection accepted notification
-    public int createConnectionAcceptedNotification(int receiverId, int senderId, int connectionId) throws SQLException {
-        Notification notification = new Notification(
-                receiverId,
-                Notification.NotificationType.CONNECTION_ACCEPTED,
-                "Your connection request was accepted"
-        );
-        notification.setSenderId(senderId);
-        notification.setReferenceId(connectionId);
-        notification.setReferenceType("CONNECTION");
-
-        return createNotification(notification);
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, type.name());
+            pstmt.setTimestamp(2, cutoff);
+            pstmt.setInt(3, chunkSize);
+            return pstmt.executeUpdate();
+        }
     }
 
-    // Helper method to map ResultSet to Notification
-    private Notification mapResultSetToNotification(ResultSet rs) throws SQLException {
-        Notification notification = new Notification();
+    // Oldest created_at any retention policy can keep; older rows are skipped by reads
+    private Timestamp getRetentionHorizon() {
+        return Timestamp.valueOf(java.time.LocalDateTime.now()
+                .minusDays(NotificationRetentionPolicy.getMaxRetentionDays()));
+    }
 
-        notification.setNotificationId(rs.getInt("notification_id"));
-        notification.setUserId(rs.getInt("user_id"));
+    // Helper method to bind a notification to the INSERT parameters
+    private void bindNotification(PreparedStatement pstmt, Notification notification) throws SQLException {
+        pstmt.setInt(1, notification.getUserId());
 
-        int senderId = rs.getInt("sender_id");
-        if (!rs.wasNull()) {
-            notification.setSenderId(senderId);
+        if (notification.getSenderId() != null) {
+            pstmt.setInt(2, notification.getSenderId());
+        } else {
+            pstmt.setNull(2, Types.INTEGER);
         }
 
-        notification.setType(Notification.NotificationType.valueOf(rs.getString("type")));
-        notification.setContent(rs.getString("content"));
-
-        int referenceId = rs.getInt("reference_id");
-        if (!rs.wasNull()) {
-            notification.setReferenceId(referenceId);
+        pstmt.setString(3, notification.getType().name());
+
+        // Templated notifications store only the template id and parameters
+        NotificationTemplate template = notification.getTemplate() != null ?
+                notification.getTemplate() : NotificationTemplate.RAW;
+        pstmt.setInt(4, template.getId());
+        if (template == NotificationTemplate.RAW) {
+            pstmt.setNull(5, Types.VARCHAR);
+            pstmt.setString(6, notification.getContent());
+        } else {
+            pstmt.setString(5, NotificationFormatter.encodeParams(notification.getParams()));
+            pstmt.setNull(6, Types.VARCHAR);
         }
 
-        notification.setReferenceType(rs.getString("reference_type"));
-        notification.setRead(rs.getBoolean("is_read"));
-        notification.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        if (notification.getReferenceId() != null) {
+            pstmt.setInt(7, notification.getReferenceId());
+        } else {
+            pstmt.setNull(7, Types.INTEGER);
+        }
 
-        return notification;
+        pstmt.setString(8, notification.getReferenceType());
+        pstmt.setBoolean(9, notification.isRead());
     }
 }
\ No newline at end of file
@@ -1,42 +1,133 @@
 package com.revconnect.dao;
 
 import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.models.UserCard;
 import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.ContentParser;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PostDAO {
+    public interface MetadataVisitor {
+        void visit(int postId, int userId, long createdAtMillis, Post.Visibility visibility, Post.PostType postType,
+                   boolean hasMedia, int likeCount, int commentCount, int shareCount);
+    }
 
-    // Create post
+    // Maps posts rows by column position; shared with FeedDAO
+    static final RowMapper<Post> POSTS = new RowMapper<>(columns -> {
+        int postId = columns.require("post_id");
+        int userId = columns.require("user_id");
+        int content = columns.require("content");
+        int mediaUrl = columns.require("media_url");
+        int postType = columns.require("post_type");
+        int likeCount = columns.require("like_count");
+        int commentCount = columns.require("comment_count");
+        int shareCount = columns.require("share_count");
+        int visibility = columns.require("visibility");
+        int createdAt = columns.require("created_at");
+        int updatedAt = columns.require("updated_at");
+
+        return rs -> {
+            Post post = new Post();
+            post.setPostId(rs.getInt(postId));
+            post.setUserId(rs.getInt(userId));
+            post.setContent(rs.getString(content));
+            post.setMediaUrl(rs.getString(mediaUrl));
+            post.setPostType(Post.PostType.valueOf(rs.getString(postType)));
+            post.setLikeCount(rs.getInt(likeCount));
+            post.setCommentCount(rs.getInt(commentCount));
+            post.setShareCount(rs.getInt(shareCount));
+            post.setVisibility(Post.Visibility.valueOf(rs.getString(visibility)));
+            post.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            post.setUpdatedAt(RowMapper.getDateTime(rs, updatedAt));
+            return post;
+        };
+    });
+
+    // Columns behind a PostCard, for posts p joined to their authors u. Only the first
+    // PREVIEW_LENGTH characters of the content are sent; shared with FeedDAO.
+    static final String POST_CARD_COLUMNS = "p.post_id, " +
+            "LEFT(p.content, " + PostCard.PREVIEW_LENGTH + ") AS content_preview, " +
+            "CHAR_LENGTH(p.content) > " + PostCard.PREVIEW_LENGTH + " AS truncated, p.media_url, p.post_type, " +
+            "p.visibility, p.like_count, p.comment_count, p.share_count, p.created_at, " + UserDAO.USER_CARD_COLUMNS;
+
+    // Maps POST_CARD_COLUMNS rows, with the author's card read from the joined user columns; shared with FeedDAO
+    static final RowMapper<PostCard> POST_CARDS = new RowMapper<>(columns -> {
+        RowMapper.Row<UserCard> authors = UserDAO.USER_CARDS.compile(columns);
+        int postId = columns.require("post_id");
+        int contentPreview = columns.require("content_preview");
+        int truncated = columns.require("truncated");
+        int mediaUrl = columns.require("media_url");
+        int postType = columns.require("post_type");
+        int visibility = columns.require("visibility");
+        int likeCount = columns.require("like_count");
+        int commentCount = columns.require("comment_count");
+        int shareCount = columns.require("share_count");
+        int createdAt = columns.require("created_at");
+
+        return rs -> {
+            PostCard card = new PostCard();
+            UserCard author = authors.map(rs);
+            card.setPostId(rs.getInt(postId));
+            card.setUserId(author.getUserId());
+            card.setAuthorUsername(author.getUsername());
+            card.setAuthorName(author.getDisplayName());
+            card.setAuthorType(author.getUserType());
+            card.setContentPreview(rs.getString(contentPreview));
+            card.setTruncated(rs.getBoolean(truncated));
+            card.setMediaUrl(rs.getString(mediaUrl));
+            card.setPostType(Post.PostType.valueOf(rs.getString(postType)));
+            card.setVisibility(Post.Visibility.valueOf(rs.getString(visibility)));
+            card.setLikeCount(rs.getInt(likeCount));
+            card.setCommentCount(rs.getInt(commentCount));
+            card.setShareCount(rs.getInt(shareCount));
+            card.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            return card;
+        };
+    });
+
+    // Create post. The row, its hashtag and category index entries are written in one transaction.
     public int createPost(Post post) throws SQLException {
         String sql = "INSERT INTO posts (user_id, content, media_url, post_type, visibility) " +
                 "VALUES (?, ?, ?, ?, ?)";
 
-        try (java.sql.Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (java.sql.Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setInt(1, post.getUserId());
-            pstmt.setString(2, post.getContent());
-            pstmt.setString(3, post.getMediaUrl());
-            pstmt.setString(4, post.getPostType().name());
-            pstmt.setString(5, post.getVisibility().name());
+                pstmt.setInt(1, post.getUserId());
+                pstmt.setString(2, post.getContent());
+                pstmt.setString(3, post.getMediaUrl());
+                pstmt.setString(4, post.getPostType().name());
+                pstmt.setString(5, post.getVisibility().name());
 
-            int affectedRows = pstmt.executeUpdate();
+                int affectedRows = pstmt.executeUpdate();
 
-            if (affectedRows == 0) {
-                throw new SQLException("Creating post failed, no rows affected.");
-            }
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating post failed, no rows affected.");
+                }
 
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Creating post failed, no ID obtained.");
+                    }
                     int postId = generatedKeys.getInt(1);
+                    post.setPostId(postId);
+                    loadTimestamps(conn, post);
+                    indexHashtags(conn, postId, post);
+                    CategoryDAO.indexPost(conn, postId, post.getVisibility() == Post.Visibility.PUBLIC);
+                    conn.commit();
                     System.out.println("Post created successfully with ID: " + postId);
                     return postId;
-                } else {
-                    throw new SQLException("Creating post failed, no ID obtained.");
                 }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
         }
     }
@@ -50,9 +141,10 @@ public class PostDAO {
 
             pstmt.setInt(1, postId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Post> row = POSTS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToPost(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -70,14 +162,38 @@ public class PostDAO {
             pstmt.setInt(2, limit);
             pstmt.setInt(3, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Post> row = POSTS.forResultSet(rs);
 
             while (rs.next()) {
-                posts.add(mapResultSetToPost(rs));
+                posts.add(row.map(rs));
             }
         }
         return posts;
     }
 
+    // Get the cards of a user's posts, newest first
+    public List<PostCard> getPostCardsByUser(int userId, int limit, int offset) throws SQLException {
+        List<PostCard> cards = new ArrayList<>();
+        String sql = "SELECT " + POST_CARD_COLUMNS + " " +
+                "FROM posts p INNER JOIN users u ON u.user_id = p.user_id " +
+                "WHERE p.user_id = ? ORDER BY p.created_at DESC LIMIT ? OFFSET ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, offset);
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = POST_CARDS.forResultSet(rs);
+
+            while (rs.next()) {
+                cards.add(row.map(rs));
+            }
+        }
+        return cards;
+    }
+
     // Get feed posts for user (posts from connections and followed users)
     public List<Post> getFeedPosts(int userId, int limit, int offset) throws SQLException {
         List<Post> posts = new ArrayList<>();
@@ -103,31 +219,42 @@ public class PostDAO {
             pstmt.setInt(6, offset);
 
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Post> row = POSTS.forResultSet(rs);
 
             while (rs.next()) {
-                posts.add(mapResultSetToPost(rs));
+                posts.add(row.map(rs));
             }
         }
         return posts;
     }
 
-    // Update post
+    // Update post. The row and its hashtag and category index entries change in one transaction.
     public boolean updatePost(Post post) throws SQLException {
         String sql = "UPDATE posts SET content = ?, media_url = ?, post_type = ?, " +
                 "visibility = ?, updated_at = CURRENT_TIMESTAMP WHERE post_id = ?";
 
-        try (java.sql.Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (java.sql.Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, post.getContent());
-            pstmt.setString(2, post.getMediaUrl());
-            pstmt.setString(3, post.getPostType().name());
-            pstmt.setString(4, post.getVisibility().name());
-            pstmt.setInt(5, post.getPostId());
+                pstmt.setString(1, post.getContent());
+                pstmt.setString(2, post.getMediaUrl());
+                pstmt.setString(3, post.getPostType().name());
+                pstmt.setString(4, post.getVisibility().name());
+                pstmt.setInt(5, post.getPostId());
 
-            int rowsAffected = pstmt.executeUpdate();
-            System.out.println("Updated post with ID: " + post.getPostId() + ", rows affected: " + rowsAffected);
-            return rowsAffected > 0;
+                int rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    indexHashtags(conn, post.getPostId(), post);
+                    CategoryDAO.indexPost(conn, post.getPostId(), post.getVisibility() == Post.Visibility.PUBLIC);
+                }
+                conn.commit();
+                System.out.println("Updated post with ID: " + post.getPostId() + ", rows affected: " + rowsAffected);
+                return rowsAffected > 0;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 
@@ -184,63 +311,186 @@ public class PostDAO {
         }
     }
 
-    // Search posts by content
-    public List<Post> searchPosts(String query) throws SQLException {
+    // Lowest and highest ID of the posts created since a time, or null if there are none
+    public int[] getPostIdRangeSince(Timestamp since) throws SQLException {
+        String sql = "SELECT MIN(post_id), MAX(post_id) FROM posts WHERE created_at >= ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setTimestamp(1, since);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next() && rs.getObject(1) != null) {
+                return new int[] {rs.getInt(1), rs.getInt(2)};
+            }
+            return null;
+        }
+    }
+
+    // Stream the ranking fields of posts created since a time with ID in [fromId, toId], in ID
+    // order. Bodies are not read, and rows are streamed rather than buffered.
+    public void streamPostMetadata(Timestamp since, int fromId, int toId, MetadataVisitor visitor) throws SQLException {
+        String sql = "SELECT post_id, user_id, created_at, visibility, post_type, media_url IS NOT NULL, " +
+                "like_count, comment_count, share_count FROM posts " +
+                "WHERE post_id BETWEEN ? AND ? AND created_at >= ? ORDER BY post_id";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            // Tells MySQL Connector/J to stream rows one at a time
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            pstmt.setInt(1, fromId);
+            pstmt.setInt(2, toId);
+            pstmt.setTimestamp(3, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(rs.getInt(1), rs.getInt(2), rs.getTimestamp(3).getTime(),
+                            Post.Visibility.valueOf(rs.getString(4)), Post.PostType.valueOf(rs.getString(5)),
+                            rs.getBoolean(6), rs.getInt(7), rs.getInt(8), rs.getInt(9));
+                }
+            }
+        }
+    }
+
+    // Get posts by IDs, in the order the IDs were given; missing posts are skipped
+    public List<Post> getPostsByIds(List<Integer> postIds) throws SQLException {
         List<Post> posts = new ArrayList<>();
-        String sql = "SELECT * FROM posts WHERE content LIKE ? AND visibility = 'PUBLIC' " +
-                "ORDER BY created_at DESC LIMIT 50";
+        if (postIds.isEmpty()) {
+            return posts;
+        }
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < postIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT * FROM posts WHERE post_id IN (" + placeholders + ")";
 
+        Map<Integer, Post> postsById = new HashMap<>();
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, "%" + query + "%");
+            for (int i = 0; i < postIds.size(); i++) {
+                pstmt.setInt(i + 1, postIds.get(i));
+            }
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Post> row = POSTS.forResultSet(rs);
 
             while (rs.next()) {
-                posts.add(mapResultSetToPost(rs));
+                Post post = row.map(rs);
+                postsById.put(post.getPostId(), post);
+            }
+        }
+
+        for (Integer postId : postIds) {
+            Post post = postsById.get(postId);
+            if (post != null) {
+                posts.add(post);
             }
         }
         return posts;
     }
 
-    // Get trending posts (most liked in last 7 days)
-    public List<Post> getTrendingPosts(int limit) throws SQLException {
+    // Get post cards by IDs, in the order the IDs were given; missing posts are skipped.
+    // Reads only the card columns and the first PREVIEW_LENGTH characters of the content,
+    // with the author's name joined in.
+    public List<PostCard> getPostCardsByIds(List<Integer> postIds) throws SQLException {
+        List<PostCard> cards = new ArrayList<>();
+        if (postIds.isEmpty()) {
+            return cards;
+        }
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < postIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT " + POST_CARD_COLUMNS + " " +
+                "FROM posts p INNER JOIN users u ON u.user_id = p.user_id " +
+                "WHERE p.post_id IN (" + placeholders + ")";
+
+        Map<Integer, PostCard> cardsById = new HashMap<>();
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < postIds.size(); i++) {
+                pstmt.setInt(i + 1, postIds.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<PostCard> row = POST_CARDS.forResultSet(rs);
+
+            while (rs.next()) {
+                PostCard card = row.map(rs);
+                cardsById.put(card.getPostId(), card);
+            }
+        }
+
+        for (Integer postId : postIds) {
+            PostCard card = cardsById.get(postId);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    // Get public posts with ID above afterId, in ID order (for loading in-memory indexes)
+    public List<Post> getPublicPostsAfter(int afterId, int limit) throws SQLException {
         List<Post> posts = new ArrayList<>();
-        String sql = "SELECT * FROM posts " +
-                "WHERE created_at >= DATE_SUB(NOW(), INTERVAL 7 DAY) " +
-                "AND visibility = 'PUBLIC' " +
-                "ORDER BY like_count DESC, comment_count DESC " +
-                "LIMIT ?";
+        String sql = "SELECT * FROM posts WHERE post_id > ? AND visibility = 'PUBLIC' " +
+                "ORDER BY post_id LIMIT ?";
 
         try (java.sql.Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setInt(1, limit);
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<Post> row = POSTS.forResultSet(rs);
 
             while (rs.next()) {
-                posts.add(mapResultSetToPost(rs));
+                posts.add(row.map(rs));
             }
         }
         return posts;
     }
 
-    // Helper method to map ResultSet to Post
-    private Post mapResultSetToPost(ResultSet rs) throws SQLException {
-        Post post = new Post();
+    // Helper method to copy the database-assigned timestamps onto a newly created post,
+    // so in-memory copies sort and page exactly like the table
+    private void loadTimestamps(java.sql.Connection conn, Post post) throws SQLException {
+        String sql = "SELECT created_at, updated_at FROM posts WHERE post_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, post.getPostId());
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            }
+        }
+    }
 
-        post.setPostId(rs.getInt("post_id"));
-        post.setUserId(rs.getInt("user_id"));
-        post.setContent(rs.getString("content"));
-        post.setMediaUrl(rs.getString("media_url"));
-        post.setPostType(Post.PostType.valueOf(rs.getString("post_type")));
-        post.setLikeCount(rs.getInt("like_count"));
-        post.setCommentCount(rs.getInt("comment_count"));
-        post.setShareCount(rs.getInt("share_count"));
-        post.setVisibility(Post.Visibility.valueOf(rs.getString("visibility")));
-        post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+    // Helper method to replace a post's rows in post_hashtags; only public posts are listed.
+    // created_at is copied from the post row so hashtag feeds page by the post's own timestamp.
+    private void indexHashtags(java.sql.Connection conn, int postId, Post post) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM post_hashtags WHERE post_id = ?")) {
+            delete.setInt(1, postId);
+            delete.executeUpdate();
+        }
 
-        return post;
+        List<String> hashtags = ContentParser.extractHashtags(post.getContent());
+        if (hashtags.isEmpty() || post.getVisibility() != Post.Visibility.PUBLIC) {
+            return;
+        }
+
+        String sql = "INSERT INTO post_hashtags (hashtag, created_at, post_id) " +
+                "SELECT ?, created_at, post_id FROM posts WHERE post_id = ?";
+        try (PreparedStatement insert = conn.prepareStatement(sql)) {
+            for (String hashtag : hashtags) {
+                insert.setString(1, hashtag);
+                insert.setInt(2, postId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
     }
-}
\ No newline at end of file
+}
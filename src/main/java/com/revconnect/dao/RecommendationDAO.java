@@ -0,0 +1,246 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.models.PostSimilarity;
+import com.revconnect.utils.IntList;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-viewer signals for post recommendations (every query is bounded by a limit), and the
+// reads and writes of the item similarity job
+public class RecommendationDAO {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    public interface LikeVisitor {
+        void visit(int userId, int postId);
+    }
+
+    // Authors followed by the people the user follows or is connected to, with the number
+    // of such paths, most connected first
+    public Map<Integer, Integer> getSecondDegreeAuthors(int userId, int limit) throws SQLException {
+        String sql = "SELECT f.followed_id AS author_id, COUNT(*) AS paths FROM follows f " +
+                "WHERE f.follower_id IN ( " +
+                "    SELECT followed_id FROM follows WHERE follower_id = ? " +
+                "    UNION " +
+                "    SELECT CASE WHEN user_id1 = ? THEN user_id2 ELSE user_id1 END FROM connections " +
+                "    WHERE status = 'ACCEPTED' AND (user_id1 = ? OR user_id2 = ?) " +
+                ") " +
+                "AND f.followed_id <> ? " +
+                "GROUP BY f.followed_id " +
+                "ORDER BY paths DESC " +
+                "LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, userId);
+            pstmt.setInt(4, userId);
+            pstmt.setInt(5, userId);
+            pstmt.setInt(6, limit);
+            return readCounts(pstmt.executeQuery(), "author_id", "paths");
+        }
+    }
+
+    // Authors of the posts the user liked most recently, with how many of their posts were liked
+    public Map<Integer, Integer> getLikedAuthors(int userId, int recentLikes, int limit) throws SQLException {
+        String sql = "SELECT p.user_id AS author_id, COUNT(*) AS likes FROM ( " +
+                "    SELECT post_id FROM likes WHERE user_id = ? AND post_id IS NOT NULL " +
+                "    ORDER BY created_at DESC LIMIT ? " +
+                ") l " +
+                "INNER JOIN posts p ON p.post_id = l.post_id " +
+                "WHERE p.user_id <> ? " +
+                "GROUP BY p.user_id " +
+                "ORDER BY likes DESC " +
+                "LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, recentLikes);
+            pstmt.setInt(3, userId);
+            pstmt.setInt(4, limit);
+            return readCounts(pstmt.executeQuery(), "author_id", "likes");
+        }
+    }
+
+    // Authors of the posts among the user's recent likes and comments, with how often the user
+    // interacted with each, most interacted first; the user's own posts are not counted
+    public Map<Integer, Integer> getInteractedAuthors(int userId, int recentInteractions, int limit,
+                                                      int timeoutSeconds) throws SQLException {
+        String sql = "SELECT p.user_id AS author_id, COUNT(*) AS interactions FROM ( " +
+                "    (SELECT post_id FROM likes WHERE user_id = ? AND post_id IS NOT NULL " +
+                "     ORDER BY created_at DESC LIMIT ?) " +
+                "    UNION ALL " +
+                "    (SELECT post_id FROM comments WHERE user_id = ? ORDER BY created_at DESC LIMIT ?) " +
+                ") i " +
+                "INNER JOIN posts p ON p.post_id = i.post_id " +
+                "WHERE p.user_id <> ? " +
+                "GROUP BY p.user_id " +
+                "ORDER BY interactions DESC " +
+                "LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, recentInteractions);
+            pstmt.setInt(3, userId);
+            pstmt.setInt(4, recentInteractions);
+            pstmt.setInt(5, userId);
+            pstmt.setInt(6, limit);
+            pstmt.setQueryTimeout(timeoutSeconds);
+            return readCounts(pstmt.executeQuery(), "author_id", "interactions");
+        }
+    }
+
+    // IDs of the posts the user most recently liked or commented on
+    public IntList getInteractedPostIds(int userId, int limit) throws SQLException {
+        IntList postIds = new IntList(limit * 2);
+        String sql = "(SELECT post_id FROM likes WHERE user_id = ? AND post_id IS NOT NULL " +
+                "ORDER BY created_at DESC LIMIT ?) " +
+                "UNION " +
+                "(SELECT post_id FROM comments WHERE user_id = ? ORDER BY created_at DESC LIMIT ?)";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, userId);
+            pstmt.setInt(4, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                postIds.add(rs.getInt("post_id"));
+            }
+        }
+        return postIds;
+    }
+
+    // IDs of the posts the user liked most recently, newest first
+    public List<Integer> getRecentlyLikedPostIds(int userId, int limit) throws SQLException {
+        List<Integer> postIds = new ArrayList<>();
+        String sql = "SELECT post_id FROM likes WHERE user_id = ? AND post_id IS NOT NULL " +
+                "ORDER BY created_at DESC LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                postIds.add(rs.getInt("post_id"));
+            }
+        }
+        return postIds;
+    }
+
+    // Nearest neighbours of the given posts, with scores summed over the posts that list them
+    public Map<Integer, Double> getSimilarPosts(List<Integer> postIds, int neighborsPerPost) throws SQLException {
+        Map<Integer, Double> similar = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return similar;
+        }
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < postIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        // Primary key ranges: neighbor_rank < ? within each post_id
+        String sql = "SELECT similar_post_id, score FROM post_similarities " +
+                "WHERE post_id IN (" + placeholders + ") AND neighbor_rank < ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (Integer postId : postIds) {
+                pstmt.setInt(index++, postId);
+            }
+            pstmt.setInt(index, neighborsPerPost);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                similar.merge(rs.getInt("similar_post_id"), rs.getDouble("score"), Double::sum);
+            }
+        }
+        return similar;
+    }
+
+    // Stream likes on public posts since a time, grouped by user with each user's newest first.
+    // Rows are streamed rather than buffered by the driver; a visitor that keeps them, as
+    // ItemSimilarityJob does, still needs memory for every like since the given time.
+    public void streamLikesByUser(Timestamp since, LikeVisitor visitor) throws SQLException {
+        String sql = "SELECT l.user_id, l.post_id FROM likes l " +
+                "INNER JOIN posts p ON p.post_id = l.post_id " +
+                "WHERE l.created_at >= ? AND p.visibility = 'PUBLIC' " +
+                "ORDER BY l.user_id, l.created_at DESC";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            // Tells MySQL Connector/J to stream rows one at a time
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            pstmt.setTimestamp(1, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+    }
+
+    // Replace every post's neighbours. The new rows are written to a copy of the table that is
+    // renamed into place, so readers see either the old set or the new one, never a mix.
+    public void replaceSimilarities(List<PostSimilarity> similarities) throws SQLException {
+        String insertSql = "INSERT INTO post_similarities_next (post_id, neighbor_rank, similar_post_id, score) " +
+                "VALUES (?, ?, ?, ?)";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.executeUpdate("DROP TABLE IF EXISTS post_similarities_next");
+            stmt.executeUpdate("CREATE TABLE post_similarities_next LIKE post_similarities");
+
+            try (PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                int batched = 0;
+                for (PostSimilarity similarity : similarities) {
+                    insert.setInt(1, similarity.getPostId());
+                    insert.setInt(2, similarity.getNeighborRank());
+                    insert.setInt(3, similarity.getSimilarPostId());
+                    insert.setFloat(4, (float) similarity.getScore());
+                    insert.addBatch();
+                    if (++batched % INSERT_BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+
+            stmt.executeUpdate("DROP TABLE IF EXISTS post_similarities_old");
+            stmt.executeUpdate("RENAME TABLE post_similarities TO post_similarities_old, " +
+                    "post_similarities_next TO post_similarities");
+            stmt.executeUpdate("DROP TABLE post_similarities_old");
+        }
+    }
+
+    // Helper method to read (id, count) rows in result order
+    private Map<Integer, Integer> readCounts(ResultSet rs, String idColumn, String countColumn) throws SQLException {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        while (rs.next()) {
+            counts.put(rs.getInt(idColumn), rs.getInt(countColumn));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,109 @@
+package com.revconnect.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps result set rows to objects by column position rather than by name.
+// The first time a query shape (its list of column labels) is seen, the compiler looks up the
+// positions of the columns it needs and returns a Row that reads them by index; later result
+// sets with the same shape reuse that Row, so no row pays for a name lookup.
+public class RowMapper<T> {
+    // Query shapes kept per mapper; IN lists of every length share a shape, so few are expected
+    private static final int MAX_SHAPES = 64;
+
+    public interface Compiler<T> {
+        Row<T> compile(Columns columns) throws SQLException;
+    }
+
+    public interface Row<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final Compiler<T> compiler;
+    private final Map<String, Row<T>> rowsByShape = new ConcurrentHashMap<>();
+
+    public RowMapper(Compiler<T> compiler) {
+        this.compiler = compiler;
+    }
+
+    // The row reader for this result set's columns; call once per result set, before the loop
+    public Row<T> forResultSet(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        StringBuilder shape = new StringBuilder();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            shape.append(meta.getColumnLabel(i)).append(',');
+        }
+
+        String key = shape.toString();
+        Row<T> row = rowsByShape.get(key);
+        if (row == null) {
+            row = compiler.compile(new Columns(meta));
+            if (rowsByShape.size() < MAX_SHAPES) {
+                rowsByShape.putIfAbsent(key, row);
+            }
+        }
+        return row;
+    }
+
+    // Compile against columns already resolved, for mappers that embed this one
+    public Row<T> compile(Columns columns) throws SQLException {
+        return compiler.compile(columns);
+    }
+
+    // Map every remaining row
+    public List<T> mapAll(ResultSet rs) throws SQLException {
+        Row<T> row = forResultSet(rs);
+        List<T> mapped = new ArrayList<>();
+        while (rs.next()) {
+            mapped.add(row.map(rs));
+        }
+        return mapped;
+    }
+
+    // Integer column that may be NULL
+    public static Integer getNullableInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    // Timestamp column as LocalDateTime, or null
+    public static LocalDateTime getDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    // Column positions by label, read once from a result set's metadata.
+    // When two columns share a label (a join selecting both user_id), the first one wins.
+    public static class Columns {
+        private final Map<String, Integer> indexByLabel = new HashMap<>();
+
+        Columns(ResultSetMetaData meta) throws SQLException {
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                indexByLabel.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        // Position of a column the query must have
+        public int require(String label) throws SQLException {
+            Integer index = indexByLabel.get(label.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("Column " + label + " is not in the result set");
+            }
+            return index;
+        }
+
+        // Position of a column, or 0 if the query did not select it
+        public int optional(String label) {
+            return indexByLabel.getOrDefault(label.toLowerCase(Locale.ROOT), 0);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.IntList;
+
+import java.sql.*;
+
+public class SavedPostDAO {
+
+    // Save a post for the user; false if it was already saved
+    public boolean savePost(int userId, int postId) throws SQLException {
+        String sql = "INSERT IGNORE INTO saved_posts (user_id, post_id) VALUES (?, ?)";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, postId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    // Remove a post from the user's saved posts; false if it was not saved
+    public boolean unsavePost(int userId, int postId) throws SQLException {
+        String sql = "DELETE FROM saved_posts WHERE user_id = ? AND post_id = ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, postId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    // IDs of every post the user has saved, read from the (user_id, post_id) key alone
+    public IntList getSavedPostIds(int userId) throws SQLException {
+        IntList postIds = new IntList();
+        String sql = "SELECT post_id FROM saved_posts WHERE user_id = ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                postIds.add(rs.getInt(1));
+            }
+        }
+        return postIds;
+    }
+}
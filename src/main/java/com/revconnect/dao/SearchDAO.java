@@ -0,0 +1,87 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Id-only search queries behind the LIKE and FULLTEXT search engines
+public class SearchDAO {
+
+    // Public posts whose content contains the query, newest first
+    public List<Integer> searchPostIdsLike(String query, int limit) throws SQLException {
+        String sql = "SELECT post_id FROM posts WHERE content LIKE ? AND visibility = 'PUBLIC' " +
+                "ORDER BY created_at DESC LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, "%" + query + "%");
+            pstmt.setInt(2, limit);
+            return readIds(pstmt.executeQuery());
+        }
+    }
+
+    // Active users whose name fields contain the query, most followed first
+    public List<Integer> searchUserIdsLike(String query, int limit, int offset) throws SQLException {
+        String sql = "SELECT user_id FROM users WHERE is_active = TRUE AND " +
+                "(username LIKE ? OR first_name LIKE ? OR last_name LIKE ? OR business_name LIKE ?) " +
+                "ORDER BY followers_count DESC, user_id LIMIT ? OFFSET ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            String searchPattern = "%" + query + "%";
+            pstmt.setString(1, searchPattern);
+            pstmt.setString(2, searchPattern);
+            pstmt.setString(3, searchPattern);
+            pstmt.setString(4, searchPattern);
+            pstmt.setInt(5, limit);
+            pstmt.setInt(6, offset);
+            return readIds(pstmt.executeQuery());
+        }
+    }
+
+    // Public posts matching a FULLTEXT query, most relevant first
+    public List<Integer> searchPostIdsFullText(String against, boolean booleanMode, int limit) throws SQLException {
+        String match = "MATCH(content) AGAINST (? IN " + (booleanMode ? "BOOLEAN" : "NATURAL LANGUAGE") + " MODE)";
+        String sql = "SELECT post_id, " + match + " AS relevance FROM posts " +
+                "WHERE " + match + " AND visibility = 'PUBLIC' " +
+                "ORDER BY relevance DESC, created_at DESC LIMIT ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, against);
+            pstmt.setString(2, against);
+            pstmt.setInt(3, limit);
+            return readIds(pstmt.executeQuery());
+        }
+    }
+
+    // Active users matching a boolean-mode FULLTEXT query, most followed first
+    public List<Integer> searchUserIdsFullText(String against, int limit, int offset) throws SQLException {
+        String sql = "SELECT user_id FROM users WHERE is_active = TRUE AND " +
+                "MATCH(username, first_name, last_name, business_name) AGAINST (? IN BOOLEAN MODE) " +
+                "ORDER BY followers_count DESC, user_id LIMIT ? OFFSET ?";
+
+        try (java.sql.Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, against);
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, offset);
+            return readIds(pstmt.executeQuery());
+        }
+    }
+
+    // Helper method to read the first column of every row
+    private List<Integer> readIds(ResultSet rs) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        while (rs.next()) {
+            ids.add(rs.getInt(1));
+        }
+        return ids;
+    }
+}
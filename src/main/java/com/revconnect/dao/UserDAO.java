@@ -4,13 +4,103 @@ import com.revconnect.models.User;
 import com.revconnect.models.PersonalUser;
 import com.revconnect.models.BusinessUser;
 import com.revconnect.models.CreatorUser;
+import com.revconnect.models.UserCard;
 import com.revconnect.config.DatabaseConfig;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class UserDAO {
+    // Columns behind a UserCard; the bio is cut in the database so only the preview is sent
+    static final String USER_CARD_COLUMNS = "u.user_id, u.username, u.first_name, u.last_name, " +
+            "u.business_name, u.user_type, u.followers_count, LEFT(u.bio, " + (UserCard.BIO_PREVIEW_LENGTH + 1) + ") AS bio_preview";
+
+    // Maps the USER_CARD_COLUMNS of a row; PostDAO embeds it in post card rows
+    static final RowMapper<UserCard> USER_CARDS = new RowMapper<>(columns -> {
+        int userId = columns.require("user_id");
+        int username = columns.require("username");
+        int firstName = columns.require("first_name");
+        int lastName = columns.require("last_name");
+        int userType = columns.require("user_type");
+        int businessName = columns.require("business_name");
+        int followersCount = columns.require("followers_count");
+        int bioPreview = columns.require("bio_preview");
+
+        return rs -> {
+            UserCard card = new UserCard(rs.getInt(userId), rs.getString(username), rs.getString(firstName),
+                    rs.getString(lastName), User.UserType.valueOf(rs.getString(userType)));
+            card.setBusinessName(rs.getString(businessName));
+            card.setFollowersCount(rs.getInt(followersCount));
+            card.setBioPreview(rs.getString(bioPreview));
+            return card;
+        };
+    });
+
+    // Maps users rows to the User subclass for their user_type; the subtype columns are
+    // resolved with the rest, so the dispatch costs no lookups per row
+    static final RowMapper<User> USERS = new RowMapper<>(columns -> {
+        int userId = columns.require("user_id");
+        int username = columns.require("username");
+        int email = columns.require("email");
+        int passwordHash = columns.require("password_hash");
+        int firstName = columns.require("first_name");
+        int lastName = columns.require("last_name");
+        int userType = columns.require("user_type");
+        int bio = columns.require("bio");
+        int profilePictureUrl = columns.require("profile_picture_url");
+        int websiteUrl = columns.require("website_url");
+        int businessName = columns.require("business_name");
+        int businessType = columns.require("business_type");
+        int creatorCategory = columns.require("creator_category");
+        int followersCount = columns.require("followers_count");
+        int followingCount = columns.require("following_count");
+        int createdAt = columns.require("created_at");
+        int updatedAt = columns.require("updated_at");
+        int isActive = columns.require("is_active");
+
+        return rs -> {
+            User.UserType type = User.UserType.valueOf(rs.getString(userType));
+            User user;
+
+            switch (type) {
+                case BUSINESS:
+                    BusinessUser businessUser = new BusinessUser();
+                    businessUser.setBusinessName(rs.getString(businessName));
+                    businessUser.setBusinessType(rs.getString(businessType));
+                    user = businessUser;
+                    break;
+                case CREATOR:
+                    CreatorUser creatorUser = new CreatorUser();
+                    creatorUser.setCreatorCategory(rs.getString(creatorCategory));
+                    user = creatorUser;
+                    break;
+                default:
+                    user = new PersonalUser();
+                    break;
+            }
+
+            user.setUserId(rs.getInt(userId));
+            user.setUsername(rs.getString(username));
+            user.setEmail(rs.getString(email));
+            user.setPasswordHash(rs.getString(passwordHash));
+            user.setFirstName(rs.getString(firstName));
+            user.setLastName(rs.getString(lastName));
+            user.setUserType(type);
+            user.setBio(rs.getString(bio));
+            user.setProfilePictureUrl(rs.getString(profilePictureUrl));
+            user.setWebsiteUrl(rs.getString(websiteUrl));
+            user.setFollowersCount(rs.getInt(followersCount));
+            user.setFollowingCount(rs.getInt(followingCount));
+            user.setCreatedAt(RowMapper.getDateTime(rs, createdAt));
+            user.setUpdatedAt(RowMapper.getDateTime(rs, updatedAt));
+            user.setActive(rs.getBoolean(isActive));
+            return user;
+        };
+    });
 
     // Create user
     public int createUser(User user) throws SQLException {
@@ -76,9 +166,10 @@ public class UserDAO {
 
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<User> row = USERS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToUser(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -93,9 +184,10 @@ public class UserDAO {
 
             pstmt.setString(1, username);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<User> row = USERS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToUser(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -110,9 +202,10 @@ public class UserDAO {
 
             pstmt.setString(1, email);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<User> row = USERS.forResultSet(rs);
 
             if (rs.next()) {
-                return mapResultSetToUser(rs);
+                return row.map(rs);
             }
             return null;
         }
@@ -156,6 +249,9 @@ public class UserDAO {
             pstmt.setInt(11, user.getUserId());
 
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                CategoryDAO.reindexUserPosts(conn, user.getUserId());
+            }
             System.out.println("Updated user with ID: " + user.getUserId() + ", rows affected: " + rowsAffected);
             return rowsAffected > 0;
         }
@@ -186,39 +282,147 @@ public class UserDAO {
             pstmt.setInt(1, limit);
             pstmt.setInt(2, offset);
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<User> row = USERS.forResultSet(rs);
 
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(row.map(rs));
             }
         }
         return users;
     }
 
-    // Search users by name or username
-    public List<User> searchUsers(String query) throws SQLException {
+    // Get users by IDs, in the order the IDs were given; missing users are skipped
+    public List<User> getUsersByIds(List<Integer> userIds) throws SQLException {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users WHERE is_active = TRUE AND " +
-                "(username LIKE ? OR first_name LIKE ? OR last_name LIKE ? OR business_name LIKE ?) " +
-                "ORDER BY username";
+        if (userIds.isEmpty()) {
+            return users;
+        }
 
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < userIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT * FROM users WHERE user_id IN (" + placeholders + ")";
+
+        Map<Integer, User> usersById = new HashMap<>();
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            String searchPattern = "%" + query + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
-            pstmt.setString(3, searchPattern);
-            pstmt.setString(4, searchPattern);
-
+            for (int i = 0; i < userIds.size(); i++) {
+                pstmt.setInt(i + 1, userIds.get(i));
+            }
             ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<User> row = USERS.forResultSet(rs);
 
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                User user = row.map(rs);
+                usersById.put(user.getUserId(), user);
+            }
+        }
+
+        for (Integer userId : userIds) {
+            User user = usersById.get(userId);
+            if (user != null) {
+                users.add(user);
             }
         }
         return users;
     }
 
+    // Get IDs of active users by username, keyed by lowercased username; unknown names are absent
+    public Map<String, Integer> getUserIdsByUsernames(Collection<String> usernames) throws SQLException {
+        Map<String, Integer> userIds = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return userIds;
+        }
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < usernames.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT user_id, username FROM users WHERE is_active = TRUE AND username IN (" + placeholders + ")";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (String username : usernames) {
+                pstmt.setString(index++, username);
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                userIds.put(rs.getString("username").toLowerCase(), rs.getInt("user_id"));
+            }
+        }
+        return userIds;
+    }
+
+    // Get user cards by IDs, keyed by user ID; missing users are absent
+    public Map<Integer, UserCard> getUserCards(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, UserCard> cards = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return cards;
+        }
+
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < userIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT " + USER_CARD_COLUMNS + " FROM users u WHERE u.user_id IN (" + placeholders + ")";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (Integer userId : userIds) {
+                pstmt.setInt(index++, userId);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<UserCard> row = USER_CARDS.forResultSet(rs);
+
+            while (rs.next()) {
+                UserCard card = row.map(rs);
+                cards.put(card.getUserId(), card);
+            }
+        }
+        return cards;
+    }
+
+    // Get user cards by IDs, in the order the IDs were given; missing users are skipped
+    public List<UserCard> getUserCardsByIds(List<Integer> userIds) throws SQLException {
+        Map<Integer, UserCard> cardsById = getUserCards(userIds);
+        List<UserCard> cards = new ArrayList<>();
+        for (Integer userId : userIds) {
+            UserCard card = cardsById.get(userId);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    // Get cards of active users with ID above afterId, in ID order (for loading in-memory indexes)
+    public List<UserCard> getActiveUserCardsAfter(int afterId, int limit) throws SQLException {
+        List<UserCard> cards = new ArrayList<>();
+        String sql = "SELECT " + USER_CARD_COLUMNS + " FROM users u " +
+                "WHERE u.user_id > ? AND u.is_active = TRUE ORDER BY u.user_id LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+            RowMapper.Row<UserCard> row = USER_CARDS.forResultSet(rs);
+
+            while (rs.next()) {
+                cards.add(row.map(rs));
+            }
+        }
+        return cards;
+    }
+
     // Update password
     public boolean updatePassword(int userId, String newPasswordHash) throws SQLException {
         String sql = "UPDATE users SET password_hash = ?, updated_at = CURRENT_TIMESTAMP WHERE user_id = ?";
@@ -260,44 +464,4 @@ public class UserDAO {
         }
     }
 
-    // Helper method to map ResultSet to appropriate User subclass
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User.UserType userType = User.UserType.valueOf(rs.getString("user_type"));
-        User user;
-
-        switch (userType) {
-            case BUSINESS:
-                BusinessUser businessUser = new BusinessUser();
-                businessUser.setBusinessName(rs.getString("business_name"));
-                businessUser.setBusinessType(rs.getString("business_type"));
-                user = businessUser;
-                break;
-            case CREATOR:
-                CreatorUser creatorUser = new CreatorUser();
-                creatorUser.setCreatorCategory(rs.getString("creator_category"));
-                user = creatorUser;
-                break;
-            default:
-                user = new PersonalUser();
-                break;
-        }
-
-        user.setUserId(rs.getInt("user_id"));
-        user.setUsername(rs.getString("username"));
-        user.setEmail(rs.getString("email"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setFirstName(rs.getString("first_name"));
-        user.setLastName(rs.getString("last_name"));
-        user.setUserType(userType);
-        user.setBio(rs.getString("bio"));
-        user.setProfilePictureUrl(rs.getString("profile_picture_url"));
-        user.setWebsiteUrl(rs.getString("website_url"));
-        user.setFollowersCount(rs.getInt("followers_count"));
-        user.setFollowingCount(rs.getInt("following_count"));
-        user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-        user.setActive(rs.getBoolean("is_active"));
-
-        return user;
-    }
 }
\ No newline at end of file
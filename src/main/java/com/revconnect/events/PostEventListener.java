@@ -0,0 +1,20 @@
+package com.revconnect.events;
+
+import com.revconnect.models.Post;
+
+// Receives post lifecycle events from PostService; implement only what you need
+public interface PostEventListener {
+
+    default void onPostCreated(Post post) {}
+
+    default void onPostUpdated(Post post) {}
+
+    default void onPostDeleted(int postId) {}
+
+    // A counter write to the posts table is about to start; always followed by onCountersChanged,
+    // with zero deltas if the write failed
+    default void onCountersChanging(int postId) {}
+
+    // Counter changes already written to the posts table; deltas are negative for an unlike
+    default void onCountersChanged(int postId, int likeDelta, int commentDelta, int shareDelta) {}
+}
@@ -0,0 +1,72 @@
+package com.revconnect.events;
+
+import com.revconnect.models.Post;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Fans post lifecycle events out to in-memory indexes and caches
+public class PostEvents {
+    private static final Logger logger = LogManager.getLogger(PostEvents.class);
+    private static final List<PostEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static void register(PostEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void unregister(PostEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    public static void postCreated(Post post) {
+        for (PostEventListener listener : listeners) {
+            try {
+                listener.onPostCreated(post);
+            } catch (RuntimeException e) {
+                logger.error("Post listener failed on create of post " + post.getPostId() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static void postUpdated(Post post) {
+        for (PostEventListener listener : listeners) {
+            try {
+                listener.onPostUpdated(post);
+            } catch (RuntimeException e) {
+                logger.error("Post listener failed on update of post " + post.getPostId() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static void postDeleted(int postId) {
+        for (PostEventListener listener : listeners) {
+            try {
+                listener.onPostDeleted(postId);
+            } catch (RuntimeException e) {
+                logger.error("Post listener failed on delete of post " + postId + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static void countersChanging(int postId) {
+        for (PostEventListener listener : listeners) {
+            try {
+                listener.onCountersChanging(postId);
+            } catch (RuntimeException e) {
+                logger.error("Post listener failed before counters of post " + postId + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public static void countersChanged(int postId, int likeDelta, int commentDelta, int shareDelta) {
+        for (PostEventListener listener : listeners) {
+            try {
+                listener.onCountersChanged(postId, likeDelta, commentDelta, shareDelta);
+            } catch (RuntimeException e) {
+                logger.error("Post listener failed on counters of post " + postId + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.CategoryDAO;
+import com.revconnect.dao.FeedDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.Category;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.utils.IntList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+// Most-liked public posts per category, so the first pages of a category feed need no query.
+// A category name matches every category containing it, as the old LIKE search did; the
+// category list is small and kept in memory. Top lists of recently read categories are
+// reloaded in the background, and posts whose like count changed are collected and their counts
+// copied to the post_categories projection in batches rather than written per like. Cached pages are ordered
+// by the projection's like counts, as the query for deeper pages is, so the two agree even
+// while a flush is pending.
+public class CategoryFeedCache implements PostEventListener {
+    private static final Logger logger = LogManager.getLogger(CategoryFeedCache.class);
+
+    private static final int TOP_POSTS = 100;
+    // Categories not read for this long are dropped at the next refresh
+    private static final long IDLE_MILLIS = 10 * 60 * 1000L;
+    public static final long REFRESH_SECONDS = 60;
+    public static final long FLUSH_SECONDS = 10;
+
+    private static final CategoryFeedCache INSTANCE = new CategoryFeedCache(new CategoryDAO(), new FeedDAO());
+
+    private final CategoryDAO categoryDAO;
+    private final FeedDAO feedDAO;
+    private volatile List<Category> categories;
+    private final Map<Integer, CachedFeed> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CompletableFuture<CachedFeed>> inFlight = new ConcurrentHashMap<>();
+    // Posts whose like count changed since it was last copied to post_categories
+    private Set<Integer> pendingLikes = new HashSet<>();
+
+    public CategoryFeedCache(CategoryDAO categoryDAO, FeedDAO feedDAO) {
+        this.categoryDAO = categoryDAO;
+        this.feedDAO = feedDAO;
+    }
+
+    public static CategoryFeedCache getInstance() {
+        return INSTANCE;
+    }
+
+    // One page of the feed for every category whose name contains the given text
+    public List<PostCard> getPage(String category, int limit, int offset) throws SQLException {
+        List<Integer> categoryIds = resolve(category);
+        if (categoryIds.isEmpty() || offset + limit > TOP_POSTS) {
+            return feedDAO.getCategoryFeed(categoryIds, limit, offset);
+        }
+
+        CachedFeed[] feeds = new CachedFeed[categoryIds.size()];
+        for (int i = 0; i < feeds.length; i++) {
+            feeds[i] = getEntry(categoryIds.get(i));
+            feeds[i].lastRead = System.currentTimeMillis();
+        }
+
+        // Merge the categories' lists, each most liked first, up to the end of the page
+        int[] next = new int[feeds.length];
+        List<PostCard> page = new ArrayList<>(limit);
+        for (int taken = 0; taken < offset + limit; taken++) {
+            int best = -1;
+            for (int i = 0; i < feeds.length; i++) {
+                if (next[i] < feeds[i].posts.length
+                        && (best < 0 || feeds[i].ranksBefore(next[i], feeds[best], next[best]))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            if (taken >= offset) {
+                page.add(feeds[best].posts[next[best]]);
+            }
+            next[best]++;
+        }
+        return page;
+    }
+
+    // IDs of the categories whose name contains the text, ignoring case
+    public List<Integer> resolve(String category) throws SQLException {
+        List<Category> known = categories;
+        if (known == null) {
+            known = reloadCategories();
+        }
+
+        String needle = category.trim().toLowerCase(Locale.ROOT);
+        List<Integer> ids = new ArrayList<>();
+        for (Category candidate : known) {
+            if (candidate.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                ids.add(candidate.getCategoryId());
+            }
+        }
+        return ids;
+    }
+
+    // Note a like count change for the next flush
+    public synchronized void recordLike(int postId) {
+        pendingLikes.add(postId);
+    }
+
+    // Copy the like counts of changed posts to post_categories in one batch
+    public void flush() {
+        Set<Integer> batch;
+        synchronized (this) {
+            if (pendingLikes.isEmpty()) {
+                return;
+            }
+            batch = pendingLikes;
+            pendingLikes = new HashSet<>();
+        }
+
+        try {
+            categoryDAO.syncLikeCounts(batch);
+        } catch (SQLException e) {
+            logger.error("Error flushing category like counts: " + e.getMessage());
+            synchronized (this) {
+                pendingLikes.addAll(batch);
+            }
+        }
+    }
+
+    // Reload the category list and the top posts of categories still being read
+    public void refresh() {
+        flush();
+        try {
+            reloadCategories();
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<Integer, CachedFeed>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, CachedFeed> cached = iterator.next();
+                if (now - cached.getValue().lastRead > IDLE_MILLIS) {
+                    iterator.remove();
+                    continue;
+                }
+                CachedFeed reloaded = load(cached.getKey());
+                reloaded.lastRead = cached.getValue().lastRead;
+                cached.setValue(reloaded);
+            }
+        } catch (SQLException e) {
+            logger.error("Error refreshing category feeds: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPostUpdated(Post post) {
+        if (post.getVisibility() != Post.Visibility.PUBLIC) {
+            removePost(post.getPostId());
+        }
+    }
+
+    @Override
+    public void onPostDeleted(int postId) {
+        removePost(postId);
+    }
+
+    // The category's cached top posts, loading them if needed. Callers arriving while a load of
+    // the same category is running wait for that load instead of starting their own.
+    private CachedFeed getEntry(int categoryId) throws SQLException {
+        CachedFeed entry = entries.get(categoryId);
+        if (entry != null) {
+            return entry;
+        }
+
+        CompletableFuture<CachedFeed> mine = new CompletableFuture<>();
+        CompletableFuture<CachedFeed> running = inFlight.putIfAbsent(categoryId, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // A load may have finished between the lookup above and claiming this one
+            entry = entries.get(categoryId);
+            if (entry == null) {
+                entry = load(categoryId);
+                entries.put(categoryId, entry);
+            }
+            mine.complete(entry);
+            return entry;
+        } catch (SQLException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(categoryId, mine);
+        }
+    }
+
+    private CachedFeed load(int categoryId) throws SQLException {
+        IntList likes = new IntList(TOP_POSTS);
+        List<PostCard> posts = feedDAO.getCategoryFeed(Collections.singletonList(categoryId), TOP_POSTS, 0, likes);
+        return new CachedFeed(posts.toArray(new PostCard[0]), likes.toArray());
+    }
+
+    private static CachedFeed await(CompletableFuture<CachedFeed> running) throws SQLException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for category feed", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Category feed load failed", e.getCause());
+        }
+    }
+
+    private List<Category> reloadCategories() throws SQLException {
+        List<Category> loaded = Collections.unmodifiableList(categoryDAO.getAllCategories());
+        categories = loaded;
+        return loaded;
+    }
+
+    private void removePost(int postId) {
+        for (Map.Entry<Integer, CachedFeed> cached : entries.entrySet()) {
+            CachedFeed entry = cached.getValue();
+            for (int i = 0; i < entry.posts.length; i++) {
+                if (entry.posts[i].getPostId() == postId) {
+                    CachedFeed replacement = entry.without(i);
+                    replacement.lastRead = entry.lastRead;
+                    entries.replace(cached.getKey(), entry, replacement);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static class CachedFeed {
+        // Most liked first; never modified, entries are replaced instead
+        private final PostCard[] posts;
+        // Like count of each post in post_categories, which the posts are ordered by
+        private final int[] likes;
+        private volatile long lastRead;
+
+        private CachedFeed(PostCard[] posts, int[] likes) {
+            this.posts = posts;
+            this.likes = likes;
+        }
+
+        // True if post i here comes before post j of the other feed: more liked, then newer ID
+        private boolean ranksBefore(int i, CachedFeed other, int j) {
+            if (likes[i] != other.likes[j]) {
+                return likes[i] > other.likes[j];
+            }
+            return posts[i].getPostId() > other.posts[j].getPostId();
+        }
+
+        private CachedFeed without(int index) {
+            PostCard[] keptPosts = new PostCard[posts.length - 1];
+            int[] keptLikes = new int[likes.length - 1];
+            System.arraycopy(posts, 0, keptPosts, 0, index);
+            System.arraycopy(posts, index + 1, keptPosts, index, keptPosts.length - index);
+            System.arraycopy(likes, 0, keptLikes, 0, index);
+            System.arraycopy(likes, index + 1, keptLikes, index, keptLikes.length - index);
+            return new CachedFeed(keptPosts, keptLikes);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.revconnect.feed;
+
+import com.revconnect.feed.PersonalizedFeedEngine.Source;
+import com.revconnect.models.PostCard;
+
+// A post up for ranking in the personalized feed, with the highest-priority source that found it
+public class FeedCandidate {
+    private final PostCard post;
+    private final Source source;
+
+    public FeedCandidate(PostCard post, Source source) {
+        this.post = post;
+        this.source = source;
+    }
+
+    public PostCard getPost() {
+        return post;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+}
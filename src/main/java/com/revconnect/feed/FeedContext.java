@@ -0,0 +1,39 @@
+package com.revconnect.feed;
+
+import com.revconnect.utils.IntDoubleHashMap;
+
+import java.util.Map;
+
+// What the scorers know about the request: the viewer, the ranking time, and the viewer's
+// affinity for each author they recently liked or commented on, scaled to [0, 1]
+public class FeedContext {
+    private final int viewerId;
+    private final long nowMillis;
+    private final IntDoubleHashMap authorAffinity;
+
+    public FeedContext(int viewerId, long nowMillis, Map<Integer, Integer> authorInteractions) {
+        this.viewerId = viewerId;
+        this.nowMillis = nowMillis;
+        this.authorAffinity = new IntDoubleHashMap(authorInteractions.size());
+
+        int most = 0;
+        for (int interactions : authorInteractions.values()) {
+            most = Math.max(most, interactions);
+        }
+        for (Map.Entry<Integer, Integer> entry : authorInteractions.entrySet()) {
+            authorAffinity.put(entry.getKey(), entry.getValue() / (double) most);
+        }
+    }
+
+    public int getViewerId() {
+        return viewerId;
+    }
+
+    public long getNowMillis() {
+        return nowMillis;
+    }
+
+    public double getAuthorAffinity(int authorId) {
+        return authorAffinity.get(authorId, 0);
+    }
+}
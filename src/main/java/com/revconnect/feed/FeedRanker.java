@@ -0,0 +1,52 @@
+package com.revconnect.feed;
+
+import com.revconnect.models.PostCard;
+import com.revconnect.utils.TopKHeap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Ranks personalized feed candidates by a weighted sum of scorers. Only the best offset + limit
+// candidates are kept, in a bounded heap, so the candidate list is never fully sorted.
+// Scorers are added while the ranker is set up and not changed once it is in use.
+public class FeedRanker {
+    private final List<FeedScorer> scorers = new ArrayList<>();
+    private final List<Double> weights = new ArrayList<>();
+
+    public FeedRanker add(FeedScorer scorer, double weight) {
+        scorers.add(scorer);
+        weights.add(weight);
+        return this;
+    }
+
+    public double score(FeedCandidate candidate, FeedContext context) {
+        double score = 0;
+        for (int i = 0; i < scorers.size(); i++) {
+            score += weights.get(i) * scorers.get(i).score(candidate, context);
+        }
+        return score;
+    }
+
+    // The page of posts at offset, best first
+    public List<PostCard> rank(List<FeedCandidate> candidates, FeedContext context, int limit, int offset) {
+        TopKHeap heap = new TopKHeap(offset + limit);
+        for (int i = 0; i < candidates.size(); i++) {
+            heap.offer(i, score(candidates.get(i), context));
+        }
+
+        int[] best = heap.drainDescending();
+        List<PostCard> page = new ArrayList<>(limit);
+        for (int i = offset; i < best.length; i++) {
+            page.add(candidates.get(best[i]).getPost());
+        }
+        return page;
+    }
+
+    public List<String> getScorerNames() {
+        List<String> names = new ArrayList<>();
+        for (FeedScorer scorer : scorers) {
+            names.add(scorer.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,10 @@
+package com.revconnect.feed;
+
+// One ranking signal for personalized feed candidates, from 0 (weak) to 1 (strong).
+// Scorers are shared across requests, so per-request state belongs in the FeedContext.
+public interface FeedScorer {
+
+    String getName();
+
+    double score(FeedCandidate candidate, FeedContext context);
+}
@@ -0,0 +1,103 @@
+package com.revconnect.feed;
+
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+
+// The standard feed scorers. Every feature is computed from the post card and the FeedContext,
+// with no queries of its own.
+public class FeedScorers {
+    private static final double HOUR_MILLIS = 3_600_000.0;
+
+    // Halves every halfLifeHours of post age
+    public static FeedScorer recency(double halfLifeHours) {
+        return new FeedScorer() {
+            @Override
+            public String getName() {
+                return "recency";
+            }
+
+            @Override
+            public double score(FeedCandidate candidate, FeedContext context) {
+                return Math.pow(0.5, ageHours(candidate.getPost(), context) / halfLifeHours);
+            }
+        };
+    }
+
+    // Weighted engagement per hour since posting; reaches 0.5 at halfScoreRate per hour
+    public static FeedScorer velocity(double halfScoreRate) {
+        return new FeedScorer() {
+            @Override
+            public String getName() {
+                return "velocity";
+            }
+
+            @Override
+            public double score(FeedCandidate candidate, FeedContext context) {
+                PostCard post = candidate.getPost();
+                int engagement = post.getLikeCount() + post.getCommentCount() * 2 + post.getShareCount() * 3;
+                // Posts younger than an hour are rated as if an hour old, so one early like is not a spike
+                double rate = engagement / Math.max(1.0, ageHours(post, context));
+                return rate / (rate + halfScoreRate);
+            }
+        };
+    }
+
+    // How much of the viewer's recent liking and commenting went to the post's author
+    public static FeedScorer affinity() {
+        return new FeedScorer() {
+            @Override
+            public String getName() {
+                return "affinity";
+            }
+
+            @Override
+            public double score(FeedCandidate candidate, FeedContext context) {
+                return context.getAuthorAffinity(candidate.getPost().getUserId());
+            }
+        };
+    }
+
+    // A fixed weight per post type; types not in the map score 0
+    public static FeedScorer postType(Map<Post.PostType, Double> weights) {
+        Map<Post.PostType, Double> byType = new EnumMap<>(weights);
+        return new FeedScorer() {
+            @Override
+            public String getName() {
+                return "post-type";
+            }
+
+            @Override
+            public double score(FeedCandidate candidate, FeedContext context) {
+                Double weight = byType.get(candidate.getPost().getPostType());
+                return weight != null ? weight : 0;
+            }
+        };
+    }
+
+    // Priority of the source that found the post, so connections still rank ahead of popular posts
+    public static FeedScorer source() {
+        return new FeedScorer() {
+            @Override
+            public String getName() {
+                return "source";
+            }
+
+            @Override
+            public double score(FeedCandidate candidate, FeedContext context) {
+                return candidate.getSource().getPriority() / 10.0;
+            }
+        };
+    }
+
+    private static double ageHours(PostCard post, FeedContext context) {
+        if (post.getCreatedAt() == null) {
+            return 0;
+        }
+        long createdMillis = post.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.max(0, context.getNowMillis() - createdMillis) / HOUR_MILLIS;
+    }
+}
@@ -0,0 +1,338 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.FeedDAO;
+import com.revconnect.dao.PostDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// First pages of the feeds that look the same to every viewer, shared by all sessions.
+// Each feed is loaded as post cards into an immutable array that is swapped in whole, so readers
+// never lock and never see a half-built list. A background refresh rebuilds feeds that post events
+// have marked dirty, and every feed once it is older than MAX_AGE_MILLIS so counters stay current.
+// Concurrent rebuilds of one feed are collapsed into a single query. Feeds ranked in memory are
+// read by ID with one card query.
+public class FeedSnapshotCache implements PostEventListener {
+    private static final Logger logger = LogManager.getLogger(FeedSnapshotCache.class);
+
+    public enum Feed { PUBLIC, MEDIA, TRENDING }
+
+    private static final int SNAPSHOT_SIZE = 200;
+    private static final long MAX_AGE_MILLIS = 30_000;
+    // Window of the engagement ranking used until the trending engine is ready, as in the SQL
+    private static final long TRENDING_FALLBACK_MILLIS = 24 * 60 * 60 * 1000L;
+    public static final long REFRESH_SECONDS = 5;
+
+    private static final FeedSnapshotCache INSTANCE =
+            new FeedSnapshotCache(new FeedDAO(), new PostDAO(), TrendingPostEngine.getInstance(),
+                    PostMetadataStore.getInstance());
+
+    private final FeedDAO feedDAO;
+    private final PostDAO postDAO;
+    private final TrendingPostEngine trendingPosts;
+    private final PostMetadataStore postMetadata;
+    private final Map<Feed, AtomicReference<Snapshot>> snapshots = new EnumMap<>(Feed.class);
+    private final Map<Feed, AtomicBoolean> dirty = new EnumMap<>(Feed.class);
+    private final Map<Feed, Counters> counters = new EnumMap<>(Feed.class);
+    private final ConcurrentHashMap<Feed, CompletableFuture<Snapshot>> inFlight = new ConcurrentHashMap<>();
+
+    public FeedSnapshotCache(FeedDAO feedDAO, PostDAO postDAO, TrendingPostEngine trendingPosts,
+                             PostMetadataStore postMetadata) {
+        this.feedDAO = feedDAO;
+        this.postDAO = postDAO;
+        this.trendingPosts = trendingPosts;
+        this.postMetadata = postMetadata;
+        for (Feed feed : Feed.values()) {
+            snapshots.put(feed, new AtomicReference<>());
+            dirty.put(feed, new AtomicBoolean());
+            counters.put(feed, new Counters());
+        }
+    }
+
+    public static FeedSnapshotCache getInstance() {
+        return INSTANCE;
+    }
+
+    // One page of a feed; pages past the snapshot are read from the database
+    public List<PostCard> getPage(Feed feed, int limit, int offset) throws SQLException {
+        Snapshot snapshot = snapshots.get(feed).get();
+        if (snapshot == null) {
+            // Only the very first read waits for a load
+            snapshot = rebuild(feed);
+        }
+
+        if (offset + limit <= snapshot.posts.length || snapshot.complete) {
+            return snapshot.page(offset, limit);
+        }
+        counters.get(feed).misses.incrementAndGet();
+        return load(feed, limit, offset);
+    }
+
+    // Rebuild the feeds that have changed or aged out
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        for (Feed feed : Feed.values()) {
+            Snapshot snapshot = snapshots.get(feed).get();
+            boolean expired = snapshot != null && now - snapshot.builtAt > MAX_AGE_MILLIS;
+            if (dirty.get(feed).get() || expired) {
+                try {
+                    rebuild(feed);
+                } catch (SQLException e) {
+                    logger.error("Error rebuilding " + feed + " feed snapshot: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Load a feed and swap it in. Callers arriving while a load of the same feed is running
+    // wait for that load instead of starting their own.
+    private Snapshot rebuild(Feed feed) throws SQLException {
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = inFlight.putIfAbsent(feed, mine);
+        if (running != null) {
+            return await(running);
+        }
+
+        Counters feedCounters = counters.get(feed);
+        try {
+            // Cleared first so that a change made during the load triggers another rebuild
+            dirty.get(feed).set(false);
+            long start = System.nanoTime();
+            List<PostCard> posts = load(feed, SNAPSHOT_SIZE, 0);
+            long buildNanos = System.nanoTime() - start;
+
+            Snapshot snapshot = new Snapshot(posts.toArray(new PostCard[0]), posts.size() < SNAPSHOT_SIZE,
+                    System.currentTimeMillis(), buildNanos / 1_000_000);
+            snapshots.get(feed).set(snapshot);
+            feedCounters.builds.incrementAndGet();
+            feedCounters.buildNanos.addAndGet(buildNanos);
+            logger.debug("Rebuilt " + feed + " feed snapshot with " + posts.size() + " posts in "
+                    + snapshot.buildMillis + " ms");
+
+            mine.complete(snapshot);
+            return snapshot;
+        } catch (SQLException | RuntimeException e) {
+            dirty.get(feed).set(true);
+            feedCounters.failures.incrementAndGet();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(feed, mine);
+        }
+    }
+
+    // Staleness and rebuild figures for a feed
+    public SnapshotStats getStats(Feed feed) {
+        Snapshot snapshot = snapshots.get(feed).get();
+        Counters feedCounters = counters.get(feed);
+        long builds = feedCounters.builds.get();
+        return new SnapshotStats(feed,
+                snapshot != null ? snapshot.posts.length : 0,
+                snapshot != null ? System.currentTimeMillis() - snapshot.builtAt : -1,
+                snapshot != null ? snapshot.buildMillis : -1,
+                builds > 0 ? feedCounters.buildNanos.get() / builds / 1_000_000 : 0,
+                builds, feedCounters.failures.get(), feedCounters.misses.get());
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        if (post.getVisibility() != Post.Visibility.PUBLIC) {
+            return;
+        }
+        dirty.get(Feed.PUBLIC).set(true);
+        if (isMediaPost(post)) {
+            dirty.get(Feed.MEDIA).set(true);
+        }
+    }
+
+    // Edits show up at the next rebuild; a post that is no longer public is hidden right away
+    @Override
+    public void onPostUpdated(Post post) {
+        if (post.getVisibility() != Post.Visibility.PUBLIC) {
+            removeFromSnapshots(post.getPostId());
+        }
+        for (AtomicBoolean flag : dirty.values()) {
+            flag.set(true);
+        }
+    }
+
+    @Override
+    public void onPostDeleted(int postId) {
+        removeFromSnapshots(postId);
+        for (AtomicBoolean flag : dirty.values()) {
+            flag.set(true);
+        }
+    }
+
+    private List<PostCard> load(Feed feed, int limit, int offset) throws SQLException {
+        switch (feed) {
+            case PUBLIC:
+                return feedDAO.getPublicFeed(limit, offset);
+            case MEDIA:
+                if (postMetadata.isReady()) {
+                    int[] newest = postMetadata.getNewestMedia(offset + limit);
+                    // Fewer than asked for means the page reaches past the store's retention window
+                    if (newest.length == offset + limit) {
+                        return postDAO.getPostCardsByIds(page(newest, offset));
+                    }
+                }
+                return feedDAO.getMediaFeed(limit, offset);
+            case TRENDING:
+                // The engagement ranking covers the time before the trending engine has loaded
+                if (trendingPosts.isReady()) {
+                    return postDAO.getPostCardsByIds(trendingPosts.getTrending(offset, limit));
+                }
+                if (postMetadata.isReady()) {
+                    long since = System.currentTimeMillis() - TRENDING_FALLBACK_MILLIS;
+                    int[] ranked = postMetadata.getTopByEngagement(since, offset + limit);
+                    return postDAO.getPostCardsByIds(page(ranked, offset));
+                }
+                return feedDAO.getTrendingFeed(limit, offset);
+            default:
+                throw new IllegalArgumentException("Unknown feed: " + feed);
+        }
+    }
+
+    private static List<Integer> page(int[] ranked, int offset) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = offset; i < ranked.length; i++) {
+            ids.add(ranked[i]);
+        }
+        return ids;
+    }
+
+    private void removeFromSnapshots(int postId) {
+        for (AtomicReference<Snapshot> reference : snapshots.values()) {
+            Snapshot current;
+            Snapshot updated;
+            do {
+                current = reference.get();
+                if (current == null || current.indexOf(postId) < 0) {
+                    break;
+                }
+                updated = current.without(postId);
+            } while (!reference.compareAndSet(current, updated));
+        }
+    }
+
+    private static boolean isMediaPost(Post post) {
+        return post.getMediaUrl() != null &&
+                (post.getPostType() == Post.PostType.IMAGE || post.getPostType() == Post.PostType.VIDEO);
+    }
+
+    private static Snapshot await(CompletableFuture<Snapshot> running) throws SQLException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for feed snapshot", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Feed snapshot load failed", e.getCause());
+        }
+    }
+
+    // Immutable once published
+    private static class Snapshot {
+        private final PostCard[] posts;
+        // True if posts holds the whole feed, not just its first part
+        private final boolean complete;
+        private final long builtAt;
+        private final long buildMillis;
+
+        private Snapshot(PostCard[] posts, boolean complete, long builtAt, long buildMillis) {
+            this.posts = posts;
+            this.complete = complete;
+            this.builtAt = builtAt;
+            this.buildMillis = buildMillis;
+        }
+
+        private List<PostCard> page(int offset, int limit) {
+            int from = Math.min(Math.max(0, offset), posts.length);
+            int to = Math.min(posts.length, from + limit);
+            return new ArrayList<>(Arrays.asList(posts).subList(from, to));
+        }
+
+        private int indexOf(int postId) {
+            for (int i = 0; i < posts.length; i++) {
+                if (posts[i].getPostId() == postId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Snapshot without(int postId) {
+            int index = indexOf(postId);
+            PostCard[] remaining = new PostCard[posts.length - 1];
+            System.arraycopy(posts, 0, remaining, 0, index);
+            System.arraycopy(posts, index + 1, remaining, index, posts.length - index - 1);
+            return new Snapshot(remaining, complete, builtAt, buildMillis);
+        }
+    }
+
+    private static class Counters {
+        private final AtomicLong builds = new AtomicLong();
+        private final AtomicLong buildNanos = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        // Reads that went past the snapshot to the database
+        private final AtomicLong misses = new AtomicLong();
+    }
+
+    public static class SnapshotStats {
+        private final Feed feed;
+        private final int size;
+        private final long ageMillis;
+        private final long lastBuildMillis;
+        private final long averageBuildMillis;
+        private final long builds;
+        private final long failures;
+        private final long misses;
+
+        public SnapshotStats(Feed feed, int size, long ageMillis, long lastBuildMillis,
+                             long averageBuildMillis, long builds, long failures, long misses) {
+            this.feed = feed;
+            this.size = size;
+            this.ageMillis = ageMillis;
+            this.lastBuildMillis = lastBuildMillis;
+            this.averageBuildMillis = averageBuildMillis;
+            this.builds = builds;
+            this.failures = failures;
+            this.misses = misses;
+        }
+
+        public Feed getFeed() { return feed; }
+        public int getSize() { return size; }
+        // -1 before the first build
+        public long getAgeMillis() { return ageMillis; }
+        public long getLastBuildMillis() { return lastBuildMillis; }
+        public long getAverageBuildMillis() { return averageBuildMillis; }
+        public long getBuilds() { return builds; }
+        public long getFailures() { return failures; }
+        public long getMisses() { return misses; }
+
+        @Override
+        public String toString() {
+            return feed + " snapshot: " + size + " posts, age " + ageMillis + " ms, last build " +
+                    lastBuildMillis + " ms, avg build " + averageBuildMillis + " ms, builds " + builds +
+                    ", failures " + failures + ", misses " + misses;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.FeedDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.PageCursor;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.utils.ContentParser;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Newest post cards for recently viewed hashtags, so the first pages of a hashtag feed need no
+// query. A new post drops the cached feeds of its hashtags, which are reloaded with its card on
+// the next read; entries expire after a minute to refresh counters.
+public class HashtagFeedCache implements PostEventListener {
+    private static final int MAX_HASHTAGS = 256;
+    private static final int RECENT_POSTS = 100;
+    private static final long TTL_MILLIS = 60_000;
+
+    private static final HashtagFeedCache INSTANCE = new HashtagFeedCache(new FeedDAO());
+
+    private final FeedDAO feedDAO;
+    private final Map<String, CachedFeed> entries = new LinkedHashMap<String, CachedFeed>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedFeed> eldest) {
+            return size() > MAX_HASHTAGS;
+        }
+    };
+
+    public HashtagFeedCache(FeedDAO feedDAO) {
+        this.feedDAO = feedDAO;
+    }
+
+    public static HashtagFeedCache getInstance() {
+        return INSTANCE;
+    }
+
+    // One page of the hashtag feed after the cursor (null for the first page)
+    public List<PostCard> getPage(String hashtag, PageCursor after, int limit) throws SQLException {
+        CachedFeed entry = getEntry(hashtag);
+        if (entry == null) {
+            List<PostCard> recent = feedDAO.getHashtagFeed(hashtag, null, RECENT_POSTS);
+            entry = new CachedFeed(recent, recent.size() < RECENT_POSTS);
+            putEntry(hashtag, entry);
+        }
+
+        List<PostCard> page;
+        boolean complete;
+        synchronized (this) {
+            page = entry.page(after, limit);
+            complete = entry.complete;
+        }
+        if (page.size() == limit || complete) {
+            return page;
+        }
+
+        // Past the cached window: continue from the database
+        PageCursor from = page.isEmpty() ? after : PageCursor.after(page.get(page.size() - 1));
+        page.addAll(feedDAO.getHashtagFeed(hashtag, from, limit - page.size()));
+        return page;
+    }
+
+    @Override
+    public synchronized void onPostCreated(Post post) {
+        if (post.getVisibility() != Post.Visibility.PUBLIC) {
+            return;
+        }
+        for (String hashtag : ContentParser.extractHashtags(post.getContent())) {
+            entries.remove(hashtag);
+        }
+    }
+
+    // Edits can add, drop or move hashtags; reload every feed the post was or now is in
+    @Override
+    public synchronized void onPostUpdated(Post post) {
+        removePost(post.getPostId(), true);
+        for (String hashtag : ContentParser.extractHashtags(post.getContent())) {
+            entries.remove(hashtag);
+        }
+    }
+
+    @Override
+    public synchronized void onPostDeleted(int postId) {
+        removePost(postId, false);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized CachedFeed getEntry(String hashtag) {
+        CachedFeed entry = entries.get(hashtag);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt > TTL_MILLIS) {
+            entries.remove(hashtag);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void putEntry(String hashtag, CachedFeed entry) {
+        entries.put(hashtag, entry);
+    }
+
+    // Remove the post from every cached feed; with dropEntries the affected feeds are evicted instead
+    private void removePost(int postId, boolean dropEntries) {
+        Iterator<CachedFeed> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            CachedFeed entry = iterator.next();
+            if (entry.remove(postId) && dropEntries) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class CachedFeed {
+        // Newest first
+        private final List<PostCard> posts;
+        // True if posts holds the whole feed, not just its newest part
+        private final boolean complete;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private CachedFeed(List<PostCard> posts, boolean complete) {
+            this.posts = new ArrayList<>(posts);
+            this.complete = complete;
+        }
+
+        private List<PostCard> page(PageCursor after, int limit) {
+            int start = 0;
+            if (after != null) {
+                while (start < posts.size() &&
+                        !after.isBefore(posts.get(start).getCreatedAt(), posts.get(start).getPostId())) {
+                    start++;
+                }
+            }
+            return new ArrayList<>(posts.subList(start, Math.min(posts.size(), start + limit)));
+        }
+
+        private boolean remove(int postId) {
+            for (int i = 0; i < posts.size(); i++) {
+                if (posts.get(i).getPostId() == postId) {
+                    posts.remove(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
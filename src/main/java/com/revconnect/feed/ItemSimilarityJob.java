@@ -0,0 +1,194 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.RecommendationDAO;
+import com.revconnect.models.PostSimilarity;
+import com.revconnect.utils.IntDoubleHashMap;
+import com.revconnect.utils.LongIntHashMap;
+import com.revconnect.utils.TopKHeap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// "People who liked this also liked": offline item-to-item similarities from likes.
+// Likes are streamed in user order and packed into one int array of per-user baskets. Each core
+// then takes a partition of the posts and, for every basket, counts how often its posts were liked
+// together with each other post, in a primitive map keyed by the packed pair. Pairs are scored by
+// cosine similarity (co-likes / sqrt(likes a * likes b)) and the top neighbours of each post are
+// written to post_similarities, which recommendations read by primary key.
+public class ItemSimilarityJob {
+    private static final Logger logger = LogManager.getLogger(ItemSimilarityJob.class);
+
+    private static final int LOOKBACK_DAYS = 90;
+    // Most recent likes kept per user; bounds the pairs one heavy user contributes
+    private static final int MAX_BASKET = 200;
+    public static final int NEIGHBORS = 20;
+    // Pairs liked together fewer times than this are noise
+    private static final int MIN_CO_LIKES = 2;
+    public static final long RUN_INTERVAL_HOURS = 24;
+
+    private final RecommendationDAO recommendationDAO;
+    private final int parallelism;
+
+    public ItemSimilarityJob() {
+        this(new RecommendationDAO(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ItemSimilarityJob(RecommendationDAO recommendationDAO, int parallelism) {
+        this.recommendationDAO = recommendationDAO;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    // Rebuild post_similarities from the last LOOKBACK_DAYS of likes
+    public void run() {
+        long start = System.currentTimeMillis();
+        try {
+            Baskets baskets = loadBaskets();
+            List<PostSimilarity> similarities = computeSimilarities(baskets);
+            recommendationDAO.replaceSimilarities(similarities);
+            logger.info("Item similarity job wrote " + similarities.size() + " neighbours from " +
+                    baskets.likeCount + " likes by " + baskets.userCount + " users in " +
+                    (System.currentTimeMillis() - start) + " ms");
+        } catch (SQLException e) {
+            logger.error("Error running item similarity job: " + e.getMessage());
+        }
+    }
+
+    private Baskets loadBaskets() throws SQLException {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(LOOKBACK_DAYS));
+        Baskets baskets = new Baskets();
+        recommendationDAO.streamLikesByUser(since, baskets::add);
+        baskets.finish();
+        return baskets;
+    }
+
+    // Top neighbours of every post liked at least MIN_CO_LIKES times alongside another
+    private List<PostSimilarity> computeSimilarities(Baskets baskets) throws SQLException {
+        IntDoubleHashMap likeCounts = new IntDoubleHashMap(1024);
+        for (int i = 0; i < baskets.likeCount; i++) {
+            likeCounts.addTo(baskets.items[i], 1);
+        }
+
+        List<Callable<List<PostSimilarity>>> tasks = new ArrayList<>();
+        for (int partition = 0; partition < parallelism; partition++) {
+            final int current = partition;
+            tasks.add(() -> computePartition(baskets, likeCounts, current));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<PostSimilarity> similarities = new ArrayList<>();
+            for (Future<List<PostSimilarity>> result : pool.invokeAll(tasks)) {
+                similarities.addAll(result.get());
+            }
+            return similarities;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Item similarity job interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Item similarity partition failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Co-like counts and neighbours for the posts of one partition. Every partition reads all
+    // baskets but only counts pairs whose first post it owns, so no counts are shared.
+    private List<PostSimilarity> computePartition(Baskets baskets, IntDoubleHashMap likeCounts, int partition) {
+        LongIntHashMap coLikes = new LongIntHashMap(1 << 16);
+        for (int user = 0; user < baskets.userCount; user++) {
+            int from = baskets.offsets[user];
+            int to = baskets.offsets[user + 1];
+            for (int i = from; i < to; i++) {
+                int postId = baskets.items[i];
+                if (partitionOf(postId) != partition) {
+                    continue;
+                }
+                for (int j = from; j < to; j++) {
+                    if (baskets.items[j] != postId) {
+                        coLikes.addTo(pair(postId, baskets.items[j]), 1);
+                    }
+                }
+            }
+        }
+
+        Map<Integer, TopKHeap> neighbors = new HashMap<>();
+        coLikes.forEach((key, count) -> {
+            if (count >= MIN_CO_LIKES) {
+                int postId = (int) (key >>> 32);
+                int otherId = (int) key;
+                neighbors.computeIfAbsent(postId, id -> new TopKHeap(NEIGHBORS))
+                        .offer(otherId, cosine(count, postId, otherId, likeCounts));
+            }
+        });
+
+        List<PostSimilarity> similarities = new ArrayList<>();
+        for (Map.Entry<Integer, TopKHeap> entry : neighbors.entrySet()) {
+            int postId = entry.getKey();
+            int[] ranked = entry.getValue().drainDescending();
+            for (int rank = 0; rank < ranked.length; rank++) {
+                int count = coLikes.get(pair(postId, ranked[rank]), 0);
+                similarities.add(new PostSimilarity(postId, rank, ranked[rank],
+                        cosine(count, postId, ranked[rank], likeCounts)));
+            }
+        }
+        return similarities;
+    }
+
+    private int partitionOf(int postId) {
+        return (postId & Integer.MAX_VALUE) % parallelism;
+    }
+
+    private static long pair(int postId, int otherId) {
+        return ((long) postId << 32) | (otherId & 0xFFFFFFFFL);
+    }
+
+    private static double cosine(int coLikes, int postId, int otherId, IntDoubleHashMap likeCounts) {
+        return coLikes / Math.sqrt(likeCounts.get(postId, 1) * likeCounts.get(otherId, 1));
+    }
+
+    // Likes packed by user: the posts of user u are items[offsets[u]] .. items[offsets[u + 1] - 1]
+    private static class Baskets {
+        private int[] items = new int[1024];
+        private int[] offsets = new int[256];
+        private int likeCount;
+        private int userCount;
+        private int currentUser = -1;
+        private int currentSize;
+
+        // Likes must arrive grouped by user, newest first within a user
+        private void add(int userId, int postId) {
+            if (userId != currentUser) {
+                currentUser = userId;
+                currentSize = 0;
+                if (userCount + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[userCount++] = likeCount;
+            }
+            if (currentSize == MAX_BASKET) {
+                return;
+            }
+            if (likeCount == items.length) {
+                items = Arrays.copyOf(items, items.length * 2);
+            }
+            items[likeCount++] = postId;
+            currentSize++;
+        }
+
+        private void finish() {
+            offsets[userCount] = likeCount;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.revconnect.feed;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.dao.FeedDAO;
+import com.revconnect.dao.RecommendationDAO;
+import com.revconnect.models.FeedPage;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.utils.IntHashSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// The personalized feed, built in three stages. Fetch: four sources (posts by connections, by
+// followed users, the viewer's own posts, recent popular posts) are queried in parallel on a small
+// bounded pool, each newest first and capped, together with the authors the viewer recently liked
+// or commented on. Merge: the sources are merged newest first with a heap, keeping each post once
+// under the highest-priority source that found it. Rank: a FeedRanker scores the
+// candidates in memory and keeps the best page in a bounded heap.
+// A source that has not answered by the request deadline, failed, or was turned away by a full
+// pool is left out, and the page is returned degraded instead of waiting for it.
+// The candidate pool is every post the sources returned, scored at a clock rounded down to
+// RANK_CLOCK_MILLIS. Each source reads POSTS_PER_SOURCE posts, or a multiple of it large enough
+// for the page to end within one source, so the pages of one band of offsets are cut from the
+// same ranking while the sources are unchanged. It is not stable across new posts, a clock step,
+// or the step to the next band.
+public class PersonalizedFeedEngine {
+    private static final Logger logger = LogManager.getLogger(PersonalizedFeedEngine.class);
+
+    public enum Source {
+        CONNECTIONS(10), FOLLOWS(8), OWN(6), POPULAR(4);
+
+        private final int priority;
+
+        Source(int priority) {
+            this.priority = priority;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+    }
+
+    public enum Stage { FETCH, MERGE, RANK }
+
+    public static final long STATS_MINUTES = 15;
+
+    private static final int FETCH_THREADS = Integer.parseInt(DatabaseConfig.getProperty("feed.fetch.threads", "8"));
+    private static final int FETCH_QUEUE = 64;
+    private static final long DEADLINE_MILLIS = Long.parseLong(DatabaseConfig.getProperty("feed.fetch.deadline.ms", "500"));
+
+    // Posts each source reads for pages ending within the first band of offsets, and the band
+    // size after that; ranking has more to choose from than one page
+    private static final int POSTS_PER_SOURCE = 50;
+    // Scoring time granularity, so the pages of one visit are ranked at the same moment
+    private static final long RANK_CLOCK_MILLIS = 5 * 60 * 1000L;
+    private static final int RECENT_INTERACTIONS = 200;
+    private static final int AFFINITY_AUTHORS = 100;
+
+    private static final double RECENCY_WEIGHT = 1.0;
+    private static final double VELOCITY_WEIGHT = 1.0;
+    private static final double AFFINITY_WEIGHT = 2.0;
+    private static final double POST_TYPE_WEIGHT = 0.5;
+    private static final double SOURCE_WEIGHT = 1.5;
+    private static final double RECENCY_HALF_LIFE_HOURS = 24;
+    private static final double VELOCITY_HALF_SCORE_RATE = 2.0;
+
+    private static final PersonalizedFeedEngine INSTANCE = new PersonalizedFeedEngine(new FeedDAO(),
+            new RecommendationDAO(), newFetchPool(FETCH_THREADS, FETCH_QUEUE), DEADLINE_MILLIS, defaultRanker());
+
+    private final FeedDAO feedDAO;
+    private final RecommendationDAO recommendationDAO;
+    private final ExecutorService fetchPool;
+    private final long deadlineMillis;
+    private final FeedRanker ranker;
+    private final AtomicLongArray stageMicros = new AtomicLongArray(Stage.values().length);
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong degradedPages = new AtomicLong();
+
+    public PersonalizedFeedEngine(FeedDAO feedDAO, RecommendationDAO recommendationDAO, ExecutorService fetchPool,
+                                  long deadlineMillis, FeedRanker ranker) {
+        this.feedDAO = feedDAO;
+        this.recommendationDAO = recommendationDAO;
+        this.fetchPool = fetchPool;
+        this.deadlineMillis = deadlineMillis;
+        this.ranker = ranker;
+    }
+
+    public static PersonalizedFeedEngine getInstance() {
+        return INSTANCE;
+    }
+
+    public static FeedRanker defaultRanker() {
+        Map<Post.PostType, Double> typeWeights = new EnumMap<>(Post.PostType.class);
+        typeWeights.put(Post.PostType.VIDEO, 1.0);
+        typeWeights.put(Post.PostType.IMAGE, 0.8);
+        typeWeights.put(Post.PostType.LINK, 0.6);
+        typeWeights.put(Post.PostType.TEXT, 0.5);
+
+        return new FeedRanker()
+                .add(FeedScorers.recency(RECENCY_HALF_LIFE_HOURS), RECENCY_WEIGHT)
+                .add(FeedScorers.velocity(VELOCITY_HALF_SCORE_RATE), VELOCITY_WEIGHT)
+                .add(FeedScorers.affinity(), AFFINITY_WEIGHT)
+                .add(FeedScorers.postType(typeWeights), POST_TYPE_WEIGHT)
+                .add(FeedScorers.source(), SOURCE_WEIGHT);
+    }
+
+    // Throws only when every source failed with an error
+    public FeedPage getPage(int userId, int limit, int offset) throws SQLException {
+        long started = System.nanoTime();
+        Source[] sources = Source.values();
+        Fetches fetches = new Fetches(deadlineMillis);
+        int timeoutSeconds = fetches.timeoutSeconds();
+        int perSource = postsPerSource(offset + limit);
+        List<Future<List<PostCard>>> pending = new ArrayList<>();
+        for (Source source : sources) {
+            pending.add(fetches.submit(() -> fetch(source, userId, perSource, timeoutSeconds)));
+        }
+        Future<Map<Integer, Integer>> pendingAuthors = fetches.submit(() -> recommendationDAO.getInteractedAuthors(
+                userId, RECENT_INTERACTIONS, AFFINITY_AUTHORS, timeoutSeconds));
+
+        List<List<PostCard>> fetched = new ArrayList<>();
+        for (int i = 0; i < sources.length; i++) {
+            List<PostCard> posts = fetches.await(sources[i].name(), pending.get(i));
+            fetched.add(posts != null ? posts : Collections.<PostCard>emptyList());
+        }
+        if (fetches.failures == sources.length) {
+            if (pendingAuthors != null) {
+                pendingAuthors.cancel(true);
+            }
+            throw fetches.failure;
+        }
+        // Without affinity the page is still ranked, on the other features
+        Map<Integer, Integer> authors = fetches.await("AFFINITY", pendingAuthors);
+        long fetchedAt = System.nanoTime();
+
+        // Every fetched post is a candidate, once
+        List<FeedCandidate> candidates = merge(fetched, perSource * sources.length, 0);
+        long mergedAt = System.nanoTime();
+
+        long now = System.currentTimeMillis();
+        FeedContext context = new FeedContext(userId, now - now % RANK_CLOCK_MILLIS,
+                authors != null ? authors : Collections.<Integer, Integer>emptyMap());
+        List<PostCard> posts = ranker.rank(candidates, context, limit, offset);
+        long rankedAt = System.nanoTime();
+
+        FeedPage page = new FeedPage(posts, fetches.missed);
+        page.setStageMicros(record(fetchedAt - started, mergedAt - fetchedAt, rankedAt - mergedAt));
+        if (page.isDegraded()) {
+            degradedPages.incrementAndGet();
+        }
+        logger.debug("Retrieved personalized feed for user " + userId + " with " + posts.size() + " posts");
+        return page;
+    }
+
+    public void logStats() {
+        long count = pages.get();
+        if (count == 0) {
+            return;
+        }
+        StringBuilder stages = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            stages.append(String.format(", %s %.1f ms", stage.name().toLowerCase(),
+                    stageMicros.get(stage.ordinal()) / 1000.0 / count));
+        }
+        logger.info("Personalized feed: " + count + " pages, " + degradedPages.get() + " degraded; average" + stages);
+    }
+
+    // Adds one page's stage times to the running totals; returns them in microseconds by stage name
+    private Map<String, Long> record(long fetchNanos, long mergeNanos, long rankNanos) {
+        long[] nanos = {fetchNanos, mergeNanos, rankNanos};
+        Map<String, Long> micros = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            long spent = nanos[stage.ordinal()] / 1000;
+            stageMicros.addAndGet(stage.ordinal(), spent);
+            micros.put(stage.name(), spent);
+        }
+        pages.incrementAndGet();
+        return micros;
+    }
+
+    // Source read size for a page ending at end: POSTS_PER_SOURCE rounded up to a whole band
+    private static int postsPerSource(int end) {
+        int bands = Math.max(1, (end + POSTS_PER_SOURCE - 1) / POSTS_PER_SOURCE);
+        return bands * POSTS_PER_SOURCE;
+    }
+
+    private List<PostCard> fetch(Source source, int userId, int limit, int timeoutSeconds) throws SQLException {
+        switch (source) {
+            case CONNECTIONS:
+                return feedDAO.getConnectionPosts(userId, limit, timeoutSeconds);
+            case FOLLOWS:
+                return feedDAO.getFollowedPosts(userId, limit, timeoutSeconds);
+            case OWN:
+                return feedDAO.getOwnPosts(userId, limit, timeoutSeconds);
+            default:
+                return feedDAO.getPopularPosts(limit, timeoutSeconds);
+        }
+    }
+
+    // Fixed daemon threads and a bounded queue, so a slow database cannot pile up fetches
+    private static ExecutorService newFetchPool(int threads, int queueSize) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "revconnect-feed-fetch-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // K-way merge of the sources, given in Source order and each sorted newest first.
+    // Returns the distinct candidates at offset, at most limit of them.
+    static List<FeedCandidate> merge(List<List<PostCard>> sources, int limit, int offset) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, sources.size()));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) {
+                heap.add(new Cursor(Source.values()[i], sources.get(i)));
+            }
+        }
+
+        List<FeedCandidate> page = new ArrayList<>(limit);
+        IntHashSet seen = new IntHashSet(offset + limit);
+        int skipped = 0;
+        while (!heap.isEmpty() && page.size() < limit) {
+            Cursor cursor = heap.poll();
+            PostCard post = cursor.head();
+            if (seen.add(post.getPostId())) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(new FeedCandidate(post, cursor.source));
+                }
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return page;
+    }
+
+    // The fetches of one request, all waited on against one deadline
+    private class Fetches {
+        private final long deadline;
+        private final List<Future<?>> submitted = new ArrayList<>();
+        private final List<String> missed = new ArrayList<>();
+        private SQLException failure;
+        private int failures;
+
+        private Fetches(long deadlineMillis) {
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        }
+
+        // Query timeout for the fetches, so the database stops a statement the request has given
+        // up on; cancelling the future only interrupts the thread, which JDBC ignores. JDBC timeouts
+        // are whole seconds, so this is the remaining time rounded up.
+        private int timeoutSeconds() {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadline - System.nanoTime()));
+            return (int) Math.max(1, (remainingMillis + 999) / 1000);
+        }
+
+        // The pending result, or null if the pool turned the task away
+        private <T> Future<T> submit(Callable<T> task) {
+            try {
+                Future<T> result = fetchPool.submit(task);
+                submitted.add(result);
+                return result;
+            } catch (RejectedExecutionException e) {
+                return null;
+            }
+        }
+
+        // The result, or null if it was rejected, late or failed; those are recorded as missed
+        private <T> T await(String name, Future<T> result) throws SQLException {
+            if (result == null) {
+                missed.add(name);
+                logger.warn("Feed source " + name + " rejected, fetch pool is full");
+                return null;
+            }
+            try {
+                return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                result.cancel(true);
+                missed.add(name);
+                logger.warn("Feed source " + name + " missed the " + deadlineMillis + " ms deadline");
+            } catch (ExecutionException e) {
+                missed.add(name);
+                failures++;
+                failure = e.getCause() instanceof SQLException
+                        ? (SQLException) e.getCause() : new SQLException(e.getCause());
+                logger.warn("Feed source " + name + " failed: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<?> other : submitted) {
+                    other.cancel(true);
+                }
+                throw new SQLException("Interrupted while fetching the feed", e);
+            }
+            return null;
+        }
+    }
+
+    // Read position in one source; orders by newest post, then higher post ID, then source priority,
+    // so a post found by several sources is taken first from the highest-priority one
+    private static class Cursor implements Comparable<Cursor> {
+        private final Source source;
+        private final List<PostCard> posts;
+        private int position;
+
+        private Cursor(Source source, List<PostCard> posts) {
+            this.source = source;
+            this.posts = posts;
+        }
+
+        private PostCard head() {
+            return posts.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < posts.size();
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            PostCard post = head();
+            PostCard otherPost = other.head();
+            int byTime = otherPost.getCreatedAt().compareTo(post.getCreatedAt());
+            if (byTime != 0) {
+                return byTime;
+            }
+            if (post.getPostId() != otherPost.getPostId()) {
+                return Integer.compare(otherPost.getPostId(), post.getPostId());
+            }
+            return Integer.compare(other.source.getPriority(), source.getPriority());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.revconnect.feed;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.utils.LongIntHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Post bodies kept outside the Java heap, so caching more posts does not lengthen GC pauses.
+// Memory is reserved on demand as 1 MiB direct ByteBuffer slabs, each cut into equal chunks of
+// one size class (classes grow by 25%, as in memcached), and a body is stored UTF-8 encoded in
+// the smallest chunk that fits. The index is a primitive post ID -> chunk handle map.
+// When a class has no free chunk and every slab is taken, a CLOCK hand over that class's chunks
+// evicts the first one not read since the hand last passed; a class holding no slab at all
+// takes the last slab of the class holding the most.
+public class PostBodyStore {
+    private static final Logger logger = LogManager.getLogger(PostBodyStore.class);
+
+    public static final int SLAB_BYTES = 1 << 20;
+    private static final int MIN_CHUNK_BYTES = 64;
+    private static final double GROWTH_FACTOR = 1.25;
+    // Largest body a TEXT column can hold
+    private static final int MAX_BODY_BYTES = 65_535;
+    // Keeps every chunk slot of a class within the 24 bits a handle gives it
+    private static final int MAX_SLABS = 1024;
+    public static final long STATS_MINUTES = 15;
+
+    private static final PostBodyStore INSTANCE = new PostBodyStore(
+            Long.parseLong(DatabaseConfig.getProperty("post.body.cache.mb", "64")) << 20);
+
+    private final ByteBuffer[] slabs;
+    private int slabsReserved;
+    private final SizeClass[] classes;
+    // Post ID -> handle: size class in the top 8 bits, chunk slot within the class below
+    private final LongIntHashMap index = new LongIntHashMap(4096);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PostBodyStore(long capacityBytes) {
+        this.slabs = new ByteBuffer[(int) Math.max(1, Math.min(MAX_SLABS, capacityBytes / SLAB_BYTES))];
+
+        List<SizeClass> sizes = new ArrayList<>();
+        int chunkBytes = MIN_CHUNK_BYTES;
+        while (chunkBytes < MAX_BODY_BYTES) {
+            sizes.add(new SizeClass(chunkBytes));
+            // Round up to 8 bytes so chunks stay aligned
+            chunkBytes = ((int) Math.ceil(chunkBytes * GROWTH_FACTOR) + 7) & ~7;
+        }
+        sizes.add(new SizeClass(MAX_BODY_BYTES));
+        this.classes = sizes.toArray(new SizeClass[0]);
+    }
+
+    public static PostBodyStore getInstance() {
+        return INSTANCE;
+    }
+
+    // The stored body, or null if it is not here
+    public String get(int postId) {
+        byte[] bytes;
+        synchronized (this) {
+            int handle = index.get(postId, -1);
+            if (handle < 0) {
+                misses++;
+                return null;
+            }
+            SizeClass sizeClass = classes[handle >>> 24];
+            int slot = handle & 0xFFFFFF;
+            bytes = new byte[sizeClass.lengths[slot]];
+            ByteBuffer slab = position(sizeClass, slot);
+            slab.get(bytes);
+            sizeClass.referenced.set(slot);
+            hits++;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Store the body, replacing any stored before; false if it is too large to keep
+    public boolean put(int postId, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        int classIndex = classFor(bytes.length);
+
+        synchronized (this) {
+            release(postId);
+            if (classIndex < 0) {
+                return false;
+            }
+            SizeClass sizeClass = classes[classIndex];
+            int slot = allocate(sizeClass);
+            position(sizeClass, slot).put(bytes);
+            sizeClass.owners[slot] = postId;
+            sizeClass.lengths[slot] = bytes.length;
+            sizeClass.used.set(slot);
+            sizeClass.referenced.set(slot);
+            index.put(postId, (classIndex << 24) | slot);
+            usedBytes += bytes.length;
+            return true;
+        }
+    }
+
+    public synchronized void remove(int postId) {
+        release(postId);
+    }
+
+    // Drop every body; reserved slabs are kept for reuse
+    public synchronized void clear() {
+        index.clear();
+        for (SizeClass sizeClass : classes) {
+            sizeClass.reset();
+        }
+        usedBytes = 0;
+    }
+
+    public long getCapacityBytes() {
+        return (long) slabs.length * SLAB_BYTES;
+    }
+
+    // Direct memory taken so far; slabs are reserved as size classes first need them
+    public synchronized long getReservedBytes() {
+        return (long) slabsReserved * SLAB_BYTES;
+    }
+
+    // Bytes of encoded bodies; the rest of the reserved memory is free chunks and chunk slack
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int getBodyCount() {
+        return index.size();
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public void logStats() {
+        synchronized (this) {
+            logger.info(String.format("Post body store: %d bodies, %d KiB used of %d KiB reserved " +
+                            "(capacity %d KiB), hit rate %.2f, %d evictions",
+                    index.size(), usedBytes >> 10, getReservedBytes() >> 10, getCapacityBytes() >> 10,
+                    getHitRate(), evictions));
+        }
+    }
+
+    // Smallest size class that fits, or -1
+    private int classFor(int length) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i].chunkBytes >= length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Slab holding the chunk, positioned at its start; only while holding this object's lock
+    private ByteBuffer position(SizeClass sizeClass, int slot) {
+        ByteBuffer slab = slabs[sizeClass.slabIds[slot / sizeClass.chunksPerSlab]];
+        slab.clear();
+        slab.position((slot % sizeClass.chunksPerSlab) * sizeClass.chunkBytes);
+        return slab;
+    }
+
+    private int allocate(SizeClass sizeClass) {
+        if (sizeClass.freeCount == 0) {
+            if (slabsReserved < slabs.length) {
+                slabs[slabsReserved] = ByteBuffer.allocateDirect(SLAB_BYTES);
+                sizeClass.addSlab(slabsReserved++);
+            } else if (sizeClass.slabCount == 0) {
+                sizeClass.addSlab(takeSlab());
+            } else {
+                return evict(sizeClass);
+            }
+        }
+        return sizeClass.freeSlots[--sizeClass.freeCount];
+    }
+
+    // Advance the CLOCK hand to a chunk not read since the last pass and empty it
+    private int evict(SizeClass sizeClass) {
+        int chunks = sizeClass.slabCount * sizeClass.chunksPerSlab;
+        while (true) {
+            int slot = sizeClass.hand;
+            sizeClass.hand = (slot + 1) % chunks;
+            if (sizeClass.referenced.get(slot)) {
+                sizeClass.referenced.clear(slot);
+                continue;
+            }
+            index.remove(sizeClass.owners[slot], -1);
+            usedBytes -= sizeClass.lengths[slot];
+            sizeClass.used.clear(slot);
+            evictions++;
+            return slot;
+        }
+    }
+
+    // Empty the last slab of the class holding the most slabs and hand it over
+    private int takeSlab() {
+        SizeClass victim = classes[0];
+        for (SizeClass sizeClass : classes) {
+            if (sizeClass.slabCount > victim.slabCount) {
+                victim = sizeClass;
+            }
+        }
+
+        int first = (victim.slabCount - 1) * victim.chunksPerSlab;
+        for (int slot = victim.used.nextSetBit(first); slot >= 0; slot = victim.used.nextSetBit(slot + 1)) {
+            index.remove(victim.owners[slot], -1);
+            usedBytes -= victim.lengths[slot];
+            evictions++;
+        }
+        return victim.removeLastSlab();
+    }
+
+    private void release(int postId) {
+        int handle = index.remove(postId, -1);
+        if (handle >= 0) {
+            SizeClass sizeClass = classes[handle >>> 24];
+            int slot = handle & 0xFFFFFF;
+            usedBytes -= sizeClass.lengths[slot];
+            sizeClass.used.clear(slot);
+            sizeClass.referenced.clear(slot);
+            sizeClass.freeSlots[sizeClass.freeCount++] = slot;
+        }
+    }
+
+    // Chunks of one size, numbered across the slabs the class holds
+    private static class SizeClass {
+        private final int chunkBytes;
+        private final int chunksPerSlab;
+        private int[] slabIds = new int[4];
+        private int slabCount;
+        private int[] owners = new int[0];
+        private int[] lengths = new int[0];
+        private int[] freeSlots = new int[0];
+        private int freeCount;
+        private final BitSet used = new BitSet();
+        private final BitSet referenced = new BitSet();
+        private int hand;
+
+        private SizeClass(int chunkBytes) {
+            this.chunkBytes = chunkBytes;
+            this.chunksPerSlab = SLAB_BYTES / chunkBytes;
+        }
+
+        private void addSlab(int slabId) {
+            if (slabCount == slabIds.length) {
+                slabIds = Arrays.copyOf(slabIds, slabIds.length * 2);
+            }
+            slabIds[slabCount++] = slabId;
+
+            int chunks = slabCount * chunksPerSlab;
+            owners = Arrays.copyOf(owners, chunks);
+            lengths = Arrays.copyOf(lengths, chunks);
+            freeSlots = Arrays.copyOf(freeSlots, chunks);
+            // Pushed highest first so chunks are handed out in address order
+            for (int slot = chunks - 1; slot >= chunks - chunksPerSlab; slot--) {
+                freeSlots[freeCount++] = slot;
+            }
+        }
+
+        // Give up the last slab; its chunks must already be out of the index
+        private int removeLastSlab() {
+            int first = --slabCount * chunksPerSlab;
+            used.clear(first, first + chunksPerSlab);
+            referenced.clear(first, first + chunksPerSlab);
+
+            int kept = 0;
+            for (int i = 0; i < freeCount; i++) {
+                if (freeSlots[i] < first) {
+                    freeSlots[kept++] = freeSlots[i];
+                }
+            }
+            freeCount = kept;
+            if (hand >= first) {
+                hand = 0;
+            }
+            return slabIds[slabCount];
+        }
+
+        private void reset() {
+            used.clear();
+            referenced.clear();
+            hand = 0;
+            freeCount = 0;
+            for (int slot = slabCount * chunksPerSlab - 1; slot >= 0; slot--) {
+                freeSlots[freeCount++] = slot;
+            }
+        }
+    }
+}
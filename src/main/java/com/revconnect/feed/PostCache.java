@@ -0,0 +1,231 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.PostDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.Post;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Read-through cache of posts by ID, for detail views, ownership checks and ID lists such as
+// trending and recommendations. Hits are served from memory and the misses of a batch are read
+// in one IN query. Every post maps to a version stripe that updates, deletes and counter changes
+// bump; a load that overlapped a bump of its stripe, or a counter write still in progress on it,
+// is returned but not cached, so a row read before a write never outlives it and a row read after
+// a counter write never gets its delta twice. Counter events are kept as deltas on the cached
+// entry and added on every read, so cached counts stay current.
+// Only the small fields stay on the heap; bodies live in the off-heap PostBodyStore, and a post
+// whose body was evicted there is loaded again.
+public class PostCache implements PostEventListener {
+    private static final int MAX_POSTS = 10_000;
+    private static final int VERSION_STRIPES = 1024;
+    // Bounds how stale counts changed outside this process can get
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000L;
+
+    private static final PostCache INSTANCE = new PostCache(new PostDAO(), PostBodyStore.getInstance());
+
+    private final PostDAO postDAO;
+    private final PostBodyStore bodies;
+    // Least recently used first
+    private final Map<Integer, CachedPost> entries = new LinkedHashMap<Integer, CachedPost>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CachedPost> eldest) {
+            if (size() > MAX_POSTS) {
+                bodies.remove(eldest.getKey());
+                return true;
+            }
+            return false;
+        }
+    };
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    // Counter writes started but not yet reported, by stripe
+    private final AtomicIntegerArray countersWriting = new AtomicIntegerArray(VERSION_STRIPES);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PostCache(PostDAO postDAO, PostBodyStore bodies) {
+        this.postDAO = postDAO;
+        this.bodies = bodies;
+    }
+
+    public static PostCache getInstance() {
+        return INSTANCE;
+    }
+
+    // The post, or null if it does not exist
+    public Post getPost(int postId) throws SQLException {
+        List<Post> posts = getPostsByIds(Collections.singletonList(postId));
+        return posts.isEmpty() ? null : posts.get(0);
+    }
+
+    // Posts in the order the IDs were given; missing posts are skipped. Returned posts are copies
+    // and may be modified by the caller.
+    public List<Post> getPostsByIds(List<Integer> postIds) throws SQLException {
+        Map<Integer, Post> found = new HashMap<>();
+        Set<Integer> missed = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            for (Integer postId : postIds) {
+                CachedPost entry = entries.get(postId);
+                String content = entry != null && now - entry.loadedAt <= MAX_AGE_MILLIS ? bodies.get(postId) : null;
+                if (content != null) {
+                    found.put(postId, entry.read(content));
+                } else {
+                    missed.add(postId);
+                }
+            }
+        }
+        hits.addAndGet(found.size());
+
+        if (!missed.isEmpty()) {
+            List<Integer> missing = new ArrayList<>(missed);
+            misses.addAndGet(missing.size());
+            long[] seen = new long[missing.size()];
+            for (int i = 0; i < seen.length; i++) {
+                seen[i] = versions.get(stripe(missing.get(i)));
+            }
+
+            Map<Integer, Post> loaded = new HashMap<>();
+            for (Post post : postDAO.getPostsByIds(missing)) {
+                loaded.put(post.getPostId(), post);
+            }
+
+            synchronized (entries) {
+                for (int i = 0; i < seen.length; i++) {
+                    int postId = missing.get(i);
+                    Post post = loaded.get(postId);
+                    if (post == null) {
+                        continue;
+                    }
+                    int stripe = stripe(postId);
+                    if (versions.get(stripe) == seen[i] && countersWriting.get(stripe) == 0
+                            && post.getContent() != null
+                            && bodies.put(postId, post.getContent())) {
+                        CachedPost entry = new CachedPost(post, now);
+                        entries.put(postId, entry);
+                        found.put(postId, entry.read(post.getContent()));
+                    } else {
+                        found.put(postId, post);
+                    }
+                }
+            }
+        }
+
+        List<Post> posts = new ArrayList<>();
+        for (Integer postId : postIds) {
+            Post post = found.get(postId);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
+
+    // Drop the post so the next read loads it again
+    public void invalidate(int postId) {
+        versions.incrementAndGet(stripe(postId));
+        synchronized (entries) {
+            entries.remove(postId);
+            bodies.remove(postId);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        synchronized (entries) {
+            entries.clear();
+            bodies.clear();
+        }
+    }
+
+    // Share of lookups served from memory since startup
+    public double getHitRate() {
+        long served = hits.get();
+        long total = served + misses.get();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    @Override
+    public void onPostUpdated(Post post) {
+        invalidate(post.getPostId());
+    }
+
+    @Override
+    public void onPostDeleted(int postId) {
+        invalidate(postId);
+    }
+
+    @Override
+    public void onCountersChanging(int postId) {
+        int stripe = stripe(postId);
+        countersWriting.incrementAndGet(stripe);
+        versions.incrementAndGet(stripe);
+    }
+
+    @Override
+    public void onCountersChanged(int postId, int likeDelta, int commentDelta, int shareDelta) {
+        int stripe = stripe(postId);
+        versions.incrementAndGet(stripe);
+        synchronized (entries) {
+            CachedPost entry = entries.get(postId);
+            if (entry != null) {
+                entry.likeDelta += likeDelta;
+                entry.commentDelta += commentDelta;
+                entry.shareDelta += shareDelta;
+            }
+        }
+        // Never below zero, for events that were not announced by onCountersChanging
+        countersWriting.getAndUpdate(stripe, writing -> Math.max(0, writing - 1));
+    }
+
+    private static int stripe(int postId) {
+        return postId & (VERSION_STRIPES - 1);
+    }
+
+    // The post as loaded, without its body, plus the counter changes recorded since;
+    // guarded by the entries lock
+    private static class CachedPost {
+        private final Post post;
+        private final long loadedAt;
+        private int likeDelta;
+        private int commentDelta;
+        private int shareDelta;
+
+        private CachedPost(Post post, long loadedAt) {
+            this.post = new Post(post.getUserId(), null, post.getPostType(), post.getVisibility());
+            this.post.setPostId(post.getPostId());
+            this.post.setMediaUrl(post.getMediaUrl());
+            this.post.setLikeCount(post.getLikeCount());
+            this.post.setCommentCount(post.getCommentCount());
+            this.post.setShareCount(post.getShareCount());
+            this.post.setCreatedAt(post.getCreatedAt());
+            this.post.setUpdatedAt(post.getUpdatedAt());
+            this.loadedAt = loadedAt;
+        }
+
+        private Post read(String content) {
+            Post copy = new Post(post.getUserId(), content, post.getPostType(), post.getVisibility());
+            copy.setPostId(post.getPostId());
+            copy.setMediaUrl(post.getMediaUrl());
+            copy.setLikeCount(post.getLikeCount() + likeDelta);
+            copy.setCommentCount(post.getCommentCount() + commentDelta);
+            copy.setShareCount(post.getShareCount() + shareDelta);
+            copy.setCreatedAt(post.getCreatedAt());
+            copy.setUpdatedAt(post.getUpdatedAt());
+            return copy;
+        }
+    }
+}
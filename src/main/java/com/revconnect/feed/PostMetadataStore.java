@@ -0,0 +1,487 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.PostDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.Post;
+import com.revconnect.utils.IntHashSet;
+import com.revconnect.utils.TopKHeap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// The ranking fields of the last RETENTION_DAYS of posts, as one primitive array per field, so
+// feed and trending code can scan and rank recent posts in tight loops without building Post
+// objects or querying. Rows are kept in post ID order. New posts are appended from post events
+// and counters follow counter events; deleted posts stay as tombstones until the next trim.
+// The startup load splits the ID range across cores, each streaming its slice over its own
+// connection into a local set of columns, and the slices are joined in ID order. Deletes, updates
+// and counter changes that arrive during the load for posts not yet in the store are recorded and
+// applied to the loaded rows when they are merged in.
+public class PostMetadataStore implements PostEventListener {
+    private static final Logger logger = LogManager.getLogger(PostMetadataStore.class);
+
+    private static final int RETENTION_DAYS = 30;
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    public static final long TRIM_MINUTES = 60;
+    // Visibility code of a deleted post
+    private static final byte DELETED = -1;
+    private static final byte PUBLIC = (byte) Post.Visibility.PUBLIC.ordinal();
+
+    private static final PostMetadataStore INSTANCE =
+            new PostMetadataStore(new PostDAO(), Runtime.getRuntime().availableProcessors());
+
+    public interface RowVisitor {
+        void visit(int postId, int userId, long createdAtMillis, int likeCount, int commentCount, int shareCount);
+    }
+
+    private final PostDAO postDAO;
+    private final int parallelism;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns rows = new Columns(1024);
+    // Set while loading from the database; guarded by the write lock
+    private MissedChanges missed;
+    private volatile boolean ready;
+
+    public PostMetadataStore(PostDAO postDAO, int parallelism) {
+        this.postDAO = postDAO;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public static PostMetadataStore getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Visit every public post created since the time, in ID order. The visitor runs under the
+    // read lock and must not call back into the store.
+    public void forEachPublicSince(long sinceMillis, RowVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            Columns columns = rows;
+            for (int i = 0; i < columns.size; i++) {
+                if (columns.visibility[i] == PUBLIC && columns.createdAt[i] >= sinceMillis) {
+                    visitor.visit(columns.postIds[i], columns.userIds[i], columns.createdAt[i],
+                            columns.likes[i], columns.comments[i], columns.shares[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // IDs of the most engaged public posts created since the time, best first; ties go to the
+    // newer post, as in FeedDAO.getTrendingFeed
+    public int[] getTopByEngagement(long sinceMillis, int limit) {
+        TopKHeap heap = new TopKHeap(limit);
+        lock.readLock().lock();
+        try {
+            Columns columns = rows;
+            for (int i = 0; i < columns.size; i++) {
+                if (columns.visibility[i] == PUBLIC && columns.createdAt[i] >= sinceMillis) {
+                    int engagement = columns.likes[i] + columns.comments[i] * 2 + columns.shares[i] * 3;
+                    // The creation time, scaled below 1, breaks ties without reordering engagement
+                    heap.offer(columns.postIds[i], engagement + columns.createdAt[i] / 1e13);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return heap.drainDescending();
+    }
+
+    // IDs of the newest public image and video posts with media, newest first
+    public int[] getNewestMedia(int limit) {
+        TopKHeap heap = new TopKHeap(limit);
+        lock.readLock().lock();
+        try {
+            Columns columns = rows;
+            for (int i = 0; i < columns.size; i++) {
+                if (columns.visibility[i] == PUBLIC && columns.hasMedia[i] && isImageOrVideo(columns.postType[i])) {
+                    heap.offer(columns.postIds[i], columns.createdAt[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return heap.drainDescending();
+    }
+
+    // Oldest creation time the store covers; older posts must be read from the database
+    public long getRetainedSinceMillis() {
+        return System.currentTimeMillis() - RETENTION_DAYS * DAY_MILLIS;
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        long createdAt = post.getCreatedAt() != null
+                ? post.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            int index = rows.indexOf(post.getPostId());
+            if (index < 0) {
+                rows.insert(-index - 1, post.getPostId(), post.getUserId(), createdAt, post.getVisibility(),
+                        post.getPostType(), post.getMediaUrl() != null, post.getLikeCount(),
+                        post.getCommentCount(), post.getShareCount());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onPostUpdated(Post post) {
+        lock.writeLock().lock();
+        try {
+            int index = rows.indexOf(post.getPostId());
+            if (index >= 0 && rows.visibility[index] != DELETED) {
+                rows.update(index, post);
+            } else if (index < 0 && missed != null) {
+                missed.updated.put(post.getPostId(), post);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onPostDeleted(int postId) {
+        lock.writeLock().lock();
+        try {
+            int index = rows.indexOf(postId);
+            if (index >= 0) {
+                rows.visibility[index] = DELETED;
+            } else if (missed != null) {
+                missed.deleted.add(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCountersChanging(int postId) {
+        lock.writeLock().lock();
+        try {
+            if (missed != null && rows.indexOf(postId) < 0) {
+                missed.announced.merge(postId, 1, Integer::sum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCountersChanged(int postId, int likeDelta, int commentDelta, int shareDelta) {
+        lock.writeLock().lock();
+        try {
+            int index = rows.indexOf(postId);
+            if (index >= 0) {
+                rows.likes[index] += likeDelta;
+                rows.comments[index] += commentDelta;
+                rows.shares[index] += shareDelta;
+            } else if (missed != null && missed.announced.containsKey(postId)) {
+                // Only writes started after the load began; earlier ones are already in the loaded row
+                missed.announced.computeIfPresent(postId, (id, writes) -> writes > 1 ? writes - 1 : null);
+                int[] deltas = missed.counters.computeIfAbsent(postId, id -> new int[3]);
+                deltas[0] += likeDelta;
+                deltas[1] += commentDelta;
+                deltas[2] += shareDelta;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drop tombstones and posts older than the retention window
+    public void trim() {
+        long cutoff = getRetainedSinceMillis();
+        lock.writeLock().lock();
+        try {
+            Columns kept = new Columns(rows.size);
+            for (int i = 0; i < rows.size; i++) {
+                if (rows.visibility[i] != DELETED && rows.createdAt[i] >= cutoff) {
+                    kept.copyRow(rows, i);
+                }
+            }
+            rows = kept;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Load the retention window from the database in parallel slices of the ID range. Rows added
+    // by events while loading are kept over the loaded copy of the same post; changes to other
+    // posts made while loading are applied to the loaded rows.
+    public void loadFromDatabase() {
+        long start = System.currentTimeMillis();
+        Timestamp since = new Timestamp(getRetainedSinceMillis());
+        lock.writeLock().lock();
+        try {
+            missed = new MissedChanges();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            int[] range = postDAO.getPostIdRangeSince(since);
+            Columns loaded = range == null ? new Columns(0) : loadSlices(since, range[0], range[1]);
+
+            lock.writeLock().lock();
+            try {
+                applyMissed(loaded);
+                rows = Columns.merge(rows, loaded);
+            } finally {
+                missed = null;
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Post metadata store loaded " + loaded.size + " posts in " +
+                    (System.currentTimeMillis() - start) + " ms");
+        } catch (SQLException e) {
+            logger.error("Error loading post metadata: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                missed = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Apply the changes recorded during the load to the loaded rows; called under the write lock
+    private void applyMissed(Columns loaded) {
+        for (Map.Entry<Integer, Post> update : missed.updated.entrySet()) {
+            int index = loaded.indexOf(update.getKey());
+            if (index >= 0) {
+                loaded.update(index, update.getValue());
+            }
+        }
+        for (Map.Entry<Integer, int[]> change : missed.counters.entrySet()) {
+            int index = loaded.indexOf(change.getKey());
+            if (index >= 0) {
+                loaded.likes[index] += change.getValue()[0];
+                loaded.comments[index] += change.getValue()[1];
+                loaded.shares[index] += change.getValue()[2];
+            }
+        }
+        missed.deleted.forEach(postId -> {
+            int index = loaded.indexOf(postId);
+            if (index >= 0) {
+                loaded.visibility[index] = DELETED;
+            }
+        });
+    }
+
+    private Columns loadSlices(Timestamp since, int minId, int maxId) throws SQLException {
+        long span = (long) maxId - minId + 1;
+        int slices = (int) Math.min(parallelism, span);
+        List<Callable<Columns>> tasks = new ArrayList<>();
+        for (int slice = 0; slice < slices; slice++) {
+            int fromId = (int) (minId + span * slice / slices);
+            int toId = (int) (minId + span * (slice + 1) / slices - 1);
+            tasks.add(() -> {
+                Columns columns = new Columns(1024);
+                postDAO.streamPostMetadata(since, fromId, toId, columns::append);
+                return columns;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(slices);
+        try {
+            List<Columns> loaded = new ArrayList<>();
+            for (Future<Columns> result : pool.invokeAll(tasks)) {
+                loaded.add(result.get());
+            }
+            return Columns.concat(loaded);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Post metadata load interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Post metadata slice failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static boolean isImageOrVideo(byte postType) {
+        return postType == Post.PostType.IMAGE.ordinal() || postType == Post.PostType.VIDEO.ordinal();
+    }
+
+    // Events for posts the store did not hold yet, seen while a load was running
+    private static class MissedChanges {
+        private final IntHashSet deleted = new IntHashSet(16);
+        // Post ID -> the post as last updated
+        private final Map<Integer, Post> updated = new HashMap<>();
+        // Post ID -> counter writes started during the load and not yet reported
+        private final Map<Integer, Integer> announced = new HashMap<>();
+        // Post ID -> like, comment and share deltas
+        private final Map<Integer, int[]> counters = new HashMap<>();
+    }
+
+    // One array per field, indexed by row; rows are in ascending post ID order
+    private static class Columns {
+        private int size;
+        private int[] postIds;
+        private int[] userIds;
+        private long[] createdAt;
+        private byte[] visibility;
+        private byte[] postType;
+        private boolean[] hasMedia;
+        private int[] likes;
+        private int[] comments;
+        private int[] shares;
+
+        private Columns(int capacity) {
+            allocate(Math.max(16, capacity));
+        }
+
+        // Row of the post, or -(insertion point) - 1
+        private int indexOf(int postId) {
+            return Arrays.binarySearch(postIds, 0, size, postId);
+        }
+
+        private void append(int postId, int userId, long createdAtMillis, Post.Visibility visibility,
+                            Post.PostType postType, boolean hasMedia, int likeCount, int commentCount, int shareCount) {
+            insert(size, postId, userId, createdAtMillis, visibility, postType, hasMedia,
+                    likeCount, commentCount, shareCount);
+        }
+
+        private void insert(int index, int postId, int userId, long createdAtMillis, Post.Visibility visibility,
+                            Post.PostType postType, boolean hasMedia, int likeCount, int commentCount, int shareCount) {
+            openRow(index);
+            postIds[index] = postId;
+            userIds[index] = userId;
+            createdAt[index] = createdAtMillis;
+            this.visibility[index] = (byte) visibility.ordinal();
+            this.postType[index] = (byte) postType.ordinal();
+            this.hasMedia[index] = hasMedia;
+            likes[index] = likeCount;
+            comments[index] = commentCount;
+            shares[index] = shareCount;
+        }
+
+        private void update(int index, Post post) {
+            visibility[index] = (byte) post.getVisibility().ordinal();
+            postType[index] = (byte) post.getPostType().ordinal();
+            hasMedia[index] = post.getMediaUrl() != null;
+        }
+
+        private void copyRow(Columns from, int row) {
+            openRow(size);
+            int index = size - 1;
+            postIds[index] = from.postIds[row];
+            userIds[index] = from.userIds[row];
+            createdAt[index] = from.createdAt[row];
+            visibility[index] = from.visibility[row];
+            postType[index] = from.postType[row];
+            hasMedia[index] = from.hasMedia[row];
+            likes[index] = from.likes[row];
+            comments[index] = from.comments[row];
+            shares[index] = from.shares[row];
+        }
+
+        // Make room for a row at index, shifting later rows up by one
+        private void openRow(int index) {
+            if (size == postIds.length) {
+                grow(size * 2);
+            }
+            int moved = size - index;
+            if (moved > 0) {
+                System.arraycopy(postIds, index, postIds, index + 1, moved);
+                System.arraycopy(userIds, index, userIds, index + 1, moved);
+                System.arraycopy(createdAt, index, createdAt, index + 1, moved);
+                System.arraycopy(visibility, index, visibility, index + 1, moved);
+                System.arraycopy(postType, index, postType, index + 1, moved);
+                System.arraycopy(hasMedia, index, hasMedia, index + 1, moved);
+                System.arraycopy(likes, index, likes, index + 1, moved);
+                System.arraycopy(comments, index, comments, index + 1, moved);
+                System.arraycopy(shares, index, shares, index + 1, moved);
+            }
+            size++;
+        }
+
+        private void allocate(int capacity) {
+            postIds = new int[capacity];
+            userIds = new int[capacity];
+            createdAt = new long[capacity];
+            visibility = new byte[capacity];
+            postType = new byte[capacity];
+            hasMedia = new boolean[capacity];
+            likes = new int[capacity];
+            comments = new int[capacity];
+            shares = new int[capacity];
+        }
+
+        private void grow(int capacity) {
+            postIds = Arrays.copyOf(postIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            visibility = Arrays.copyOf(visibility, capacity);
+            postType = Arrays.copyOf(postType, capacity);
+            hasMedia = Arrays.copyOf(hasMedia, capacity);
+            likes = Arrays.copyOf(likes, capacity);
+            comments = Arrays.copyOf(comments, capacity);
+            shares = Arrays.copyOf(shares, capacity);
+        }
+
+        // Slices in ascending ID order joined into one
+        private static Columns concat(List<Columns> slices) {
+            int total = 0;
+            for (Columns slice : slices) {
+                total += slice.size;
+            }
+            Columns joined = new Columns(total);
+            for (Columns slice : slices) {
+                for (int i = 0; i < slice.size; i++) {
+                    joined.copyRow(slice, i);
+                }
+            }
+            return joined;
+        }
+
+        // Both in ID order; a post in both is taken from current
+        private static Columns merge(Columns current, Columns loaded) {
+            Columns merged = new Columns(current.size + loaded.size);
+            int i = 0;
+            int j = 0;
+            while (i < current.size || j < loaded.size) {
+                if (j == loaded.size || (i < current.size && current.postIds[i] <= loaded.postIds[j])) {
+                    if (j < loaded.size && current.postIds[i] == loaded.postIds[j]) {
+                        j++;
+                    }
+                    merged.copyRow(current, i++);
+                } else {
+                    merged.copyRow(loaded, j++);
+                }
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.FeedDAO;
+import com.revconnect.dao.PostDAO;
+import com.revconnect.dao.RecommendationDAO;
+import com.revconnect.feed.FeedSnapshotCache.Feed;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.utils.IntHashSet;
+import com.revconnect.utils.TopKHeap;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Recommended posts for a viewer, in three steps. Candidates are recent posts by authors two
+// hops away in the follow/connection graph and by authors the viewer has liked, the nearest
+// neighbours of the posts the viewer liked (from ItemSimilarityJob), and the trending snapshot.
+// Posts the viewer already liked or commented on are dropped using a per-user set of post IDs.
+// The rest are scored by a weighted sum of author affinity, graph proximity, item similarity,
+// trending score, recency and popularity, and the best are kept in a bounded heap.
+// Every source is capped, so the cost does not grow with the posts table.
+public class RecommendationEngine {
+    private static final int CANDIDATE_DAYS = 14;
+    private static final int SECOND_DEGREE_AUTHORS = 100;
+    private static final int LIKED_AUTHORS = 50;
+    private static final int RECENT_LIKES = 500;
+    private static final int AUTHOR_POSTS = 300;
+    private static final int TRENDING_POSTS = 100;
+    private static final int SIMILARITY_SEEDS = 50;
+    private static final int SIMILAR_POSTS = 200;
+    private static final int SEEN_POSTS = 2000;
+
+    private static final double AFFINITY_WEIGHT = 3.0;
+    private static final double GRAPH_WEIGHT = 2.0;
+    private static final double SIMILARITY_WEIGHT = 2.5;
+    private static final double TRENDING_WEIGHT = 1.5;
+    private static final double RECENCY_WEIGHT = 1.0;
+    private static final double POPULARITY_WEIGHT = 0.5;
+    private static final double RECENCY_HALF_LIFE_HOURS = 24;
+
+    private static final int SEEN_CACHE_USERS = 256;
+    private static final long SEEN_TTL_MILLIS = 5 * 60 * 1000L;
+
+    private static final RecommendationEngine INSTANCE = new RecommendationEngine(new RecommendationDAO(),
+            new FeedDAO(), new PostDAO(), FeedSnapshotCache.getInstance(), TrendingPostEngine.getInstance());
+
+    private final RecommendationDAO recommendationDAO;
+    private final FeedDAO feedDAO;
+    private final PostDAO postDAO;
+    private final FeedSnapshotCache snapshotCache;
+    private final TrendingPostEngine trendingPosts;
+    // Posts each recent viewer has interacted with, least recently used first
+    private final Map<Integer, SeenPosts> seenPosts = new LinkedHashMap<Integer, SeenPosts>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, SeenPosts> eldest) {
+            return size() > SEEN_CACHE_USERS;
+        }
+    };
+
+    public RecommendationEngine(RecommendationDAO recommendationDAO, FeedDAO feedDAO, PostDAO postDAO,
+                                FeedSnapshotCache snapshotCache, TrendingPostEngine trendingPosts) {
+        this.recommendationDAO = recommendationDAO;
+        this.feedDAO = feedDAO;
+        this.postDAO = postDAO;
+        this.snapshotCache = snapshotCache;
+        this.trendingPosts = trendingPosts;
+    }
+
+    public static RecommendationEngine getInstance() {
+        return INSTANCE;
+    }
+
+    // Top recommended posts for the user, best first
+    public List<PostCard> recommend(int userId, int limit) throws SQLException {
+        SeenPosts seen = getSeenPosts(userId);
+        Map<Integer, Integer> graphAuthors = recommendationDAO.getSecondDegreeAuthors(userId, SECOND_DEGREE_AUTHORS);
+        Map<Integer, Integer> likedAuthors = recommendationDAO.getLikedAuthors(userId, RECENT_LIKES, LIKED_AUTHORS);
+
+        Set<Integer> authors = new LinkedHashSet<>(likedAuthors.keySet());
+        authors.addAll(graphAuthors.keySet());
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(CANDIDATE_DAYS));
+
+        Map<Integer, Double> similarPosts = getSimilarPosts(userId, seen);
+
+        Map<Integer, PostCard> candidates = new HashMap<>();
+        addCandidates(candidates, feedDAO.getRecentPostsByAuthors(authors, since, AUTHOR_POSTS), userId, seen);
+        addCandidates(candidates, postDAO.getPostCardsByIds(new ArrayList<>(similarPosts.keySet())), userId, seen);
+        addCandidates(candidates, snapshotCache.getPage(Feed.TRENDING, TRENDING_POSTS, 0), userId, seen);
+        if (candidates.isEmpty()) {
+            // Nothing personal to go on: fall back to what is new
+            addCandidates(candidates, snapshotCache.getPage(Feed.PUBLIC, TRENDING_POSTS, 0), userId, seen);
+        }
+
+        TopKHeap heap = new TopKHeap(limit);
+        Scorer scorer = new Scorer(candidates.values(), graphAuthors, likedAuthors, similarPosts);
+        for (PostCard post : candidates.values()) {
+            heap.offer(post.getPostId(), scorer.score(post));
+        }
+
+        List<PostCard> recommendations = new ArrayList<>();
+        for (int postId : heap.drainDescending()) {
+            recommendations.add(candidates.get(postId));
+        }
+        return recommendations;
+    }
+
+    // Record a like or comment so the post is not recommended to the user again
+    public void markSeen(int userId, int postId) {
+        synchronized (seenPosts) {
+            SeenPosts entry = seenPosts.get(userId);
+            if (entry != null) {
+                entry.marked.add(postId);
+            }
+        }
+    }
+
+    // The user's seen posts; shared, and only read by the caller
+    private SeenPosts getSeenPosts(int userId) throws SQLException {
+        synchronized (seenPosts) {
+            SeenPosts entry = seenPosts.get(userId);
+            if (entry != null && System.currentTimeMillis() - entry.loadedAt <= SEEN_TTL_MILLIS) {
+                return entry;
+            }
+        }
+
+        SeenPosts loaded = new SeenPosts(IntHashSet.of(recommendationDAO.getInteractedPostIds(userId, SEEN_POSTS)));
+        synchronized (seenPosts) {
+            seenPosts.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    // Neighbours of the posts the user liked most recently, strongest SIMILAR_POSTS first
+    private Map<Integer, Double> getSimilarPosts(int userId, SeenPosts seen) throws SQLException {
+        List<Integer> seeds = recommendationDAO.getRecentlyLikedPostIds(userId, SIMILARITY_SEEDS);
+        Map<Integer, Double> similar = recommendationDAO.getSimilarPosts(seeds, ItemSimilarityJob.NEIGHBORS);
+
+        TopKHeap heap = new TopKHeap(SIMILAR_POSTS);
+        for (Map.Entry<Integer, Double> entry : similar.entrySet()) {
+            if (!seen.contains(entry.getKey())) {
+                heap.offer(entry.getKey(), entry.getValue());
+            }
+        }
+        Map<Integer, Double> strongest = new LinkedHashMap<>();
+        for (int postId : heap.drainDescending()) {
+            strongest.put(postId, similar.get(postId));
+        }
+        return strongest;
+    }
+
+    private static void addCandidates(Map<Integer, PostCard> candidates, List<PostCard> posts, int userId,
+                                      SeenPosts seen) {
+        for (PostCard post : posts) {
+            // Similar posts are looked up by ID and may have been made private since
+            if (post.getUserId() != userId && !seen.contains(post.getPostId())
+                    && post.getVisibility() == Post.Visibility.PUBLIC) {
+                candidates.putIfAbsent(post.getPostId(), post);
+            }
+        }
+    }
+
+    private static int engagement(PostCard post) {
+        return post.getLikeCount() + post.getCommentCount() * 2 + post.getShareCount() * 3;
+    }
+
+    // Linear model over per-candidate features, each scaled to [0, 1] against the candidate set
+    private class Scorer {
+        private final Map<Integer, Integer> graphAuthors;
+        private final Map<Integer, Integer> likedAuthors;
+        private final Map<Integer, Double> similarPosts;
+        private final Map<Integer, Double> trendingScores = new HashMap<>();
+        private final LocalDateTime now = LocalDateTime.now();
+        private final long nowMillis = System.currentTimeMillis();
+        private final double maxPaths;
+        private final double maxLikes;
+        private final double maxSimilarity;
+        private final double maxTrending;
+        private final double maxEngagement;
+
+        private Scorer(Iterable<PostCard> candidates, Map<Integer, Integer> graphAuthors,
+                       Map<Integer, Integer> likedAuthors, Map<Integer, Double> similarPosts) {
+            this.graphAuthors = graphAuthors;
+            this.likedAuthors = likedAuthors;
+            this.similarPosts = similarPosts;
+
+            double trendingMax = 0;
+            int engagementMax = 0;
+            for (PostCard post : candidates) {
+                double trending = trendingPosts.getScore(post.getPostId(), nowMillis);
+                trendingScores.put(post.getPostId(), trending);
+                trendingMax = Math.max(trendingMax, trending);
+                engagementMax = Math.max(engagementMax, engagement(post));
+            }
+            this.maxTrending = trendingMax;
+            this.maxEngagement = Math.log1p(engagementMax);
+            this.maxPaths = Math.log1p(max(graphAuthors));
+            this.maxLikes = max(likedAuthors);
+            double similarityMax = 0;
+            for (double similarity : similarPosts.values()) {
+                similarityMax = Math.max(similarityMax, similarity);
+            }
+            this.maxSimilarity = similarityMax;
+        }
+
+        private double score(PostCard post) {
+            double affinity = ratio(likedAuthors.getOrDefault(post.getUserId(), 0), maxLikes);
+            double graph = ratio(Math.log1p(graphAuthors.getOrDefault(post.getUserId(), 0)), maxPaths);
+            double similarity = ratio(similarPosts.getOrDefault(post.getPostId(), 0.0), maxSimilarity);
+            double trending = ratio(trendingScores.get(post.getPostId()), maxTrending);
+            double ageHours = Math.max(0, Duration.between(post.getCreatedAt(), now).toMinutes() / 60.0);
+            double recency = Math.pow(0.5, ageHours / RECENCY_HALF_LIFE_HOURS);
+            double popularity = ratio(Math.log1p(engagement(post)), maxEngagement);
+
+            return AFFINITY_WEIGHT * affinity + GRAPH_WEIGHT * graph + SIMILARITY_WEIGHT * similarity
+                    + TRENDING_WEIGHT * trending + RECENCY_WEIGHT * recency + POPULARITY_WEIGHT * popularity;
+        }
+
+        private double ratio(double value, double max) {
+            return max > 0 ? value / max : 0;
+        }
+
+        private double max(Map<Integer, Integer> counts) {
+            int max = 0;
+            for (int count : counts.values()) {
+                max = Math.max(max, count);
+            }
+            return max;
+        }
+    }
+
+    // Read without locking: the loaded set is never changed once built, and posts marked seen
+    // afterwards go to a concurrent set
+    private static class SeenPosts {
+        private final IntHashSet loaded;
+        private final Set<Integer> marked = ConcurrentHashMap.newKeySet();
+        private final long loadedAt = System.currentTimeMillis();
+
+        private SeenPosts(IntHashSet loaded) {
+            this.loaded = loaded;
+        }
+
+        private boolean contains(int postId) {
+            return loaded.contains(postId) || marked.contains(postId);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.HashtagDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.HashtagActivity;
+import com.revconnect.models.Post;
+import com.revconnect.models.TrendingHashtag;
+import com.revconnect.utils.ContentParser;
+import com.revconnect.utils.CountMinSketch;
+import com.revconnect.utils.SpaceSaving;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Trending hashtags from the stream of new public posts.
+// Uses are counted in 15-minute buckets, each a count-min sketch; the last hour is the trending
+// window and the 24 hours before it the baseline. Running sketches for both windows are kept by
+// merging buckets in and subtracting them out as time moves on, and Space-Saving summaries of the
+// recent buckets supply the candidates. A ranked snapshot is rebuilt every 30 seconds, so reads
+// never touch the sketches.
+public class TrendingHashtagEngine implements PostEventListener {
+    private static final Logger logger = LogManager.getLogger(TrendingHashtagEngine.class);
+
+    private static final long BUCKET_MILLIS = 15 * 60 * 1000L;
+    private static final int RECENT_BUCKETS = 4;
+    private static final int BASELINE_BUCKETS = 96;
+    private static final int TOTAL_BUCKETS = RECENT_BUCKETS + BASELINE_BUCKETS;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 1024;
+    private static final int HEAVY_HITTERS_PER_BUCKET = 64;
+    // Below this many recent uses a spike is noise
+    private static final int MIN_RECENT_USES = 3;
+    private static final int SNAPSHOT_SIZE = 50;
+    public static final long REFRESH_SECONDS = 30;
+
+    private static final TrendingHashtagEngine INSTANCE = new TrendingHashtagEngine();
+
+    private final HashtagDAO hashtagDAO;
+    // Ring of per-bucket sketches, indexed by absolute bucket number modulo TOTAL_BUCKETS
+    private final CountMinSketch[] bucketSketches = new CountMinSketch[TOTAL_BUCKETS];
+    // Heavy hitters of the recent buckets, indexed modulo RECENT_BUCKETS
+    private final SpaceSaving[] bucketHitters = new SpaceSaving[RECENT_BUCKETS];
+    private final CountMinSketch recentWindow = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    private final CountMinSketch baselineWindow = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    // Absolute number (epoch millis / BUCKET_MILLIS) of the bucket receiving new uses
+    private long currentBucket = -1;
+    private volatile List<TrendingHashtag> snapshot = Collections.emptyList();
+
+    public TrendingHashtagEngine() {
+        this.hashtagDAO = new HashtagDAO();
+        for (int i = 0; i < TOTAL_BUCKETS; i++) {
+            bucketSketches[i] = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        }
+        for (int i = 0; i < RECENT_BUCKETS; i++) {
+            bucketHitters[i] = new SpaceSaving(HEAVY_HITTERS_PER_BUCKET);
+        }
+    }
+
+    public static TrendingHashtagEngine getInstance() {
+        return INSTANCE;
+    }
+
+    // Top trending hashtags as of the last refresh, hottest first
+    public List<TrendingHashtag> getTrending(int limit) {
+        List<TrendingHashtag> current = snapshot;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        if (post.getVisibility() != Post.Visibility.PUBLIC) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String hashtag : ContentParser.extractHashtags(post.getContent())) {
+            record(hashtag, now, 1);
+        }
+    }
+
+    // Count uses of a hashtag at a time; uses older than the baseline window are ignored
+    public synchronized void record(String hashtag, long epochMillis, int count) {
+        long bucket = epochMillis / BUCKET_MILLIS;
+        advanceTo(bucket);
+        if (bucket <= currentBucket - TOTAL_BUCKETS) {
+            return;
+        }
+
+        bucketSketches[slot(bucket, TOTAL_BUCKETS)].add(hashtag, count);
+        if (bucket > currentBucket - RECENT_BUCKETS) {
+            recentWindow.add(hashtag, count);
+            bucketHitters[slot(bucket, RECENT_BUCKETS)].offer(hashtag, count);
+        } else {
+            baselineWindow.add(hashtag, count);
+        }
+    }
+
+    // Rank the candidates by how far recent use exceeds the baseline rate and publish the result
+    public void refresh() {
+        List<TrendingHashtag> ranked = new ArrayList<>();
+        synchronized (this) {
+            advanceTo(System.currentTimeMillis() / BUCKET_MILLIS);
+
+            Set<String> candidates = new HashSet<>();
+            for (SpaceSaving hitters : bucketHitters) {
+                candidates.addAll(hitters.getKeys());
+            }
+
+            double windowRatio = (double) RECENT_BUCKETS / BASELINE_BUCKETS;
+            for (String hashtag : candidates) {
+                int recent = recentWindow.estimate(hashtag);
+                if (recent < MIN_RECENT_USES) {
+                    continue;
+                }
+                double expected = baselineWindow.estimate(hashtag) * windowRatio;
+                // Poisson z-score: a tag used 30 times against 20 expected beats 4 against 1
+                double score = (recent - expected) / Math.sqrt(expected + 1);
+                if (score > 0) {
+                    ranked.add(new TrendingHashtag(hashtag, recent, expected,
+                            recent / Math.max(expected, 1.0), score));
+                }
+            }
+        }
+
+        ranked.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        snapshot = Collections.unmodifiableList(
+                new ArrayList<>(ranked.subList(0, Math.min(SNAPSHOT_SIZE, ranked.size()))));
+    }
+
+    // Replay the last day of hashtag use so trends survive a restart
+    public void loadFromDatabase() {
+        long windowStart = (System.currentTimeMillis() / BUCKET_MILLIS - TOTAL_BUCKETS + 1) * BUCKET_MILLIS;
+        try {
+            List<HashtagActivity> activity = hashtagDAO.getHashtagActivitySince(
+                    new Timestamp(windowStart), (int) (BUCKET_MILLIS / 1000));
+            for (HashtagActivity period : activity) {
+                long periodStart = period.getPeriodStart().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                record(period.getHashtag(), periodStart, period.getCount());
+            }
+            refresh();
+            logger.info("Trending hashtags loaded " + activity.size() + " hashtag periods");
+        } catch (SQLException e) {
+            logger.error("Error loading hashtag activity: " + e.getMessage());
+        }
+    }
+
+    // Rotate buckets up to the given one: the bucket leaving the recent window moves to the
+    // baseline, and the one leaving the baseline is subtracted and reused
+    private void advanceTo(long bucket) {
+        if (currentBucket < 0 || bucket - currentBucket >= TOTAL_BUCKETS) {
+            for (CountMinSketch sketch : bucketSketches) {
+                sketch.clear();
+            }
+            for (SpaceSaving hitters : bucketHitters) {
+                hitters.clear();
+            }
+            recentWindow.clear();
+            baselineWindow.clear();
+            currentBucket = bucket;
+            return;
+        }
+
+        while (currentBucket < bucket) {
+            currentBucket++;
+
+            long leavingRecent = currentBucket - RECENT_BUCKETS;
+            CountMinSketch moving = bucketSketches[slot(leavingRecent, TOTAL_BUCKETS)];
+            recentWindow.subtract(moving);
+            baselineWindow.merge(moving);
+            bucketHitters[slot(leavingRecent, RECENT_BUCKETS)].clear();
+
+            // Same slot as the bucket that just left the baseline
+            CountMinSketch expired = bucketSketches[slot(currentBucket, TOTAL_BUCKETS)];
+            baselineWindow.subtract(expired);
+            expired.clear();
+        }
+    }
+
+    private static int slot(long bucket, int size) {
+        return (int) Math.floorMod(bucket, (long) size);
+    }
+}
@@ -0,0 +1,213 @@
+package com.revconnect.feed;
+
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.Post;
+import com.revconnect.utils.IntDoubleHashMap;
+import com.revconnect.utils.TopKHeap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Trending public posts from the stream of likes, comments and shares.
+// Each post's score is the sum of its engagement weights decayed exponentially by age (6-hour
+// half-life). Scores use forward decay: an event at time t adds weight * 2^((t - landmark) / halfLife),
+// so one post's score never has to be touched as time passes and the ranking between posts is
+// unchanged by decay. Every few minutes the landmark moves to now, all scores are rescaled, posts
+// that have cooled off are dropped and the top list is rebuilt; between those passes the top list
+// is updated in place on every event.
+public class TrendingPostEngine implements PostEventListener {
+    private static final Logger logger = LogManager.getLogger(TrendingPostEngine.class);
+
+    public static final double LIKE_WEIGHT = 1.0;
+    public static final double COMMENT_WEIGHT = 2.0;
+    public static final double SHARE_WEIGHT = 3.0;
+    // Lets a new post rank before anyone has reacted to it
+    private static final double CREATED_WEIGHT = 1.0;
+
+    private static final long HALF_LIFE_MILLIS = 6 * 60 * 60 * 1000L;
+    // Posts whose decayed score falls below this stop being tracked
+    private static final double MIN_SCORE = 0.05;
+    private static final int TOP_SIZE = 200;
+    private static final int LOAD_DAYS = 7;
+    public static final long MAINTENANCE_MINUTES = 5;
+    // Rebase inline if maintenance has not run for this long, well before 2^x can overflow
+    private static final long MAX_LANDMARK_AGE_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final TrendingPostEngine INSTANCE = new TrendingPostEngine();
+
+    // Forward-decayed score of every tracked post, relative to landmarkMillis
+    private final IntDoubleHashMap scores = new IntDoubleHashMap(4096);
+    private long landmarkMillis = System.currentTimeMillis();
+    // Highest-scoring posts, best first
+    private final int[] topIds = new int[TOP_SIZE];
+    private final double[] topScores = new double[TOP_SIZE];
+    private int topCount;
+    private volatile boolean ready;
+
+    public static TrendingPostEngine getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Trending post IDs, hottest first
+    public synchronized List<Integer> getTrending(int offset, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = Math.max(0, offset); i < topCount && ids.size() < limit; i++) {
+            ids.add(topIds[i]);
+        }
+        return ids;
+    }
+
+    // Current decayed score of a post, 0 if it is not tracked
+    public synchronized double getScore(int postId, long nowMillis) {
+        return scores.get(postId, 0) * decay(nowMillis);
+    }
+
+    public synchronized int getTrackedCount() {
+        return scores.size();
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        if (post.getVisibility() == Post.Visibility.PUBLIC) {
+            track(post.getPostId(), CREATED_WEIGHT, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void onPostUpdated(Post post) {
+        if (post.getVisibility() != Post.Visibility.PUBLIC) {
+            remove(post.getPostId());
+        }
+    }
+
+    @Override
+    public void onPostDeleted(int postId) {
+        remove(postId);
+    }
+
+    // Record engagement on a post; negative weights undo a like or comment.
+    // Posts that are not tracked (private, or no longer trending) are ignored.
+    public synchronized void recordEngagement(int postId, double weight, long epochMillis) {
+        if (scores.containsKey(postId)) {
+            update(postId, weight, epochMillis);
+        }
+    }
+
+    // Start tracking a post (if needed) and add weight to it
+    public synchronized void track(int postId, double weight, long epochMillis) {
+        update(postId, weight, epochMillis);
+    }
+
+    public synchronized void remove(int postId) {
+        if (scores.remove(postId)) {
+            int index = indexInTop(postId);
+            if (index >= 0) {
+                removeFromTop(index);
+            }
+        }
+    }
+
+    // Rebase scores on the current time, drop cooled-off posts and rebuild the top list from
+    // every tracked post, correcting for posts that fell out of it on an unlike
+    public synchronized void maintain() {
+        maintain(System.currentTimeMillis());
+    }
+
+    synchronized void maintain(long nowMillis) {
+        scores.scaleValues(decay(nowMillis));
+        landmarkMillis = nowMillis;
+        scores.removeIf((postId, score) -> score < MIN_SCORE);
+
+        TopKHeap heap = new TopKHeap(TOP_SIZE);
+        scores.forEach(heap::offer);
+        int[] ranked = heap.drainDescending();
+        topCount = ranked.length;
+        for (int i = 0; i < ranked.length; i++) {
+            topIds[i] = ranked[i];
+            topScores[i] = scores.get(ranked[i], 0);
+        }
+    }
+
+    // Seed scores from the engagement counts of recent public posts in the metadata store,
+    // treating each post's engagement as if it happened when it was posted
+    public void loadFrom(PostMetadataStore postMetadata) {
+        long since = System.currentTimeMillis() - LOAD_DAYS * 24 * 60 * 60 * 1000L;
+        int[] loaded = new int[1];
+        synchronized (this) {
+            postMetadata.forEachPublicSince(since, (postId, userId, createdAt, likes, comments, shares) -> {
+                // Posts created since startup were already seen through events
+                if (!scores.containsKey(postId)) {
+                    update(postId, CREATED_WEIGHT + likes * LIKE_WEIGHT + comments * COMMENT_WEIGHT
+                            + shares * SHARE_WEIGHT, createdAt);
+                }
+                loaded[0]++;
+            });
+            maintain();
+        }
+        ready = true;
+        logger.info("Trending posts loaded " + loaded[0] + " recent posts, tracking " + getTrackedCount());
+    }
+
+    private void update(int postId, double weight, long epochMillis) {
+        if (epochMillis - landmarkMillis > MAX_LANDMARK_AGE_MILLIS) {
+            maintain(epochMillis);
+        }
+        double score = scores.addTo(postId, weight / decay(epochMillis));
+
+        int index = indexInTop(postId);
+        if (index >= 0) {
+            removeFromTop(index);
+        } else if (topCount == TOP_SIZE && score <= topScores[TOP_SIZE - 1]) {
+            return;
+        }
+        insertIntoTop(postId, score);
+    }
+
+    // 2^-((now - landmark) / halfLife): turns a forward score into the decayed score at now
+    private double decay(long nowMillis) {
+        return Math.pow(2, -(double) (nowMillis - landmarkMillis) / HALF_LIFE_MILLIS);
+    }
+
+    private int indexInTop(int postId) {
+        for (int i = 0; i < topCount; i++) {
+            if (topIds[i] == postId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeFromTop(int index) {
+        System.arraycopy(topIds, index + 1, topIds, index, topCount - index - 1);
+        System.arraycopy(topScores, index + 1, topScores, index, topCount - index - 1);
+        topCount--;
+    }
+
+    private void insertIntoTop(int postId, double score) {
+        if (topCount == TOP_SIZE) {
+            topCount--;
+        }
+        // First position whose score is below this one
+        int low = 0;
+        int high = topCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (topScores[mid] >= score) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        System.arraycopy(topIds, low, topIds, low + 1, topCount - low);
+        System.arraycopy(topScores, low, topScores, low + 1, topCount - low);
+        topIds[low] = postId;
+        topScores[low] = score;
+        topCount++;
+    }
+}
@@ -0,0 +1,22 @@
+package com.revconnect.models;
+
+// A creator category or business type, shared by every user who lists it
+public class Category {
+    private int categoryId;
+    private String name;
+
+    // Constructors
+    public Category() {}
+
+    public Category(int categoryId, String name) {
+        this.categoryId = categoryId;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public int getCategoryId() { return categoryId; }
+    public void setCategoryId(int categoryId) { this.categoryId = categoryId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
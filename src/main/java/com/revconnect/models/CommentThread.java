@@ -0,0 +1,40 @@
+package com.revconnect.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A comment with the replies loaded under it, oldest first
+public class CommentThread {
+    private Comment comment;
+    private List<CommentThread> replies = new ArrayList<>();
+    // Direct replies in the database, loaded or not
+    private int replyCount;
+
+    // Constructors
+    public CommentThread() {}
+
+    public CommentThread(Comment comment, int replyCount) {
+        this.comment = comment;
+        this.replyCount = replyCount;
+    }
+
+    // Getters and Setters
+    public Comment getComment() { return comment; }
+    public void setComment(Comment comment) { this.comment = comment; }
+
+    public List<CommentThread> getReplies() { return replies; }
+    public void setReplies(List<CommentThread> replies) { this.replies = replies; }
+
+    public int getReplyCount() { return replyCount; }
+    public void setReplyCount(int replyCount) { this.replyCount = replyCount; }
+
+    public boolean hasMoreReplies() {
+        return replies.size() < replyCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CommentThread{commentId=" + comment.getCommentId() + ", replies=" + replies.size() +
+                "/" + replyCount + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.revconnect.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One page of the personalized feed. A page is degraded when some feed sources missed the
+// request deadline or failed, so it was assembled from the sources that did answer.
+// stageMicros holds the time each stage of building the page took, in microseconds.
+public class FeedPage {
+    private List<PostCard> posts;
+    private List<String> missedSources;
+    private Map<String, Long> stageMicros;
+
+    // Constructors
+    public FeedPage() {
+        this(new ArrayList<>(), new ArrayList<>());
+    }
+
+    public FeedPage(List<PostCard> posts, List<String> missedSources) {
+        this.posts = posts;
+        this.missedSources = missedSources;
+        this.stageMicros = new LinkedHashMap<>();
+    }
+
+    // Getters and Setters
+    public List<PostCard> getPosts() { return posts; }
+    public void setPosts(List<PostCard> posts) { this.posts = posts; }
+
+    public List<String> getMissedSources() { return missedSources; }
+    public void setMissedSources(List<String> missedSources) { this.missedSources = missedSources; }
+
+    public Map<String, Long> getStageMicros() { return stageMicros; }
+    public void setStageMicros(Map<String, Long> stageMicros) { this.stageMicros = stageMicros; }
+
+    public boolean isDegraded() { return !missedSources.isEmpty(); }
+
+    public boolean isEmpty() { return posts.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "FeedPage{posts=" + posts.size() + ", missedSources=" + missedSources +
+                ", stageMicros=" + stageMicros + '}';
+    }
+}
@@ -0,0 +1,29 @@
+package com.revconnect.models;
+
+import java.time.LocalDateTime;
+
+// Number of posts using a hashtag within one time period
+public class HashtagActivity {
+    private String hashtag;
+    private LocalDateTime periodStart;
+    private int count;
+
+    // Constructors
+    public HashtagActivity() {}
+
+    public HashtagActivity(String hashtag, LocalDateTime periodStart, int count) {
+        this.hashtag = hashtag;
+        this.periodStart = periodStart;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getHashtag() { return hashtag; }
+    public void setHashtag(String hashtag) { this.hashtag = hashtag; }
+
+    public LocalDateTime getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDateTime periodStart) { this.periodStart = periodStart; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
@@ -1,5 +1,7 @@
 package com.revconnect.models;
 
+import com.revconnect.utils.NotificationFormatter;
+
 import java.time.LocalDateTime;
 
 public class Notification {
@@ -7,6 +9,8 @@ public class Notification {
     private int userId;
     private Integer senderId;
     private NotificationType type;
+    private NotificationTemplate template;
+    private String[] params;
     private String content;
     private Integer referenceId;
     private String referenceType;
@@ -29,10 +33,19 @@ public class Notification {
     public Notification(int userId, NotificationType type, String content) {
         this.userId = userId;
         this.type = type;
+        this.template = NotificationTemplate.RAW;
         this.content = content;
         this.isRead = false;
     }
 
+    public Notification(int userId, NotificationTemplate template, String... params) {
+        this.userId = userId;
+        this.type = template.getType();
+        this.template = template;
+        this.params = params;
+        this.isRead = false;
+    }
+
     // Getters and Setters
     public int getNotificationId() { return notificationId; }
     public void setNotificationId(int notificationId) { this.notificationId = notificationId; }
@@ -46,7 +59,19 @@ public class Notification {
     public NotificationType getType() { return type; }
     public void setType(NotificationType type) { this.type = type; }
 
-    public String getContent() { return content; }
+    public NotificationTemplate getTemplate() { return template; }
+    public void setTemplate(NotificationTemplate template) { this.template = template; }
+
+    public String[] getParams() { return params; }
+    public void setParams(String[] params) { this.params = params; }
+
+    // Content is rendered from the template on first access
+    public String getContent() {
+        if (content == null && template != null) {
+            content = NotificationFormatter.forTemplate(template).format(params);
+        }
+        return content;
+    }
     public void setContent(String content) { this.content = content; }
 
     public Integer getReferenceId() { return referenceId; }
@@ -62,6 +87,7 @@ public class Notification {
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
     public String getShortContent() {
+        String content = getContent();
         if (content.length() > 50) {
             return content.substring(0, 50) + "...";
         }
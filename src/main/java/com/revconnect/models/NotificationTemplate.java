@@ -0,0 +1,45 @@
+package com.revconnect.models;
+
+public enum NotificationTemplate {
+    // Free-form text kept in the content column (legacy rows and custom messages)
+    RAW(0, null, "{0}"),
+    CONNECTION_REQUEST(1, Notification.NotificationType.CONNECTION_REQUEST, "You have a new connection request"),
+    CONNECTION_ACCEPTED(2, Notification.NotificationType.CONNECTION_ACCEPTED, "Your connection request was accepted"),
+    NEW_POST(3, Notification.NotificationType.NEW_POST, "New post: {0}"),
+    NEW_COMMENT(4, Notification.NotificationType.NEW_COMMENT, "Someone commented on your post: {0}"),
+    NEW_LIKE(5, Notification.NotificationType.NEW_LIKE, "Someone liked your post"),
+    NEW_FOLLOW(6, Notification.NotificationType.NEW_FOLLOW, "Someone started following you"),
+    MENTION(7, Notification.NotificationType.MENTION, "You were mentioned: {0}");
+
+    private static final NotificationTemplate[] BY_ID = new NotificationTemplate[8];
+
+    static {
+        for (NotificationTemplate template : values()) {
+            BY_ID[template.id] = template;
+        }
+    }
+
+    private final int id;
+    private final Notification.NotificationType type;
+    private final String pattern;
+
+    NotificationTemplate(int id, Notification.NotificationType type, String pattern) {
+        this.id = id;
+        this.type = type;
+        this.pattern = pattern;
+    }
+
+    public int getId() { return id; }
+
+    public Notification.NotificationType getType() { return type; }
+
+    public String getPattern() { return pattern; }
+
+    // Resolve a stored template_id, falling back to RAW for unknown ids
+    public static NotificationTemplate fromId(int id) {
+        if (id >= 0 && id < BY_ID.length && BY_ID[id] != null) {
+            return BY_ID[id];
+        }
+        return RAW;
+    }
+}
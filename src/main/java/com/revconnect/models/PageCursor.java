@@ -0,0 +1,56 @@
+package com.revconnect.models;
+
+import java.time.LocalDateTime;
+
+// Position in a list ordered by (createdAt, id), newest first unless the list says otherwise:
+// the next page starts after (createdAt, id)
+public class PageCursor {
+    private LocalDateTime createdAt;
+    private int id;
+
+    // Constructors
+    public PageCursor() {}
+
+    public PageCursor(LocalDateTime createdAt, int id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    // Cursor for the page after this post
+    public static PageCursor after(Post post) {
+        return new PageCursor(post.getCreatedAt(), post.getPostId());
+    }
+
+    // Cursor for the page after this post card
+    public static PageCursor after(PostCard card) {
+        return new PageCursor(card.getCreatedAt(), card.getPostId());
+    }
+
+    // Cursor for the page of comments after this one
+    public static PageCursor after(Comment comment) {
+        return new PageCursor(comment.getCreatedAt(), comment.getCommentId());
+    }
+
+    // Cursor for the page of saved posts after this one
+    public static PageCursor after(SavedPost saved) {
+        return new PageCursor(saved.getSavedAt(), saved.getPostId());
+    }
+
+    // Getters and Setters
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    // True if a post at (createdAt, id) comes after this cursor
+    public boolean isBefore(LocalDateTime otherCreatedAt, int otherId) {
+        int compare = otherCreatedAt.compareTo(createdAt);
+        return compare < 0 || (compare == 0 && otherId < id);
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{createdAt=" + createdAt + ", id=" + id + '}';
+    }
+}
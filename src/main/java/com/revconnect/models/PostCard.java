@@ -0,0 +1,87 @@
+package com.revconnect.models;
+
+import java.time.LocalDateTime;
+
+// A post as list views show it: author, the start of the content, counters and dates.
+// The full content is loaded only when a single post is opened.
+public class PostCard {
+    public static final int PREVIEW_LENGTH = 280;
+
+    private int postId;
+    private int userId;
+    private String authorUsername;
+    private String authorName;
+    private User.UserType authorType;
+    private String contentPreview;
+    // True if the content is longer than the preview
+    private boolean truncated;
+    private String mediaUrl;
+    private Post.PostType postType;
+    private Post.Visibility visibility;
+    private int likeCount;
+    private int commentCount;
+    private int shareCount;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public PostCard() {}
+
+    // Getters and Setters
+    public int getPostId() { return postId; }
+    public void setPostId(int postId) { this.postId = postId; }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public String getAuthorUsername() { return authorUsername; }
+    public void setAuthorUsername(String authorUsername) { this.authorUsername = authorUsername; }
+
+    public String getAuthorName() { return authorName; }
+    public void setAuthorName(String authorName) { this.authorName = authorName; }
+
+    public User.UserType getAuthorType() { return authorType; }
+    public void setAuthorType(User.UserType authorType) { this.authorType = authorType; }
+
+    public String getContentPreview() { return contentPreview; }
+    public void setContentPreview(String contentPreview) { this.contentPreview = contentPreview; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public String getMediaUrl() { return mediaUrl; }
+    public void setMediaUrl(String mediaUrl) { this.mediaUrl = mediaUrl; }
+
+    public Post.PostType getPostType() { return postType; }
+    public void setPostType(Post.PostType postType) { this.postType = postType; }
+
+    public Post.Visibility getVisibility() { return visibility; }
+    public void setVisibility(Post.Visibility visibility) { this.visibility = visibility; }
+
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
+
+    public int getCommentCount() { return commentCount; }
+    public void setCommentCount(int commentCount) { this.commentCount = commentCount; }
+
+    public int getShareCount() { return shareCount; }
+    public void setShareCount(int shareCount) { this.shareCount = shareCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    // Preview with an ellipsis if the content was cut
+    public String getDisplayContent() {
+        return truncated ? contentPreview + "..." : contentPreview;
+    }
+
+    // "By:" line for list views
+    public String getByline() {
+        return authorUsername != null ? authorName + " (@" + authorUsername + ")" : "user " + userId;
+    }
+
+    @Override
+    public String toString() {
+        return "PostCard{postId=" + postId + ", author=" + authorUsername + ", likes=" + likeCount +
+                ", createdAt=" + createdAt + '}';
+    }
+}
@@ -0,0 +1,32 @@
+package com.revconnect.models;
+
+// One nearest neighbour of a post: users who liked postId also liked similarPostId
+public class PostSimilarity {
+    private int postId;
+    private int neighborRank;
+    private int similarPostId;
+    private double score;
+
+    // Constructors
+    public PostSimilarity() {}
+
+    public PostSimilarity(int postId, int neighborRank, int similarPostId, double score) {
+        this.postId = postId;
+        this.neighborRank = neighborRank;
+        this.similarPostId = similarPostId;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public int getPostId() { return postId; }
+    public void setPostId(int postId) { this.postId = postId; }
+
+    public int getNeighborRank() { return neighborRank; }
+    public void setNeighborRank(int neighborRank) { this.neighborRank = neighborRank; }
+
+    public int getSimilarPostId() { return similarPostId; }
+    public void setSimilarPostId(int similarPostId) { this.similarPostId = similarPostId; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
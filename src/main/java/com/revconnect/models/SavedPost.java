@@ -0,0 +1,39 @@
+package com.revconnect.models;
+
+import java.time.LocalDateTime;
+
+// A post a user bookmarked, as a card, with when they saved it
+public class SavedPost {
+    private int userId;
+    private int postId;
+    private LocalDateTime savedAt;
+    private PostCard post;
+
+    // Constructors
+    public SavedPost() {}
+
+    public SavedPost(int userId, PostCard post, LocalDateTime savedAt) {
+        this.userId = userId;
+        this.postId = post.getPostId();
+        this.post = post;
+        this.savedAt = savedAt;
+    }
+
+    // Getters and Setters
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public int getPostId() { return postId; }
+    public void setPostId(int postId) { this.postId = postId; }
+
+    public LocalDateTime getSavedAt() { return savedAt; }
+    public void setSavedAt(LocalDateTime savedAt) { this.savedAt = savedAt; }
+
+    public PostCard getPost() { return post; }
+    public void setPost(PostCard post) { this.post = post; }
+
+    @Override
+    public String toString() {
+        return "SavedPost{userId=" + userId + ", postId=" + postId + ", savedAt=" + savedAt + '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.revconnect.models;
+
+public class TrendingHashtag {
+    private String hashtag;
+    private int recentCount;
+    private double baselineCount;
+    private double velocity;
+    private double score;
+
+    // Constructors
+    public TrendingHashtag() {}
+
+    public TrendingHashtag(String hashtag, int recentCount, double baselineCount, double velocity, double score) {
+        this.hashtag = hashtag;
+        this.recentCount = recentCount;
+        this.baselineCount = baselineCount;
+        this.velocity = velocity;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public String getHashtag() { return hashtag; }
+    public void setHashtag(String hashtag) { this.hashtag = hashtag; }
+
+    // Uses in the trending window
+    public int getRecentCount() { return recentCount; }
+    public void setRecentCount(int recentCount) { this.recentCount = recentCount; }
+
+    // Uses expected in the trending window, from the baseline window's rate
+    public double getBaselineCount() { return baselineCount; }
+    public void setBaselineCount(double baselineCount) { this.baselineCount = baselineCount; }
+
+    // Recent uses relative to the baseline rate (2.0 = twice as often as usual)
+    public double getVelocity() { return velocity; }
+    public void setVelocity(double velocity) { this.velocity = velocity; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    @Override
+    public String toString() {
+        return "TrendingHashtag{" +
+                "hashtag='" + hashtag + '\'' +
+                ", recentCount=" + recentCount +
+                ", velocity=" + velocity +
+                '}';
+    }
+}
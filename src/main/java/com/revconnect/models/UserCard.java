@@ -0,0 +1,88 @@
+package com.revconnect.models;
+
+// The few user fields list views show: name, handle, type and follower count.
+// Loaded by narrow queries so lists never read passwords, e-mails or full bios.
+public class UserCard {
+    public static final int BIO_PREVIEW_LENGTH = 50;
+
+    private int userId;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String businessName;
+    private User.UserType userType;
+    private int followersCount;
+    // Start of the bio, one character past BIO_PREVIEW_LENGTH so a cut can be shown; or null
+    private String bioPreview;
+
+    // Constructors
+    public UserCard() {}
+
+    public UserCard(int userId, String username, String firstName, String lastName, User.UserType userType) {
+        this.userId = userId;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.userType = userType;
+    }
+
+    // Card for a user already loaded in full
+    public static UserCard from(User user) {
+        UserCard card = new UserCard(user.getUserId(), user.getUsername(), user.getFirstName(),
+                user.getLastName(), user.getUserType());
+        if (user instanceof BusinessUser) {
+            card.setBusinessName(((BusinessUser) user).getBusinessName());
+        }
+        card.setFollowersCount(user.getFollowersCount());
+        String bio = user.getBio();
+        card.setBioPreview(bio != null && bio.length() > BIO_PREVIEW_LENGTH + 1
+                ? bio.substring(0, BIO_PREVIEW_LENGTH + 1) : bio);
+        return card;
+    }
+
+    // Getters and Setters
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getBusinessName() { return businessName; }
+    public void setBusinessName(String businessName) { this.businessName = businessName; }
+
+    public User.UserType getUserType() { return userType; }
+    public void setUserType(User.UserType userType) { this.userType = userType; }
+
+    public int getFollowersCount() { return followersCount; }
+    public void setFollowersCount(int followersCount) { this.followersCount = followersCount; }
+
+    public String getBioPreview() { return bioPreview; }
+    public void setBioPreview(String bioPreview) { this.bioPreview = bioPreview; }
+
+    // Business name for business accounts, otherwise first and last name
+    public String getDisplayName() {
+        if (userType == User.UserType.BUSINESS && businessName != null && !businessName.isEmpty()) {
+            return businessName;
+        }
+        return firstName + " " + lastName;
+    }
+
+    // Bio cut to BIO_PREVIEW_LENGTH with an ellipsis, or null if there is none
+    public String getShortBio() {
+        if (bioPreview == null || bioPreview.isEmpty()) {
+            return null;
+        }
+        return bioPreview.length() > BIO_PREVIEW_LENGTH ? bioPreview.substring(0, BIO_PREVIEW_LENGTH) + "..." : bioPreview;
+    }
+
+    @Override
+    public String toString() {
+        return getDisplayName() + " (@" + username + ")";
+    }
+}
@@ -5,9 +5,12 @@ import com.revconnect.services.UserService;
 import com.revconnect.services.PostService;
 import com.revconnect.services.ConnectionService;
 import com.revconnect.services.NotificationService;
+import com.revconnect.services.NotificationEventBus;
+import com.revconnect.models.Notification;
 import com.revconnect.models.User;
 import com.revconnect.utils.ConsoleUtils;
 
+import java.util.List;
 import java.util.Scanner;
 
 public class ConsoleUI {
@@ -18,6 +21,7 @@ public class ConsoleUI {
     private ConnectionService connectionService;
     private NotificationService notificationService;
     private User currentUser;
+    private NotificationEventBus.Subscription notificationSubscription;
 
     public ConsoleUI() {
         this.scanner = new Scanner(System.in);
@@ -71,6 +75,8 @@ public class ConsoleUI {
     }
 
     private void showMainMenu() {
+        showLiveNotifications();
+
         System.out.println("\n══════════════════════════════════════");
         System.out.println("    Welcome, " + currentUser.getFirstName() + "!");
         System.out.println("══════════════════════════════════════");
@@ -128,7 +134,7 @@ public class ConsoleUI {
         try {
             User user = authService.login(usernameOrEmail, password);
             if (user != null) {
-                currentUser = user;
+                startSession(user);
                 System.out.println("Login successful! Welcome back, " + user.getFirstName() + "!");
 
                 // Check for unread notifications
@@ -149,16 +155,38 @@ public class ConsoleUI {
         User newUser = authMenu.showRegistrationMenu();
 
         if (newUser != null) {
-            currentUser = newUser;
+            startSession(newUser);
             System.out.println("Registration successful! Welcome to RevConnect, " + newUser.getFirstName() + "!");
         }
     }
 
     private void logout() {
+        if (notificationSubscription != null) {
+            notificationSubscription.close();
+            notificationSubscription = null;
+        }
         currentUser = null;
         System.out.println("You have been logged out successfully.");
     }
 
+    // Set the logged-in user and subscribe to their live notifications
+    private void startSession(User user) {
+        currentUser = user;
+        notificationSubscription = notificationService.subscribe(user.getUserId());
+    }
+
+    // Show notifications that arrived since the last menu was displayed
+    private void showLiveNotifications() {
+        if (notificationSubscription == null) {
+            return;
+        }
+
+        List<Notification> received = notificationSubscription.poll();
+        for (Notification notification : received) {
+            System.out.println("\n🔔 " + notification.getContent());
+        }
+    }
+
     private void viewFeed() {
         PostMenu postMenu = new PostMenu(scanner, postService, currentUser.getUserId());
         postMenu.showFeedMenu();
@@ -180,7 +208,8 @@ public class ConsoleUI {
     }
 
     private void showNotifications() {
-        NotificationMenu notificationMenu = new NotificationMenu(scanner, notificationService, currentUser.getUserId());
+        NotificationMenu notificationMenu = new NotificationMenu(scanner, notificationService,
+                currentUser.getUserId());
         notificationMenu.showNotificationsMenu();
     }
 
@@ -1,6 +1,7 @@
 package com.revconnect.presentation;
 
 import com.revconnect.services.NotificationService;
+import com.revconnect.services.NotificationEventBus;
 import com.revconnect.models.Notification;
 
 import java.util.List;
@@ -10,6 +11,11 @@ public class NotificationMenu {
     private Scanner scanner;
     private NotificationService notificationService;
     private int currentUserId;
+    // The menu's own subscription, open while the menu is shown; polling it must not drain
+    // the session subscription ConsoleUI reads live notifications from
+    private NotificationEventBus.Subscription subscription;
+    // Unread count kept current from live events; -1 means it must be reloaded
+    private int unreadCount = -1;
 
     public NotificationMenu(Scanner scanner, NotificationService notificationService, int currentUserId) {
         this.scanner = scanner;
@@ -18,6 +24,17 @@ public class NotificationMenu {
     }
 
     public void showNotificationsMenu() {
+        subscription = notificationService.subscribe(currentUserId);
+        unreadCount = -1;
+        try {
+            showMenuLoop();
+        } finally {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
+    private void showMenuLoop() {
         boolean back = false;
 
         while (!back) {
@@ -26,8 +43,7 @@ public class NotificationMenu {
             System.out.println("══════════════════════════════════════");
 
             try {
-                int unreadCount = notificationService.getUnreadNotificationCount(currentUserId);
-                System.out.println("You have " + unreadCount + " unread notification(s)");
+                System.out.println("You have " + getUnreadCount() + " unread notification(s)");
 
                 System.out.println("\n1. View All Notifications");
                 System.out.println("2. View Unread Notifications");
@@ -108,7 +124,7 @@ public class NotificationMenu {
                         markAllAsRead();
                         break;
                     case 2:
-                        markIndividualAsRead();
+                        markIndividualAsRead(unreadNotifications);
                         break;
                     case 3:
                         break;
@@ -123,6 +139,7 @@ public class NotificationMenu {
         try {
             boolean marked = notificationService.markAllAsRead(currentUserId);
             if (marked) {
+                unreadCount = 0;
                 System.out.println("All notifications marked as read.");
             } else {
                 System.out.println("No notifications to mark as read.");
@@ -176,7 +193,7 @@ public class NotificationMenu {
         }
     }
 
-    private void markIndividualAsRead() {
+    private void markIndividualAsRead(List<Notification> notifications) {
         System.out.print("\nEnter notification number to mark as read (or 0 to cancel): ");
         int notificationNumber = getIntInput(0, Integer.MAX_VALUE);
 
@@ -185,13 +202,14 @@ public class NotificationMenu {
         }
 
         try {
-            List<Notification> notifications = notificationService.getUnreadNotificationsForUser(currentUserId);
-
             if (notificationNumber > 0 && notificationNumber <= notifications.size()) {
                 Notification notification = notifications.get(notificationNumber - 1);
                 boolean marked = notificationService.markAsRead(notification.getNotificationId());
 
                 if (marked) {
+                    if (unreadCount > 0) {
+                        unreadCount--;
+                    }
                     System.out.println("Notification marked as read.");
                 } else {
                     System.out.println("Failed to mark notification as read.");
@@ -204,6 +222,23 @@ public class NotificationMenu {
         }
     }
 
+    // Query the unread count once, then keep it current from live notifications
+    private int getUnreadCount() {
+        if (unreadCount < 0 || subscription.checkMissedEvents()) {
+            // Events already in the subscription are covered by the fresh count
+            subscription.poll();
+            unreadCount = notificationService.getUnreadNotificationCount(currentUserId);
+            return unreadCount;
+        }
+
+        for (Notification notification : subscription.poll()) {
+            if (!notification.isRead()) {
+                unreadCount++;
+            }
+        }
+        return unreadCount;
+    }
+
     private String getNotificationIcon(Notification.NotificationType type) {
         switch (type) {
             case CONNECTION_REQUEST:
@@ -1,11 +1,19 @@
 package com.revconnect.presentation;
 
 import com.revconnect.services.PostService;
+import com.revconnect.models.FeedPage;
+import com.revconnect.models.PageCursor;
 import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.models.SavedPost;
+import com.revconnect.models.TrendingHashtag;
 import com.revconnect.models.Comment;
+import com.revconnect.models.CommentThread;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 public class PostMenu {
     private Scanner scanner;
@@ -29,10 +37,13 @@ public class PostMenu {
             System.out.println("1. View Personalized Feed");
             System.out.println("2. View Trending Posts");
             System.out.println("3. View Media Feed");
-            System.out.println("4. Back to Main Menu");
+            System.out.println("4. Browse Hashtag");
+            System.out.println("5. Trending Hashtags");
+            System.out.println("6. Saved Posts");
+            System.out.println("7. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
-            int choice = getIntInput(1, 4);
+            int choice = getIntInput(1, 7);
 
             switch (choice) {
                 case 1:
@@ -45,6 +56,16 @@ public class PostMenu {
                     viewMediaFeed();
                     break;
                 case 4:
+                    System.out.print("\nEnter hashtag: ");
+                    viewHashtagFeed(scanner.nextLine());
+                    break;
+                case 5:
+                    viewTrendingHashtags();
+                    break;
+                case 6:
+                    viewSavedPosts();
+                    break;
+                case 7:
                     back = true;
                     break;
             }
@@ -137,13 +158,16 @@ public class PostMenu {
         System.out.println("══════════════════════════════════════");
 
         try {
-            List<Post> feed = postService.getPersonalizedFeed(currentUserId, 10, 0);
+            FeedPage feed = postService.getPersonalizedFeed(currentUserId, 10, 0);
 
             if (feed.isEmpty()) {
                 System.out.println("Your feed is empty. Start following people or make connections!");
                 System.out.println("Try viewing trending posts or searching for content.");
             } else {
-                displayPosts(feed, true);
+                displayPosts(feed.getPosts(), true);
+            }
+            if (feed.isDegraded()) {
+                System.out.println("Some posts took too long to load and were left out. Refresh to try again.");
             }
         } catch (Exception e) {
             System.out.println("Error loading feed: " + e.getMessage());
@@ -156,7 +180,7 @@ public class PostMenu {
         System.out.println("══════════════════════════════════════");
 
         try {
-            List<Post> trendingPosts = postService.getTrendingPosts(10);
+            List<PostCard> trendingPosts = postService.getTrendingPosts(10);
 
             if (trendingPosts.isEmpty()) {
                 System.out.println("No trending posts at the moment.");
@@ -174,7 +198,7 @@ public class PostMenu {
         System.out.println("══════════════════════════════════════");
 
         try {
-            List<Post> mediaPosts = postService.getMediaFeed(10, 0);
+            List<PostCard> mediaPosts = postService.getMediaFeed(10, 0);
 
             if (mediaPosts.isEmpty()) {
                 System.out.println("No media posts available.");
@@ -186,49 +210,153 @@ public class PostMenu {
         }
     }
 
-    private void displayPosts(List<Post> posts, boolean interactive) {
-        for (int i = 0; i < posts.size(); i++) {
-            Post post = posts.get(i);
+    private void viewTrendingHashtags() {
+        System.out.println("\n══════════════════════════════════════");
+        System.out.println("          TRENDING HASHTAGS           ");
+        System.out.println("══════════════════════════════════════");
+
+        List<TrendingHashtag> trending = postService.getTrendingHashtags(10);
+        if (trending.isEmpty()) {
+            System.out.println("Nothing is trending right now.");
+            return;
+        }
+
+        for (int i = 0; i < trending.size(); i++) {
+            TrendingHashtag hashtag = trending.get(i);
+            System.out.printf("%d. #%s  (%d posts in the last hour, %.1fx usual)%n",
+                    i + 1, hashtag.getHashtag(), hashtag.getRecentCount(), hashtag.getVelocity());
+        }
+
+        System.out.print("\nEnter number to view posts (or 0 to go back): ");
+        int choice = getIntInput(0, trending.size());
+        if (choice > 0) {
+            viewHashtagFeed(trending.get(choice - 1).getHashtag());
+        }
+    }
+
+    private void viewHashtagFeed(String hashtag) {
+        PageCursor cursor = null;
+        while (true) {
+            List<PostCard> posts = postService.getHashtagFeed(hashtag, cursor, 10);
+            if (posts == null) {
+                return;
+            }
+            if (posts.isEmpty()) {
+                System.out.println(cursor == null ? "No posts found for #" + hashtag.replace("#", "") + "."
+                        : "No more posts.");
+                return;
+            }
+
+            if (cursor == null) {
+                System.out.println("\n══════════════════════════════════════");
+                System.out.println("   #" + hashtag.trim().replace("#", "").toLowerCase());
+                System.out.println("══════════════════════════════════════");
+            }
+            displayPosts(posts, false);
+
+            if (posts.size() < 10) {
+                return;
+            }
+            System.out.print("\nShow more? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                return;
+            }
+            cursor = PageCursor.after(posts.get(posts.size() - 1));
+        }
+    }
+
+    private void viewSavedPosts() {
+        PageCursor cursor = null;
+        while (true) {
+            List<SavedPost> saved = postService.getSavedPosts(currentUserId, cursor, 10);
+            if (saved == null) {
+                return;
+            }
+            if (saved.isEmpty()) {
+                System.out.println(cursor == null ? "You have no saved posts." : "No more saved posts.");
+                return;
+            }
+
+            if (cursor == null) {
+                System.out.println("\n══════════════════════════════════════");
+                System.out.println("            SAVED POSTS               ");
+                System.out.println("══════════════════════════════════════");
+            }
+            List<PostCard> posts = new ArrayList<>();
+            for (SavedPost savedPost : saved) {
+                posts.add(savedPost.getPost());
+            }
+            displayPosts(posts, false);
+
+            if (saved.size() < 10) {
+                return;
+            }
+            System.out.print("\nShow more? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                return;
+            }
+            cursor = PageCursor.after(saved.get(saved.size() - 1));
+        }
+    }
+
+    // Posts are listed as cards with a content preview; "View Full Post" loads the whole post
+    private void displayPosts(List<PostCard> cards, boolean interactive) {
+        Set<Integer> savedIds = postService.getSavedPostIds(currentUserId, cards);
+        boolean truncated = false;
+        for (int i = 0; i < cards.size(); i++) {
+            PostCard card = cards.get(i);
+            truncated |= card.isTruncated();
 
             System.out.println("\n──────────────────────────────────────");
             System.out.println("POST #" + (i + 1));
             System.out.println("──────────────────────────────────────");
 
-            // Display post author (you would need UserService here)
-            System.out.println("Post ID: " + post.getPostId());
+            System.out.println("Post ID: " + card.getPostId());
+            System.out.println("By: " + card.getByline());
 
             // Display content
-            System.out.println("\n" + post.getContent());
+            System.out.println("\n" + card.getDisplayContent());
 
-            if (post.getMediaUrl() != null) {
-                System.out.println("[Media: " + post.getMediaUrl() + "]");
+            if (card.getMediaUrl() != null) {
+                System.out.println("[Media: " + card.getMediaUrl() + "]");
             }
 
             // Display stats
-            System.out.println("\n❤️ " + post.getLikeCount() + "   💬 " + post.getCommentCount() +
-                    "   🔄 " + post.getShareCount());
-            System.out.println("Type: " + post.getPostType() + " | Visibility: " + post.getVisibility());
-            System.out.println("Posted: " + post.getCreatedAt().toLocalDate());
+            System.out.println("\n❤️ " + card.getLikeCount() + "   💬 " + card.getCommentCount() +
+                    "   🔄 " + card.getShareCount());
+            System.out.println("Type: " + card.getPostType() + " | Visibility: " + card.getVisibility());
+            System.out.println("Posted: " + card.getCreatedAt().toLocalDate());
+            if (savedIds.contains(card.getPostId())) {
+                System.out.println("🔖 Saved");
+            }
 
             if (interactive) {
-                System.out.println("\n1. Like  2. Comment  3. View Comments  4. Next Post  5. Back");
+                System.out.println("\n1. Like  2. Comment  3. View Comments  4. " +
+                        (savedIds.contains(card.getPostId()) ? "Unsave" : "Save") +
+                        "  5. View Full Post  6. Next Post  7. Back");
                 System.out.print("Enter your choice: ");
 
-                int choice = getIntInput(1, 5);
+                int choice = getIntInput(1, 7);
 
                 switch (choice) {
                     case 1:
-                        likePost(post.getPostId());
+                        likePost(card.getPostId());
                         break;
                     case 2:
-                        addComment(post.getPostId());
+                        addComment(card.getPostId());
                         break;
                     case 3:
-                        viewComments(post.getPostId());
+                        viewComments(card.getPostId());
                         break;
                     case 4:
-                        continue;
+                        savePost(card.getPostId());
+                        break;
                     case 5:
+                        viewFullPost(card.getPostId());
+                        break;
+                    case 6:
+                        continue;
+                    case 7:
                         return;
                 }
             }
@@ -240,7 +368,34 @@ public class PostMenu {
             System.out.println("\nEnd of feed.");
             System.out.println("Press Enter to continue...");
             scanner.nextLine();
+        } else if (truncated) {
+            System.out.print("\nEnter a post number to read it in full (or 0 to continue): ");
+            int choice = getIntInput(0, cards.size());
+            if (choice > 0) {
+                viewFullPost(cards.get(choice - 1).getPostId());
+            }
+        }
+    }
+
+    // Load and show one post with its whole content
+    private void viewFullPost(int postId) {
+        Post post = postService.getPostById(postId);
+        if (post == null) {
+            System.out.println("Post not found.");
+            return;
+        }
+
+        System.out.println("\n══════════════════════════════════════");
+        System.out.println("Post ID: " + post.getPostId());
+        System.out.println("══════════════════════════════════════");
+        System.out.println(post.getContent());
+        if (post.getMediaUrl() != null) {
+            System.out.println("[Media: " + post.getMediaUrl() + "]");
         }
+        System.out.println("\n❤️ " + post.getLikeCount() + "   💬 " + post.getCommentCount() +
+                "   🔄 " + post.getShareCount());
+        System.out.println("Posted: " + post.getCreatedAt().toLocalDate());
+        System.out.println("══════════════════════════════════════");
     }
 
     private void likePost(int postId) {
@@ -256,6 +411,40 @@ public class PostMenu {
         }
     }
 
+    private void savePost(int postId) {
+        try {
+            Boolean saved = postService.toggleSavedPost(currentUserId, postId);
+            if (saved == null) {
+                // The service has already printed the error
+                return;
+            }
+            if (saved) {
+                System.out.println("Post saved!");
+            } else {
+                System.out.println("Post removed from saved posts.");
+            }
+        } catch (Exception e) {
+            System.out.println("Error saving post: " + e.getMessage());
+        }
+    }
+
+    private void addReply(int postId, int parentCommentId) {
+        System.out.print("Enter your reply: ");
+        String content = scanner.nextLine();
+
+        if (content.trim().isEmpty()) {
+            System.out.println("Reply cannot be empty!");
+            return;
+        }
+
+        int commentId = postService.addComment(new Comment(postId, currentUserId, content, parentCommentId));
+        if (commentId > 0) {
+            System.out.println("Reply added successfully!");
+        } else {
+            System.out.println("Failed to add reply.");
+        }
+    }
+
     private void addComment(int postId) {
         System.out.print("Enter your comment: ");
         String content = scanner.nextLine();
@@ -280,45 +469,96 @@ public class PostMenu {
     }
 
     private void viewComments(int postId) {
-        try {
-            List<Comment> comments = postService.getCommentsByPost(postId, false);
-
-            if (comments.isEmpty()) {
+        PageCursor cursor = null;
+        while (true) {
+            List<CommentThread> threads = postService.getCommentThreads(postId, null, cursor, 10);
+            if (threads == null) {
+                return;
+            }
+            if (threads.isEmpty() && cursor == null) {
                 System.out.println("No comments yet. Be the first to comment!");
-            } else {
+                return;
+            }
+
+            if (cursor == null) {
                 System.out.println("\n══════════════════════════════════════");
-                System.out.println("           COMMENTS (" + comments.size() + ")           ");
+                System.out.println("              COMMENTS                ");
                 System.out.println("══════════════════════════════════════");
+            }
+            for (CommentThread thread : threads) {
+                displayThread(thread, 0);
+            }
+            boolean more = threads.size() == 10;
 
-                for (Comment comment : comments) {
-                    System.out.println("\n──────────────────────────────────────");
-                    System.out.println("Comment ID: " + comment.getCommentId());
-                    System.out.println(comment.getContent());
-                    System.out.println("❤️ " + comment.getLikeCount() + " likes");
-                    System.out.println("Posted: " + comment.getCreatedAt().toLocalDate());
-                    System.out.println("──────────────────────────────────────");
-                }
-
-                System.out.println("\n1. Add Comment  2. Like a Comment  3. Back");
-                System.out.print("Enter your choice: ");
+            System.out.println("\n1. Add Comment  2. Reply  3. Like a Comment  4. Show Replies" +
+                    (more ? "  5. More Comments" : "") + "  6. Back");
+            System.out.print("Enter your choice: ");
 
-                int choice = getIntInput(1, 3);
+            int choice = getIntInput(1, 6);
 
-                switch (choice) {
-                    case 1:
-                        addComment(postId);
-                        break;
-                    case 2:
-                        System.out.print("Enter Comment ID to like: ");
-                        int commentId = getIntInput(1, Integer.MAX_VALUE);
-                        likeComment(commentId);
-                        break;
-                    case 3:
+            switch (choice) {
+                case 1:
+                    addComment(postId);
+                    return;
+                case 2:
+                    System.out.print("Enter Comment ID to reply to: ");
+                    addReply(postId, getIntInput(1, Integer.MAX_VALUE));
+                    return;
+                case 3:
+                    System.out.print("Enter Comment ID to like: ");
+                    int commentId = getIntInput(1, Integer.MAX_VALUE);
+                    likeComment(commentId);
+                    return;
+                case 4:
+                    System.out.print("Enter Comment ID: ");
+                    viewReplies(postId, getIntInput(1, Integer.MAX_VALUE));
+                    return;
+                case 5:
+                    if (!more) {
+                        System.out.println("No more comments.");
                         return;
-                }
+                    }
+                    cursor = PageCursor.after(threads.get(threads.size() - 1).getComment());
+                    break;
+                case 6:
+                    return;
             }
-        } catch (Exception e) {
-            System.out.println("Error loading comments: " + e.getMessage());
+        }
+    }
+
+    private void viewReplies(int postId, int commentId) {
+        List<CommentThread> replies = postService.getCommentThreads(postId, commentId, null, 50);
+        if (replies == null) {
+            return;
+        }
+        if (replies.isEmpty()) {
+            System.out.println("No replies to this comment.");
+            return;
+        }
+        for (CommentThread reply : replies) {
+            displayThread(reply, 1);
+        }
+    }
+
+    private void displayThread(CommentThread thread, int depth) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            indent.append("    ");
+        }
+
+        Comment comment = thread.getComment();
+        System.out.println("\n" + indent + "──────────────────────────────────");
+        System.out.println(indent + "Comment ID: " + comment.getCommentId());
+        System.out.println(indent + comment.getContent());
+        System.out.println(indent + "❤️ " + comment.getLikeCount() + " likes  |  Posted: " +
+                comment.getCreatedAt().toLocalDate());
+
+        for (CommentThread reply : thread.getReplies()) {
+            displayThread(reply, depth + 1);
+        }
+        if (thread.hasMoreReplies()) {
+            System.out.println(indent + "    ... " + (thread.getReplyCount() - thread.getReplies().size()) +
+                    " more replies (Show Replies, ID " + comment.getCommentId() + ")");
         }
     }
 
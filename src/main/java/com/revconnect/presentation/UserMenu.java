@@ -3,6 +3,7 @@ package com.revconnect.presentation;
 import com.revconnect.services.UserService;
 import com.revconnect.services.ConnectionService;
 import com.revconnect.models.User;
+import com.revconnect.models.UserCard;
 import com.revconnect.models.Connection;
 
 import java.util.List;
@@ -388,7 +389,7 @@ public class UserMenu {
         }
 
         try {
-            List<User> users = userService.searchUsers(query);
+            List<UserCard> users = userService.searchUsers(query);
 
             if (users.isEmpty()) {
                 System.out.println("No users found matching your search.");
@@ -397,9 +398,8 @@ public class UserMenu {
                 System.out.println("──────────────────────────────────────");
 
                 for (int i = 0; i < users.size(); i++) {
-                    User user = users.get(i);
-                    System.out.println((i + 1) + ". " + user.getFirstName() + " " +
-                            user.getLastName() + " (@" + user.getUsername() + ")");
+                    UserCard user = users.get(i);
+                    System.out.println((i + 1) + ". " + user.getDisplayName() + " (@" + user.getUsername() + ")");
                     System.out.println("   Type: " + user.getUserType());
                     System.out.println("   Followers: " + user.getFollowersCount());
 
@@ -417,7 +417,7 @@ public class UserMenu {
                 int userChoice = getIntInput(0, users.size());
 
                 if (userChoice > 0) {
-                    User selectedUser = users.get(userChoice - 1);
+                    UserCard selectedUser = users.get(userChoice - 1);
 
                     if (connectionService.areUsersConnected(currentUserId, selectedUser.getUserId())) {
                         System.out.println("You are already connected with this user.");
@@ -438,7 +438,7 @@ public class UserMenu {
 
     private void viewSuggestedConnections() {
         try {
-            List<User> suggestions = connectionService.getSuggestedConnections(currentUserId, 10);
+            List<UserCard> suggestions = connectionService.getSuggestedConnections(currentUserId, 10);
 
             if (suggestions.isEmpty()) {
                 System.out.println("\nNo connection suggestions at this time.");
@@ -448,15 +448,13 @@ public class UserMenu {
                 System.out.println("══════════════════════════════════════");
 
                 for (int i = 0; i < suggestions.size(); i++) {
-                    User user = suggestions.get(i);
-                    System.out.println((i + 1) + ". " + user.getFirstName() + " " +
-                            user.getLastName() + " (@" + user.getUsername() + ")");
+                    UserCard user = suggestions.get(i);
+                    System.out.println((i + 1) + ". " + user.getDisplayName() + " (@" + user.getUsername() + ")");
                     System.out.println("   Type: " + user.getUserType());
                     System.out.println("   Followers: " + user.getFollowersCount());
 
-                    if (user.getBio() != null && !user.getBio().isEmpty()) {
-                        String shortBio = user.getBio().length() > 50 ?
-                                user.getBio().substring(0, 50) + "..." : user.getBio();
+                    if (user.getShortBio() != null) {
+                        String shortBio = user.getShortBio();
                         System.out.println("   Bio: " + shortBio);
                     }
                     System.out.println("──────────────────────────────────────");
@@ -466,7 +464,7 @@ public class UserMenu {
                 int userChoice = getIntInput(0, suggestions.size());
 
                 if (userChoice > 0) {
-                    User selectedUser = suggestions.get(userChoice - 1);
+                    UserCard selectedUser = suggestions.get(userChoice - 1);
                     boolean sent = connectionService.sendConnectionRequest(currentUserId, selectedUser.getUserId());
                     if (sent) {
                         System.out.println("Connection request sent to " + selectedUser.getFirstName() + "!");
@@ -0,0 +1,97 @@
+package com.revconnect.search;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Wraps another engine with a small LRU of recent results, keyed by the normalized query.
+// Entries expire after a short TTL so new and edited posts show up without invalidation.
+public class CachingSearchEngine implements SearchEngine {
+    private final SearchEngine delegate;
+    private final long ttlMillis;
+    private final Map<String, CachedResult> cache;
+    private long hits;
+    private long misses;
+
+    public CachingSearchEngine(SearchEngine delegate, int capacity, long ttlMillis) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<String, CachedResult>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName() + "+cache";
+    }
+
+    @Override
+    public List<Integer> searchPosts(String query, int limit) throws SQLException {
+        String key = "p|" + limit + "|" + normalize(query);
+        List<Integer> cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return put(key, delegate.searchPosts(query, limit));
+    }
+
+    @Override
+    public List<Integer> searchUsers(String query, int offset, int limit) throws SQLException {
+        String key = "u|" + offset + "|" + limit + "|" + normalize(query);
+        List<Integer> cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return put(key, delegate.searchUsers(query, offset, limit));
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    // Case and spacing never change results, so "Java  Tips" and "java tips" share an entry
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private synchronized List<Integer> get(String key) {
+        CachedResult result = cache.get(key);
+        if (result == null || System.currentTimeMillis() - result.cachedAt > ttlMillis) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return result.ids;
+    }
+
+    private synchronized List<Integer> put(String key, List<Integer> ids) {
+        List<Integer> copy = Collections.unmodifiableList(new ArrayList<>(ids));
+        cache.put(key, new CachedResult(copy, System.currentTimeMillis()));
+        return copy;
+    }
+
+    private static class CachedResult {
+        private final List<Integer> ids;
+        private final long cachedAt;
+
+        private CachedResult(List<Integer> ids, long cachedAt) {
+            this.ids = ids;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
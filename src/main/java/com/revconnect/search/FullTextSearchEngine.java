@@ -0,0 +1,90 @@
+package com.revconnect.search;
+
+import com.revconnect.dao.SearchDAO;
+
+import java.sql.SQLException;
+import java.util.List;
+
+// InnoDB FULLTEXT search. Plain queries use natural-language mode; queries with quoted
+// phrases or +/- words use boolean mode. Words shorter than InnoDB's minimum token size
+// are not indexed, so queries made only of those go to the fallback engine.
+public class FullTextSearchEngine implements SearchEngine {
+    // innodb_ft_min_token_size default
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private SearchDAO searchDAO;
+    private SearchEngine fallback;
+
+    public FullTextSearchEngine(SearchEngine fallback) {
+        this.searchDAO = new SearchDAO();
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String getName() {
+        return "fulltext";
+    }
+
+    @Override
+    public List<Integer> searchPosts(String query, int limit) throws SQLException {
+        if (!hasIndexableToken(Tokenizer.tokenize(query))) {
+            return fallback.searchPosts(query, limit);
+        }
+
+        if (query.indexOf('"') >= 0 || query.matches("(?s).*(^|\\s)[+-]\\S.*")) {
+            return searchDAO.searchPostIdsFullText(toBooleanQuery(query), true, limit);
+        }
+        return searchDAO.searchPostIdsFullText(String.join(" ", Tokenizer.tokenize(query)), false, limit);
+    }
+
+    // Every word must match as a prefix, like the typeahead index
+    @Override
+    public List<Integer> searchUsers(String query, int offset, int limit) throws SQLException {
+        List<String> tokens = Tokenizer.tokenize(query);
+        if (!hasIndexableToken(tokens)) {
+            return fallback.searchUsers(query, offset, limit);
+        }
+
+        StringBuilder against = new StringBuilder();
+        for (String token : tokens) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                against.append(against.length() == 0 ? "+" : " +").append(token).append('*');
+            }
+        }
+        return searchDAO.searchUserIdsFullText(against.toString(), limit, offset);
+    }
+
+    // Rebuild the query from tokens so user input can never produce a boolean syntax error:
+    // quoted text becomes a required phrase, -word an exclusion, anything else a required word
+    private static String toBooleanQuery(String query) {
+        StringBuilder against = new StringBuilder();
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 1) {
+                List<String> phrase = Tokenizer.tokenize(parts[i]);
+                if (!phrase.isEmpty()) {
+                    against.append(" +\"").append(String.join(" ", phrase)).append('"');
+                }
+                continue;
+            }
+            for (String word : parts[i].trim().split("\\s+")) {
+                String operator = word.startsWith("-") ? " -" : " +";
+                for (String token : Tokenizer.tokenize(word)) {
+                    if (token.length() >= MIN_TOKEN_LENGTH) {
+                        against.append(operator).append(token);
+                    }
+                }
+            }
+        }
+        return against.toString().trim();
+    }
+
+    private static boolean hasIndexableToken(List<String> tokens) {
+        for (String token : tokens) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.revconnect.search;
+
+import java.sql.SQLException;
+import java.util.List;
+
+// Serves from the in-process post and user indexes, using the fallback until they are loaded
+public class InMemorySearchEngine implements SearchEngine {
+    private PostSearchIndex postIndex;
+    private UserPrefixIndex userIndex;
+    private SearchEngine fallback;
+
+    public InMemorySearchEngine(SearchEngine fallback) {
+        this.postIndex = PostSearchIndex.getInstance();
+        this.userIndex = UserPrefixIndex.getInstance();
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public List<Integer> searchPosts(String query, int limit) throws SQLException {
+        if (!postIndex.isReady()) {
+            return fallback.searchPosts(query, limit);
+        }
+        return postIndex.search(query, limit);
+    }
+
+    @Override
+    public List<Integer> searchUsers(String query, int offset, int limit) throws SQLException {
+        if (!userIndex.isReady()) {
+            return fallback.searchUsers(query, offset, limit);
+        }
+        return userIndex.search(query, offset, limit);
+    }
+}
@@ -0,0 +1,30 @@
+package com.revconnect.search;
+
+import com.revconnect.dao.SearchDAO;
+
+import java.sql.SQLException;
+import java.util.List;
+
+// Substring match with LIKE; needs no index but scans the table
+public class LikeSearchEngine implements SearchEngine {
+    private SearchDAO searchDAO;
+
+    public LikeSearchEngine() {
+        this.searchDAO = new SearchDAO();
+    }
+
+    @Override
+    public String getName() {
+        return "like";
+    }
+
+    @Override
+    public List<Integer> searchPosts(String query, int limit) throws SQLException {
+        return searchDAO.searchPostIdsLike(query.trim(), limit);
+    }
+
+    @Override
+    public List<Integer> searchUsers(String query, int offset, int limit) throws SQLException {
+        return searchDAO.searchUserIdsLike(query.trim(), limit, offset);
+    }
+}
@@ -0,0 +1,439 @@
+package com.revconnect.search;
+
+import com.revconnect.dao.PostDAO;
+import com.revconnect.events.PostEventListener;
+import com.revconnect.models.Post;
+import com.revconnect.utils.TopKHeap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over public post content.
+// Kept current by post events; ranked by BM25 with a boost for recent posts.
+public class PostSearchIndex implements PostEventListener {
+    private static final Logger logger = LogManager.getLogger(PostSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // A brand-new post scores up to 50% higher; the boost halves every three days
+    private static final double RECENCY_WEIGHT = 0.5;
+    private static final double RECENCY_HALF_LIFE_HOURS = 72;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final PostSearchIndex INSTANCE = new PostSearchIndex();
+
+    private final PostDAO postDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexState state = new IndexState();
+    // Changes seen while a rebuild is running; replayed onto the rebuilt index
+    private List<PendingChange> pendingChanges;
+    private volatile boolean ready;
+
+    public PostSearchIndex() {
+        this.postDAO = new PostDAO();
+    }
+
+    public static PostSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // True once the index has been loaded from the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return state.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onPostCreated(Post post) {
+        applyChange(PendingChange.upsert(post));
+    }
+
+    @Override
+    public void onPostUpdated(Post post) {
+        applyChange(PendingChange.upsert(post));
+    }
+
+    @Override
+    public void onPostDeleted(int postId) {
+        applyChange(new PendingChange(postId, null));
+    }
+
+    // Ids of the k best public posts containing every term and quoted phrase of the query
+    public List<Integer> search(String query, int k) {
+        List<Integer> results = new ArrayList<>();
+        ParsedQuery parsed = ParsedQuery.parse(query);
+        if (parsed.terms.isEmpty() || k <= 0) {
+            return results;
+        }
+
+        lock.readLock().lock();
+        try {
+            int termCount = parsed.terms.size();
+            PostingList[] lists = new PostingList[termCount];
+            String[] terms = parsed.terms.toArray(new String[0]);
+            for (int i = 0; i < termCount; i++) {
+                lists[i] = state.postings.get(terms[i]);
+                if (lists[i] == null) {
+                    return results;
+                }
+            }
+
+            // Rarest term first so it drives the intersection
+            Integer[] order = new Integer[termCount];
+            for (int i = 0; i < termCount; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(lists[a].getDocCount(), lists[b].getDocCount()));
+
+            PostingList.Cursor[] cursors = new PostingList.Cursor[termCount];
+            double[] idf = new double[termCount];
+            Map<String, Integer> cursorIndex = new HashMap<>();
+            int docTotal = state.docs.size();
+            for (int i = 0; i < termCount; i++) {
+                PostingList list = lists[order[i]];
+                cursors[i] = list.cursor();
+                int df = list.getDocCount();
+                idf[i] = Math.log(1 + (docTotal - df + 0.5) / (df + 0.5));
+                cursorIndex.put(terms[order[i]], i);
+                if (!cursors[i].next()) {
+                    return results;
+                }
+            }
+
+            double averageLength = docTotal == 0 ? 1 : (double) state.totalLength / docTotal;
+            long nowSeconds = System.currentTimeMillis() / 1000;
+            TopKHeap top = new TopKHeap(k);
+
+            int candidate = cursors[0].docId();
+            while (true) {
+                boolean aligned = true;
+                for (int i = 1; i < termCount; i++) {
+                    if (!cursors[i].advanceTo(candidate)) {
+                        return toList(top.drainDescending());
+                    }
+                    if (cursors[i].docId() > candidate) {
+                        candidate = cursors[i].docId();
+                        aligned = false;
+                        break;
+                    }
+                }
+
+                if (aligned) {
+                    if (matchesPhrases(parsed.phrases, cursors, cursorIndex)) {
+                        DocInfo doc = state.docs.get(candidate);
+                        top.offer(candidate, score(doc, cursors, idf, averageLength, nowSeconds));
+                    }
+                    if (!cursors[0].next()) {
+                        break;
+                    }
+                } else if (!cursors[0].advanceTo(candidate)) {
+                    break;
+                }
+                candidate = cursors[0].docId();
+            }
+            return toList(top.drainDescending());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reload the index from all public posts; tokenizing runs in parallel per chunk
+    public void rebuildFromDatabase() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            List<CompletableFuture<List<AnalyzedPost>>> chunks = new ArrayList<>();
+            int afterId = 0;
+            List<Post> posts;
+            do {
+                posts = postDAO.getPublicPostsAfter(afterId, REBUILD_CHUNK_SIZE);
+                if (!posts.isEmpty()) {
+                    afterId = posts.get(posts.size() - 1).getPostId();
+                    List<Post> chunk = posts;
+                    chunks.add(CompletableFuture.supplyAsync(() -> analyzeAll(chunk)));
+                }
+            } while (posts.size() == REBUILD_CHUNK_SIZE);
+
+            // Chunks arrive in id order, so every posting list is built by appending
+            IndexState rebuilt = new IndexState();
+            for (CompletableFuture<List<AnalyzedPost>> chunk : chunks) {
+                for (AnalyzedPost analyzed : chunk.join()) {
+                    addDocument(rebuilt, analyzed);
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (PendingChange change : pendingChanges) {
+                    apply(rebuilt, change);
+                }
+                state = rebuilt;
+                pendingChanges = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            logger.info("Post search index loaded " + rebuilt.docs.size() + " posts, " +
+                    rebuilt.postings.size() + " terms in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (SQLException e) {
+            logger.error("Error rebuilding post search index: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // The change arrives already tokenized, so the write lock only covers the list updates
+    private void applyChange(PendingChange change) {
+        lock.writeLock().lock();
+        try {
+            apply(state, change);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Upsert or delete one post; an edit keeps the post's original age for ranking
+    private static void apply(IndexState target, PendingChange change) {
+        DocInfo existing = removeDocument(target, change.postId);
+        AnalyzedPost analyzed = change.analyzed;
+        if (analyzed == null) {
+            return;
+        }
+
+        addDocument(target, analyzed, existing != null ? existing.createdAtSeconds : analyzed.createdAtSeconds);
+    }
+
+    private static void addDocument(IndexState target, AnalyzedPost analyzed) {
+        addDocument(target, analyzed, analyzed.createdAtSeconds);
+    }
+
+    private static void addDocument(IndexState target, AnalyzedPost analyzed, long createdAtSeconds) {
+        String[] terms = new String[analyzed.termPositions.size()];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : analyzed.termPositions.entrySet()) {
+            PostingList list = target.postings.get(entry.getKey());
+            if (list == null) {
+                list = new PostingList();
+                target.postings.put(entry.getKey(), list);
+            }
+            list.add(analyzed.postId, entry.getValue());
+            terms[i++] = entry.getKey();
+        }
+        target.docs.put(analyzed.postId, new DocInfo(analyzed.length, createdAtSeconds, terms));
+        target.totalLength += analyzed.length;
+    }
+
+    private static DocInfo removeDocument(IndexState target, int postId) {
+        DocInfo doc = target.docs.remove(postId);
+        if (doc == null) {
+            return null;
+        }
+        for (String term : doc.terms) {
+            PostingList list = target.postings.get(term);
+            if (list != null) {
+                list.remove(postId);
+                if (list.getDocCount() == 0) {
+                    target.postings.remove(term);
+                }
+            }
+        }
+        target.totalLength -= doc.length;
+        return doc;
+    }
+
+    private static List<AnalyzedPost> analyzeAll(List<Post> posts) {
+        List<AnalyzedPost> analyzed = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            analyzed.add(analyze(post.getPostId(), post.getContent(), toEpochSeconds(post.getCreatedAt())));
+        }
+        return analyzed;
+    }
+
+    private static AnalyzedPost analyze(int postId, String content, long createdAtSeconds) {
+        List<String> tokens = Tokenizer.tokenize(content);
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            List<Integer> termPositions = positions.get(tokens.get(i));
+            if (termPositions == null) {
+                termPositions = new ArrayList<>();
+                positions.put(tokens.get(i), termPositions);
+            }
+            termPositions.add(i);
+        }
+
+        Map<String, int[]> termPositions = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] array = new int[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = list.get(i);
+            }
+            termPositions.put(entry.getKey(), array);
+        }
+        return new AnalyzedPost(postId, tokens.size(), createdAtSeconds, termPositions);
+    }
+
+    private static boolean matchesPhrases(List<String[]> phrases, PostingList.Cursor[] cursors,
+                                          Map<String, Integer> cursorIndex) {
+        for (String[] phrase : phrases) {
+            int[][] positions = new int[phrase.length][];
+            for (int i = 0; i < phrase.length; i++) {
+                positions[i] = cursors[cursorIndex.get(phrase[i])].positions();
+            }
+
+            boolean found = false;
+            for (int start : positions[0]) {
+                found = true;
+                for (int i = 1; i < phrase.length && found; i++) {
+                    found = Arrays.binarySearch(positions[i], start + i) >= 0;
+                }
+                if (found) {
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double score(DocInfo doc, PostingList.Cursor[] cursors, double[] idf,
+                                double averageLength, long nowSeconds) {
+        double lengthNorm = K1 * (1 - B + B * doc.length / averageLength);
+        double bm25 = 0;
+        for (int i = 0; i < cursors.length; i++) {
+            int tf = cursors[i].frequency();
+            bm25 += idf[i] * (tf * (K1 + 1)) / (tf + lengthNorm);
+        }
+
+        double ageHours = Math.max(0, nowSeconds - doc.createdAtSeconds) / 3600.0;
+        return bm25 * (1 + RECENCY_WEIGHT * Math.pow(0.5, ageHours / RECENCY_HALF_LIFE_HOURS));
+    }
+
+    private static long toEpochSeconds(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return System.currentTimeMillis() / 1000;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static List<Integer> toList(int[] ids) {
+        List<Integer> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static class IndexState {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Integer, DocInfo> docs = new HashMap<>();
+        private long totalLength;
+    }
+
+    private static class DocInfo {
+        private final int length;
+        private final long createdAtSeconds;
+        // Distinct terms, so the post can be removed from exactly those lists
+        private final String[] terms;
+
+        private DocInfo(int length, long createdAtSeconds, String[] terms) {
+            this.length = length;
+            this.createdAtSeconds = createdAtSeconds;
+            this.terms = terms;
+        }
+    }
+
+    private static class AnalyzedPost {
+        private final int postId;
+        private final int length;
+        private final long createdAtSeconds;
+        private final Map<String, int[]> termPositions;
+
+        private AnalyzedPost(int postId, int length, long createdAtSeconds, Map<String, int[]> termPositions) {
+            this.postId = postId;
+            this.length = length;
+            this.createdAtSeconds = createdAtSeconds;
+            this.termPositions = termPositions;
+        }
+    }
+
+    // A create/update (analyzed set) or delete / no longer public (analyzed null)
+    private static class PendingChange {
+        private final int postId;
+        private final AnalyzedPost analyzed;
+
+        private PendingChange(int postId, AnalyzedPost analyzed) {
+            this.postId = postId;
+            this.analyzed = analyzed;
+        }
+
+        private static PendingChange upsert(Post post) {
+            if (post.getVisibility() != Post.Visibility.PUBLIC) {
+                return new PendingChange(post.getPostId(), null);
+            }
+            return new PendingChange(post.getPostId(),
+                    analyze(post.getPostId(), post.getContent(), toEpochSeconds(post.getCreatedAt())));
+        }
+    }
+
+    // Required terms plus quoted phrases, e.g.  java "spring boot"
+    private static class ParsedQuery {
+        private final Set<String> terms = new LinkedHashSet<>();
+        private final List<String[]> phrases = new ArrayList<>();
+
+        private static ParsedQuery parse(String query) {
+            ParsedQuery parsed = new ParsedQuery();
+            if (query == null) {
+                return parsed;
+            }
+
+            String[] parts = query.split("\"", -1);
+            for (int i = 0; i < parts.length; i++) {
+                List<String> tokens = Tokenizer.tokenize(parts[i]);
+                parsed.terms.addAll(tokens);
+                // Odd segments were inside quotes
+                if (i % 2 == 1 && tokens.size() > 1) {
+                    parsed.phrases.add(tokens.toArray(new String[0]));
+                }
+            }
+            return parsed;
+        }
+    }
+}
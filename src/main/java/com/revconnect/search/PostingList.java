@@ -0,0 +1,218 @@
+package com.revconnect.search;
+
+import com.revconnect.utils.IntHashSet;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Postings for one term, stored as variable-length integers:
+// for each document (ascending id): docId delta, term frequency, then position deltas.
+// Out-of-order adds and removes go to a small delta (added docs + tombstones) that
+// cursors merge on the fly; the encoded list is only rewritten once the delta grows.
+class PostingList {
+    private static final int MIN_COMPACT_SIZE = 32;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int encodedCount;
+    private int lastDocId;
+    // Docs added below lastDocId, by id; created on first use since most lists never need it
+    private TreeMap<Integer, int[]> added;
+    // Encoded docs that have been removed (or replaced by an entry in added)
+    private IntHashSet removed;
+
+    int getDocCount() {
+        return encodedCount - sizeOf(removed) + (added == null ? 0 : added.size());
+    }
+
+    int getByteSize() {
+        return length;
+    }
+
+    // Add a document that is not in the list; ids above the last one append in place
+    void add(int docId, int[] positions) {
+        if (docId > lastDocId) {
+            append(docId, positions);
+            return;
+        }
+        if (added == null) {
+            added = new TreeMap<>();
+        }
+        added.put(docId, positions);
+        compactIfNeeded();
+    }
+
+    // Remove a document that is in the list
+    void remove(int docId) {
+        if (added == null || added.remove(docId) == null) {
+            if (removed == null) {
+                removed = new IntHashSet(MIN_COMPACT_SIZE);
+            }
+            removed.add(docId);
+        }
+        compactIfNeeded();
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Rewrite once the delta outgrows a fixed share of the list, so the cost is amortized
+    private void compactIfNeeded() {
+        int deltaSize = (added == null ? 0 : added.size()) + sizeOf(removed);
+        if (deltaSize <= Math.max(MIN_COMPACT_SIZE, encodedCount / 8)) {
+            return;
+        }
+        PostingList rebuilt = new PostingList();
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            rebuilt.append(cursor.docId(), cursor.positions());
+        }
+        data = rebuilt.data;
+        length = rebuilt.length;
+        encodedCount = rebuilt.encodedCount;
+        lastDocId = rebuilt.lastDocId;
+        added = null;
+        removed = null;
+    }
+
+    private static int sizeOf(IntHashSet set) {
+        return set == null ? 0 : set.size();
+    }
+
+    private void append(int docId, int[] positions) {
+        writeVarInt(docId - lastDocId);
+        writeVarInt(positions.length);
+        int previous = 0;
+        for (int position : positions) {
+            writeVarInt(position - previous);
+            previous = position;
+        }
+        lastDocId = docId;
+        encodedCount++;
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > data.length) {
+            byte[] grown = new byte[Math.max(data.length * 2, length + 5)];
+            System.arraycopy(data, 0, grown, 0, length);
+            data = grown;
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    // Forward-only reader merging the encoded postings with the delta
+    class Cursor {
+        private int offset;
+        private int encodedDocId;
+        // Next live encoded document, read ahead
+        private int nextEncodedId;
+        private int nextEncodedFrequency;
+        private int nextPositionsOffset;
+        private final Iterator<Map.Entry<Integer, int[]>> addedIterator =
+                added == null ? null : added.entrySet().iterator();
+        private Map.Entry<Integer, int[]> nextAdded;
+
+        private int docId;
+        private int frequency;
+        private int positionsOffset;
+        // Positions of the current document when it came from the delta
+        private int[] addedPositions;
+
+        private Cursor() {
+            readEncoded();
+            nextAdded = addedIterator != null && addedIterator.hasNext() ? addedIterator.next() : null;
+        }
+
+        // Move to the next document; returns false at the end
+        boolean next() {
+            int addedId = nextAdded != null ? nextAdded.getKey() : Integer.MAX_VALUE;
+            if (nextEncodedId == Integer.MAX_VALUE && addedId == Integer.MAX_VALUE) {
+                docId = Integer.MAX_VALUE;
+                return false;
+            }
+            if (addedId < nextEncodedId) {
+                docId = addedId;
+                addedPositions = nextAdded.getValue();
+                frequency = addedPositions.length;
+                nextAdded = addedIterator.hasNext() ? addedIterator.next() : null;
+            } else {
+                docId = nextEncodedId;
+                frequency = nextEncodedFrequency;
+                positionsOffset = nextPositionsOffset;
+                addedPositions = null;
+                readEncoded();
+            }
+            return true;
+        }
+
+        // Move to the first document >= target; returns false if there is none
+        boolean advanceTo(int target) {
+            while (docId < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int docId() {
+            return docId;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        // Decode the positions of the current document
+        int[] positions() {
+            if (addedPositions != null) {
+                return addedPositions.clone();
+            }
+            int[] positions = new int[frequency];
+            int saved = offset;
+            offset = positionsOffset;
+            int position = 0;
+            for (int i = 0; i < frequency; i++) {
+                position += readVarInt();
+                positions[i] = position;
+            }
+            offset = saved;
+            return positions;
+        }
+
+        // Read ahead to the next encoded document that has not been removed
+        private void readEncoded() {
+            while (offset < length) {
+                encodedDocId += readVarInt();
+                nextEncodedFrequency = readVarInt();
+                nextPositionsOffset = offset;
+                for (int i = 0; i < nextEncodedFrequency; i++) {
+                    readVarInt();
+                }
+                if (removed == null || !removed.contains(encodedDocId)) {
+                    nextEncodedId = encodedDocId;
+                    return;
+                }
+            }
+            nextEncodedId = Integer.MAX_VALUE;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.revconnect.search;
+
+import java.sql.SQLException;
+import java.util.List;
+
+// A search backend; results are ids in rank order, loaded by the caller
+public interface SearchEngine {
+
+    String getName();
+
+    // Public posts matching the query, best first
+    List<Integer> searchPosts(String query, int limit) throws SQLException;
+
+    // Active users matching the query, most followed first
+    List<Integer> searchUsers(String query, int offset, int limit) throws SQLException;
+}
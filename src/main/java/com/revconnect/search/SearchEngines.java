@@ -0,0 +1,47 @@
+package com.revconnect.search;
+
+import com.revconnect.config.DatabaseConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Builds the search engine selected by the search.engine setting (memory, fulltext or like)
+public class SearchEngines {
+    private static final Logger logger = LogManager.getLogger(SearchEngines.class);
+
+    private static final int CACHE_CAPACITY = 512;
+    private static final long CACHE_TTL_MILLIS = 30_000;
+
+    private static SearchEngine defaultEngine;
+
+    // The configured engine, behind the result cache
+    public static synchronized SearchEngine getDefault() {
+        if (defaultEngine == null) {
+            String name = DatabaseConfig.getProperty("search.engine", "memory");
+            defaultEngine = new CachingSearchEngine(create(name), CACHE_CAPACITY, CACHE_TTL_MILLIS);
+            logger.info("Using search engine: " + defaultEngine.getName());
+        }
+        return defaultEngine;
+    }
+
+    // True when the in-process indexes serve searches and need loading at startup
+    public static boolean usesInMemoryIndexes() {
+        String name = DatabaseConfig.getProperty("search.engine", "memory").toLowerCase();
+        return !name.equals("like") && !name.equals("fulltext");
+    }
+
+    // An uncached engine by name; unknown names get the in-memory engine
+    public static SearchEngine create(String name) {
+        LikeSearchEngine like = new LikeSearchEngine();
+        switch (name.toLowerCase()) {
+            case "like":
+                return like;
+            case "fulltext":
+                return new FullTextSearchEngine(like);
+            case "memory":
+                return new InMemorySearchEngine(like);
+            default:
+                logger.warn("Unknown search engine '" + name + "', using memory");
+                return new InMemorySearchEngine(like);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.revconnect.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits text into lowercase letter/digit runs; '#' and '@' prefixes are dropped
+public class Tokenizer {
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean tokenChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                int end = Math.min(i, start + MAX_TOKEN_LENGTH);
+                tokens.add(text.substring(start, end).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
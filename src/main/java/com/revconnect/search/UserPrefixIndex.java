@@ -0,0 +1,260 @@
+package com.revconnect.search;
+
+import com.revconnect.dao.UserDAO;
+import com.revconnect.models.User;
+import com.revconnect.models.UserCard;
+import com.revconnect.utils.TopKHeap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Typeahead over active users: every word of username, first/last name and business name
+// is kept in a sorted map, so a prefix is one range scan. Matches rank by follower count.
+public class UserPrefixIndex {
+    private static final Logger logger = LogManager.getLogger(UserPrefixIndex.class);
+
+    // Results past this rank are never returned, however far the caller pages
+    public static final int MAX_RESULTS = 200;
+    public static final int MAX_PAGE_SIZE = 50;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final UserPrefixIndex INSTANCE = new UserPrefixIndex();
+
+    private final UserDAO userDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexState state = new IndexState();
+    // Changes seen while a rebuild is running; replayed onto the rebuilt index
+    private List<Consumer<IndexState>> pendingChanges;
+    private volatile boolean ready;
+
+    public UserPrefixIndex() {
+        this.userDAO = new UserDAO();
+    }
+
+    public static UserPrefixIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // True once the index has been loaded from the database
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Add a new user or re-index an edited one
+    public void addOrUpdate(User user) {
+        String[] tokens = tokensOf(user);
+        int userId = user.getUserId();
+        int followersCount = user.getFollowersCount();
+        applyChange(target -> {
+            UserEntry existing = removeUser(target, userId);
+            // Counts change through updateFollowerCount; an edit carries a possibly stale copy
+            int count = existing != null ? existing.followersCount : followersCount;
+            addUser(target, userId, new UserEntry(tokens, count));
+        });
+    }
+
+    // Drop a deactivated user
+    public void remove(int userId) {
+        applyChange(target -> removeUser(target, userId));
+    }
+
+    public void updateFollowerCount(int userId, int change) {
+        applyChange(target -> {
+            UserEntry entry = target.users.get(userId);
+            if (entry != null) {
+                entry.followersCount += change;
+            }
+        });
+    }
+
+    // Ids of users where every query word prefixes one of their words, most followed first
+    public List<Integer> search(String query, int offset, int limit) {
+        List<Integer> results = new ArrayList<>();
+        List<String> prefixes = Tokenizer.tokenize(query);
+        int end = Math.min(MAX_RESULTS, offset + Math.min(limit, MAX_PAGE_SIZE));
+        if (prefixes.isEmpty() || offset < 0 || offset >= end) {
+            return results;
+        }
+
+        lock.readLock().lock();
+        try {
+            // Expand the longest prefix (usually the narrowest range), then check the rest per user
+            String driver = prefixes.get(0);
+            for (String prefix : prefixes) {
+                if (prefix.length() > driver.length()) {
+                    driver = prefix;
+                }
+            }
+
+            Set<Integer> candidates = new HashSet<>();
+            for (Set<Integer> userIds : prefixRange(state.tokens, driver).values()) {
+                candidates.addAll(userIds);
+            }
+
+            TopKHeap top = new TopKHeap(end);
+            for (int userId : candidates) {
+                UserEntry entry = state.users.get(userId);
+                if (matchesAll(entry.tokens, prefixes)) {
+                    // Lower id wins ties so paging is stable
+                    top.offer(userId, entry.followersCount - userId * 1e-10);
+                }
+            }
+
+            int[] ranked = top.drainDescending();
+            for (int i = offset; i < ranked.length; i++) {
+                results.add(ranked[i]);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reload the index from all active users
+    public void rebuildFromDatabase() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            IndexState rebuilt = new IndexState();
+            int afterId = 0;
+            List<UserCard> users;
+            do {
+                users = userDAO.getActiveUserCardsAfter(afterId, REBUILD_CHUNK_SIZE);
+                for (UserCard user : users) {
+                    addUser(rebuilt, user.getUserId(), new UserEntry(tokensOf(user), user.getFollowersCount()));
+                    afterId = user.getUserId();
+                }
+            } while (users.size() == REBUILD_CHUNK_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                for (Consumer<IndexState> change : pendingChanges) {
+                    change.accept(rebuilt);
+                }
+                state = rebuilt;
+                pendingChanges = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            logger.info("User prefix index loaded " + rebuilt.users.size() + " users, " +
+                    rebuilt.tokens.size() + " words in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (SQLException e) {
+            logger.error("Error rebuilding user prefix index: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void applyChange(Consumer<IndexState> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void addUser(IndexState target, int userId, UserEntry entry) {
+        target.users.put(userId, entry);
+        for (String token : entry.tokens) {
+            Set<Integer> userIds = target.tokens.get(token);
+            if (userIds == null) {
+                userIds = new HashSet<>();
+                target.tokens.put(token, userIds);
+            }
+            userIds.add(userId);
+        }
+    }
+
+    private static UserEntry removeUser(IndexState target, int userId) {
+        UserEntry entry = target.users.remove(userId);
+        if (entry == null) {
+            return null;
+        }
+        for (String token : entry.tokens) {
+            Set<Integer> userIds = target.tokens.get(token);
+            if (userIds != null && userIds.remove(userId) && userIds.isEmpty()) {
+                target.tokens.remove(token);
+            }
+        }
+        return entry;
+    }
+
+    private static boolean matchesAll(String[] tokens, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            boolean matched = false;
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // All entries whose key starts with prefix
+    private static <V> NavigableMap<String, V> prefixRange(TreeMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static String[] tokensOf(User user) {
+        return tokensOf(UserCard.from(user));
+    }
+
+    private static String[] tokensOf(UserCard user) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(Tokenizer.tokenize(user.getUsername()));
+        tokens.addAll(Tokenizer.tokenize(user.getFirstName()));
+        tokens.addAll(Tokenizer.tokenize(user.getLastName()));
+        if (user.getUserType() == User.UserType.BUSINESS) {
+            tokens.addAll(Tokenizer.tokenize(user.getBusinessName()));
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static class IndexState {
+        private final TreeMap<String, Set<Integer>> tokens = new TreeMap<>();
+        private final Map<Integer, UserEntry> users = new HashMap<>();
+    }
+
+    private static class UserEntry {
+        private final String[] tokens;
+        private int followersCount;
+
+        private UserEntry(String[] tokens, int followersCount) {
+            this.tokens = tokens;
+            this.followersCount = followersCount;
+        }
+    }
+}
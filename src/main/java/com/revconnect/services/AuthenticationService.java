@@ -2,6 +2,7 @@ package com.revconnect.services;
 
 import com.revconnect.dao.UserDAO;
 import com.revconnect.models.User;
+import com.revconnect.search.UserPrefixIndex;
 import com.revconnect.utils.PasswordHasher;
 
 import java.sql.SQLException;
@@ -66,6 +67,8 @@ public class AuthenticationService {
 
             if (userId > 0) {
                 user.setUserId(userId);
+                UserPrefixIndex.getInstance().addOrUpdate(user);
+                UsernameDirectory.getInstance().put(userId, user.getUsername());
                 System.out.println("✅ User registered successfully with ID: " + userId);
                 return user;
             } else {
@@ -110,6 +113,8 @@ public class AuthenticationService {
 
             if (userId > 0) {
                 user.setUserId(userId);
+                UserPrefixIndex.getInstance().addOrUpdate(user);
+                UsernameDirectory.getInstance().put(userId, user.getUsername());
                 System.out.println("✅ User registered successfully with ID: " + userId);
                 return user;
             } else {
@@ -2,10 +2,10 @@ package com.revconnect.services;
 
 import com.revconnect.dao.ConnectionDAO;
 import com.revconnect.dao.UserDAO;
-import com.revconnect.dao.NotificationDAO;
 import com.revconnect.models.Connection;
 import com.revconnect.models.User;
-import com.revconnect.models.Notification;
+import com.revconnect.models.UserCard;
+import com.revconnect.utils.IntList;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -14,12 +14,12 @@ import java.util.List;
 public class ConnectionService {
     private ConnectionDAO connectionDAO;
     private UserDAO userDAO;
-    private NotificationDAO notificationDAO;
+    private NotificationService notificationService;
 
     public ConnectionService() {
         this.connectionDAO = new ConnectionDAO();
         this.userDAO = new UserDAO();
-        this.notificationDAO = new NotificationDAO();
+        this.notificationService = new NotificationService();
     }
 
     // Send connection request
@@ -65,7 +65,7 @@ public class ConnectionService {
 
             if (connectionId > 0) {
                 // Create notification for receiver
-                notificationDAO.createConnectionRequestNotification(receiverId, senderId, connectionId);
+                notificationService.createConnectionRequestNotification(receiverId, senderId, connectionId);
 
                 System.out.println("Connection request sent to " + receiver.getFirstName() + " " +
                         receiver.getLastName() + "!");
@@ -100,7 +100,7 @@ public class ConnectionService {
                 // Create notification for sender
                 int receiverId = connection.getUserId1();
                 int senderId = connection.getUserId2();
-                notificationDAO.createConnectionAcceptedNotification(senderId, receiverId, connectionId);
+                notificationService.createConnectionAcceptedNotification(senderId, receiverId, connectionId);
 
                 System.out.println("Connection request accepted!");
                 return true;
@@ -242,19 +242,10 @@ public class ConnectionService {
     }
 
     // Get suggested connections
-    public List<User> getSuggestedConnections(int userId, int limit) {
+    public List<UserCard> getSuggestedConnections(int userId, int limit) {
         try {
-            List<Integer> suggestedUserIds = connectionDAO.getSuggestedConnections(userId, limit);
-            List<User> suggestedUsers = new ArrayList<>();
-
-            for (Integer suggestedUserId : suggestedUserIds) {
-                User user = userDAO.getUserById(suggestedUserId);
-                if (user != null) {
-                    suggestedUsers.add(user);
-                }
-            }
-
-            return suggestedUsers;
+            IntList suggestedUserIds = connectionDAO.getSuggestedConnections(userId, limit);
+            return userDAO.getUserCardsByIds(suggestedUserIds.toList());
 
         } catch (SQLException e) {
             System.out.println("Error getting suggested connections: " + e.getMessage());
@@ -265,27 +256,11 @@ public class ConnectionService {
     // Get mutual connections
     public List<User> getMutualConnections(int userId1, int userId2) {
         try {
-            List<Connection> user1Connections = connectionDAO.getAcceptedConnectionsForUser(userId1);
-            List<Connection> user2Connections = connectionDAO.getAcceptedConnectionsForUser(userId2);
-
-            List<User> mutualConnections = new ArrayList<>();
-
-            for (Connection conn1 : user1Connections) {
-                int otherUserId1 = (conn1.getUserId1() == userId1) ? conn1.getUserId2() : conn1.getUserId1();
-
-                for (Connection conn2 : user2Connections) {
-                    int otherUserId2 = (conn2.getUserId1() == userId2) ? conn2.getUserId2() : conn2.getUserId1();
-
-                    if (otherUserId1 == otherUserId2) {
-                        User mutualUser = userDAO.getUserById(otherUserId1);
-                        if (mutualUser != null && !mutualConnections.contains(mutualUser)) {
-                            mutualConnections.add(mutualUser);
-                        }
-                    }
-                }
-            }
-
-            return mutualConnections;
+            // Both ID lists come back sorted, so the overlap is one merge pass and one user lookup
+            IntList mutualIds = IntList.intersectSorted(
+                    connectionDAO.getConnectedUserIds(userId1),
+                    connectionDAO.getConnectedUserIds(userId2));
+            return userDAO.getUsersByIds(mutualIds.toList());
 
         } catch (SQLException e) {
             System.out.println("Error getting mutual connections: " + e.getMessage());
@@ -1,26 +1,36 @@
 package com.revconnect.services;
 
 import com.revconnect.dao.FeedDAO;
-import com.revconnect.dao.UserDAO;
-import com.revconnect.models.Post;
-import com.revconnect.models.User;
+import com.revconnect.feed.CategoryFeedCache;
+import com.revconnect.feed.FeedSnapshotCache;
+import com.revconnect.feed.FeedSnapshotCache.Feed;
+import com.revconnect.feed.PersonalizedFeedEngine;
+import com.revconnect.feed.RecommendationEngine;
+import com.revconnect.models.FeedPage;
+import com.revconnect.models.PostCard;
 
 import java.sql.SQLException;
 import java.util.List;
 
 public class FeedService {
     private FeedDAO feedDAO;
-    private UserDAO userDAO;
+    private FeedSnapshotCache snapshotCache;
+    private CategoryFeedCache categoryFeeds;
+    private RecommendationEngine recommendations;
+    private PersonalizedFeedEngine personalizedFeeds;
 
     public FeedService() {
         this.feedDAO = new FeedDAO();
-        this.userDAO = new UserDAO();
+        this.snapshotCache = FeedSnapshotCache.getInstance();
+        this.categoryFeeds = CategoryFeedCache.getInstance();
+        this.recommendations = RecommendationEngine.getInstance();
+        this.personalizedFeeds = PersonalizedFeedEngine.getInstance();
     }
 
-    // Get personalized feed
-    public List<Post> getPersonalizedFeed(int userId, int limit, int offset) {
+    // Get personalized feed; the page is degraded if a slow source was left out
+    public FeedPage getPersonalizedFeed(int userId, int limit, int offset) {
         try {
-            return feedDAO.getPersonalizedFeed(userId, limit, offset);
+            return personalizedFeeds.getPage(userId, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving personalized feed: " + e.getMessage());
             return null;
@@ -28,9 +38,9 @@ public class FeedService {
     }
 
     // Get public feed
-    public List<Post> getPublicFeed(int limit, int offset) {
+    public List<PostCard> getPublicFeed(int limit, int offset) {
         try {
-            return feedDAO.getPublicFeed(limit, offset);
+            return snapshotCache.getPage(Feed.PUBLIC, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving public feed: " + e.getMessage());
             return null;
@@ -38,9 +48,9 @@ public class FeedService {
     }
 
     // Get feed by category
-    public List<Post> getFeedByCategory(String category, int limit, int offset) {
+    public List<PostCard> getFeedByCategory(String category, int limit, int offset) {
         try {
-            return feedDAO.getFeedByCategory(category, limit, offset);
+            return categoryFeeds.getPage(category, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving category feed: " + e.getMessage());
             return null;
@@ -48,9 +58,9 @@ public class FeedService {
     }
 
     // Get trending feed
-    public List<Post> getTrendingFeed(int limit, int offset) {
+    public List<PostCard> getTrendingFeed(int limit, int offset) {
         try {
-            return feedDAO.getTrendingFeed(limit, offset);
+            return snapshotCache.getPage(Feed.TRENDING, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving trending feed: " + e.getMessage());
             return null;
@@ -58,7 +68,7 @@ public class FeedService {
     }
 
     // Get network feed
-    public List<Post> getNetworkFeed(int userId, int limit, int offset) {
+    public List<PostCard> getNetworkFeed(int userId, int limit, int offset) {
         try {
             return feedDAO.getNetworkFeed(userId, limit, offset);
         } catch (SQLException e) {
@@ -68,9 +78,9 @@ public class FeedService {
     }
 
     // Get media feed
-    public List<Post> getMediaFeed(int limit, int offset) {
+    public List<PostCard> getMediaFeed(int limit, int offset) {
         try {
-            return feedDAO.getMediaFeed(limit, offset);
+            return snapshotCache.getPage(Feed.MEDIA, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving media feed: " + e.getMessage());
             return null;
@@ -78,9 +88,9 @@ public class FeedService {
     }
 
     // Get recommended posts
-    public List<Post> getRecommendedPosts(int userId, int limit) {
+    public List<PostCard> getRecommendedPosts(int userId, int limit) {
         try {
-            return feedDAO.getRecommendedPosts(userId, limit);
+            return recommendations.recommend(userId, limit);
         } catch (SQLException e) {
             System.out.println("Error retrieving recommended posts: " + e.getMessage());
             return null;
@@ -90,44 +100,44 @@ public class FeedService {
     // Display personalized feed with user info
     public void displayPersonalizedFeed(int userId, int limit, int offset) {
         try {
-            List<Post> feed = feedDAO.getPersonalizedFeed(userId, limit, offset);
+            FeedPage page = personalizedFeeds.getPage(userId, limit, offset);
+            List<PostCard> cards = page.getPosts();
 
-            if (feed == null || feed.isEmpty()) {
+            if (cards.isEmpty()) {
                 System.out.println("\nYour feed is empty. Start following people or make connections!");
                 System.out.println("Try viewing trending posts or searching for content.");
                 return;
             }
 
             System.out.println("\n══════════════════════════════════════");
-            System.out.println("        YOUR FEED (" + feed.size() + ")        ");
+            System.out.println("        YOUR FEED (" + cards.size() + ")        ");
             System.out.println("══════════════════════════════════════");
 
-            for (int i = 0; i < feed.size(); i++) {
-                Post post = feed.get(i);
-                User author = userDAO.getUserById(post.getUserId());
+            for (int i = 0; i < cards.size(); i++) {
+                PostCard card = cards.get(i);
 
                 System.out.println("\n──────────────────────────────────────");
-                System.out.println("POST #" + (i + 1));
-                if (author != null) {
-                    System.out.println("By: " + author.getFirstName() + " " +
-                            author.getLastName() + " (@" + author.getUsername() + ")");
-                }
+                System.out.println("POST #" + (i + 1) + " (ID " + card.getPostId() + ")");
+                System.out.println("By: " + card.getByline());
                 System.out.println("──────────────────────────────────────");
 
-                System.out.println(post.getContent());
+                System.out.println(card.getDisplayContent());
 
-                if (post.getMediaUrl() != null) {
-                    System.out.println("[Media: " + post.getMediaUrl() + "]");
+                if (card.getMediaUrl() != null) {
+                    System.out.println("[Media: " + card.getMediaUrl() + "]");
                 }
 
-                System.out.println("\n❤️ " + post.getLikeCount() + "   💬 " + post.getCommentCount() +
-                        "   🔄 " + post.getShareCount());
-                System.out.println("Type: " + post.getPostType() + " | Visibility: " + post.getVisibility());
-                System.out.println("Posted: " + post.getCreatedAt().toLocalDate());
+                System.out.println("\n❤️ " + card.getLikeCount() + "   💬 " + card.getCommentCount() +
+                        "   🔄 " + card.getShareCount());
+                System.out.println("Type: " + card.getPostType() + " | Visibility: " + card.getVisibility());
+                System.out.println("Posted: " + card.getCreatedAt().toLocalDate());
                 System.out.println("──────────────────────────────────────");
             }
 
-            System.out.println("\nEnd of feed. Showing " + feed.size() + " posts.");
+            System.out.println("\nEnd of feed. Showing " + cards.size() + " posts.");
+            if (page.isDegraded()) {
+                System.out.println("Some sources were slow and left out: " + page.getMissedSources());
+            }
 
         } catch (SQLException e) {
             System.out.println("Error displaying feed: " + e.getMessage());
@@ -137,40 +147,36 @@ public class FeedService {
     // Display trending feed
     public void displayTrendingFeed(int limit, int offset) {
         try {
-            List<Post> trendingPosts = feedDAO.getTrendingFeed(limit, offset);
+            List<PostCard> cards = snapshotCache.getPage(Feed.TRENDING, limit, offset);
 
-            if (trendingPosts == null || trendingPosts.isEmpty()) {
+            if (cards == null || cards.isEmpty()) {
                 System.out.println("\nNo trending posts at the moment.");
                 return;
             }
 
             System.out.println("\n══════════════════════════════════════");
-            System.out.println("      TRENDING NOW (" + trendingPosts.size() + ")      ");
+            System.out.println("      TRENDING NOW (" + cards.size() + ")      ");
             System.out.println("══════════════════════════════════════");
 
-            for (int i = 0; i < trendingPosts.size(); i++) {
-                Post post = trendingPosts.get(i);
-                User author = userDAO.getUserById(post.getUserId());
+            for (int i = 0; i < cards.size(); i++) {
+                PostCard card = cards.get(i);
 
                 System.out.println("\n──────────────────────────────────────");
-                System.out.println("TRENDING #" + (i + 1));
-                if (author != null) {
-                    System.out.println("By: " + author.getFirstName() + " " +
-                            author.getLastName() + " (@" + author.getUsername() + ")");
-                }
+                System.out.println("TRENDING #" + (i + 1) + " (ID " + card.getPostId() + ")");
+                System.out.println("By: " + card.getByline());
                 System.out.println("──────────────────────────────────────");
 
-                System.out.println(post.getContent());
+                System.out.println(card.getDisplayContent());
 
-                if (post.getMediaUrl() != null) {
-                    System.out.println("[Media: " + post.getMediaUrl() + "]");
+                if (card.getMediaUrl() != null) {
+                    System.out.println("[Media: " + card.getMediaUrl() + "]");
                 }
 
-                System.out.println("\n❤️ " + post.getLikeCount() + "   💬 " + post.getCommentCount() +
-                        "   🔄 " + post.getShareCount());
+                System.out.println("\n❤️ " + card.getLikeCount() + "   💬 " + card.getCommentCount() +
+                        "   🔄 " + card.getShareCount());
                 System.out.println("Engagement Score: " +
-                        (post.getLikeCount() + post.getCommentCount() * 2 + post.getShareCount() * 3));
-                System.out.println("Posted: " + post.getCreatedAt().toLocalDate());
+                        (card.getLikeCount() + card.getCommentCount() * 2 + card.getShareCount() * 3));
+                System.out.println("Posted: " + card.getCreatedAt().toLocalDate());
                 System.out.println("──────────────────────────────────────");
             }
 
@@ -182,36 +188,31 @@ public class FeedService {
     // Display category feed
     public void displayCategoryFeed(String category, int limit, int offset) {
         try {
-            List<Post> categoryPosts = feedDAO.getFeedByCategory(category, limit, offset);
+            List<PostCard> cards = categoryFeeds.getPage(category, limit, offset);
 
-            if (categoryPosts == null || categoryPosts.isEmpty()) {
+            if (cards == null || cards.isEmpty()) {
                 System.out.println("\nNo posts found in category: " + category);
                 return;
             }
 
             System.out.println("\n══════════════════════════════════════");
-            System.out.println("   " + category.toUpperCase() + " FEED (" + categoryPosts.size() + ")   ");
+            System.out.println("   " + category.toUpperCase() + " FEED (" + cards.size() + ")   ");
             System.out.println("══════════════════════════════════════");
 
-            for (int i = 0; i < categoryPosts.size(); i++) {
-                Post post = categoryPosts.get(i);
-                User author = userDAO.getUserById(post.getUserId());
+            for (int i = 0; i < cards.size(); i++) {
+                PostCard card = cards.get(i);
 
                 System.out.println("\n──────────────────────────────────────");
-                System.out.println("POST #" + (i + 1));
-                if (author != null) {
-                    System.out.println("By: " + author.getFirstName() + " " +
-                            author.getLastName() + " (@" + author.getUsername() + ")");
-
-                    // Show user type for context
-                    System.out.println("User Type: " + author.getUserType());
-                }
+                System.out.println("POST #" + (i + 1) + " (ID " + card.getPostId() + ")");
+                System.out.println("By: " + card.getByline());
+                // Show user type for context
+                System.out.println("User Type: " + card.getAuthorType());
                 System.out.println("──────────────────────────────────────");
 
-                System.out.println(post.getContent());
+                System.out.println(card.getDisplayContent());
 
-                System.out.println("\n❤️ " + post.getLikeCount() + "   💬 " + post.getCommentCount());
-                System.out.println("Posted: " + post.getCreatedAt().toLocalDate());
+                System.out.println("\n❤️ " + card.getLikeCount() + "   💬 " + card.getCommentCount());
+                System.out.println("Posted: " + card.getCreatedAt().toLocalDate());
                 System.out.println("──────────────────────────────────────");
             }
 
@@ -221,14 +222,14 @@ public class FeedService {
     }
 
     // Refresh feed (could be used for real-time updates)
-    public List<Post> refreshFeed(int userId, int lastPostId) {
+    public List<PostCard> refreshFeed(int userId, int lastPostId) {
         try {
             // In a real app, you would get posts newer than lastPostId
             // For now, we'll just return the personalized feed
-            return feedDAO.getPersonalizedFeed(userId, 20, 0);
+            return personalizedFeeds.getPage(userId, 20, 0).getPosts();
         } catch (SQLException e) {
             System.out.println("Error refreshing feed: " + e.getMessage());
             return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.revconnect.services;
+
+import com.revconnect.dao.ConnectionDAO;
+import com.revconnect.dao.MentionDAO;
+import com.revconnect.feed.PostCache;
+import com.revconnect.models.Comment;
+import com.revconnect.models.Post;
+import com.revconnect.utils.ContentParser;
+import com.revconnect.utils.IntList;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MentionService {
+    private MentionDAO mentionDAO;
+    private UsernameDirectory usernameDirectory;
+    private NotificationService notificationService;
+    private PostCache postCache;
+    private ConnectionDAO connectionDAO;
+
+    public MentionService() {
+        this(new MentionDAO(), UsernameDirectory.getInstance(), new NotificationService(),
+                PostCache.getInstance(), new ConnectionDAO());
+    }
+
+    public MentionService(MentionDAO mentionDAO, UsernameDirectory usernameDirectory,
+                          NotificationService notificationService, PostCache postCache, ConnectionDAO connectionDAO) {
+        this.mentionDAO = mentionDAO;
+        this.usernameDirectory = usernameDirectory;
+        this.notificationService = notificationService;
+        this.postCache = postCache;
+        this.connectionDAO = connectionDAO;
+    }
+
+    // Record and notify @mentions in a new post
+    public void processPostMentions(Post post) {
+        processMentions(post.getUserId(), post, null, post.getContent());
+    }
+
+    // Record and notify @mentions in a new comment; the post it is on decides who may see it
+    public void processCommentMentions(Comment comment) {
+        try {
+            Post post = postCache.getPost(comment.getPostId());
+            if (post != null) {
+                processMentions(comment.getUserId(), post, comment.getCommentId(), comment.getContent());
+            }
+        } catch (SQLException e) {
+            System.out.println("Error processing mentions: " + e.getMessage());
+        }
+    }
+
+    // Notifications point at the post in both cases, since that is where the comment is read.
+    // Only users who can view the post are recorded and notified, so no one is sent text they
+    // are not allowed to see.
+    private void processMentions(int authorId, Post post, Integer commentId, String content) {
+        if (post.getVisibility() == Post.Visibility.PRIVATE && post.getUserId() == authorId) {
+            // Only the author can read it
+            return;
+        }
+        List<String> usernames = ContentParser.extractMentions(content);
+        if (usernames.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Integer> userIds = usernameDirectory.resolve(usernames);
+            userIds.values().remove(authorId);
+            List<Integer> viewers = filterViewers(post, userIds.values());
+            if (viewers.isEmpty()) {
+                return;
+            }
+
+            mentionDAO.createMentions(authorId, post.getPostId(), commentId, viewers);
+            notificationService.createMentionNotifications(viewers, authorId, post.getPostId(), "POST", content);
+        } catch (SQLException e) {
+            System.out.println("Error processing mentions: " + e.getMessage());
+        }
+    }
+
+    // The mentioned users allowed to view the post: anyone for public posts, the post author and
+    // their accepted connections for connections-only posts, and only the author for private ones
+    private List<Integer> filterViewers(Post post, Iterable<Integer> userIds) throws SQLException {
+        List<Integer> viewers = new ArrayList<>();
+        IntList connections = null;
+        for (int userId : userIds) {
+            boolean canView;
+            if (post.getVisibility() == Post.Visibility.PUBLIC || userId == post.getUserId()) {
+                canView = true;
+            } else if (post.getVisibility() == Post.Visibility.CONNECTIONS) {
+                if (connections == null) {
+                    connections = connectionDAO.getConnectedUserIds(post.getUserId());
+                }
+                canView = connections.containsSorted(userId);
+            } else {
+                canView = false;
+            }
+            if (canView) {
+                viewers.add(userId);
+            }
+        }
+        return viewers;
+    }
+}
@@ -0,0 +1,199 @@
+package com.revconnect.services;
+
+import com.revconnect.models.Notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process publish/subscribe for new notifications.
+// Publishers claim a sequence number and write into a fixed ring without locking;
+// each subscription reads the ring from its own cursor and keeps only its user's events.
+public class NotificationEventBus {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long UNPUBLISHED = -1;
+    private static final long NOT_STALLED = -1;
+
+    private static final NotificationEventBus INSTANCE = new NotificationEventBus(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Notification> slots;
+    // Sequence currently stored in each slot, UNPUBLISHED while a publisher is writing it
+    private final AtomicLongArray slotSequences;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public interface NotificationListener {
+        void onNotification(Notification notification);
+    }
+
+    // Capacity is rounded up to a power of two
+    public NotificationEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.slotSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slotSequences.set(i, UNPUBLISHED);
+        }
+    }
+
+    public static NotificationEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    // Publish a notification to subscribers of its recipient
+    public void publish(Notification notification) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = (int) (sequence & mask);
+
+        slotSequences.set(index, UNPUBLISHED);
+        slots.set(index, notification);
+        slotSequences.set(index, sequence);
+
+        // Also wake subscriptions that stopped at this slot while it was being written,
+        // or they would not see the events published after it until their next own event
+        for (Subscription subscription : subscriptions) {
+            if (subscription.userId == notification.getUserId() || subscription.stalledAt == sequence) {
+                subscription.signal();
+            }
+        }
+    }
+
+    // Subscribe to a user's notifications; read them with poll() or await()
+    public Subscription subscribe(int userId) {
+        return subscribe(userId, null);
+    }
+
+    // Subscribe with a callback, invoked on the publishing thread
+    public Subscription subscribe(int userId, NotificationListener listener) {
+        Subscription subscription = new Subscription(userId, listener, nextSequence.get());
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public class Subscription implements AutoCloseable {
+        private final int userId;
+        private final NotificationListener listener;
+        private long cursor;
+        private boolean missedEvents;
+        // Sequence of the claimed but unwritten slot the last poll stopped at
+        private volatile long stalledAt = NOT_STALLED;
+        private volatile Thread waiter;
+        private volatile boolean closed;
+
+        private Subscription(int userId, NotificationListener listener, long cursor) {
+            this.userId = userId;
+            this.listener = listener;
+            this.cursor = cursor;
+        }
+
+        public int getUserId() { return userId; }
+
+        // Return the notifications published since the last call, without blocking
+        public synchronized List<Notification> poll() {
+            List<Notification> received = new ArrayList<>();
+            long head = nextSequence.get();
+
+            // Fell behind by more than the ring holds: skip ahead and remember the gap
+            if (head - cursor > capacity) {
+                cursor = head - capacity;
+                missedEvents = true;
+            }
+
+            boolean stalled = false;
+            while (cursor < head) {
+                int index = (int) (cursor & mask);
+                long published = slotSequences.get(index);
+
+                if (published == UNPUBLISHED || published < cursor) {
+                    // A publisher has claimed this sequence but not finished writing it.
+                    // Record the stall before checking again: either the publisher sees it
+                    // and signals us once written, or we see the write here.
+                    stalledAt = cursor;
+                    published = slotSequences.get(index);
+                    stalled = published == UNPUBLISHED || published < cursor;
+                    if (stalled) {
+                        break;
+                    }
+                }
+
+                Notification notification = slots.get(index);
+                if (published > cursor || slotSequences.get(index) != cursor) {
+                    // Overwritten by a later lap of the ring
+                    missedEvents = true;
+                } else if (notification.getUserId() == userId) {
+                    received.add(notification);
+                }
+                cursor++;
+            }
+            if (!stalled) {
+                stalledAt = NOT_STALLED;
+            }
+            return received;
+        }
+
+        // Block until notifications arrive or the timeout elapses
+        public List<Notification> await(long timeout, TimeUnit unit) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            List<Notification> received = poll();
+
+            while (received.isEmpty() && !closed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                waiter = Thread.currentThread();
+                received = poll();
+                if (received.isEmpty()) {
+                    LockSupport.parkNanos(this, remaining);
+                    received = poll();
+                }
+                waiter = null;
+            }
+            return received;
+        }
+
+        // True (once) if events were dropped because this subscription fell behind;
+        // the caller should reload from the database
+        public synchronized boolean checkMissedEvents() {
+            boolean missed = missedEvents;
+            missedEvents = false;
+            return missed;
+        }
+
+        private void signal() {
+            if (listener != null) {
+                for (Notification notification : poll()) {
+                    listener.onNotification(notification);
+                }
+            }
+
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+}
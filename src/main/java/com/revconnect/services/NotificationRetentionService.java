@@ -0,0 +1,84 @@
+package com.revconnect.services;
+
+import com.revconnect.config.NotificationRetentionPolicy;
+import com.revconnect.dao.NotificationDAO;
+import com.revconnect.models.Notification;
+import com.revconnect.utils.BackgroundTasks;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Periodically deletes notifications that are past their retention period
+public class NotificationRetentionService {
+    private static final Logger logger = LogManager.getLogger(NotificationRetentionService.class);
+
+    private static final long PURGE_INTERVAL_MINUTES = 60;
+    private static final int CHUNK_SIZE = 1000;
+    // Pause between chunks so the purge never holds locks long enough to stall user requests
+    private static final long CHUNK_PAUSE_MILLIS = 200;
+    // Upper bound per run; whatever is left is picked up by the next run
+    private static final int MAX_CHUNKS_PER_RUN = 500;
+
+    private NotificationDAO notificationDAO;
+
+    public NotificationRetentionService() {
+        this.notificationDAO = new NotificationDAO();
+    }
+
+    // Schedule the purge in the background
+    public void start() {
+        BackgroundTasks.scheduleAtFixedRate("notification-retention", this::purgeExpiredNotifications,
+                1, PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // Purge expired notifications of every type; returns the number deleted
+    public int purgeExpiredNotifications() {
+        int deleted = 0;
+        int chunks = 0;
+
+        try {
+            for (Notification.NotificationType type : Notification.NotificationType.values()) {
+                Timestamp readCutoff = cutoff(NotificationRetentionPolicy.getReadRetentionDays(type));
+                Timestamp unreadCutoff = cutoff(NotificationRetentionPolicy.getUnreadRetentionDays(type));
+
+                // Read notifications expire first, then anything past the unread limit
+                int purged;
+                do {
+                    purged = notificationDAO.purgeExpiredNotifications(type, true, readCutoff, CHUNK_SIZE);
+                    deleted += purged;
+                } while (purged == CHUNK_SIZE && ++chunks < MAX_CHUNKS_PER_RUN && pause());
+
+                do {
+                    purged = notificationDAO.purgeExpiredNotifications(type, false, unreadCutoff, CHUNK_SIZE);
+                    deleted += purged;
+                } while (purged == CHUNK_SIZE && ++chunks < MAX_CHUNKS_PER_RUN && pause());
+            }
+        } catch (SQLException e) {
+            logger.error("Error purging notifications: " + e.getMessage());
+        }
+
+        if (deleted > 0) {
+            logger.info("Purged " + deleted + " expired notifications");
+        }
+        return deleted;
+    }
+
+    private Timestamp cutoff(int retentionDays) {
+        return Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    // Sleep between chunks; returns false if the purge should stop
+    private boolean pause() {
+        try {
+            Thread.sleep(CHUNK_PAUSE_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
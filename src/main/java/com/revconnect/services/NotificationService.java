@@ -2,22 +2,30 @@ package com.revconnect.services;
 
 import com.revconnect.dao.NotificationDAO;
 import com.revconnect.models.Notification;
+import com.revconnect.models.NotificationTemplate;
 import com.revconnect.models.User;
 
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class NotificationService {
     private NotificationDAO notificationDAO;
+    private NotificationEventBus eventBus;
 
     public NotificationService() {
         this.notificationDAO = new NotificationDAO();
+        this.eventBus = NotificationEventBus.getInstance();
     }
 
     // Create notification
     public int createNotification(Notification notification) {
         try {
-            return notificationDAO.createNotification(notification);
+            int notificationId = notificationDAO.createNotification(notification);
+            publish(notification, notificationId);
+            return notificationId;
         } catch (SQLException e) {
             System.out.println("Error creating notification: " + e.getMessage());
             return -1;
@@ -147,15 +155,14 @@ public class NotificationService {
             if (commenterId != postAuthorId) {
                 Notification notification = new Notification(
                         postAuthorId,
-                        Notification.NotificationType.NEW_COMMENT,
-                        "Someone commented on your post: " +
-                                (commentContent.length() > 30 ? commentContent.substring(0, 30) + "..." : commentContent)
+                        NotificationTemplate.NEW_COMMENT,
+                        commentContent.length() > 30 ? commentContent.substring(0, 30) + "..." : commentContent
                 );
                 notification.setSenderId(commenterId);
                 notification.setReferenceId(postId);
                 notification.setReferenceType("POST");
 
-                notificationDAO.createNotification(notification);
+                publish(notification, notificationDAO.createNotification(notification));
             }
         } catch (SQLException e) {
             System.out.println("Error creating comment notification: " + e.getMessage());
@@ -166,16 +173,12 @@ public class NotificationService {
     public void createNewLikeNotification(int postId, int likerId, int postAuthorId) {
         try {
             if (likerId != postAuthorId) {
-                Notification notification = new Notification(
-                        postAuthorId,
-                        Notification.NotificationType.NEW_LIKE,
-                        "Someone liked your post"
-                );
+                Notification notification = new Notification(postAuthorId, NotificationTemplate.NEW_LIKE);
                 notification.setSenderId(likerId);
                 notification.setReferenceId(postId);
                 notification.setReferenceType("POST");
 
-                notificationDAO.createNotification(notification);
+                publish(notification, notificationDAO.createNotification(notification));
             }
         } catch (SQLException e) {
             System.out.println("Error creating like notification: " + e.getMessage());
@@ -185,21 +188,83 @@ public class NotificationService {
     // Create new follow notification
     public void createNewFollowNotification(int followerId, int followedId) {
         try {
-            Notification notification = new Notification(
-                    followedId,
-                    Notification.NotificationType.NEW_FOLLOW,
-                    "Someone started following you"
-            );
+            Notification notification = new Notification(followedId, NotificationTemplate.NEW_FOLLOW);
             notification.setSenderId(followerId);
             notification.setReferenceType("USER");
 
-            notificationDAO.createNotification(notification);
+            publish(notification, notificationDAO.createNotification(notification));
 
         } catch (SQLException e) {
             System.out.println("Error creating follow notification: " + e.getMessage());
         }
     }
 
+    // Create connection request notification
+    public void createConnectionRequestNotification(int receiverId, int senderId, int connectionId) {
+        Notification notification = new Notification(receiverId, NotificationTemplate.CONNECTION_REQUEST);
+        notification.setSenderId(senderId);
+        notification.setReferenceId(connectionId);
+        notification.setReferenceType("CONNECTION");
+
+        createNotification(notification);
+    }
+
+    // Create connection accepted notification
+    public void createConnectionAcceptedNotification(int receiverId, int senderId, int connectionId) {
+        Notification notification = new Notification(receiverId, NotificationTemplate.CONNECTION_ACCEPTED);
+        notification.setSenderId(senderId);
+        notification.setReferenceId(connectionId);
+        notification.setReferenceType("CONNECTION");
+
+        createNotification(notification);
+    }
+
+    // Create mention notifications for several users with one batched insert.
+    // referenceType is "POST" or "COMMENT"; the author is never notified of their own mention.
+    public void createMentionNotifications(Collection<Integer> mentionedUserIds, int authorId,
+                                           int referenceId, String referenceType, String content) {
+        String snippet = content.length() > 30 ? content.substring(0, 30) + "..." : content;
+        List<Notification> notifications = new ArrayList<>();
+        for (int mentionedUserId : mentionedUserIds) {
+            if (mentionedUserId == authorId) {
+                continue;
+            }
+            Notification notification = new Notification(mentionedUserId, NotificationTemplate.MENTION, snippet);
+            notification.setSenderId(authorId);
+            notification.setReferenceId(referenceId);
+            notification.setReferenceType(referenceType);
+            notifications.add(notification);
+        }
+
+        try {
+            int[] notificationIds = notificationDAO.createNotifications(notifications);
+            for (int i = 0; i < notifications.size(); i++) {
+                publish(notifications.get(i), notificationIds[i]);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error creating mention notifications: " + e.getMessage());
+        }
+    }
+
+    // Subscribe to live notifications for a user (close the subscription on logout)
+    public NotificationEventBus.Subscription subscribe(int userId) {
+        return eventBus.subscribe(userId);
+    }
+
+    // Subscribe with a callback invoked as each notification is created
+    public NotificationEventBus.Subscription subscribe(int userId, NotificationEventBus.NotificationListener listener) {
+        return eventBus.subscribe(userId, listener);
+    }
+
+    // Push a stored notification to live subscribers
+    private void publish(Notification notification, int notificationId) {
+        notification.setNotificationId(notificationId);
+        if (notification.getCreatedAt() == null) {
+            notification.setCreatedAt(LocalDateTime.now());
+        }
+        eventBus.publish(notification);
+    }
+
     // Display notifications
     public void displayNotifications(List<Notification> notifications) {
         if (notifications == null || notifications.isEmpty()) {
@@ -3,45 +3,94 @@ package com.revconnect.services;
 import com.revconnect.dao.PostDAO;
 import com.revconnect.dao.CommentDAO;
 import com.revconnect.dao.LikeDAO;
-import com.revconnect.dao.UserDAO;
 import com.revconnect.dao.FeedDAO;
+import com.revconnect.events.PostEvents;
+import com.revconnect.feed.CategoryFeedCache;
+import com.revconnect.feed.FeedSnapshotCache;
+import com.revconnect.feed.FeedSnapshotCache.Feed;
+import com.revconnect.feed.HashtagFeedCache;
+import com.revconnect.feed.PersonalizedFeedEngine;
+import com.revconnect.feed.PostCache;
+import com.revconnect.feed.RecommendationEngine;
+import com.revconnect.feed.TrendingHashtagEngine;
+import com.revconnect.feed.TrendingPostEngine;
 import com.revconnect.models.Post;
 import com.revconnect.models.Comment;
+import com.revconnect.models.CommentThread;
+import com.revconnect.models.FeedPage;
 import com.revconnect.models.Like;
-import com.revconnect.models.User;
+import com.revconnect.models.PageCursor;
+import com.revconnect.models.PostCard;
+import com.revconnect.models.SavedPost;
+import com.revconnect.models.TrendingHashtag;
+import com.revconnect.search.SearchEngine;
+import com.revconnect.search.SearchEngines;
+import com.revconnect.utils.ContentParser;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class PostService {
+    private static final int SEARCH_RESULT_LIMIT = 50;
+    // Reply levels and replies per comment loaded with each page of a discussion
+    private static final int THREAD_DEPTH = 3;
+    private static final int REPLIES_PER_LEVEL = 3;
+
     private PostDAO postDAO;
     private CommentDAO commentDAO;
     private LikeDAO likeDAO;
-    private UserDAO userDAO;
     private FeedDAO feedDAO;
+    private PostCache postCache;
+    private SearchEngine searchEngine;
+    private FeedSnapshotCache snapshotCache;
+    private CategoryFeedCache categoryFeeds;
+    private HashtagFeedCache hashtagFeedCache;
+    private TrendingHashtagEngine trendingHashtags;
+    private TrendingPostEngine trendingPosts;
+    private RecommendationEngine recommendations;
+    private PersonalizedFeedEngine personalizedFeeds;
+    private MentionService mentionService;
+    private SavedPostIndex savedPosts;
 
     public PostService() {
         this.postDAO = new PostDAO();
         this.commentDAO = new CommentDAO();
         this.likeDAO = new LikeDAO();
-        this.userDAO = new UserDAO();
         this.feedDAO = new FeedDAO();
+        this.postCache = PostCache.getInstance();
+        this.searchEngine = SearchEngines.getDefault();
+        this.snapshotCache = FeedSnapshotCache.getInstance();
+        this.categoryFeeds = CategoryFeedCache.getInstance();
+        this.hashtagFeedCache = HashtagFeedCache.getInstance();
+        this.trendingHashtags = TrendingHashtagEngine.getInstance();
+        this.trendingPosts = TrendingPostEngine.getInstance();
+        this.recommendations = RecommendationEngine.getInstance();
+        this.personalizedFeeds = PersonalizedFeedEngine.getInstance();
+        this.mentionService = new MentionService();
+        this.savedPosts = SavedPostIndex.getInstance();
     }
 
     // Create a new post
     public int createPost(Post post) {
         try {
-            return postDAO.createPost(post);
+            int postId = postDAO.createPost(post);
+            post.setPostId(postId);
+            PostEvents.postCreated(post);
+            mentionService.processPostMentions(post);
+            return postId;
         } catch (SQLException e) {
             System.out.println("Error creating post: " + e.getMessage());
             return -1;
         }
     }
 
-    // Get post by ID
+    // Get post by ID, with the full content; feeds and lists return cards with a preview only
     public Post getPostById(int postId) {
         try {
-            return postDAO.getPostById(postId);
+            return postCache.getPost(postId);
         } catch (SQLException e) {
             System.out.println("Error retrieving post: " + e.getMessage());
             return null;
@@ -51,7 +100,11 @@ public class PostService {
     // Update post
     public boolean updatePost(Post post) {
         try {
-            return postDAO.updatePost(post);
+            boolean updated = postDAO.updatePost(post);
+            if (updated) {
+                PostEvents.postUpdated(post);
+            }
+            return updated;
         } catch (SQLException e) {
             System.out.println("Error updating post: " + e.getMessage());
             return false;
@@ -62,7 +115,7 @@ public class PostService {
     public boolean deletePost(int postId, int userId) {
         try {
             // Verify ownership
-            Post post = postDAO.getPostById(postId);
+            Post post = postCache.getPost(postId);
             if (post == null) {
                 System.out.println("Post not found.");
                 return false;
@@ -73,7 +126,11 @@ public class PostService {
                 return false;
             }
 
-            return postDAO.deletePost(postId);
+            boolean deleted = postDAO.deletePost(postId);
+            if (deleted) {
+                PostEvents.postDeleted(postId);
+            }
+            return deleted;
 
         } catch (SQLException e) {
             System.out.println("Error deleting post: " + e.getMessage());
@@ -89,14 +146,21 @@ public class PostService {
                 // Unlike the post
                 boolean unliked = likeDAO.removePostLike(userId, postId);
                 if (unliked) {
-                    postDAO.updateLikeCount(postId, -1);
+                    updateCounters(postId, -1, 0, 0);
+                    categoryFeeds.recordLike(postId);
+                    trendingPosts.recordEngagement(postId, -TrendingPostEngine.LIKE_WEIGHT,
+                            System.currentTimeMillis());
                 }
                 return false; // Return false for unliked
             } else {
                 // Like the post
                 boolean liked = likeDAO.addPostLike(userId, postId);
                 if (liked) {
-                    postDAO.updateLikeCount(postId, 1);
+                    updateCounters(postId, 1, 0, 0);
+                    categoryFeeds.recordLike(postId);
+                    recommendations.markSeen(userId, postId);
+                    trendingPosts.recordEngagement(postId, TrendingPostEngine.LIKE_WEIGHT,
+                            System.currentTimeMillis());
                 }
                 return true; // Return true for liked
             }
@@ -106,6 +170,42 @@ public class PostService {
         }
     }
 
+    // Save a post, or unsave it if already saved; true if the post is now saved, false if it is
+    // now unsaved, null if nothing changed because of an error
+    public Boolean toggleSavedPost(int userId, int postId) {
+        try {
+            if (savedPosts.isSaved(userId, postId)) {
+                savedPosts.unsave(userId, postId);
+                return false;
+            }
+            savedPosts.save(userId, postId);
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Error saving post: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Get the user's saved posts, most recently saved first; pass the last one's cursor for the next page
+    public List<SavedPost> getSavedPosts(int userId, PageCursor after, int limit) {
+        try {
+            return feedDAO.getSavedPosts(userId, after, limit);
+        } catch (SQLException e) {
+            System.out.println("Error retrieving saved posts: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Get the IDs of the posts on a page that the user has saved
+    public Set<Integer> getSavedPostIds(int userId, List<PostCard> posts) {
+        try {
+            return savedPosts.getSavedAmong(userId, posts);
+        } catch (SQLException e) {
+            System.out.println("Error checking saved posts: " + e.getMessage());
+            return Collections.emptySet();
+        }
+    }
+
     // Like a comment
     public boolean likeComment(int userId, int commentId) {
         try {
@@ -137,7 +237,12 @@ public class PostService {
             int commentId = commentDAO.createComment(comment);
             if (commentId > 0) {
                 // Update comment count on post
-                postDAO.updateCommentCount(comment.getPostId(), 1);
+                updateCounters(comment.getPostId(), 0, 1, 0);
+                trendingPosts.recordEngagement(comment.getPostId(), TrendingPostEngine.COMMENT_WEIGHT,
+                        System.currentTimeMillis());
+                comment.setCommentId(commentId);
+                recommendations.markSeen(comment.getUserId(), comment.getPostId());
+                mentionService.processCommentMentions(comment);
             }
             return commentId;
         } catch (SQLException e) {
@@ -156,6 +261,17 @@ public class PostService {
         }
     }
 
+    // Get a page of comments under parentCommentId (null for top-level), oldest first, each with its
+    // first few replies; pass the last comment's cursor for the next page
+    public List<CommentThread> getCommentThreads(int postId, Integer parentCommentId, PageCursor after, int limit) {
+        try {
+            return commentDAO.getCommentThreads(postId, parentCommentId, after, limit, THREAD_DEPTH, REPLIES_PER_LEVEL);
+        } catch (SQLException e) {
+            System.out.println("Error retrieving comments: " + e.getMessage());
+            return null;
+        }
+    }
+
     // Get replies to a comment
     public List<Comment> getCommentReplies(int parentCommentId) {
         try {
@@ -207,7 +323,9 @@ public class PostService {
             boolean deleted = commentDAO.deleteComment(commentId);
             if (deleted) {
                 // Update comment count on post
-                postDAO.updateCommentCount(comment.getPostId(), -1);
+                updateCounters(comment.getPostId(), 0, -1, 0);
+                trendingPosts.recordEngagement(comment.getPostId(), -TrendingPostEngine.COMMENT_WEIGHT,
+                        System.currentTimeMillis());
             }
             return deleted;
 
@@ -217,10 +335,10 @@ public class PostService {
         }
     }
 
-    // Get personalized feed
-    public List<Post> getPersonalizedFeed(int userId, int limit, int offset) {
+    // Get personalized feed; the page is degraded if a slow source was left out
+    public FeedPage getPersonalizedFeed(int userId, int limit, int offset) {
         try {
-            return feedDAO.getPersonalizedFeed(userId, limit, offset);
+            return personalizedFeeds.getPage(userId, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving personalized feed: " + e.getMessage());
             return null;
@@ -228,9 +346,9 @@ public class PostService {
     }
 
     // Get public feed
-    public List<Post> getPublicFeed(int limit, int offset) {
+    public List<PostCard> getPublicFeed(int limit, int offset) {
         try {
-            return feedDAO.getPublicFeed(limit, offset);
+            return snapshotCache.getPage(Feed.PUBLIC, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving public feed: " + e.getMessage());
             return null;
@@ -240,37 +358,33 @@ public class PostService {
     // Display public feed
     public void displayPublicFeed(int limit, int offset) {
         try {
-            List<Post> feed = feedDAO.getPublicFeed(limit, offset);
+            List<PostCard> cards = snapshotCache.getPage(Feed.PUBLIC, limit, offset);
 
-            if (feed.isEmpty()) {
+            if (cards.isEmpty()) {
                 System.out.println("No posts available.");
             } else {
                 System.out.println("══════════════════════════════════════");
-                System.out.println("          PUBLIC FEED (" + feed.size() + ")        ");
+                System.out.println("          PUBLIC FEED (" + cards.size() + ")        ");
                 System.out.println("══════════════════════════════════════");
 
-                for (int i = 0; i < feed.size(); i++) {
-                    Post post = feed.get(i);
-                    User user = userDAO.getUserById(post.getUserId());
+                for (int i = 0; i < cards.size(); i++) {
+                    PostCard card = cards.get(i);
 
                     System.out.println("\n──────────────────────────────────────");
-                    System.out.println("POST #" + (i + 1));
-                    if (user != null) {
-                        System.out.println("By: " + user.getFirstName() + " " +
-                                user.getLastName() + " (@" + user.getUsername() + ")");
-                    }
+                    System.out.println("POST #" + (i + 1) + " (ID " + card.getPostId() + ")");
+                    System.out.println("By: " + card.getByline());
                     System.out.println("──────────────────────────────────────");
 
-                    System.out.println(post.getContent());
+                    System.out.println(card.getDisplayContent());
 
-                    if (post.getMediaUrl() != null) {
-                        System.out.println("[Media: " + post.getMediaUrl() + "]");
+                    if (card.getMediaUrl() != null) {
+                        System.out.println("[Media: " + card.getMediaUrl() + "]");
                     }
 
-                    System.out.println("\n❤️ " + post.getLikeCount() + "   💬 " + post.getCommentCount() +
-                            "   🔄 " + post.getShareCount());
-                    System.out.println("Type: " + post.getPostType());
-                    System.out.println("Posted: " + post.getCreatedAt().toLocalDate());
+                    System.out.println("\n❤️ " + card.getLikeCount() + "   💬 " + card.getCommentCount() +
+                            "   🔄 " + card.getShareCount());
+                    System.out.println("Type: " + card.getPostType());
+                    System.out.println("Posted: " + card.getCreatedAt().toLocalDate());
                     System.out.println("──────────────────────────────────────");
                 }
             }
@@ -281,9 +395,9 @@ public class PostService {
     }
 
     // Get trending posts
-    public List<Post> getTrendingPosts(int limit) {
+    public List<PostCard> getTrendingPosts(int limit) {
         try {
-            return postDAO.getTrendingPosts(limit);
+            return snapshotCache.getPage(Feed.TRENDING, limit, 0);
         } catch (SQLException e) {
             System.out.println("Error retrieving trending posts: " + e.getMessage());
             return null;
@@ -291,19 +405,40 @@ public class PostService {
     }
 
     // Get media feed
-    public List<Post> getMediaFeed(int limit, int offset) {
+    public List<PostCard> getMediaFeed(int limit, int offset) {
         try {
-            return feedDAO.getMediaFeed(limit, offset);
+            return snapshotCache.getPage(Feed.MEDIA, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving media feed: " + e.getMessage());
             return null;
         }
     }
 
+    // Get public posts with a hashtag, newest first; pass the last post's cursor for the next page
+    public List<PostCard> getHashtagFeed(String hashtag, PageCursor after, int limit) {
+        String normalized = ContentParser.normalizeHashtag(hashtag);
+        if (normalized == null) {
+            System.out.println("Invalid hashtag: " + hashtag);
+            return new ArrayList<>();
+        }
+
+        try {
+            return hashtagFeedCache.getPage(normalized, after, limit);
+        } catch (SQLException e) {
+            System.out.println("Error retrieving hashtag feed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Get the hashtags trending right now, hottest first
+    public List<TrendingHashtag> getTrendingHashtags(int limit) {
+        return trendingHashtags.getTrending(limit);
+    }
+
     // Search posts
-    public List<Post> searchPosts(String query) {
+    public List<PostCard> searchPosts(String query) {
         try {
-            List<Post> posts = postDAO.searchPosts(query);
+            List<PostCard> posts = postDAO.getPostCardsByIds(searchEngine.searchPosts(query, SEARCH_RESULT_LIMIT));
 
             if (posts.isEmpty()) {
                 System.out.println("No posts found matching: " + query);
@@ -313,18 +448,14 @@ public class PostService {
                 System.out.println("══════════════════════════════════════");
 
                 for (int i = 0; i < posts.size(); i++) {
-                    Post post = posts.get(i);
-                    User user = userDAO.getUserById(post.getUserId());
+                    PostCard post = posts.get(i);
 
                     System.out.println("\n──────────────────────────────────────");
                     System.out.println("RESULT #" + (i + 1));
-                    if (user != null) {
-                        System.out.println("By: " + user.getFirstName() + " " +
-                                user.getLastName() + " (@" + user.getUsername() + ")");
-                    }
+                    System.out.println("By: " + post.getByline());
                     System.out.println("──────────────────────────────────────");
 
-                    String content = post.getContent();
+                    String content = post.getDisplayContent();
                     // Highlight search term
                     if (content.toLowerCase().contains(query.toLowerCase())) {
                         int start = content.toLowerCase().indexOf(query.toLowerCase());
@@ -353,7 +484,8 @@ public class PostService {
     // Share post (increment share count)
     public boolean sharePost(int postId) {
         try {
-            postDAO.updateShareCount(postId, 1);
+            updateCounters(postId, 0, 0, 1);
+            trendingPosts.recordEngagement(postId, TrendingPostEngine.SHARE_WEIGHT, System.currentTimeMillis());
             System.out.println("Post shared successfully!");
             return true;
         } catch (SQLException e) {
@@ -363,9 +495,9 @@ public class PostService {
     }
 
     // Get posts by user
-    public List<Post> getPostsByUser(int userId, int limit, int offset) {
+    public List<PostCard> getPostsByUser(int userId, int limit, int offset) {
         try {
-            return postDAO.getPostsByUser(userId, limit, offset);
+            return postDAO.getPostCardsByUser(userId, limit, offset);
         } catch (SQLException e) {
             System.out.println("Error retrieving user posts: " + e.getMessage());
             return null;
@@ -401,4 +533,30 @@ public class PostService {
             return false;
         }
     }
+
+    // Write counter changes to the posts table and tell the listeners. Caches hear of the write
+    // before it starts too, so a load that reads the new counts is not cached and then given the
+    // delta a second time.
+    private void updateCounters(int postId, int likeDelta, int commentDelta, int shareDelta) throws SQLException {
+        PostEvents.countersChanging(postId);
+        boolean written = false;
+        try {
+            if (likeDelta != 0) {
+                postDAO.updateLikeCount(postId, likeDelta);
+            }
+            if (commentDelta != 0) {
+                postDAO.updateCommentCount(postId, commentDelta);
+            }
+            if (shareDelta != 0) {
+                postDAO.updateShareCount(postId, shareDelta);
+            }
+            written = true;
+        } finally {
+            if (written) {
+                PostEvents.countersChanged(postId, likeDelta, commentDelta, shareDelta);
+            } else {
+                PostEvents.countersChanged(postId, 0, 0, 0);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.revconnect.services;
+
+import com.revconnect.dao.SavedPostDAO;
+import com.revconnect.models.PostCard;
+import com.revconnect.utils.IntHashSet;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Saved post IDs of recently active users as int sets, so marking saved posts on a feed page
+// needs no query. A set takes space for the posts the user saved, whatever their IDs. It is
+// loaded in one query on first use and kept current by saves and unsaves made through this class.
+public class SavedPostIndex {
+    private static final int MAX_USERS = 1024;
+
+    private static final SavedPostIndex INSTANCE = new SavedPostIndex(new SavedPostDAO());
+
+    private final SavedPostDAO savedPostDAO;
+    // Least recently used first
+    private final Map<Integer, IntHashSet> savedByUser = new LinkedHashMap<Integer, IntHashSet>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, IntHashSet> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+    // Bumped by every save and unsave; a load that overlapped one is not cached
+    private long writes;
+
+    public SavedPostIndex(SavedPostDAO savedPostDAO) {
+        this.savedPostDAO = savedPostDAO;
+    }
+
+    public static SavedPostIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isSaved(int userId, int postId) throws SQLException {
+        IntHashSet saved = getSaved(userId);
+        synchronized (this) {
+            return saved.contains(postId);
+        }
+    }
+
+    // IDs of the posts on a page that the user has saved
+    public Set<Integer> getSavedAmong(int userId, Collection<PostCard> posts) throws SQLException {
+        IntHashSet saved = getSaved(userId);
+        Set<Integer> savedIds = new HashSet<>();
+        synchronized (this) {
+            for (PostCard post : posts) {
+                if (saved.contains(post.getPostId())) {
+                    savedIds.add(post.getPostId());
+                }
+            }
+        }
+        return savedIds;
+    }
+
+    // Save the post; false if it was already saved
+    public boolean save(int userId, int postId) throws SQLException {
+        boolean saved = savedPostDAO.savePost(userId, postId);
+        update(userId, postId, true);
+        return saved;
+    }
+
+    // Unsave the post; false if it was not saved
+    public boolean unsave(int userId, int postId) throws SQLException {
+        boolean removed = savedPostDAO.unsavePost(userId, postId);
+        update(userId, postId, false);
+        return removed;
+    }
+
+    public synchronized void clear() {
+        savedByUser.clear();
+    }
+
+    // The user's saved posts; read it only while holding this object's lock
+    private IntHashSet getSaved(int userId) throws SQLException {
+        long writesBefore;
+        synchronized (this) {
+            IntHashSet saved = savedByUser.get(userId);
+            if (saved != null) {
+                return saved;
+            }
+            writesBefore = writes;
+        }
+
+        IntHashSet loaded = IntHashSet.of(savedPostDAO.getSavedPostIds(userId));
+        synchronized (this) {
+            if (writes == writesBefore) {
+                savedByUser.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void update(int userId, int postId, boolean saved) {
+        writes++;
+        IntHashSet current = savedByUser.get(userId);
+        if (current == null) {
+            return;
+        }
+        if (saved) {
+            current.add(postId);
+        } else {
+            current.remove(postId);
+        }
+    }
+}
@@ -4,8 +4,13 @@ import com.revconnect.dao.UserDAO;
 import com.revconnect.dao.FollowDAO;
 import com.revconnect.dao.PostDAO;
 import com.revconnect.models.User;
+import com.revconnect.models.UserCard;
 import com.revconnect.models.Follow;
-import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import com.revconnect.search.SearchEngine;
+import com.revconnect.search.SearchEngines;
+import com.revconnect.search.UserPrefixIndex;
+import com.revconnect.utils.IntList;
 import com.revconnect.utils.PasswordHasher;
 
 import java.sql.SQLException;
@@ -13,10 +18,14 @@ import java.sql.Connection;
 import java.util.List;
 
 public class UserService {
+    private static final int SEARCH_PAGE_SIZE = 20;
+
     private UserDAO userDAO;
     private FollowDAO followDAO;
     private PostDAO postDAO;
     private PasswordHasher passwordHasher;
+    private UserPrefixIndex userIndex;
+    private SearchEngine searchEngine;
 
     // Default constructor (your existing one)
     public UserService() {
@@ -24,6 +33,8 @@ public class UserService {
         this.followDAO = new FollowDAO();
         this.postDAO = new PostDAO();
         this.passwordHasher = new PasswordHasher();
+        this.userIndex = UserPrefixIndex.getInstance();
+        this.searchEngine = SearchEngines.getDefault();
     }
 
     // NEW: Constructor for testing (optional)
@@ -56,7 +67,12 @@ public class UserService {
     // Update user profile
     public boolean updateUser(User user) {
         try {
-            return userDAO.updateUser(user);
+            boolean updated = userDAO.updateUser(user);
+            if (updated) {
+                userIndex.addOrUpdate(user);
+                UsernameDirectory.getInstance().put(user.getUserId(), user.getUsername());
+            }
+            return updated;
         } catch (SQLException e) {
             System.out.println("Error updating user: " + e.getMessage());
             return false;
@@ -80,7 +96,12 @@ public class UserService {
             }
 
             // Soft delete the user
-            return userDAO.deleteUser(userId);
+            boolean deleted = userDAO.deleteUser(userId);
+            if (deleted) {
+                userIndex.remove(userId);
+                UsernameDirectory.getInstance().remove(userId);
+            }
+            return deleted;
 
         } catch (SQLException e) {
             System.out.println("Error deleting account: " + e.getMessage());
@@ -88,10 +109,16 @@ public class UserService {
         }
     }
 
-    // Search users
-    public List<User> searchUsers(String query) {
+    // Search users (first page)
+    public List<UserCard> searchUsers(String query) {
+        return searchUsers(query, 0, SEARCH_PAGE_SIZE);
+    }
+
+    // Search users by name prefix, most followed first
+    public List<UserCard> searchUsers(String query, int offset, int limit) {
         try {
-            List<User> users = userDAO.searchUsers(query);
+            int pageSize = Math.min(limit, UserPrefixIndex.MAX_PAGE_SIZE);
+            List<UserCard> users = userDAO.getUserCardsByIds(searchEngine.searchUsers(query, offset, pageSize));
 
             if (users.isEmpty()) {
                 System.out.println("No users found matching: " + query);
@@ -100,15 +127,13 @@ public class UserService {
                 System.out.println("──────────────────────────────────────");
 
                 for (int i = 0; i < users.size(); i++) {
-                    User user = users.get(i);
-                    System.out.println((i + 1) + ". " + user.getFirstName() + " " +
-                            user.getLastName() + " (@" + user.getUsername() + ")");
+                    UserCard user = users.get(i);
+                    System.out.println((i + 1) + ". " + user.getDisplayName() + " (@" + user.getUsername() + ")");
                     System.out.println("   Type: " + user.getUserType());
                     System.out.println("   Followers: " + user.getFollowersCount());
 
-                    if (user.getBio() != null && !user.getBio().isEmpty()) {
-                        String shortBio = user.getBio().length() > 50 ?
-                                user.getBio().substring(0, 50) + "..." : user.getBio();
+                    if (user.getShortBio() != null) {
+                        String shortBio = user.getShortBio();
                         System.out.println("   Bio: " + shortBio);
                     }
                     System.out.println("──────────────────────────────────────");
@@ -145,6 +170,7 @@ public class UserService {
                 // Update follower/following counts
                 userDAO.updateFollowerCount(followedId, 1);
                 userDAO.updateFollowingCount(followerId, 1);
+                userIndex.updateFollowerCount(followedId, 1);
                 System.out.println("You are now following this user.");
             }
 
@@ -172,6 +198,7 @@ public class UserService {
                 // Update follower/following counts
                 userDAO.updateFollowerCount(followedId, -1);
                 userDAO.updateFollowingCount(followerId, -1);
+                userIndex.updateFollowerCount(followedId, -1);
                 System.out.println("You have unfollowed this user.");
             }
 
@@ -264,7 +291,7 @@ public class UserService {
     // Display user posts
     public void displayUserPosts(int userId, int limit, int offset) {
         try {
-            List<Post> posts = postDAO.getPostsByUser(userId, limit, offset);
+            List<PostCard> posts = postDAO.getPostCardsByUser(userId, limit, offset);
             User user = userDAO.getUserById(userId);
 
             if (posts.isEmpty()) {
@@ -275,13 +302,13 @@ public class UserService {
                 System.out.println("══════════════════════════════════════");
 
                 for (int i = 0; i < posts.size(); i++) {
-                    Post post = posts.get(i);
+                    PostCard post = posts.get(i);
 
                     System.out.println("\n──────────────────────────────────────");
-                    System.out.println("POST #" + (i + 1));
+                    System.out.println("POST #" + (i + 1) + " (ID " + post.getPostId() + ")");
                     System.out.println("──────────────────────────────────────");
 
-                    System.out.println(post.getContent());
+                    System.out.println(post.getDisplayContent());
 
                     if (post.getMediaUrl() != null) {
                         System.out.println("[Media: " + post.getMediaUrl() + "]");
@@ -372,7 +399,7 @@ public class UserService {
     }
 
     // Get suggested users to follow
-    public List<Integer> getSuggestedUsersToFollow(int userId, int limit) {
+    public IntList getSuggestedUsersToFollow(int userId, int limit) {
         try {
             return followDAO.getSuggestedUsersToFollow(userId, limit);
         } catch (SQLException e) {
@@ -0,0 +1,70 @@
+package com.revconnect.services;
+
+import com.revconnect.dao.UserDAO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Username -> user id, for resolving @mentions without a query per name.
+// Filled as names are looked up; names not yet known are fetched together in one query.
+public class UsernameDirectory {
+    private static final UsernameDirectory INSTANCE = new UsernameDirectory();
+
+    private final UserDAO userDAO;
+    private final Map<String, Integer> idsByUsername = new ConcurrentHashMap<>();
+    private final Map<Integer, String> usernamesById = new ConcurrentHashMap<>();
+
+    public UsernameDirectory() {
+        this.userDAO = new UserDAO();
+    }
+
+    public static UsernameDirectory getInstance() {
+        return INSTANCE;
+    }
+
+    // Map each known, active username (lowercased) to its user id; unknown names are left out
+    public Map<String, Integer> resolve(Collection<String> usernames) throws SQLException {
+        Map<String, Integer> resolved = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String username : usernames) {
+            String key = username.toLowerCase();
+            Integer userId = idsByUsername.get(key);
+            if (userId != null) {
+                resolved.put(key, userId);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, Integer> found = userDAO.getUserIdsByUsernames(missing);
+            for (Map.Entry<String, Integer> entry : found.entrySet()) {
+                put(entry.getValue(), entry.getKey());
+            }
+            resolved.putAll(found);
+        }
+        return resolved;
+    }
+
+    // Record a new user or a changed username
+    public synchronized void put(int userId, String username) {
+        String previous = usernamesById.put(userId, username.toLowerCase());
+        if (previous != null) {
+            idsByUsername.remove(previous);
+        }
+        idsByUsername.put(username.toLowerCase(), userId);
+    }
+
+    // Forget a deactivated user
+    public synchronized void remove(int userId) {
+        String username = usernamesById.remove(userId);
+        if (username != null) {
+            idsByUsername.remove(username);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.revconnect.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Shared scheduler for maintenance jobs; threads are daemons so they never block exit
+public class BackgroundTasks {
+    private static final Logger logger = LogManager.getLogger(BackgroundTasks.class);
+    private static final int POOL_SIZE = 2;
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "revconnect-background-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Single-thread schedulers of long jobs that must not hold up the shared pool
+    private static final List<ScheduledExecutorService> dedicated = new CopyOnWriteArrayList<>();
+
+    // Run a task repeatedly; failures are logged and do not cancel later runs
+    public static ScheduledFuture<?> scheduleAtFixedRate(String name, Runnable task,
+                                                         long initialDelay, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(wrap(name, task), initialDelay, period, unit);
+    }
+
+    // Run a long task repeatedly on its own thread, so it never delays the shared jobs
+    public static ScheduledFuture<?> scheduleOnOwnThread(String name, Runnable task,
+                                                         long initialDelay, long period, TimeUnit unit) {
+        ScheduledExecutorService own = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revconnect-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        dedicated.add(own);
+        return own.scheduleAtFixedRate(wrap(name, task), initialDelay, period, unit);
+    }
+
+    // Run a task once in the background
+    public static void submit(String name, Runnable task) {
+        scheduler.execute(wrap(name, task));
+    }
+
+    public static void shutdown() {
+        scheduler.shutdownNow();
+        for (ScheduledExecutorService own : dedicated) {
+            own.shutdownNow();
+        }
+    }
+
+    private static Runnable wrap(String name, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("Background task '" + name + "' failed: " + e.getMessage(), e);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.revconnect.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Pulls structured references out of post text
+public class ContentParser {
+    public static final int MAX_HASHTAG_LENGTH = 50;
+    public static final int MAX_MENTIONS = 20;
+    private static final int MAX_USERNAME_LENGTH = 50;
+
+    // '#' not preceded by a word character (so "C#" and URL fragments like "page#top" are skipped)
+    private static final Pattern HASHTAG_PATTERN =
+            Pattern.compile("(?<![\\p{L}\\p{N}_#&])#([\\p{L}\\p{N}_]{1," + MAX_HASHTAG_LENGTH + "})(?![\\p{L}\\p{N}_])");
+
+    // '@' not preceded by a word character, so e-mail addresses are not mentions
+    private static final Pattern MENTION_PATTERN =
+            Pattern.compile("(?<![\\p{L}\\p{N}_.@])@([\\p{L}\\p{N}_.]{1," + MAX_USERNAME_LENGTH + "})");
+
+    // Distinct @usernames in order of first appearance, lowercased and without '@'; capped so
+    // a post cannot notify an unbounded number of users
+    public static List<String> extractMentions(String content) {
+        Set<String> mentions = new LinkedHashSet<>();
+        if (content == null || content.indexOf('@') < 0) {
+            return new ArrayList<>(mentions);
+        }
+
+        Matcher matcher = MENTION_PATTERN.matcher(content);
+        while (matcher.find() && mentions.size() < MAX_MENTIONS) {
+            // A trailing '.' ends the sentence, not the username
+            String username = matcher.group(1).replaceAll("\\.+$", "");
+            if (!username.isEmpty()) {
+                mentions.add(username.toLowerCase());
+            }
+        }
+        return new ArrayList<>(mentions);
+    }
+
+    // Distinct hashtags in order of first appearance, lowercased and without '#'
+    public static List<String> extractHashtags(String content) {
+        Set<String> hashtags = new LinkedHashSet<>();
+        if (content == null || content.indexOf('#') < 0) {
+            return new ArrayList<>(hashtags);
+        }
+
+        Matcher matcher = HASHTAG_PATTERN.matcher(content);
+        while (matcher.find()) {
+            String tag = matcher.group(1);
+            // "#1" is a rank, not a tag
+            if (containsLetter(tag)) {
+                hashtags.add(tag.toLowerCase());
+            }
+        }
+        return new ArrayList<>(hashtags);
+    }
+
+    // Hashtag as typed by a user ("#Java", "java ") in stored form, or null if it is not valid
+    public static String normalizeHashtag(String input) {
+        if (input == null) {
+            return null;
+        }
+        String tag = input.trim();
+        if (tag.startsWith("#")) {
+            tag = tag.substring(1);
+        }
+        List<String> parsed = extractHashtags("#" + tag);
+        return parsed.size() == 1 && parsed.get(0).length() == tag.length() ? parsed.get(0) : null;
+    }
+
+    private static boolean containsLetter(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isLetter(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+package com.revconnect.utils;
+
+import java.util.Arrays;
+
+// Approximate counts for string keys in fixed memory. Estimates never undercount and
+// overcount by at most about total/width with high probability.
+// Sketches with the same dimensions can be added and subtracted cell by cell.
+public class CountMinSketch {
+    private final int depth;
+    private final int mask;
+    private final int[][] cells;
+    private long total;
+
+    // Width is rounded up to a power of two
+    public CountMinSketch(int depth, int width) {
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.cells = new int[depth][size];
+    }
+
+    public void add(String key, int count) {
+        int hash = key.hashCode();
+        for (int row = 0; row < depth; row++) {
+            cells[row][index(hash, row)] += count;
+        }
+        total += count;
+    }
+
+    public int estimate(String key) {
+        int hash = key.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    // Add every cell of another sketch with the same dimensions
+    public void merge(CountMinSketch other) {
+        combine(other, 1);
+    }
+
+    // Remove a sketch that was previously merged in
+    public void subtract(CountMinSketch other) {
+        combine(other, -1);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void clear() {
+        for (int[] row : cells) {
+            Arrays.fill(row, 0);
+        }
+        total = 0;
+    }
+
+    private void combine(CountMinSketch other, int sign) {
+        if (other.depth != depth || other.mask != mask) {
+            throw new IllegalArgumentException("Sketch dimensions differ");
+        }
+        for (int row = 0; row < depth; row++) {
+            int[] target = cells[row];
+            int[] source = other.cells[row];
+            for (int i = 0; i < target.length; i++) {
+                target[i] += sign * source[i];
+            }
+        }
+        total += sign * other.total;
+    }
+
+    // Independent-enough hash per row: remix the key hash with a row-specific odd constant
+    private int index(int hash, int row) {
+        int h = hash * (0x9E3779B1 + 2 * row) + row;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h & mask;
+    }
+}
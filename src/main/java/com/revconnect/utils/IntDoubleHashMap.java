@@ -0,0 +1,184 @@
+package com.revconnect.utils;
+
+import java.util.Arrays;
+
+// Open-addressing int -> double map with linear probing; no boxing, one slot per entry
+public class IntDoubleHashMap {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private double[] values;
+    private boolean[] occupied;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public interface EntryVisitor {
+        void visit(int key, double value);
+    }
+
+    public interface EntryPredicate {
+        boolean test(int key, double value);
+    }
+
+    public IntDoubleHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    public double get(int key, double defaultValue) {
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public void put(int key, double value) {
+        int slot = slotFor(key);
+        if (!occupied[slot]) {
+            insertAt(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    // Add delta to the value (missing keys start at 0) and return the new value
+    public double addTo(int key, double delta) {
+        int slot = slotFor(key);
+        if (!occupied[slot]) {
+            insertAt(slot, key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+
+        // Backward-shift deletion: pull later entries of the probe run into the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (occupied[next]) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry unless its home lies cyclically in (gap, next]
+            boolean stays = gap <= next ? (gap < home && home <= next) : (gap < home || home <= next);
+            if (!stays) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        occupied[gap] = false;
+        size--;
+        return true;
+    }
+
+    // Multiply every value by factor
+    public void scaleValues(double factor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i]) {
+                values[i] *= factor;
+            }
+        }
+    }
+
+    // Remove every entry the predicate accepts; returns how many were removed
+    public int removeIf(EntryPredicate predicate) {
+        int[] doomed = new int[Math.min(size, 16)];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i] && predicate.test(keys[i], values[i])) {
+                if (count == doomed.length) {
+                    doomed = Arrays.copyOf(doomed, count * 2);
+                }
+                doomed[count++] = keys[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            remove(doomed[i]);
+        }
+        return count;
+    }
+
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i]) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(occupied, false);
+        size = 0;
+    }
+
+    private int find(int key) {
+        int slot = slotFor(key);
+        return occupied[slot] ? slot : -1;
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int slotFor(int key) {
+        int slot = hash(key) & mask;
+        while (occupied[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(int slot, int key, double value) {
+        keys[slot] = key;
+        values[slot] = value;
+        occupied[slot] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldOccupied = occupied;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                occupied[slot] = true;
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new double[capacity];
+        occupied = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Sequential ids would otherwise fill one contiguous run
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
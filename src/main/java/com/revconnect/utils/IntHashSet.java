@@ -0,0 +1,131 @@
+package com.revconnect.utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Open-addressing set of ints with linear probing; no boxing, one slot per entry
+public class IntHashSet {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private boolean[] occupied;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public IntHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public static IntHashSet of(IntList values) {
+        IntHashSet set = new IntHashSet(values.size());
+        values.forEach(set::add);
+        return set;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int key) {
+        return occupied[slotFor(key)];
+    }
+
+    // Add the key; false if it was already present
+    public boolean add(int key) {
+        int slot = slotFor(key);
+        if (occupied[slot]) {
+            return false;
+        }
+        keys[slot] = key;
+        occupied[slot] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    // Remove the key; false if it was absent
+    public boolean remove(int key) {
+        int slot = slotFor(key);
+        if (!occupied[slot]) {
+            return false;
+        }
+
+        // Shift later keys of the probe run back into the hole, so no lookup stops short of them
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (occupied[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        occupied[hole] = false;
+        size--;
+        return true;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i]) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    // Keys in ascending order
+    public IntList toSortedList() {
+        IntList list = new IntList(size);
+        forEach(list::add);
+        list.sort();
+        return list;
+    }
+
+    public void clear() {
+        Arrays.fill(occupied, false);
+        size = 0;
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int slotFor(int key) {
+        int slot = hash(key) & mask;
+        while (occupied[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        boolean[] oldOccupied = occupied;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                occupied[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        occupied = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Sequential IDs would otherwise fill one run of slots
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,141 @@
+package com.revconnect.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Growable list of ints on one array, for ID lists without a boxed Integer per entry.
+// Lists read in ID order can be intersected and searched as sorted arrays.
+public class IntList {
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(4, capacity)];
+    }
+
+    public static IntList of(int... values) {
+        IntList list = new IntList(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        return values[index];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    public boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    // Binary search; the list must be sorted ascending
+    public boolean containsSorted(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    // Values in both lists, ascending; both must be sorted ascending and free of duplicates
+    public static IntList intersectSorted(IntList a, IntList b) {
+        IntList both = new IntList(Math.min(a.size, b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.values[i] < b.values[j]) {
+                i++;
+            } else if (a.values[i] > b.values[j]) {
+                j++;
+            } else {
+                both.add(a.values[i]);
+                i++;
+                j++;
+            }
+        }
+        return both;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    // Boxed copy, for the boundary with APIs that take collections
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(values[i]);
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IntList)) {
+            return false;
+        }
+        IntList list = (IntList) other;
+        if (size != list.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (values[i] != list.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + values[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,146 @@
+package com.revconnect.utils;
+
+import java.util.Arrays;
+
+// Open-addressing long -> int map with linear probing, for large counting jobs without boxing
+public class LongIntHashMap {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] occupied;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public interface EntryVisitor {
+        void visit(long key, int value);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return occupied[slotFor(key)];
+    }
+
+    public int get(long key, int defaultValue) {
+        int slot = slotFor(key);
+        return occupied[slot] ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, int value) {
+        int slot = slotFor(key);
+        if (!occupied[slot]) {
+            insertAt(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    // Add delta to the value (missing keys start at 0) and return the new value
+    public int addTo(long key, int delta) {
+        int slot = slotFor(key);
+        if (!occupied[slot]) {
+            insertAt(slot, key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    // Remove the key and return its value, or defaultValue if it was absent
+    public int remove(long key, int defaultValue) {
+        int slot = slotFor(key);
+        if (!occupied[slot]) {
+            return defaultValue;
+        }
+        int value = values[slot];
+
+        // Shift later keys of the probe run back into the hole, so no lookup stops short of them
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (occupied[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        occupied[hole] = false;
+        size--;
+        return value;
+    }
+
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i]) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(occupied, false);
+        size = 0;
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int slotFor(long key) {
+        int slot = hash(key) & mask;
+        while (occupied[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        occupied[slot] = true;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldOccupied = occupied;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                occupied[slot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        occupied = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Pairs of sequential ids packed into a long would otherwise cluster badly
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,168 @@
+package com.revconnect.utils;
+
+import com.revconnect.models.NotificationTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class NotificationFormatter {
+    // Size of the notifications.params column
+    public static final int MAX_PARAMS_LENGTH = 255;
+    // Separates parameters inside the params column (ASCII unit separator)
+    private static final char PARAM_SEPARATOR = '\u001F';
+    private static final String[] NO_PARAMS = new String[0];
+
+    private static final Map<NotificationTemplate, NotificationFormatter> CACHE =
+            new EnumMap<>(NotificationTemplate.class);
+
+    static {
+        for (NotificationTemplate template : NotificationTemplate.values()) {
+            CACHE.put(template, new NotificationFormatter(template.getPattern()));
+        }
+    }
+
+    // Literal text between placeholders; literals.length == paramIndexes.length + 1
+    private final String[] literals;
+    private final int[] paramIndexes;
+    private final int parameterCount;
+
+    private NotificationFormatter(String pattern) {
+        List<String> literalParts = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int maxIndex = -1;
+        int start = 0;
+
+        int open = pattern.indexOf('{');
+        while (open >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            int index = Integer.parseInt(pattern.substring(open + 1, close));
+            literalParts.add(pattern.substring(start, open));
+            indexes.add(index);
+            maxIndex = Math.max(maxIndex, index);
+            start = close + 1;
+            open = pattern.indexOf('{', start);
+        }
+        literalParts.add(pattern.substring(start));
+
+        this.literals = literalParts.toArray(new String[0]);
+        this.paramIndexes = new int[indexes.size()];
+        for (int i = 0; i < paramIndexes.length; i++) {
+            paramIndexes[i] = indexes.get(i);
+        }
+        this.parameterCount = maxIndex + 1;
+    }
+
+    // Get the compiled formatter for a template
+    public static NotificationFormatter forTemplate(NotificationTemplate template) {
+        return CACHE.get(template);
+    }
+
+    // Render the template with the given parameters (missing parameters render as empty)
+    public String format(String[] params) {
+        if (paramIndexes.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder sb = new StringBuilder(literals[0]);
+        for (int i = 0; i < paramIndexes.length; i++) {
+            int index = paramIndexes[i];
+            if (params != null && index < params.length && params[index] != null) {
+                sb.append(params[index]);
+            }
+            sb.append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    // Literal text before the first placeholder (the whole text if there are none)
+    public String getLiteralPrefix() {
+        return literals[0];
+    }
+
+    // True if the pattern is a literal prefix followed by a single trailing {0}
+    public boolean isPrefixPattern() {
+        return paramIndexes.length == 1 && paramIndexes[0] == 0 && literals[1].isEmpty();
+    }
+
+    // Encode parameters for the params column; if they do not fit, the longest ones are
+    // shortened (ending in "...") to a common length so that the whole value does
+    public static String encodeParams(String[] params) {
+        if (params == null || params.length == 0) {
+            return null;
+        }
+
+        String[] values = new String[params.length];
+        int longest = 0;
+        for (int i = 0; i < params.length; i++) {
+            values[i] = params[i] == null ? "" : params[i].replace(PARAM_SEPARATOR, ' ');
+            longest = Math.max(longest, values[i].length());
+        }
+
+        // Largest per-parameter length that keeps the total within the column
+        int budget = Math.max(0, MAX_PARAMS_LENGTH - (values.length - 1));
+        int low = 0;
+        int high = longest;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (cappedLength(values, mid) <= budget) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(PARAM_SEPARATOR);
+            }
+            sb.append(values[i].length() > low ? shorten(values[i], low) : values[i]);
+        }
+        return sb.toString();
+    }
+
+    private static int cappedLength(String[] values, int cap) {
+        int total = 0;
+        for (String value : values) {
+            total += Math.min(value.length(), cap);
+        }
+        return total;
+    }
+
+    // Cut to at most maxLength chars, never between the halves of a surrogate pair
+    private static String shorten(String value, int maxLength) {
+        String suffix = maxLength >= 3 ? "..." : "";
+        int end = maxLength - suffix.length();
+        if (end > 0 && Character.isHighSurrogate(value.charAt(end - 1))) {
+            end--;
+        }
+        return value.substring(0, end) + suffix;
+    }
+
+    // Decode the params column back into parameters
+    public static String[] decodeParams(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return NO_PARAMS;
+        }
+
+        List<String> params = new ArrayList<>();
+        int start = 0;
+        int separator = encoded.indexOf(PARAM_SEPARATOR);
+        while (separator >= 0) {
+            params.add(encoded.substring(start, separator));
+            start = separator + 1;
+            separator = encoded.indexOf(PARAM_SEPARATOR, start);
+        }
+        params.add(encoded.substring(start));
+        return params.toArray(new String[0]);
+    }
+}
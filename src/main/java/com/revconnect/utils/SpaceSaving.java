@@ -0,0 +1,51 @@
+package com.revconnect.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Space-Saving heavy hitters: tracks at most capacity keys and guarantees that any key
+// seen more than total/capacity times is among them. A new key replaces the smallest
+// counter and inherits its count, so counts are upper bounds.
+public class SpaceSaving {
+    private final int capacity;
+    private final Map<String, long[]> counters = new HashMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(String key, int count) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{count});
+            return;
+        }
+
+        // Linear scan for the minimum; capacity is small, so this beats maintaining a heap
+        String minKey = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < min) {
+                min = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[]{min + count});
+    }
+
+    // Keys currently tracked, in no particular order
+    public List<String> getKeys() {
+        return new ArrayList<>(counters.keySet());
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+}
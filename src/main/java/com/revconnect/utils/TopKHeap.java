@@ -0,0 +1,104 @@
+package com.revconnect.utils;
+
+// Keeps the k highest-scoring ids seen so far using a bounded min-heap over primitive arrays
+public class TopKHeap {
+    private final int capacity;
+    private final int[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopKHeap(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.ids = new int[this.capacity];
+        this.scores = new double[this.capacity];
+    }
+
+    // Offer a candidate; returns true if it is currently in the top k
+    public boolean offer(int id, double score) {
+        if (capacity == 0) {
+            return false;
+        }
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (score <= scores[0]) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    // Lowest score that would still be kept, or -Infinity while the heap is not full
+    public double threshold() {
+        return size < capacity ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Ids ordered by descending score; leaves the heap empty
+    public int[] drainDescending() {
+        int[] result = new int[size];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        int id = ids[index];
+        double score = scores[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            ids[index] = ids[parent];
+            scores[index] = scores[parent];
+            index = parent;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+
+    private void siftDown(int index) {
+        int id = ids[index];
+        double score = scores[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && scores[right] < scores[child]) {
+                child = right;
+            }
+            if (score <= scores[child]) {
+                break;
+            }
+            ids[index] = ids[child];
+            scores[index] = scores[child];
+            index = child;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+}
@@ -0,0 +1,76 @@
+package com.revconnect.feed;
+
+import com.revconnect.feed.PersonalizedFeedEngine.Source;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedRankerTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final long nowMillis = System.currentTimeMillis();
+
+    @Test
+    void testAffinityOutranksRecencyWhenWeightedHigher() {
+        FeedRanker ranker = new FeedRanker()
+                .add(FeedScorers.recency(24), 1.0)
+                .add(FeedScorers.affinity(), 3.0);
+        Map<Integer, Integer> interactions = new HashMap<>();
+        interactions.put(20, 4);
+        interactions.put(30, 2);
+        FeedContext context = new FeedContext(1, nowMillis, interactions);
+
+        List<FeedCandidate> candidates = Arrays.asList(
+                candidate(1, 10, 0, Post.PostType.TEXT),
+                candidate(2, 20, 24, Post.PostType.TEXT),
+                candidate(3, 30, 2, Post.PostType.TEXT));
+
+        // Post 2: 0.5 + 3.0; post 3: ~0.94 + 1.5; post 1: 1.0 + 0
+        assertEquals(Arrays.asList(2, 3, 1), ids(ranker.rank(candidates, context, 10, 0)));
+        assertEquals(Collections.singletonList(3), ids(ranker.rank(candidates, context, 1, 1)));
+    }
+
+    @Test
+    void testVelocityFavoursFastEngagementOverTotal() {
+        FeedRanker ranker = new FeedRanker().add(FeedScorers.velocity(2.0), 1.0);
+        FeedContext context = new FeedContext(1, nowMillis, Collections.<Integer, Integer>emptyMap());
+
+        FeedCandidate slow = candidate(1, 10, 48, Post.PostType.TEXT);
+        slow.getPost().setLikeCount(40);
+        FeedCandidate fast = candidate(2, 10, 2, Post.PostType.TEXT);
+        fast.getPost().setLikeCount(10);
+
+        assertEquals(Arrays.asList(2, 1), ids(ranker.rank(Arrays.asList(slow, fast), context, 2, 0)));
+        // 10 likes in 2 hours is 5 an hour, scored 5 / (5 + 2)
+        assertEquals(5.0 / 7.0, ranker.score(fast, context), 1e-3);
+        assertEquals(Arrays.asList("velocity"), ranker.getScorerNames());
+    }
+
+    private FeedCandidate candidate(int postId, int authorId, int hoursAgo, Post.PostType postType) {
+        PostCard post = new PostCard();
+        post.setPostId(postId);
+        post.setUserId(authorId);
+        post.setPostType(postType);
+        post.setVisibility(Post.Visibility.PUBLIC);
+        post.setCreatedAt(now.minusHours(hoursAgo));
+        return new FeedCandidate(post, Source.FOLLOWS);
+    }
+
+    private List<Integer> ids(List<PostCard> posts) {
+        List<Integer> ids = new ArrayList<>();
+        for (PostCard post : posts) {
+            ids.add(post.getPostId());
+        }
+        return ids;
+    }
+}
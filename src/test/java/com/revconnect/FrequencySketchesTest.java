@@ -0,0 +1,83 @@
+package com.revconnect.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrequencySketchesTest {
+
+    @Test
+    void testCountMinNeverUndercountsAndStaysNearTrueCounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        int keys = 2000;
+        for (int i = 0; i < keys; i++) {
+            sketch.add("tag" + i, 1 + i % 10);
+        }
+        sketch.add("java", 500);
+
+        long bound = 2 * sketch.getTotal() / 1024;
+        long totalError = 0;
+        for (int i = 0; i < keys; i++) {
+            int error = sketch.estimate("tag" + i) - (1 + i % 10);
+            assertTrue(error >= 0);
+            totalError += error;
+        }
+        assertTrue(totalError / keys <= bound);
+        assertTrue(sketch.estimate("java") >= 500 && sketch.estimate("java") <= 500 + bound);
+        assertEquals(11000 + 500, sketch.getTotal());
+    }
+
+    @Test
+    void testCountMinMergeAndSubtractAreInverse() {
+        CountMinSketch window = new CountMinSketch(4, 256);
+        CountMinSketch bucket = new CountMinSketch(4, 256);
+        window.add("java", 3);
+        bucket.add("java", 4);
+        bucket.add("kotlin", 2);
+
+        window.merge(bucket);
+        assertTrue(window.estimate("java") >= 7);
+        assertTrue(window.estimate("kotlin") >= 2);
+
+        window.subtract(bucket);
+        assertEquals(3, window.estimate("java"));
+        assertEquals(0, window.estimate("kotlin"));
+        assertEquals(3, window.getTotal());
+        assertThrows(IllegalArgumentException.class, () -> window.merge(new CountMinSketch(4, 512)));
+    }
+
+    @Test
+    void testSpaceSavingEvictsTheSmallestCounter() {
+        SpaceSaving hitters = new SpaceSaving(2);
+        hitters.offer("java", 5);
+        hitters.offer("kotlin", 1);
+        hitters.offer("scala", 1);
+
+        assertEquals(new HashSet<>(Arrays.asList("java", "scala")), new HashSet<>(hitters.getKeys()));
+
+        // scala inherited kotlin's count (2) and is still the smallest, so it goes next
+        hitters.offer("go", 1);
+        assertEquals(new HashSet<>(Arrays.asList("java", "go")), new HashSet<>(hitters.getKeys()));
+    }
+
+    @Test
+    void testSpaceSavingKeepsHeavyHitterThroughChurn() {
+        SpaceSaving hitters = new SpaceSaving(4);
+        for (int i = 0; i < 200; i++) {
+            hitters.offer("noise" + i, 1);
+            if (i % 2 == 0) {
+                hitters.offer("java", 1);
+            }
+        }
+
+        // 100 of 300 uses is above total / capacity, so java must be tracked
+        assertTrue(hitters.getKeys().contains("java"));
+        assertTrue(hitters.getKeys().size() <= 4);
+
+        hitters.clear();
+        assertTrue(hitters.getKeys().isEmpty());
+    }
+}
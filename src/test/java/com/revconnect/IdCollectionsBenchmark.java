@@ -0,0 +1,130 @@
+package com.revconnect.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Compares boxed ID collections with IntList / IntHashSet on the shapes of the follower, suggestion
+// and mutuals paths: reading a follower list, dropping already-followed users from candidates, and
+// intersecting two users' connection lists. No database; the IDs are synthetic, above the Integer cache.
+// Run: mvn test-compile exec:java -Dexec.mainClass=com.revconnect.utils.IdCollectionsBenchmark
+//          -Dexec.classpathScope=test -Dexec.args="5000"
+public class IdCollectionsBenchmark {
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private interface Workload {
+        int run();
+    }
+
+    public static void main(String[] args) {
+        int ids = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        Random random = new Random(42);
+        int[] followers = sortedIds(random, ids);
+        int[] following = sortedIds(random, ids);
+        int[] candidates = sortedIds(random, ids);
+        int[] otherFollowers = sortedIds(random, ids);
+
+        run("followers boxed", () -> {
+            List<Integer> list = new ArrayList<>();
+            for (int id : followers) {
+                list.add(id);
+            }
+            return list.size();
+        });
+        run("followers int", () -> {
+            IntList list = new IntList();
+            for (int id : followers) {
+                list.add(id);
+            }
+            return list.size();
+        });
+
+        run("suggest boxed", () -> {
+            Set<Integer> followed = new HashSet<>();
+            for (int id : following) {
+                followed.add(id);
+            }
+            List<Integer> suggestions = new ArrayList<>();
+            for (int id : candidates) {
+                if (!followed.contains(id)) {
+                    suggestions.add(id);
+                }
+            }
+            return suggestions.size();
+        });
+        run("suggest int", () -> {
+            IntHashSet followed = new IntHashSet(following.length);
+            for (int id : following) {
+                followed.add(id);
+            }
+            IntList suggestions = new IntList();
+            for (int id : candidates) {
+                if (!followed.contains(id)) {
+                    suggestions.add(id);
+                }
+            }
+            return suggestions.size();
+        });
+
+        run("mutuals boxed", () -> {
+            List<Integer> first = new ArrayList<>();
+            for (int id : followers) {
+                first.add(id);
+            }
+            Set<Integer> second = new HashSet<>();
+            for (int id : otherFollowers) {
+                second.add(id);
+            }
+            first.retainAll(second);
+            return first.size();
+        });
+        run("mutuals int", () -> {
+            IntList first = new IntList();
+            for (int id : followers) {
+                first.add(id);
+            }
+            IntList second = new IntList();
+            for (int id : otherFollowers) {
+                second.add(id);
+            }
+            return IntList.intersectSorted(first, second).size();
+        });
+    }
+
+    private static void run(String name, Workload workload) {
+        long threadId = Thread.currentThread().getId();
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long allocated = 0;
+        int result = 0;
+        for (int i = 0; i < WARMUP_ROUNDS + MEASURED_ROUNDS; i++) {
+            long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            result += workload.run();
+            long elapsed = System.nanoTime() - start;
+            if (i >= WARMUP_ROUNDS) {
+                nanos[i - WARMUP_ROUNDS] = elapsed;
+                allocated += THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-16s median=%8d ns  max=%9d ns  allocated=%9d B/op  (%d)%n", name,
+                nanos[MEASURED_ROUNDS / 2], nanos[MEASURED_ROUNDS - 1], allocated / MEASURED_ROUNDS, result);
+    }
+
+    // Distinct IDs drawn from a range wide enough that about a third of two lists overlap
+    private static int[] sortedIds(Random random, int count) {
+        IntHashSet ids = new IntHashSet(count);
+        while (ids.size() < count) {
+            ids.add(1000 + random.nextInt(count * 3));
+        }
+        return ids.toSortedList().toArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.revconnect.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntCollectionsTest {
+
+    @Test
+    void testIntersectSortedKeepsCommonIdsInOrder() {
+        IntList first = IntList.of(2, 5, 9, 14, 30);
+        IntList second = IntList.of(1, 5, 14, 15, 30, 31);
+
+        IntList both = IntList.intersectSorted(first, second);
+
+        assertEquals(IntList.of(5, 14, 30), both);
+        assertTrue(both.containsSorted(14));
+        assertFalse(both.containsSorted(9));
+        assertEquals(Arrays.asList(5, 14, 30), both.toList());
+    }
+
+    @Test
+    void testListGrowsPastInitialCapacity() {
+        IntList list = new IntList(4);
+        for (int i = 0; i < 100; i++) {
+            list.add(100 - i);
+        }
+        list.sort();
+
+        assertEquals(100, list.size());
+        assertEquals(1, list.get(0));
+        assertEquals(100, list.get(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(100));
+    }
+
+    @Test
+    void testHashSetRemoveKeepsCollidingKeysReachable() {
+        IntHashSet set = new IntHashSet(8);
+        for (int id = 1; id <= 1000; id++) {
+            assertTrue(set.add(id));
+        }
+        assertFalse(set.add(500));
+
+        for (int id = 1; id <= 1000; id += 2) {
+            assertTrue(set.remove(id));
+        }
+        assertFalse(set.remove(1));
+
+        assertEquals(500, set.size());
+        for (int id = 1; id <= 1000; id++) {
+            assertEquals(id % 2 == 0, set.contains(id));
+        }
+        assertEquals(2, set.toSortedList().get(0));
+    }
+}
@@ -0,0 +1,112 @@
+package com.revconnect.services;
+
+import com.revconnect.dao.ConnectionDAO;
+import com.revconnect.dao.MentionDAO;
+import com.revconnect.feed.PostCache;
+import com.revconnect.models.Comment;
+import com.revconnect.models.Post;
+import com.revconnect.utils.IntList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MentionServiceTest {
+
+    @Mock
+    private MentionDAO mentionDAO;
+
+    @Mock
+    private UsernameDirectory usernameDirectory;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PostCache postCache;
+
+    @Mock
+    private ConnectionDAO connectionDAO;
+
+    private MentionService mentionService;
+
+    @BeforeEach
+    void setUp() {
+        mentionService = new MentionService(mentionDAO, usernameDirectory, notificationService, postCache,
+                connectionDAO);
+    }
+
+    @Test
+    void testConnectionsPostNotifiesOnlyConnections() throws SQLException {
+        when(usernameDirectory.resolve(Arrays.asList("alice", "bob"))).thenReturn(ids("alice", 2, "bob", 3));
+        when(connectionDAO.getConnectedUserIds(1)).thenReturn(IntList.of(2, 5));
+
+        mentionService.processPostMentions(post(10, 1, Post.Visibility.CONNECTIONS, "Hi @alice and @bob"));
+
+        verify(mentionDAO).createMentions(1, 10, null, Collections.singletonList(2));
+        verify(notificationService).createMentionNotifications(eq(Collections.singletonList(2)), eq(1), eq(10),
+                eq("POST"), anyString());
+    }
+
+    @Test
+    void testPrivatePostNotifiesNoOne() throws SQLException {
+        mentionService.processPostMentions(post(10, 1, Post.Visibility.PRIVATE, "Note to self about @alice"));
+
+        verifyNoInteractions(usernameDirectory, mentionDAO, notificationService);
+    }
+
+    @Test
+    void testCommentOnConnectionsPostNotifiesOnlyThoseWhoCanSeeThePost() throws SQLException {
+        when(postCache.getPost(10)).thenReturn(post(10, 1, Post.Visibility.CONNECTIONS, "Connections only"));
+        when(usernameDirectory.resolve(Arrays.asList("carol", "owner"))).thenReturn(ids("carol", 4, "owner", 1));
+        when(connectionDAO.getConnectedUserIds(1)).thenReturn(IntList.of(2));
+
+        // Commenter 2 is a connection of the post author; carol is not
+        mentionService.processCommentMentions(comment(10, 2, "@carol @owner look"));
+
+        verify(mentionDAO).createMentions(2, 10, 7, Collections.singletonList(1));
+        verify(notificationService).createMentionNotifications(eq(Collections.singletonList(1)), eq(2), eq(10),
+                eq("POST"), anyString());
+    }
+
+    @Test
+    void testCommentOnPrivatePostNotifiesNoOne() throws SQLException {
+        when(postCache.getPost(10)).thenReturn(post(10, 1, Post.Visibility.PRIVATE, "Private"));
+        when(usernameDirectory.resolve(Collections.singletonList("carol"))).thenReturn(ids("carol", 4));
+
+        mentionService.processCommentMentions(comment(10, 2, "hey @carol"));
+
+        verifyNoInteractions(mentionDAO, notificationService, connectionDAO);
+    }
+
+    private static Map<String, Integer> ids(Object... namesAndIds) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndIds.length; i += 2) {
+            ids.put((String) namesAndIds[i], (Integer) namesAndIds[i + 1]);
+        }
+        return ids;
+    }
+
+    private static Post post(int postId, int userId, Post.Visibility visibility, String content) {
+        Post post = new Post(userId, content, Post.PostType.TEXT, visibility);
+        post.setPostId(postId);
+        return post;
+    }
+
+    private static Comment comment(int postId, int userId, String content) {
+        Comment comment = new Comment(postId, userId, content);
+        comment.setCommentId(7);
+        return comment;
+    }
+}
@@ -0,0 +1,174 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.FeedDAO;
+import com.revconnect.dao.RecommendationDAO;
+import com.revconnect.feed.PersonalizedFeedEngine.Source;
+import com.revconnect.models.FeedPage;
+import com.revconnect.models.Post;
+import com.revconnect.models.PostCard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PersonalizedFeedEngineTest {
+
+    @Mock
+    private FeedDAO feedDAO;
+
+    @Mock
+    private RecommendationDAO recommendationDAO;
+
+    private ExecutorService fetchPool;
+    private PersonalizedFeedEngine engine;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        fetchPool = Executors.newFixedThreadPool(4);
+        engine = new PersonalizedFeedEngine(feedDAO, recommendationDAO, fetchPool, 200,
+                PersonalizedFeedEngine.defaultRanker());
+        now = LocalDateTime.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fetchPool.shutdownNow();
+    }
+
+    @Test
+    void testPostsFoundByTwoSourcesAppearOnceUnderTheHigherPriority() {
+        List<FeedCandidate> candidates = PersonalizedFeedEngine.merge(Arrays.asList(
+                Arrays.asList(post(4, 1), post(2, 5)),
+                Arrays.asList(post(6, 0), post(4, 1)),
+                Collections.singletonList(post(5, 2)),
+                Arrays.asList(post(6, 0), post(1, 9))), 10, 0);
+
+        // Newest first, whatever the source
+        assertEquals(Arrays.asList(6, 4, 5, 2, 1), candidateIds(candidates));
+        assertEquals(Source.FOLLOWS, candidates.get(0).getSource());
+        assertEquals(Source.CONNECTIONS, candidates.get(1).getSource());
+    }
+
+    @Test
+    void testOffsetCountsDistinctPostsAndMergeStopsWhenPageIsFull() {
+        List<FeedCandidate> candidates = PersonalizedFeedEngine.merge(Arrays.asList(
+                Arrays.asList(post(9, 1), post(8, 2), post(7, 3)),
+                Arrays.asList(post(8, 2), post(3, 4)),
+                Collections.<PostCard>emptyList(),
+                Collections.singletonList(post(2, 5))), 2, 2);
+
+        // Distinct merged order is 9, 8, 7, 3, 2; the duplicate 8 does not shift the page
+        assertEquals(Arrays.asList(7, 3), candidateIds(candidates));
+    }
+
+    @Test
+    void testSlowAndFailingSourcesAreLeftOut() throws SQLException {
+        when(feedDAO.getConnectionPosts(7, 50, 1)).thenReturn(Collections.singletonList(post(4, 1)));
+        when(feedDAO.getFollowedPosts(7, 50, 1)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return Collections.singletonList(post(6, 0));
+        });
+        when(feedDAO.getOwnPosts(7, 50, 1)).thenReturn(Collections.singletonList(post(5, 2)));
+        when(feedDAO.getPopularPosts(50, 1)).thenThrow(new SQLException("popular posts unavailable"));
+        when(recommendationDAO.getInteractedAuthors(eq(7), anyInt(), anyInt(), eq(1))).thenReturn(Collections.emptyMap());
+
+        long start = System.currentTimeMillis();
+        FeedPage page = engine.getPage(7, 10, 0);
+
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(Arrays.asList(4, 5), postIds(page.getPosts()));
+        assertTrue(page.isDegraded());
+        assertEquals(Arrays.asList("FOLLOWS", "POPULAR"), page.getMissedSources());
+        assertEquals(Arrays.asList("FETCH", "MERGE", "RANK"), new ArrayList<>(page.getStageMicros().keySet()));
+    }
+
+    @Test
+    void testOffsetPagesAreCutFromOneRanking() throws SQLException {
+        when(feedDAO.getConnectionPosts(7, 50, 1)).thenReturn(Arrays.asList(post(9, 1), post(8, 30)));
+        when(feedDAO.getFollowedPosts(7, 50, 1)).thenReturn(Arrays.asList(post(7, 2), post(6, 50)));
+        when(feedDAO.getOwnPosts(7, 50, 1)).thenReturn(Collections.singletonList(post(5, 3)));
+        when(feedDAO.getPopularPosts(50, 1)).thenReturn(Collections.singletonList(post(4, 4)));
+        when(recommendationDAO.getInteractedAuthors(eq(7), anyInt(), anyInt(), eq(1))).thenReturn(Collections.emptyMap());
+
+        List<Integer> whole = postIds(engine.getPage(7, 6, 0).getPosts());
+        List<Integer> paged = new ArrayList<>();
+        for (int offset = 0; offset < 6; offset += 2) {
+            paged.addAll(postIds(engine.getPage(7, 2, offset).getPosts()));
+        }
+
+        assertEquals(6, whole.size());
+        assertEquals(whole, paged);
+        assertTrue(engine.getPage(7, 2, 6).isEmpty());
+    }
+
+    @Test
+    void testEverySourceIsRankedAndDeepOffsetsReadFurtherIntoTheSources() throws SQLException {
+        List<PostCard> connections = posts(1000, 120);
+        List<PostCard> follows = posts(2000, 50);
+        when(feedDAO.getConnectionPosts(eq(7), anyInt(), eq(1))).thenAnswer(invocation ->
+                connections.subList(0, Math.min(connections.size(), invocation.<Integer>getArgument(1))));
+        when(feedDAO.getFollowedPosts(eq(7), anyInt(), eq(1))).thenAnswer(invocation ->
+                follows.subList(0, Math.min(follows.size(), invocation.<Integer>getArgument(1))));
+        when(feedDAO.getOwnPosts(eq(7), anyInt(), eq(1))).thenReturn(Collections.singletonList(post(3000, 5)));
+        when(feedDAO.getPopularPosts(anyInt(), eq(1))).thenReturn(Collections.singletonList(post(4000, 5)));
+        when(recommendationDAO.getInteractedAuthors(eq(7), anyInt(), anyInt(), eq(1))).thenReturn(Collections.emptyMap());
+
+        // A page ending at 172 reads 200 per source; every post of every source is ranked
+        List<Integer> pool = postIds(engine.getPage(7, 172, 0).getPosts());
+        assertEquals(172, pool.size());
+        assertTrue(pool.contains(3000));
+        assertTrue(pool.contains(4000));
+        assertEquals(pool.subList(160, 172), postIds(engine.getPage(7, 20, 160).getPosts()));
+        verify(feedDAO, times(2)).getConnectionPosts(7, 200, 1);
+    }
+
+    private List<Integer> candidateIds(List<FeedCandidate> candidates) {
+        List<Integer> ids = new ArrayList<>();
+        for (FeedCandidate candidate : candidates) {
+            ids.add(candidate.getPost().getPostId());
+        }
+        return ids;
+    }
+
+    private List<Integer> postIds(List<PostCard> posts) {
+        List<Integer> ids = new ArrayList<>();
+        for (PostCard post : posts) {
+            ids.add(post.getPostId());
+        }
+        return ids;
+    }
+
+    private List<PostCard> posts(int firstId, int count) {
+        List<PostCard> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            posts.add(post(firstId + i, i));
+        }
+        return posts;
+    }
+
+    private PostCard post(int postId, int hoursAgo) {
+        PostCard post = new PostCard();
+        post.setPostId(postId);
+        post.setUserId(3);
+        post.setPostType(Post.PostType.TEXT);
+        post.setVisibility(Post.Visibility.PUBLIC);
+        post.setCreatedAt(now.minusHours(hoursAgo));
+        return post;
+    }
+}
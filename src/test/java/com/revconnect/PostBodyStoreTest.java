@@ -0,0 +1,61 @@
+package com.revconnect.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostBodyStoreTest {
+
+    private PostBodyStore store;
+
+    @BeforeEach
+    void setUp() {
+        // One slab, so every size class has to share it
+        store = new PostBodyStore(PostBodyStore.SLAB_BYTES);
+    }
+
+    @Test
+    void testPutAndGetRoundTripsUtf8() {
+        String body = "Launch day 🚀 — café #java";
+
+        assertTrue(store.put(1, body));
+
+        assertEquals(body, store.get(1));
+        assertNull(store.get(2));
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, store.getUsedBytes());
+    }
+
+    @Test
+    void testReplaceAndRemoveReleaseChunks() {
+        store.put(1, "first");
+        store.put(1, "second version");
+        assertEquals("second version", store.get(1));
+        assertEquals(1, store.getBodyCount());
+
+        store.remove(1);
+
+        assertNull(store.get(1));
+        assertEquals(0, store.getUsedBytes());
+        assertEquals(0, store.getBodyCount());
+    }
+
+    @Test
+    void testFullStoreEvictsInsteadOfGrowing() {
+        String body = new String(new char[40_000]).replace('\0', 'x');
+        for (int postId = 1; postId <= 100; postId++) {
+            assertTrue(store.put(postId, body));
+        }
+
+        assertEquals(PostBodyStore.SLAB_BYTES, store.getReservedBytes());
+        assertTrue(store.getEvictions() > 0);
+        assertEquals(body, store.get(100));
+
+        // A new size class takes the slab over from the large bodies
+        assertTrue(store.put(500, "short"));
+        assertEquals("short", store.get(500));
+        assertNull(store.get(100));
+    }
+}
@@ -0,0 +1,102 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.PostDAO;
+import com.revconnect.models.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostCacheTest {
+
+    @Mock
+    private PostDAO postDAO;
+
+    private PostCache postCache;
+
+    @BeforeEach
+    void setUp() {
+        postCache = new PostCache(postDAO, new PostBodyStore(PostBodyStore.SLAB_BYTES));
+    }
+
+    @Test
+    void testGetPostsByIdsFetchesOnlyMisses() throws SQLException {
+        when(postDAO.getPostsByIds(Collections.singletonList(1))).thenReturn(Collections.singletonList(post(1, 5)));
+        when(postDAO.getPostsByIds(Arrays.asList(3, 2))).thenReturn(Collections.singletonList(post(3, 0)));
+
+        postCache.getPost(1);
+        List<Post> posts = postCache.getPostsByIds(Arrays.asList(3, 1, 2));
+
+        assertEquals(2, posts.size());
+        assertEquals(3, posts.get(0).getPostId());
+        assertEquals(1, posts.get(1).getPostId());
+        verify(postDAO, times(2)).getPostsByIds(anyList());
+    }
+
+    @Test
+    void testCountDeltasAreMergedIntoCachedPosts() throws SQLException {
+        when(postDAO.getPostsByIds(Collections.singletonList(1))).thenReturn(Collections.singletonList(post(1, 5)));
+
+        postCache.getPost(1);
+        postCache.onCountersChanged(1, 1, 0, 0);
+        postCache.onCountersChanged(1, 0, 2, 0);
+
+        Post cached = postCache.getPost(1);
+        assertEquals(6, cached.getLikeCount());
+        assertEquals(2, cached.getCommentCount());
+        verify(postDAO, times(1)).getPostsByIds(anyList());
+    }
+
+    @Test
+    void testLoadOverlappingACounterWriteIsNotCachedWithTheDeltaTwice() throws SQLException {
+        // The like is written while the post is being loaded, so the load already sees 6 likes
+        when(postDAO.getPostsByIds(Collections.singletonList(1)))
+                .thenAnswer(invocation -> {
+                    postCache.onCountersChanging(1);
+                    return Collections.singletonList(post(1, 6));
+                })
+                .thenReturn(Collections.singletonList(post(1, 6)));
+
+        assertEquals(6, postCache.getPost(1).getLikeCount());
+        // Still not reported, so this load is not cached either
+        assertEquals(6, postCache.getPost(1).getLikeCount());
+        postCache.onCountersChanged(1, 1, 0, 0);
+
+        assertEquals(6, postCache.getPost(1).getLikeCount());
+        assertEquals(6, postCache.getPost(1).getLikeCount());
+        verify(postDAO, times(3)).getPostsByIds(anyList());
+    }
+
+    @Test
+    void testUpdateInvalidatesCachedPost() throws SQLException {
+        when(postDAO.getPostsByIds(Collections.singletonList(1)))
+                .thenReturn(Collections.singletonList(post(1, 5)))
+                .thenReturn(Collections.singletonList(post(1, 9)));
+
+        postCache.getPost(1).setLikeCount(100);
+        assertEquals(5, postCache.getPost(1).getLikeCount());
+
+        postCache.onPostUpdated(post(1, 5));
+
+        assertEquals(9, postCache.getPost(1).getLikeCount());
+        verify(postDAO, times(2)).getPostsByIds(anyList());
+    }
+
+    private static Post post(int postId, int likeCount) {
+        Post post = new Post(7, "Post " + postId, Post.PostType.TEXT, Post.Visibility.PUBLIC);
+        post.setPostId(postId);
+        post.setLikeCount(likeCount);
+        return post;
+    }
+}
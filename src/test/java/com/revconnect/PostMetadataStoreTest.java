@@ -0,0 +1,106 @@
+package com.revconnect.feed;
+
+import com.revconnect.dao.PostDAO;
+import com.revconnect.models.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PostMetadataStoreTest {
+
+    private PostMetadataStore store;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        store = new PostMetadataStore(new PostDAO(), 1);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void testCounterEventsReorderEngagementRanking() {
+        store.onPostCreated(post(1, Post.PostType.TEXT, null, now.minusHours(3)));
+        store.onPostCreated(post(2, Post.PostType.TEXT, null, now.minusHours(2)));
+        store.onPostCreated(post(3, Post.PostType.TEXT, null, now.minusHours(1)));
+
+        store.onCountersChanged(1, 3, 0, 0);
+        store.onCountersChanged(2, 0, 2, 0);
+
+        // Post 2 has 4 points to post 1's 3; post 3 has none
+        assertArrayEquals(new int[] {2, 1, 3}, store.getTopByEngagement(0, 10));
+        assertArrayEquals(new int[] {2, 1}, store.getTopByEngagement(0, 2));
+    }
+
+    @Test
+    void testNewestMediaSkipsTextAndHiddenPosts() {
+        store.onPostCreated(post(5, Post.PostType.IMAGE, "a.png", now.minusHours(5)));
+        store.onPostCreated(post(7, Post.PostType.TEXT, null, now.minusHours(1)));
+        // Arrives out of ID order and is kept in order
+        store.onPostCreated(post(6, Post.PostType.VIDEO, "b.mp4", now.minusHours(2)));
+        store.onPostCreated(post(8, Post.PostType.IMAGE, "c.png", now));
+
+        Post hidden = post(8, Post.PostType.IMAGE, "c.png", now);
+        hidden.setVisibility(Post.Visibility.PRIVATE);
+        store.onPostUpdated(hidden);
+
+        assertArrayEquals(new int[] {6, 5}, store.getNewestMedia(10));
+    }
+
+    @Test
+    void testTrimDropsDeletedAndExpiredPosts() {
+        store.onPostCreated(post(1, Post.PostType.TEXT, null, now.minusDays(45)));
+        store.onPostCreated(post(2, Post.PostType.TEXT, null, now));
+        store.onPostCreated(post(3, Post.PostType.TEXT, null, now));
+        store.onPostDeleted(3);
+
+        store.trim();
+
+        List<Integer> visited = new ArrayList<>();
+        store.forEachPublicSince(0, (postId, userId, createdAt, likes, comments, shares) -> visited.add(postId));
+        assertEquals(1, store.size());
+        assertEquals(2, visited.get(0).intValue());
+    }
+
+    @Test
+    void testChangesDuringLoadAreAppliedToLoadedRows() throws SQLException {
+        PostDAO postDAO = mock(PostDAO.class);
+        PostMetadataStore loading = new PostMetadataStore(postDAO, 1);
+        long createdAt = System.currentTimeMillis();
+        when(postDAO.getPostIdRangeSince(any())).thenReturn(new int[] {1, 3});
+        doAnswer(invocation -> {
+            PostDAO.MetadataVisitor visitor = invocation.getArgument(3);
+            for (int postId = 1; postId <= 3; postId++) {
+                visitor.visit(postId, 7, createdAt, Post.Visibility.PUBLIC, Post.PostType.TEXT, false, 1, 0, 0);
+            }
+            // Events for rows already streamed, before they are merged into the store
+            loading.onPostDeleted(2);
+            loading.onCountersChanging(3);
+            loading.onCountersChanged(3, 5, 0, 0);
+            // A write started before the load is already in the loaded row
+            loading.onCountersChanged(1, 1, 0, 0);
+            return null;
+        }).when(postDAO).streamPostMetadata(any(), eq(1), eq(3), any());
+
+        loading.loadFromDatabase();
+
+        // Post 3 has 6 likes to post 1's 1; post 2 stays deleted
+        assertTrue(loading.isReady());
+        assertArrayEquals(new int[] {3, 1}, loading.getTopByEngagement(0, 10));
+    }
+
+    private static Post post(int postId, Post.PostType postType, String mediaUrl, LocalDateTime createdAt) {
+        Post post = new Post(7, "Post " + postId, postType, Post.Visibility.PUBLIC);
+        post.setPostId(postId);
+        post.setMediaUrl(mediaUrl);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+}
@@ -0,0 +1,96 @@
+package com.revconnect.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revconnect.models.Post;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostSearchIndexTest {
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex();
+        index.onPostCreated(post(1, "Learning Java streams today", Post.Visibility.PUBLIC));
+        index.onPostCreated(post(2, "Spring Boot makes Java services easy", Post.Visibility.PUBLIC));
+        index.onPostCreated(post(3, "Boot camp for Spring Java developers", Post.Visibility.PUBLIC));
+        index.onPostCreated(post(4, "Private notes about Java", Post.Visibility.PRIVATE));
+    }
+
+    @Test
+    void testSearchRequiresAllTerms() {
+        List<Integer> results = index.search("java spring", 10);
+
+        assertEquals(2, results.size());
+        assertTrue(results.containsAll(Arrays.asList(2, 3)));
+    }
+
+    @Test
+    void testPhraseQueryMatchesAdjacentTerms() {
+        assertEquals(Collections.singletonList(2), index.search("\"spring boot\"", 10));
+    }
+
+    @Test
+    void testPrivatePostsAreNotIndexed() {
+        assertFalse(index.search("private", 10).contains(4));
+        assertEquals(3, index.getDocumentCount());
+    }
+
+    @Test
+    void testUpdateAndDeleteKeepIndexCurrent() {
+        index.onPostUpdated(post(1, "Learning Kotlin coroutines", Post.Visibility.PUBLIC));
+        index.onPostDeleted(2);
+
+        assertEquals(Collections.singletonList(1), index.search("kotlin", 10));
+        assertEquals(Collections.singletonList(3), index.search("java", 10));
+    }
+
+    @Test
+    void testOutOfOrderEditsStayCurrentAcrossCompaction() {
+        for (int id = 10; id < 110; id++) {
+            index.onPostCreated(post(id, "Daily Java digest " + id, Post.Visibility.PUBLIC));
+        }
+        // Editing older posts re-adds ids below the newest one in every shared list
+        for (int id = 10; id < 110; id += 2) {
+            index.onPostUpdated(post(id, "Daily Kotlin digest", Post.Visibility.PUBLIC));
+        }
+        for (int id = 11; id < 110; id += 4) {
+            index.onPostDeleted(id);
+        }
+        index.onPostUpdated(post(2, "Spring Boot makes Kotlin services easy", Post.Visibility.PUBLIC));
+
+        List<Integer> kotlin = index.search("daily kotlin", 200);
+        List<Integer> java = index.search("daily java", 200);
+        assertEquals(50, kotlin.size());
+        assertEquals(25, java.size());
+        assertTrue(kotlin.contains(10) && !kotlin.contains(11));
+        assertTrue(java.contains(13) && !java.contains(11) && !java.contains(12));
+        assertEquals(Collections.singletonList(2), index.search("\"kotlin services\"", 10));
+        assertEquals(Collections.singletonList(3), index.search("spring java", 10));
+    }
+
+    @Test
+    void testRecentPostRanksHigherOnEqualMatch() {
+        index.onPostCreated(post(5, "Weekly Java tips", Post.Visibility.PUBLIC));
+        Post old = post(6, "Weekly Java tips", Post.Visibility.PUBLIC);
+        old.setCreatedAt(LocalDateTime.now().minusDays(30));
+        index.onPostCreated(old);
+
+        assertEquals(Arrays.asList(5, 6), index.search("weekly tips", 10));
+    }
+
+    private Post post(int postId, String content, Post.Visibility visibility) {
+        Post post = new Post(1, content, Post.PostType.TEXT, visibility);
+        post.setPostId(postId);
+        post.setCreatedAt(LocalDateTime.now());
+        return post;
+    }
+}
@@ -0,0 +1,133 @@
+package com.revconnect.dao;
+
+import com.revconnect.config.DatabaseConfig;
+import com.revconnect.models.BusinessUser;
+import com.revconnect.models.CreatorUser;
+import com.revconnect.models.PersonalUser;
+import com.revconnect.models.Post;
+import com.revconnect.models.User;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+// Compares mapping rows by column name (the mappers the DAOs used before RowMapper) with the
+// compiled column-index mappers, on posts and users rows from a running MySQL. Only the mapping
+// loop is timed; the driver buffers the whole result set before it is read.
+// Run: mvn test-compile exec:java -Dexec.mainClass=com.revconnect.dao.RowMapperBenchmark
+//          -Dexec.classpathScope=test -Dexec.args="100000"
+public class RowMapperBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 15;
+
+    private interface Mapping {
+        int map(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        DatabaseConfig.initializeDatabase();
+
+        String posts = "SELECT * FROM posts ORDER BY post_id LIMIT " + rows;
+        run("posts by name", posts, rs -> {
+            int mapped = 0;
+            while (rs.next()) {
+                mapPostByName(rs);
+                mapped++;
+            }
+            return mapped;
+        });
+        run("posts by index", posts, rs -> PostDAO.POSTS.mapAll(rs).size());
+
+        String users = "SELECT * FROM users ORDER BY user_id LIMIT " + rows;
+        run("users by name", users, rs -> {
+            int mapped = 0;
+            while (rs.next()) {
+                mapUserByName(rs);
+                mapped++;
+            }
+            return mapped;
+        });
+        run("users by index", users, rs -> UserDAO.USERS.mapAll(rs).size());
+    }
+
+    private static void run(String name, String sql, Mapping mapping) throws SQLException {
+        long[] micros = new long[MEASURED_ROUNDS];
+        int mapped = 0;
+        for (int i = 0; i < WARMUP_ROUNDS + MEASURED_ROUNDS; i++) {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql);
+                 ResultSet rs = pstmt.executeQuery()) {
+                long start = System.nanoTime();
+                mapped = mapping.map(rs);
+                if (i >= WARMUP_ROUNDS) {
+                    micros[i - WARMUP_ROUNDS] = (System.nanoTime() - start) / 1000;
+                }
+            }
+        }
+        Arrays.sort(micros);
+        long median = micros[MEASURED_ROUNDS / 2];
+        System.out.printf("%-16s rows=%-7d median=%8d us  max=%8d us  per row=%6.0f ns%n", name, mapped,
+                median, micros[MEASURED_ROUNDS - 1], mapped > 0 ? median * 1000.0 / mapped : 0);
+    }
+
+    private static Post mapPostByName(ResultSet rs) throws SQLException {
+        Post post = new Post();
+
+        post.setPostId(rs.getInt("post_id"));
+        post.setUserId(rs.getInt("user_id"));
+        post.setContent(rs.getString("content"));
+        post.setMediaUrl(rs.getString("media_url"));
+        post.setPostType(Post.PostType.valueOf(rs.getString("post_type")));
+        post.setLikeCount(rs.getInt("like_count"));
+        post.setCommentCount(rs.getInt("comment_count"));
+        post.setShareCount(rs.getInt("share_count"));
+        post.setVisibility(Post.Visibility.valueOf(rs.getString("visibility")));
+        post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+
+        return post;
+    }
+
+    private static User mapUserByName(ResultSet rs) throws SQLException {
+        User.UserType userType = User.UserType.valueOf(rs.getString("user_type"));
+        User user;
+
+        switch (userType) {
+            case BUSINESS:
+                BusinessUser businessUser = new BusinessUser();
+                businessUser.setBusinessName(rs.getString("business_name"));
+                businessUser.setBusinessType(rs.getString("business_type"));
+                user = businessUser;
+                break;
+            case CREATOR:
+                CreatorUser creatorUser = new CreatorUser();
+                creatorUser.setCreatorCategory(rs.getString("creator_category"));
+                user = creatorUser;
+                break;
+            default:
+                user = new PersonalUser();
+                break;
+        }
+
+        user.setUserId(rs.getInt("user_id"));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setPasswordHash(rs.getString("password_hash"));
+        user.setFirstName(rs.getString("first_name"));
+        user.setLastName(rs.getString("last_name"));
+        user.setUserType(userType);
+        user.setBio(rs.getString("bio"));
+        user.setProfilePictureUrl(rs.getString("profile_picture_url"));
+        user.setWebsiteUrl(rs.getString("website_url"));
+        user.setFollowersCount(rs.getInt("followers_count"));
+        user.setFollowingCount(rs.getInt("following_count"));
+        user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        user.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        user.setActive(rs.getBoolean("is_active"));
+
+        return user;
+    }
+}
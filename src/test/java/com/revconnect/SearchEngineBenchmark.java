@@ -0,0 +1,129 @@
+package com.revconnect.search;
+
+import com.revconnect.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+// Compares LIKE, FULLTEXT and in-memory post search against a running MySQL.
+// Seeds synthetic public posts up to the requested corpus size (default 1,000,000) first.
+// Run: mvn test-compile exec:java -Dexec.mainClass=com.revconnect.search.SearchEngineBenchmark
+//          -Dexec.classpathScope=test -Dexec.args="1000000"
+public class SearchEngineBenchmark {
+    private static final String[] VOCABULARY = {
+            "java", "spring", "boot", "hiring", "remote", "startup", "product", "launch", "design",
+            "marketing", "cloud", "kubernetes", "database", "mysql", "performance", "career", "interview",
+            "team", "growth", "sales", "python", "data", "analytics", "security", "network", "event",
+            "conference", "webinar", "tips", "weekly", "update", "release", "feedback", "customer",
+            "mentor", "learning", "open", "source", "community", "leadership"
+    };
+    private static final String[] QUERIES = {
+            "java", "spring boot", "\"spring boot\"", "remote hiring", "kubernetes performance tips",
+            "leadership", "mysql database performance", "weekly update"
+    };
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int LIMIT = 50;
+
+    public static void main(String[] args) throws Exception {
+        int corpusSize = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // Makes the migrations build the FULLTEXT indexes
+        System.setProperty("search.engine", "fulltext");
+        DatabaseConfig.initializeDatabase();
+        seedPosts(corpusSize);
+
+        long started = System.currentTimeMillis();
+        PostSearchIndex.getInstance().rebuildFromDatabase();
+        System.out.println("In-memory index loaded in " + (System.currentTimeMillis() - started) + " ms");
+
+        run(SearchEngines.create("like"));
+        run(SearchEngines.create("fulltext"));
+        run(SearchEngines.create("memory"));
+    }
+
+    private static void run(SearchEngine engine) throws SQLException {
+        System.out.println("\n== " + engine.getName());
+        for (String query : QUERIES) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                engine.searchPosts(query, LIMIT);
+            }
+
+            long[] micros = new long[MEASURED_ROUNDS];
+            int results = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                results = engine.searchPosts(query, LIMIT).size();
+                micros[i] = (System.nanoTime() - start) / 1000;
+            }
+            Arrays.sort(micros);
+            System.out.printf("%-32s results=%-3d median=%8d us  max=%8d us%n",
+                    query, results, micros[MEASURED_ROUNDS / 2], micros[MEASURED_ROUNDS - 1]);
+        }
+    }
+
+    private static void seedPosts(int corpusSize) throws SQLException {
+        Connection conn = DatabaseConfig.getConnection();
+        int existing;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM posts WHERE visibility = 'PUBLIC'")) {
+            rs.next();
+            existing = rs.getInt(1);
+        }
+        if (existing >= corpusSize) {
+            return;
+        }
+
+        int userId = benchmarkUser(conn);
+        Random random = new Random(42);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO posts (user_id, content, visibility, created_at) " +
+                        "VALUES (?, ?, 'PUBLIC', NOW() - INTERVAL ? MINUTE)")) {
+            for (int i = existing; i < corpusSize; i++) {
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, randomContent(random));
+                pstmt.setInt(3, random.nextInt(60 * 24 * 365));
+                pstmt.addBatch();
+                if (i % 5000 == 4999) {
+                    pstmt.executeBatch();
+                    conn.commit();
+                    System.out.println("Seeded " + (i + 1) + " posts");
+                }
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static int benchmarkUser(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT IGNORE INTO users " +
+                    "(username, email, password_hash, first_name, last_name, user_type) " +
+                    "VALUES ('benchmark', 'benchmark@gmail.com', 'x', 'Bench', 'Mark', 'PERSONAL')");
+            try (ResultSet rs = stmt.executeQuery("SELECT user_id FROM users WHERE username = 'benchmark'")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // Skewed word choice so some terms are common and others rare, as in real posts
+    private static String randomContent(Random random) {
+        int words = 8 + random.nextInt(30);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            double skewed = Math.pow(random.nextDouble(), 2);
+            content.append(i == 0 ? "" : " ").append(VOCABULARY[(int) (skewed * VOCABULARY.length)]);
+        }
+        return content.toString();
+    }
+}
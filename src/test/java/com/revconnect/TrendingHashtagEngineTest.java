@@ -0,0 +1,72 @@
+package com.revconnect.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revconnect.models.TrendingHashtag;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingHashtagEngineTest {
+
+    private static final long BUCKET_MILLIS = 15 * 60 * 1000L;
+
+    private TrendingHashtagEngine engine;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TrendingHashtagEngine();
+        // Start the bucket ring at the current time
+        engine.refresh();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void testSpikeTrendsButSteadyAndRareTagsDoNot() {
+        // steady: 4 uses in every 15-minute bucket of the last 25 hours
+        for (int bucket = 0; bucket < 100; bucket++) {
+            engine.record("steady", now - bucket * BUCKET_MILLIS, 4);
+        }
+        engine.record("java", now, 10);
+        engine.record("rare", now, 2);
+
+        engine.refresh();
+        List<TrendingHashtag> trending = engine.getTrending(10);
+
+        assertEquals(1, trending.size());
+        assertEquals("java", trending.get(0).getHashtag());
+        assertEquals(10, trending.get(0).getRecentCount());
+    }
+
+    @Test
+    void testUsesMoveFromRecentToBaselineAndThenExpire() {
+        // Two hours ago is in the baseline; 30 hours ago is past the window and ignored
+        engine.record("java", now - 8 * BUCKET_MILLIS, 24);
+        engine.record("java", now - 120 * BUCKET_MILLIS, 1000);
+        engine.record("java", now, 5);
+
+        engine.refresh();
+        List<TrendingHashtag> trending = engine.getTrending(10);
+
+        assertEquals(1, trending.size());
+        assertEquals(5, trending.get(0).getRecentCount());
+        // Baseline is scaled to the one-hour window: 24 uses over 24 hours -> 1 expected
+        assertEquals(1.0, trending.get(0).getBaselineCount(), 1e-9);
+    }
+
+    @Test
+    void testSnapshotOnlyChangesOnRefreshAndRespectsLimit() {
+        engine.record("java", now, 5);
+        engine.record("kotlin", now, 20);
+        assertTrue(engine.getTrending(10).isEmpty());
+
+        engine.refresh();
+        assertEquals(2, engine.getTrending(10).size());
+        List<TrendingHashtag> top = engine.getTrending(1);
+        assertEquals(1, top.size());
+        assertEquals("kotlin", top.get(0).getHashtag());
+    }
+}
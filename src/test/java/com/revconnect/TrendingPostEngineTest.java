@@ -0,0 +1,67 @@
+package com.revconnect.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingPostEngineTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private TrendingPostEngine engine;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TrendingPostEngine();
+        now = System.currentTimeMillis();
+        engine.track(1, 1, now);
+        engine.track(2, 1, now);
+        engine.track(3, 1, now);
+    }
+
+    @Test
+    void testEngagementReordersTopList() {
+        engine.recordEngagement(2, TrendingPostEngine.SHARE_WEIGHT, now);
+        engine.recordEngagement(3, TrendingPostEngine.LIKE_WEIGHT, now);
+
+        assertEquals(Arrays.asList(2, 3, 1), engine.getTrending(0, 10));
+        assertEquals(Collections.singletonList(3), engine.getTrending(1, 1));
+    }
+
+    @Test
+    void testOlderEngagementCountsForLess() {
+        // Same weight, but post 1's likes are two half-lives older
+        engine.recordEngagement(1, 10, now - 12 * HOUR);
+        engine.recordEngagement(2, 10, now);
+
+        assertEquals(2, (int) engine.getTrending(0, 1).get(0));
+        assertEquals(11, engine.getScore(2, now), 1e-6);
+        assertEquals(1 + 10 / 4.0, engine.getScore(1, now), 1e-6);
+    }
+
+    @Test
+    void testUntrackedPostsAreIgnored() {
+        engine.recordEngagement(99, 50, now);
+
+        assertFalse(engine.getTrending(0, 10).contains(99));
+        assertEquals(3, engine.getTrackedCount());
+    }
+
+    @Test
+    void testMaintenanceDropsCooledPostsAndKeepsScores() {
+        engine.recordEngagement(1, 20, now);
+        engine.onPostDeleted(3);
+
+        // Five half-lives later post 1 has decayed to 21/32; post 2 (1/32) falls below the cut-off
+        engine.maintain(now + 30 * HOUR);
+
+        assertEquals(Collections.singletonList(1), engine.getTrending(0, 10));
+        assertEquals(21 / 32.0, engine.getScore(1, now + 30 * HOUR), 1e-6);
+        assertEquals(1, engine.getTrackedCount());
+    }
+}
@@ -0,0 +1,75 @@
+package com.revconnect.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revconnect.models.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserPrefixIndexTest {
+
+    private UserPrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserPrefixIndex();
+        index.addOrUpdate(user(1, "alice_dev", "Alice", "Smith", 10));
+        index.addOrUpdate(user(2, "ajones", "Alicia", "Jones", 50));
+        index.addOrUpdate(user(3, "bobby", "Bob", "Alison", 5));
+        index.addOrUpdate(user(4, "carol", "Carol", "King", 100));
+    }
+
+    @Test
+    void testPrefixMatchesAnyWordRankedByFollowers() {
+        assertEquals(Arrays.asList(2, 1, 3), index.search("ali", 0, 10));
+        assertEquals(Collections.singletonList(1), index.search("ali smi", 0, 10));
+        assertEquals(Collections.singletonList(1), index.search("DEV", 0, 10));
+        assertTrue(index.search("zed", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testRenameAndRemoveUpdateTheIndex() {
+        // An edit carries a stale follower count; the indexed count is kept
+        index.addOrUpdate(user(1, "alice_dev", "Dana", "Smith", 0));
+        index.updateFollowerCount(1, 100);
+        index.remove(2);
+
+        assertEquals(Collections.singletonList(1), index.search("dana", 0, 10));
+        assertEquals(Arrays.asList(1, 3), index.search("ali", 0, 10));
+        assertTrue(index.search("alicia", 0, 10).isEmpty());
+        assertTrue(index.search("jones", 0, 10).isEmpty());
+
+        // Ties on followers go to the lower id
+        index.addOrUpdate(user(5, "kingfan", "Fan", "Club", 100));
+        assertEquals(Arrays.asList(4, 5), index.search("king", 0, 10));
+    }
+
+    @Test
+    void testResultsAreCappedPerPageAndOverall() {
+        for (int id = 100; id < 400; id++) {
+            index.addOrUpdate(user(id, "member" + id, "Member", "Number" + id, id));
+        }
+
+        List<Integer> firstPage = index.search("member", 0, 1000);
+        assertEquals(UserPrefixIndex.MAX_PAGE_SIZE, firstPage.size());
+        assertEquals(Integer.valueOf(399), firstPage.get(0));
+
+        List<Integer> lastPage = index.search("member", UserPrefixIndex.MAX_RESULTS - 10, 50);
+        assertEquals(10, lastPage.size());
+        assertEquals(Integer.valueOf(399 - UserPrefixIndex.MAX_RESULTS + 1), lastPage.get(9));
+        assertTrue(index.search("member", UserPrefixIndex.MAX_RESULTS, 10).isEmpty());
+    }
+
+    private User user(int userId, String username, String firstName, String lastName, int followers) {
+        User user = new User(username, username + "@example.com", "hash", firstName, lastName,
+                User.UserType.PERSONAL);
+        user.setUserId(userId);
+        user.setFollowersCount(followers);
+        return user;
+    }
+}